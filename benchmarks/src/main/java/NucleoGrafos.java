@@ -0,0 +1,97 @@
+import java.util.LinkedList;
+
+import grafos.benchmarks.Nucleo;
+
+/**
+ * Implementação de {@link Nucleo} no pacote padrão, onde estão as classes do
+ * grafo. Os benchmarks usam grafos não direcionados.
+ */
+public class NucleoGrafos implements Nucleo {
+
+    @Override
+    public Object criar(boolean primitivo) {
+        return new GrafoNãoDirecionado("Benchmark", primitivo);
+    }
+
+    @Override
+    public boolean addVertice(Object grafo, int id) {
+        return ((GrafoMutável) grafo).addVertice(id);
+    }
+
+    @Override
+    public boolean addAresta(Object grafo, int origem, int destino, int peso) {
+        return ((GrafoMutável) grafo).addAresta(origem, destino, peso);
+    }
+
+    @Override
+    public int addArestas(Object grafo, int[] origens, int[] destinos, int[] pesos) {
+        return ((GrafoMutável) grafo).addArestas(origens, destinos, pesos);
+    }
+
+    @Override
+    public boolean existeAresta(Object grafo, int origem, int destino) {
+        return ((GrafoMutável) grafo).existeAresta(origem, destino) != null;
+    }
+
+    @Override
+    public int tamanho(Object grafo) {
+        return ((GrafoMutável) grafo).tamanho();
+    }
+
+    @Override
+    public boolean completo(Object grafo) {
+        return ((GrafoMutável) grafo).completo();
+    }
+
+    @Override
+    public long emLargura(Object grafo, int origem) {
+        long[] soma = new long[1];
+        ((GrafoMutável) grafo).percorrerEmLargura(origem, true, (id, pai, nivel) -> {
+            soma[0] += nivel;
+            return true;
+        });
+        return soma[0];
+    }
+
+    @Override
+    public long emProfundidade(Object grafo, int origem) {
+        long[] soma = new long[1];
+        ((GrafoMutável) grafo).percorrerEmProfundidade(origem, true, (id, pai, nivel) -> {
+            soma[0] += nivel;
+            return true;
+        });
+        return soma[0];
+    }
+
+    @Override
+    public Object listaVertices(int[] ids) {
+        LinkedList<Integer> lista = new LinkedList<Integer>();
+        for (int id : ids)
+            lista.add(id);
+        return lista;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object subGrafo(Object grafo, Object lista) {
+        return ((GrafoMutável) grafo).subGrafo((LinkedList<Integer>) lista);
+    }
+
+    @Override
+    public String descrever(Object grafo) {
+        return grafo.toString();
+    }
+
+    @Override
+    public void salvar(Object grafo, String arquivo) {
+        ((GrafoMutável) grafo).salvar(arquivo);
+    }
+
+    @Override
+    public Object carregar(String arquivo, boolean primitivo) {
+        GrafoMutável grafo = new GrafoNãoDirecionado("Benchmark", primitivo);
+        grafo.carregar(arquivo);
+        return grafo;
+    }
+
+}
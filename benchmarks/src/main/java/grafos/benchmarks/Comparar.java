@@ -0,0 +1,100 @@
+package grafos.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compara dois arquivos de resultados em CSV gravados por {@link Executar},
+ * linha a linha: para cada benchmark, combinação de parâmetros e métrica
+ * (tempo e as métricas de alocação), mostra o valor antes, o valor depois e a
+ * variação. Variações maiores que o limite (10% por padrão) são marcadas.
+ *
+ * Uso: java -cp benchmarks.jar grafos.benchmarks.Comparar antes.csv depois.csv [limite%]
+ */
+public class Comparar {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println(" Uso: Comparar antes.csv depois.csv [limite%]");
+            return;
+        }
+        double limite = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+        Map<String, Double> antes = ler(args[0]);
+        Map<String, Double> depois = ler(args[1]);
+        for (Map.Entry<String, Double> linha : depois.entrySet()) {
+            Double anterior = antes.get(linha.getKey());
+            if (anterior == null) {
+                System.out.println(String.format(Locale.ROOT, "   %-90s %14s %14.3f", linha.getKey(), "-",
+                        linha.getValue()));
+                continue;
+            }
+            double variacao = anterior == 0 ? 0 : 100 * (linha.getValue() - anterior) / anterior;
+            System.out.println(String.format(Locale.ROOT, " %s %-90s %14.3f %14.3f %+8.1f%%",
+                    Math.abs(variacao) > limite ? "*" : " ", linha.getKey(), anterior, linha.getValue(), variacao));
+        }
+    }
+
+    /**
+     * Lê um CSV do JMH, indexando o resultado pelo nome do benchmark (com a
+     * métrica secundária, se houver) e pelos parâmetros
+     *
+     * @param arquivo Caminho do arquivo
+     * @return Valor de cada linha, na ordem do arquivo
+     * @throws IOException Se o arquivo não puder ser lido
+     */
+    private static Map<String, Double> ler(String arquivo) throws IOException {
+        List<String> linhas = Files.readAllLines(Paths.get(arquivo), StandardCharsets.UTF_8);
+        Map<String, Double> valores = new LinkedHashMap<String, Double>();
+        if (linhas.isEmpty())
+            return valores;
+        List<String> cabecalho = campos(linhas.get(0));
+        int score = cabecalho.indexOf("Score");
+        for (String texto : linhas.subList(1, linhas.size())) {
+            List<String> linha = campos(texto);
+            if (linha.size() < cabecalho.size())
+                continue;
+            StringBuilder chave = new StringBuilder(linha.get(0).replace("grafos.benchmarks.", ""));
+            for (int i = 0; i < cabecalho.size(); i++)
+                if (cabecalho.get(i).startsWith("Param: "))
+                    chave.append(' ').append(cabecalho.get(i).substring(7)).append('=').append(linha.get(i));
+            try {
+                valores.put(chave.toString(), Double.parseDouble(linha.get(score)));
+            } catch (NumberFormatException e) {
+                // métricas sem valor (NaN) ficam de fora
+            }
+        }
+        return valores;
+    }
+
+    /**
+     * Separa os campos de uma linha de CSV, tirando as aspas
+     *
+     * @param linha Linha do arquivo
+     * @return Os campos
+     */
+    private static List<String> campos(String linha) {
+        List<String> campos = new ArrayList<String>();
+        StringBuilder campo = new StringBuilder();
+        boolean aspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (c == '"')
+                aspas = !aspas;
+            else if (c == ',' && !aspas) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else
+                campo.append(c);
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+}
@@ -0,0 +1,71 @@
+package grafos.benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Consultas pontuais: existência de arestas, metade delas presentes no grafo,
+ * e os contadores tamanho e completo
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ConsultaBenchmark {
+
+    /**
+     * Número de pares consultados, potência de dois
+     */
+    private static final int PARES = 1 << 12;
+
+    private int[] origens, destinos;
+
+    private int proximo;
+
+    @Setup(Level.Trial)
+    public void preparar(Entrada entrada) {
+        SplittableRandom aleatorio = new SplittableRandom(Entrada.SEMENTE + 1);
+        this.origens = new int[PARES];
+        this.destinos = new int[PARES];
+        for (int i = 0; i < PARES; i++)
+            if (i % 2 == 0) {
+                int aresta = aleatorio.nextInt(entrada.origens.length);
+                this.origens[i] = entrada.origens[aresta];
+                this.destinos[i] = entrada.destinos[aresta];
+            } else {
+                this.origens[i] = aleatorio.nextInt(entrada.vertices);
+                this.destinos[i] = aleatorio.nextInt(entrada.vertices);
+            }
+    }
+
+    @Benchmark
+    public boolean existeAresta(Entrada entrada) {
+        int i = this.proximo++ & (PARES - 1);
+        return entrada.nucleo.existeAresta(entrada.grafo, this.origens[i], this.destinos[i]);
+    }
+
+    @Benchmark
+    public int tamanho(Entrada entrada) {
+        return entrada.nucleo.tamanho(entrada.grafo);
+    }
+
+    @Benchmark
+    public boolean completo(Entrada entrada) {
+        return entrada.nucleo.completo(entrada.grafo);
+    }
+
+}
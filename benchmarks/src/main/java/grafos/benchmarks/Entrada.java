@@ -0,0 +1,78 @@
+package grafos.benchmarks;
+
+import java.util.SplittableRandom;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Grafo aleatório usado pelos benchmarks, com os parâmetros que variam entre
+ * as execuções: número de vértices, grau médio e tipo de mapa dos vértices.
+ * As arestas são sorteadas com semente fixa, então cada combinação de
+ * parâmetros gera sempre o mesmo grafo e os resultados de commits diferentes
+ * podem ser comparados.
+ */
+@State(Scope.Benchmark)
+public class Entrada {
+
+    @Param({ "1000", "100000" })
+    public int vertices;
+
+    @Param({ "4", "32" })
+    public int grauMedio;
+
+    @Param({ "true", "false" })
+    public boolean primitivo;
+
+    /**
+     * Semente do sorteio das arestas
+     */
+    static final long SEMENTE = 20240229L;
+
+    Nucleo nucleo;
+
+    /**
+     * Arestas sorteadas, com peso entre 1 e 100
+     */
+    int[] origens, destinos, pesos;
+
+    /**
+     * Grafo montado com as arestas sorteadas
+     */
+    Object grafo;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        this.nucleo = Nucleo.carregar();
+        int arestas = (int) ((long) this.vertices * this.grauMedio / 2);
+        SplittableRandom aleatorio = new SplittableRandom(SEMENTE);
+        this.origens = new int[arestas];
+        this.destinos = new int[arestas];
+        this.pesos = new int[arestas];
+        for (int i = 0; i < arestas; i++) {
+            this.origens[i] = aleatorio.nextInt(this.vertices);
+            this.destinos[i] = aleatorio.nextInt(this.vertices);
+            this.pesos[i] = 1 + aleatorio.nextInt(100);
+        }
+        this.grafo = this.montar();
+    }
+
+    /**
+     * Monta um grafo novo com todos os vértices e as arestas sorteadas, uma
+     * inserção por vez
+     *
+     * @return O grafo
+     */
+    Object montar() {
+        Object grafo = this.nucleo.criar(this.primitivo);
+        for (int id = 0; id < this.vertices; id++)
+            this.nucleo.addVertice(grafo, id);
+        for (int i = 0; i < this.origens.length; i++)
+            this.nucleo.addAresta(grafo, this.origens[i], this.destinos[i], this.pesos[i]);
+        return grafo;
+    }
+
+}
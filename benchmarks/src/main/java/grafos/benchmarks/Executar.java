@@ -0,0 +1,65 @@
+package grafos.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Executa os benchmarks aceitando as mesmas opções de linha de comando do JMH
+ * (filtro por nome, -p para fixar parâmetros, -f, -wi, -i...). Quando não são
+ * informadas, liga o perfil de alocação (-prof gc) e grava os resultados em
+ * CSV em resultados/&lt;commit&gt;.csv, para serem comparados com
+ * {@link Comparar}. O rótulo do arquivo pode ser trocado com -Drotulo=nome.
+ */
+public class Executar {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions linha = new CommandLineOptions(args);
+        ChainedOptionsBuilder opcoes = new OptionsBuilder().parent(linha);
+        if (linha.getProfilers().isEmpty())
+            opcoes.addProfiler(GCProfiler.class);
+        if (!linha.getResultFormat().hasValue())
+            opcoes.resultFormat(ResultFormatType.CSV);
+        if (!linha.getResult().hasValue()) {
+            new File("resultados").mkdirs();
+            opcoes.result("resultados/" + rotulo() + ".csv");
+        }
+        new Runner(opcoes.build()).run();
+    }
+
+    /**
+     * Rótulo do arquivo de resultados: a propriedade rotulo, o commit atual do
+     * git ou, sem git, "atual"
+     *
+     * @return O rótulo
+     */
+    private static String rotulo() {
+        String rotulo = System.getProperty("rotulo");
+        if (rotulo != null)
+            return rotulo;
+        try {
+            Process git = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").start();
+            try (BufferedReader saida = new BufferedReader(new InputStreamReader(git.getInputStream()))) {
+                String commit = saida.readLine();
+                if (git.waitFor() == 0 && commit != null)
+                    return commit.trim();
+            }
+        } catch (IOException e) {
+            // sem git, usa o rótulo padrão
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "atual";
+    }
+
+}
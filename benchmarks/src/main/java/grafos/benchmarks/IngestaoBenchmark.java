@@ -0,0 +1,36 @@
+package grafos.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Montagem de um grafo inteiro a partir das arestas sorteadas, por
+ * addVertice/addAresta e pela inserção em lote
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IngestaoBenchmark {
+
+    @Benchmark
+    public Object addVerticeAddAresta(Entrada entrada) {
+        return entrada.montar();
+    }
+
+    @Benchmark
+    public Object addArestas(Entrada entrada) {
+        Object grafo = entrada.nucleo.criar(entrada.primitivo);
+        entrada.nucleo.addArestas(grafo, entrada.origens, entrada.destinos, entrada.pesos);
+        return grafo;
+    }
+
+}
@@ -0,0 +1,82 @@
+package grafos.benchmarks;
+
+/**
+ * Acesso dos benchmarks às classes do núcleo. O núcleo fica no pacote padrão,
+ * que não pode ser importado de um pacote com nome, e o JMH não aceita
+ * benchmarks no pacote padrão; então os benchmarks enxergam os grafos só como
+ * Object e chamam as operações por esta interface, implementada no pacote
+ * padrão por {@code NucleoGrafos}. A implementação é carregada uma vez, fora
+ * da medição, e as chamadas são monomórficas, então o JIT as elimina.
+ */
+public interface Nucleo {
+
+    /**
+     * Carrega a implementação que fica no pacote padrão
+     *
+     * @return A implementação
+     */
+    static Nucleo carregar() {
+        try {
+            return (Nucleo) Class.forName("NucleoGrafos").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Implementação do núcleo não encontrada", e);
+        }
+    }
+
+    /**
+     * Cria um grafo não direcionado vazio
+     *
+     * @param primitivo TRUE para guardar os vértices em mapas de chaves int
+     * @return O grafo
+     */
+    Object criar(boolean primitivo);
+
+    boolean addVertice(Object grafo, int id);
+
+    boolean addAresta(Object grafo, int origem, int destino, int peso);
+
+    /**
+     * Adiciona as arestas de uma vez, pelo caminho de inserção em lote
+     *
+     * @return Número de arestas adicionadas
+     */
+    int addArestas(Object grafo, int[] origens, int[] destinos, int[] pesos);
+
+    boolean existeAresta(Object grafo, int origem, int destino);
+
+    int tamanho(Object grafo);
+
+    boolean completo(Object grafo);
+
+    /**
+     * Percorre todos os componentes em largura a partir da origem
+     *
+     * @return Soma dos níveis dos vértices visitados, para que o percurso não
+     *         seja descartado pelo JIT
+     */
+    long emLargura(Object grafo, int origem);
+
+    /**
+     * Percorre todos os componentes em profundidade a partir da origem
+     *
+     * @return Soma dos níveis dos vértices visitados
+     */
+    long emProfundidade(Object grafo, int origem);
+
+    /**
+     * Monta a lista de vértices aceita por subGrafo
+     *
+     * @param ids Ids dos vértices
+     * @return A lista
+     */
+    Object listaVertices(int[] ids);
+
+    Object subGrafo(Object grafo, Object lista);
+
+    String descrever(Object grafo);
+
+    void salvar(Object grafo, String arquivo);
+
+    Object carregar(String arquivo, boolean primitivo);
+
+}
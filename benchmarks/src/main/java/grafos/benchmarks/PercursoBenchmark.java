@@ -0,0 +1,33 @@
+package grafos.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Percursos em largura e em profundidade por todos os componentes
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PercursoBenchmark {
+
+    @Benchmark
+    public long emLargura(Entrada entrada) {
+        return entrada.nucleo.emLargura(entrada.grafo, 0);
+    }
+
+    @Benchmark
+    public long emProfundidade(Entrada entrada) {
+        return entrada.nucleo.emProfundidade(entrada.grafo, 0);
+    }
+
+}
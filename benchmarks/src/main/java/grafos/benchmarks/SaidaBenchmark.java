@@ -0,0 +1,61 @@
+package grafos.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Descrição do grafo por toString e ida e volta pelo arquivo de texto de
+ * salvar/carregar, em um arquivo temporário
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SaidaBenchmark {
+
+    private Path arquivo;
+
+    @Setup(Level.Trial)
+    public void preparar(Entrada entrada) throws IOException {
+        this.arquivo = Files.createTempFile("grafo", ".txt");
+        entrada.nucleo.salvar(entrada.grafo, this.arquivo.toString());
+    }
+
+    @TearDown(Level.Trial)
+    public void limpar() throws IOException {
+        Files.deleteIfExists(this.arquivo);
+    }
+
+    @Benchmark
+    public String descrever(Entrada entrada) {
+        return entrada.nucleo.descrever(entrada.grafo);
+    }
+
+    @Benchmark
+    public void salvar(Entrada entrada) {
+        entrada.nucleo.salvar(entrada.grafo, this.arquivo.toString());
+    }
+
+    @Benchmark
+    public Object carregar(Entrada entrada) {
+        return entrada.nucleo.carregar(this.arquivo.toString(), entrada.primitivo);
+    }
+
+}
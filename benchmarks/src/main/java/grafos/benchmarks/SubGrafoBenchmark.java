@@ -0,0 +1,43 @@
+package grafos.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Subgrafo induzido pelos vértices de id par, metade do grafo
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SubGrafoBenchmark {
+
+    private Object lista;
+
+    @Setup(Level.Trial)
+    public void preparar(Entrada entrada) {
+        int[] ids = new int[(entrada.vertices + 1) / 2];
+        for (int i = 0; i < ids.length; i++)
+            ids[i] = 2 * i;
+        this.lista = entrada.nucleo.listaVertices(ids);
+    }
+
+    @Benchmark
+    public Object subGrafo(Entrada entrada) {
+        return entrada.nucleo.subGrafo(entrada.grafo, this.lista);
+    }
+
+}
@@ -1,3 +1,4 @@
+import java.io.IOException;
 import java.util.LinkedList;
 
 /**
@@ -28,6 +29,52 @@ public class App {
         }
     }
 
+    /**
+     * Imprime a busca em largura conforme os vértices são visitados, um nível
+     * por linha
+     * 
+     * @param grafo  Grafo a ser percorrido
+     * @param origem Vértice de origem
+     */
+    private static void imprimirBuscaEmLargura(Grafo grafo, int origem) {
+        int[] nivelAtual = { -1 };
+        grafo.percorrerEmLargura(origem, true, (id, pai, nivel) -> {
+            if (pai == -1 || nivel != nivelAtual[0]) {
+                if (nivelAtual[0] != -1)
+                    System.out.println(" ");
+                System.out.print(" ");
+                nivelAtual[0] = nivel;
+            }
+            System.out.print(id + " ");
+            return true;
+        });
+        if (nivelAtual[0] != -1)
+            System.out.println(" ");
+    }
+
+    /**
+     * Imprime a busca em profundidade conforme os vértices são visitados, um
+     * componente por linha
+     * 
+     * @param grafo  Grafo a ser percorrido
+     * @param origem Vértice de origem
+     */
+    private static void imprimirBuscaEmProfundidade(Grafo grafo, int origem) {
+        boolean[] imprimiu = { false };
+        grafo.percorrerEmProfundidade(origem, true, (id, pai, nivel) -> {
+            if (pai == -1) {
+                if (imprimiu[0])
+                    System.out.println();
+                System.out.print(" ");
+                imprimiu[0] = true;
+            }
+            System.out.print(id + " ");
+            return true;
+        });
+        if (imprimiu[0])
+            System.out.println();
+    }
+
     /**
      * Imprime o menu e retorna a opção escolhida
      * 
@@ -67,6 +114,22 @@ public class App {
         );
     }
 
+    /**
+     * Imprime o grafo no console, escrevendo as arestas aos poucos em vez de
+     * montar a String inteira
+     * 
+     * @param grafo Grafo a ser impresso
+     */
+    private static void imprimirGrafo(Grafo grafo) {
+        System.out.println();
+        try {
+            grafo.exportar(ExportadorGrafo.CHAVES, System.out);
+        } catch (IOException e) {
+            System.out.println("\n Erro ao imprimir o grafo.");
+        }
+        System.out.println();
+    }
+
     /**
      * Método principal
      * 
@@ -98,7 +161,7 @@ public class App {
                         System.out.println("\n Subgrafo: " + grafo.subGrafo(vertices));
                         break;
                     case 4:
-                        System.out.println("\n" + grafo.toString());
+                        imprimirGrafo(grafo);
                         break;
                     case 5:
                         grafo.salvar(nome + ".txt");
@@ -107,10 +170,10 @@ public class App {
                         System.out.println(grafo.completo() ? "\n É completo" : "\n Não é completo");
                         break;
                     case 7:
-                        grafo.buscaEmLargura(lerInt(" Digite o vértice de origem: "));
+                        imprimirBuscaEmLargura(grafo, lerInt(" Digite o vértice de origem: "));
                         break;
                     case 8:
-                        grafo.buscaEmProfundidade(lerInt(" Digite o vértice de origem: "));
+                        imprimirBuscaEmProfundidade(grafo, lerInt(" Digite o vértice de origem: "));
                         break;
                     case 9:
                         System.out.println("\n Tamanho: " + grafo.tamanho() + "\n Ordem: " + grafo.ordem()
@@ -132,8 +195,7 @@ public class App {
                         grafo.carregar(nome + ".txt");
                         break;
                     case 3:
-                        System.out.println(
-                                new GrafoCompleto(grafo.NOME, lerInt("\n Digite o número de vértices: ")));
+                        imprimirGrafo(new GrafoCompleto(grafo.NOME, lerInt("\n Digite o número de vértices: ")));
                         break;
                     case 4:
                         System.out.println("\n Escolha quais vértices deseja manter, digite -1 para parar");
@@ -147,7 +209,7 @@ public class App {
                         System.out.println("\n Subgrafo: " + grafo.subGrafo(vertices));
                         break;
                     case 5:
-                        System.out.println("\n" + grafo);
+                        imprimirGrafo(grafo);
                         break;
                     case 6:
                         grafo.salvar(grafo.NOME + ".txt");
@@ -156,10 +218,10 @@ public class App {
                         System.out.println(grafo.completo() ? "\n É completo" : "\n Não é completo");
                         break;
                     case 8:
-                        grafo.buscaEmLargura(lerInt(" Digite o vértice de origem: "));
+                        imprimirBuscaEmLargura(grafo, lerInt(" Digite o vértice de origem: "));
                         break;
                     case 9:
-                        grafo.buscaEmProfundidade(lerInt(" Digite o vértice de origem: "));
+                        imprimirBuscaEmProfundidade(grafo, lerInt(" Digite o vértice de origem: "));
                         break;
                     case 10:
                         System.out.println("\n Tamanho: " + grafo.tamanho() + "\n Ordem: " + grafo.ordem()
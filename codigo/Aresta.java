@@ -23,36 +23,31 @@
  */
 
 /**
- * Classe para arestas do grafo
+ * Classe para arestas do grafo. As arestas são imutáveis. Os vértices com
+ * mapas primitivos não guardam objetos Aresta: guardam só o destino e o peso,
+ * e a aresta é criada quando é lida.
  */
 public class Aresta {
 
-    /**
-     * Define se a aresta aponta ou não para seu vizinho
-     */
-    private boolean filho;
-
     /**
      * Define o peso e o destino da aresta
      */
-    private int peso;
+    private final int peso;
 
     /**
      * Define o vértice de destino da aresta
      */
-    private int destino;
+    private final int destino;
 
     /**
      * Construtor para arestas com peso. A aresta é criada como não-visitada.
      * 
      * @param peso    Peso da aresta
      * @param destino Vértice de destino
-     * @param filho   Indica se a aresta é filho ou não
      */
-    public Aresta(int peso, int destino, boolean filho) {
+    public Aresta(int peso, int destino) {
         this.peso = peso;
         this.destino = destino;
-        this.filho = filho;
     }
 
     /**
@@ -73,13 +68,4 @@ public class Aresta {
         return this.destino;
     }
 
-    /**
-     * Método de acesso para o destino da aresta
-     * 
-     * @return Id do vértice de destino
-     */
-    public boolean filho() {
-        return this.filho;
-    }
-
 }
@@ -0,0 +1,245 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Floresta geradora mínima de um grafo não direcionado congelado, por Kruskal
+ * (sequencial) ou por Borůvka (paralelo). Arestas com peso -1 (sem peso)
+ * valem 1. Empates são desfeitos pela posição da aresta no grafo congelado,
+ * então os dois algoritmos escolhem sempre a mesma floresta.
+ */
+public class ArvoreGeradora {
+
+    /**
+     * Calcula a floresta geradora mínima pelo algoritmo de Kruskal: as arestas
+     * são ordenadas uma única vez, como chaves long que juntam peso e posição,
+     * e aceitas na ordem se ligarem componentes diferentes
+     *
+     * @param grafo Grafo não direcionado
+     * @return As arestas da floresta
+     * @throws IllegalArgumentException Se o grafo for direcionado
+     */
+    public static LoteArestas kruskal(GrafoCongelado grafo) {
+        verificar(grafo);
+        int n = grafo.ordem();
+        int[] canonica = canonicas(grafo);
+        long[] chaves = new long[grafo.tamanho()];
+        int m = 0;
+        for (int u = 0; u < n; u++)
+            for (int i = grafo.inicio(u); i < grafo.fim(u); i++)
+                if (grafo.destino(i) > u)
+                    chaves[m++] = chave(grafo, i, canonica[i]);
+        Arrays.sort(chaves, 0, m);
+
+        UniaoBusca conjuntos = new UniaoBusca(n);
+        LoteArestas arvore = new LoteArestas(Math.max(n - 1, 1));
+        for (int k = 0; k < m && arvore.tamanho() < n - 1; k++) {
+            int posicao = (int) chaves[k];
+            int u = origem(grafo, posicao), w = grafo.destino(posicao);
+            if (conjuntos.unir(u, w))
+                arvore.add(grafo.id(u), grafo.id(w), grafo.peso(posicao));
+        }
+        return arvore;
+    }
+
+    /**
+     * Calcula a floresta geradora mínima pelo algoritmo de Borůvka. A cada
+     * rodada, todos os vértices procuram em paralelo a menor aresta que sai do
+     * seu componente, guardada por compare-and-set no componente, e depois os
+     * componentes são contraídos pelas arestas escolhidas na estrutura de
+     * união e busca sem travas. O número de componentes cai pelo menos à metade
+     * por rodada.
+     *
+     * @param grafo Grafo não direcionado
+     * @param pool  Pool usado nas rodadas
+     * @return As arestas da floresta
+     * @throws IllegalArgumentException Se o grafo for direcionado
+     */
+    public static LoteArestas boruvka(GrafoCongelado grafo, ForkJoinPool pool) {
+        verificar(grafo);
+        int n = grafo.ordem();
+        int[] canonica = canonicas(grafo);
+        UniaoBusca conjuntos = new UniaoBusca(n);
+        AtomicLongArray menor = new AtomicLongArray(n);
+        boolean[] escolhida = new boolean[canonica.length];
+        while (true) {
+            for (int c = 0; c < n; c++)
+                menor.set(c, Long.MAX_VALUE);
+            pool.invoke(new Rodada(grafo, conjuntos, canonica, menor, escolhida, false, 0, n));
+            boolean algum = false;
+            for (int c = 0; c < n && !algum; c++)
+                algum = menor.get(c) != Long.MAX_VALUE;
+            if (!algum)
+                break;
+            pool.invoke(new Rodada(grafo, conjuntos, canonica, menor, escolhida, true, 0, n));
+        }
+
+        LoteArestas arvore = new LoteArestas(Math.max(n - 1, 1));
+        for (int u = 0; u < n; u++)
+            for (int i = grafo.inicio(u); i < grafo.fim(u); i++)
+                if (escolhida[i])
+                    arvore.add(grafo.id(u), grafo.id(grafo.destino(i)), grafo.peso(i));
+        return arvore;
+    }
+
+    /**
+     * Recusa grafos direcionados
+     *
+     * @param grafo Grafo congelado
+     * @throws IllegalArgumentException Se o grafo for direcionado
+     */
+    private static void verificar(GrafoCongelado grafo) {
+        if (grafo.direcionado())
+            throw new IllegalArgumentException("A árvore geradora só é definida para grafos não direcionados");
+    }
+
+    /**
+     * Cada aresta não direcionada aparece nas listas dos dois extremos. Para
+     * cada posição, retorna a posição da mesma aresta na lista do menor
+     * extremo, que a identifica. Como as listas estão ordenadas, percorrer as
+     * origens em ordem crescente encontra as cópias de cada lista na ordem.
+     *
+     * @param grafo Grafo não direcionado
+     * @return Posição canônica de cada posição
+     */
+    private static int[] canonicas(GrafoCongelado grafo) {
+        int n = grafo.ordem();
+        int[] canonica = new int[n == 0 ? 0 : grafo.fim(n - 1)];
+        int[] proxima = new int[n];
+        for (int v = 0; v < n; v++)
+            proxima[v] = grafo.inicio(v);
+        for (int u = 0; u < n; u++)
+            for (int i = grafo.inicio(u); i < grafo.fim(u); i++) {
+                int w = grafo.destino(i);
+                if (w > u) {
+                    canonica[i] = i;
+                    canonica[proxima[w]++] = i;
+                } else if (w == u) {
+                    canonica[i] = i;
+                }
+            }
+        return canonica;
+    }
+
+    /**
+     * Junta o peso e a posição canônica da aresta em uma chave que ordena as
+     * arestas por peso, desempatando pela posição
+     *
+     * @param grafo    Grafo congelado
+     * @param posicao  Posição da aresta
+     * @param canonica Posição canônica da aresta
+     * @return A chave da aresta
+     */
+    private static long chave(GrafoCongelado grafo, int posicao, int canonica) {
+        int peso = grafo.peso(posicao) == -1 ? 1 : grafo.peso(posicao);
+        return ((long) peso << 32) | canonica;
+    }
+
+    /**
+     * Encontra o vértice em cuja lista está a posição, por busca binária nos
+     * inícios das listas
+     *
+     * @param grafo   Grafo congelado
+     * @param posicao Posição da aresta
+     * @return Índice do vértice de origem
+     */
+    private static int origem(GrafoCongelado grafo, int posicao) {
+        int baixo = 0, alto = grafo.ordem() - 1;
+        while (baixo < alto) {
+            int meio = (baixo + alto + 1) >>> 1;
+            if (grafo.inicio(meio) <= posicao)
+                baixo = meio;
+            else
+                alto = meio - 1;
+        }
+        return baixo;
+    }
+
+    /**
+     * Uma fase de uma rodada de Borůvka sobre uma faixa de vértices: a busca
+     * da menor aresta de saída de cada componente ou a contração pelas arestas
+     * encontradas
+     */
+    private static class Rodada extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Número de vértices processados por tarefa
+         */
+        private static final int GRAO = 4096;
+
+        private final GrafoCongelado grafo;
+        private final UniaoBusca conjuntos;
+        private final int[] canonica;
+        private final AtomicLongArray menor;
+        private final boolean[] escolhida;
+        private final boolean contrair;
+        private final int inicio, fim;
+
+        Rodada(GrafoCongelado grafo, UniaoBusca conjuntos, int[] canonica, AtomicLongArray menor,
+                boolean[] escolhida, boolean contrair, int inicio, int fim) {
+            this.grafo = grafo;
+            this.conjuntos = conjuntos;
+            this.canonica = canonica;
+            this.menor = menor;
+            this.escolhida = escolhida;
+            this.contrair = contrair;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.fim - this.inicio > GRAO) {
+                int meio = (this.inicio + this.fim) >>> 1;
+                invokeAll(new Rodada(this.grafo, this.conjuntos, this.canonica, this.menor, this.escolhida,
+                        this.contrair, this.inicio, meio),
+                        new Rodada(this.grafo, this.conjuntos, this.canonica, this.menor, this.escolhida,
+                                this.contrair, meio, this.fim));
+                return;
+            }
+            if (this.contrair)
+                this.contrair();
+            else
+                this.buscarMenores();
+        }
+
+        /**
+         * Oferece cada aresta que liga componentes diferentes ao componente da
+         * sua origem, que fica com a de menor chave
+         */
+        private void buscarMenores() {
+            for (int v = this.inicio; v < this.fim; v++) {
+                int c = this.conjuntos.encontrar(v);
+                for (int i = this.grafo.inicio(v); i < this.grafo.fim(v); i++) {
+                    int w = this.grafo.destino(i);
+                    if (this.conjuntos.encontrar(w) == c)
+                        continue;
+                    long chave = chave(this.grafo, i, this.canonica[i]);
+                    long atual = this.menor.get(c);
+                    while (chave < atual && !this.menor.compareAndSet(c, atual, chave))
+                        atual = this.menor.get(c);
+                }
+            }
+        }
+
+        /**
+         * Une cada componente ao da outra ponta da sua menor aresta. Com chaves
+         * distintas as arestas escolhidas não formam ciclos, então só falham as
+         * uniões de arestas escolhidas pelos dois lados.
+         */
+        private void contrair() {
+            for (int c = this.inicio; c < this.fim; c++) {
+                long chave = this.menor.get(c);
+                if (chave == Long.MAX_VALUE)
+                    continue;
+                int posicao = (int) chave;
+                if (this.conjuntos.unir(origem(this.grafo, posicao), this.grafo.destino(posicao)))
+                    this.escolhida[posicao] = true;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,350 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Busca em largura paralela sobre um grafo congelado, que alterna entre
+ * expandir a fronteira de cima para baixo (cada vértice da fronteira marca
+ * seus vizinhos) e de baixo para cima (cada vértice não visitado procura um pai
+ * na fronteira), conforme o tamanho da fronteira. Enquanto a fronteira é
+ * pequena, a expansão é sequencial sobre uma lista; quando cresce, a fronteira
+ * passa a ser um mapa de bits e os níveis são expandidos em paralelo com
+ * fork/join.
+ */
+public class BuscaEmLarguraParalela {
+
+    /**
+     * Passa para baixo-para-cima quando as arestas da fronteira passam de
+     * 1/ALFA das arestas ainda não exploradas
+     */
+    private static final int ALFA = 14;
+
+    /**
+     * Volta para cima-para-baixo quando a fronteira tem menos de 1/BETA dos
+     * vértices
+     */
+    private static final int BETA = 24;
+
+    /**
+     * Número de palavras de 64 vértices processadas por tarefa
+     */
+    private static final int GRAO = 64;
+
+    /**
+     * Grafo percorrido
+     */
+    private final GrafoCongelado grafo;
+
+    /**
+     * Grafo com as arestas invertidas, usado na expansão de baixo para cima
+     */
+    private final GrafoCongelado reverso;
+
+    /**
+     * Pool usado nos níveis paralelos
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Número de vértices e de palavras dos mapas de bits
+     */
+    private final int n, palavras;
+
+    /**
+     * Tamanho da fronteira a partir do qual ela passa a ser um mapa de bits
+     */
+    private final int limiteEsparso;
+
+    /**
+     * Vértices já visitados
+     */
+    private final AtomicLongArray visitado;
+
+    /**
+     * Fronteira atual e próxima fronteira, como mapas de bits
+     */
+    private AtomicLongArray fronteira, proxima;
+
+    /**
+     * Fronteira atual e próxima fronteira, como listas de índices
+     */
+    private int[] lista, novaLista;
+
+    /**
+     * Pai (índice) de cada vértice
+     */
+    private final int[] pais;
+
+    /**
+     * Resultado montado nível a nível
+     */
+    private final ResultadoBusca resultado;
+
+    /**
+     * Prepara o estado da busca
+     * 
+     * @param grafo     Grafo a ser percorrido
+     * @param pool      Pool usado nos níveis paralelos
+     * @param resultado Resultado a ser preenchido
+     */
+    private BuscaEmLarguraParalela(GrafoCongelado grafo, ForkJoinPool pool, ResultadoBusca resultado) {
+        this.grafo = grafo;
+        this.reverso = grafo.transposta();
+        this.pool = pool;
+        this.n = grafo.ordem();
+        this.palavras = (this.n + 63) >>> 6;
+        this.limiteEsparso = Math.max(1024, this.n / 64);
+        this.visitado = new AtomicLongArray(this.palavras);
+        this.fronteira = new AtomicLongArray(this.palavras);
+        this.proxima = new AtomicLongArray(this.palavras);
+        this.lista = new int[Math.min(this.n, this.limiteEsparso)];
+        this.novaLista = new int[this.n];
+        this.pais = new int[this.n];
+        this.resultado = resultado;
+    }
+
+    /**
+     * Executa a busca em largura paralela. Os vértices de cada nível são os
+     * mesmos da busca sequencial; dentro de um nível expandido em paralelo, a
+     * ordem é a dos índices.
+     * 
+     * @param grafo  Grafo a ser percorrido
+     * @param origem Id do vértice de origem
+     * @param todos  TRUE para continuar pelos vértices não alcançados a partir
+     *               da origem, FALSE para percorrer só o componente da origem
+     * @param pool   Pool usado nos níveis paralelos
+     * @return Ordem de visita, pai e nível de cada vértice
+     */
+    public static ResultadoBusca executar(GrafoCongelado grafo, int origem, boolean todos, ForkJoinPool pool) {
+        ResultadoBusca resultado = new ResultadoBusca(grafo.ordem());
+        int s = grafo.indice(origem);
+        if (s < 0)
+            return resultado;
+        BuscaEmLarguraParalela busca = new BuscaEmLarguraParalela(grafo, pool, resultado);
+        int proximo = 0;
+        while (s < busca.n) {
+            busca.componente(s);
+            if (!todos)
+                break;
+            while (proximo < busca.n && busca.visitado(proximo))
+                proximo++;
+            s = proximo;
+        }
+        return resultado;
+    }
+
+    /**
+     * Verifica se o vértice já foi visitado
+     * 
+     * @param v Índice do vértice
+     * @return TRUE se já foi visitado
+     */
+    private boolean visitado(int v) {
+        return (this.visitado.get(v >>> 6) & (1L << v)) != 0;
+    }
+
+    /**
+     * Marca o bit do vértice no mapa, de forma atômica
+     * 
+     * @param mapa Mapa de bits
+     * @param v    Índice do vértice
+     * @return TRUE se o bit estava desligado e foi ligado por esta chamada
+     */
+    private static boolean marcar(AtomicLongArray mapa, int v) {
+        int palavra = v >>> 6;
+        long bit = 1L << v;
+        while (true) {
+            long atual = mapa.get(palavra);
+            if ((atual & bit) != 0)
+                return false;
+            if (mapa.compareAndSet(palavra, atual, atual | bit))
+                return true;
+        }
+    }
+
+    /**
+     * Percorre o componente do vértice informado
+     * 
+     * @param s Índice da raiz
+     */
+    private void componente(int s) {
+        marcar(this.visitado, s);
+        this.pais[s] = -1;
+        this.resultado.visitar(this.grafo.id(s), -1, 0);
+        this.lista[0] = s;
+        int tamanhoLista = 1;
+        boolean esparso = true, descendente = true;
+        long nf = 1, mf = this.grafo.grau(s), mu = this.grafo.fim(this.n - 1);
+
+        for (int nivel = 0; nf > 0; nivel++) {
+            mu -= mf;
+            if (esparso && nf < this.limiteEsparso) {
+                // Fronteira pequena: expansão sequencial sobre a lista
+                int novos = 0;
+                mf = 0;
+                for (int k = 0; k < tamanhoLista; k++) {
+                    int u = this.lista[k];
+                    for (int i = this.grafo.inicio(u); i < this.grafo.fim(u); i++) {
+                        int v = this.grafo.destino(i);
+                        if (marcar(this.visitado, v)) {
+                            this.pais[v] = u;
+                            this.novaLista[novos++] = v;
+                            mf += this.grafo.grau(v);
+                            this.resultado.visitar(this.grafo.id(v), this.grafo.id(u), nivel + 1);
+                        }
+                    }
+                }
+                if (novos > this.lista.length)
+                    this.lista = new int[this.n];
+                System.arraycopy(this.novaLista, 0, this.lista, 0, novos);
+                tamanhoLista = novos;
+                nf = novos;
+                continue;
+            }
+            if (esparso) {
+                // A fronteira cresceu: passa a ser um mapa de bits
+                for (int w = 0; w < this.palavras; w++)
+                    this.fronteira.set(w, 0);
+                for (int k = 0; k < tamanhoLista; k++)
+                    marcar(this.fronteira, this.lista[k]);
+                esparso = false;
+                descendente = true;
+            }
+            if (descendente && mf > mu / ALFA)
+                descendente = false;
+            else if (!descendente && nf < this.n / BETA)
+                descendente = true;
+
+            for (int w = 0; w < this.palavras; w++)
+                this.proxima.set(w, 0);
+            long[] contagem = this.pool.invoke(descendente ? new Descendente(0, this.palavras)
+                    : new Ascendente(0, this.palavras));
+            nf = contagem[0];
+            mf = contagem[1];
+            AtomicLongArray troca = this.fronteira;
+            this.fronteira = this.proxima;
+            this.proxima = troca;
+
+            // Registra o novo nível em ordem de índice e, se ele for pequeno,
+            // volta para a lista
+            boolean voltar = nf < this.limiteEsparso;
+            tamanhoLista = 0;
+            for (int w = 0; w < this.palavras; w++)
+                for (long bits = this.fronteira.get(w); bits != 0; bits &= bits - 1) {
+                    int v = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    this.resultado.visitar(this.grafo.id(v), this.grafo.id(this.pais[v]), nivel + 1);
+                    if (voltar)
+                        this.lista[tamanhoLista++] = v;
+                }
+            esparso = voltar;
+        }
+    }
+
+    /**
+     * Expansão de cima para baixo: cada vértice da fronteira marca seus
+     * vizinhos ainda não visitados
+     */
+    private class Descendente extends RecursiveTask<long[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Faixa de palavras da fronteira
+         */
+        private final int inicio, fim;
+
+        Descendente(int inicio, int fim) {
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (this.fim - this.inicio > GRAO) {
+                int meio = (this.inicio + this.fim) >>> 1;
+                Descendente esquerda = new Descendente(this.inicio, meio);
+                esquerda.fork();
+                long[] direita = new Descendente(meio, this.fim).compute();
+                long[] resultado = esquerda.join();
+                resultado[0] += direita[0];
+                resultado[1] += direita[1];
+                return resultado;
+            }
+            long novos = 0, graus = 0;
+            for (int w = this.inicio; w < this.fim; w++)
+                for (long bits = fronteira.get(w); bits != 0; bits &= bits - 1) {
+                    int u = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    for (int i = grafo.inicio(u); i < grafo.fim(u); i++) {
+                        int v = grafo.destino(i);
+                        if (!visitado(v) && marcar(visitado, v)) {
+                            pais[v] = u;
+                            marcar(proxima, v);
+                            novos++;
+                            graus += grafo.grau(v);
+                        }
+                    }
+                }
+            return new long[] { novos, graus };
+        }
+    }
+
+    /**
+     * Expansão de baixo para cima: cada vértice não visitado procura um vizinho
+     * de entrada na fronteira. Cada tarefa é dona das suas palavras, então não
+     * precisa de operações atômicas para marcá-las.
+     */
+    private class Ascendente extends RecursiveTask<long[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Faixa de palavras de vértices
+         */
+        private final int inicio, fim;
+
+        Ascendente(int inicio, int fim) {
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (this.fim - this.inicio > GRAO) {
+                int meio = (this.inicio + this.fim) >>> 1;
+                Ascendente esquerda = new Ascendente(this.inicio, meio);
+                esquerda.fork();
+                long[] direita = new Ascendente(meio, this.fim).compute();
+                long[] resultado = esquerda.join();
+                resultado[0] += direita[0];
+                resultado[1] += direita[1];
+                return resultado;
+            }
+            long novos = 0, graus = 0;
+            for (int w = this.inicio; w < this.fim; w++) {
+                long naoVisitados = ~visitado.get(w);
+                if (w == palavras - 1 && (n & 63) != 0)
+                    naoVisitados &= (1L << n) - 1;
+                long encontrados = 0;
+                for (long bits = naoVisitados; bits != 0; bits &= bits - 1) {
+                    int v = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    for (int i = reverso.inicio(v); i < reverso.fim(v); i++) {
+                        int u = reverso.destino(i);
+                        if ((fronteira.get(u >>> 6) & (1L << u)) != 0) {
+                            pais[v] = u;
+                            encontrados |= 1L << v;
+                            novos++;
+                            graus += grafo.grau(v);
+                            break;
+                        }
+                    }
+                }
+                if (encontrados != 0) {
+                    visitado.set(w, visitado.get(w) | encontrados);
+                    proxima.set(w, encontrados);
+                }
+            }
+            return new long[] { novos, graus };
+        }
+    }
+
+}
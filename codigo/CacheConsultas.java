@@ -0,0 +1,314 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache limitado de resultados de consultas de caminho e alcance, com
+ * despejo do menos usado recentemente (LRU). Cada resultado guarda a versão do
+ * grafo em que foi calculado; invalidar tudo é só subir a versão mínima
+ * aceita, e os resultados antigos são descartados quando consultados ou
+ * despejados. A invalidação seletiva remove apenas os resultados cujo caminho
+ * passa pelo vértice ou aresta alterados.
+ *
+ * Os métodos são sincronizados, então o cache pode ser usado por várias
+ * threads, exceto invalidarTudo, chamado a cada inserção de aresta: ele só
+ * sobe a versão mínima, que é atômica, sem travar o cache. Um resultado
+ * calculado em uma versão anterior à última invalidação não é guardado: a
+ * alteração pode ter sido feita enquanto ele era calculado.
+ */
+public class CacheConsultas {
+
+    /**
+     * Consulta de alcance: existe caminho da origem ao destino?
+     */
+    public static final int ALCANCE = 0;
+
+    /**
+     * Consulta de caminho mínimo da origem ao destino
+     */
+    public static final int CAMINHO = 1;
+
+    /**
+     * Número máximo de resultados guardados
+     */
+    private final int capacidade;
+
+    /**
+     * Resultados, da consulta menos usada recentemente para a mais usada
+     */
+    private final LinkedHashMap<Chave, Entrada> entradas;
+
+    /**
+     * Menor versão do grafo cujos resultados ainda valem
+     */
+    private final AtomicLong versaoMinima = new AtomicLong();
+
+    /**
+     * Versão da remoção mais recente que invalidou resultados seletivamente
+     */
+    private long versaoAlterada = 0;
+
+    /**
+     * Estatísticas de uso
+     */
+    private long acertos = 0, faltas = 0, despejos = 0, invalidadas = 0;
+
+    /**
+     * Cria um cache vazio
+     *
+     * @param capacidade Número máximo de resultados guardados
+     */
+    public CacheConsultas(int capacidade) {
+        this.capacidade = Math.max(capacidade, 1);
+        this.entradas = new LinkedHashMap<Chave, Entrada>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Chave, Entrada> maisAntiga) {
+                if (size() <= CacheConsultas.this.capacidade)
+                    return false;
+                CacheConsultas.this.despejos++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Procura o resultado de uma consulta
+     *
+     * @param tipo    ALCANCE ou CAMINHO
+     * @param origem  Id do vértice de origem
+     * @param destino Id do vértice de destino
+     * @return O resultado, ou NULL se ele não estiver no cache ou for de uma
+     *         versão invalidada
+     */
+    synchronized Entrada obter(int tipo, int origem, int destino) {
+        Chave chave = new Chave(tipo, origem, destino);
+        Entrada entrada = this.entradas.get(chave);
+        if (entrada != null && entrada.versao < this.versaoMinima.get()) {
+            this.entradas.remove(chave);
+            this.invalidadas++;
+            entrada = null;
+        }
+        if (entrada == null)
+            this.faltas++;
+        else
+            this.acertos++;
+        return entrada;
+    }
+
+    /**
+     * Guarda o resultado de uma consulta
+     *
+     * @param tipo      ALCANCE ou CAMINHO
+     * @param origem    Id do vértice de origem
+     * @param destino   Id do vértice de destino
+     * @param versao    Versão do grafo em que o resultado foi calculado
+     * @param distancia Distância encontrada
+     * @param caminho   Caminho encontrado, vazio se não houver
+     */
+    synchronized void guardar(int tipo, int origem, int destino, long versao, long distancia, int[] caminho) {
+        if (versao < this.versaoAlterada || versao < this.versaoMinima.get())
+            return;
+        this.entradas.put(new Chave(tipo, origem, destino), new Entrada(versao, distancia, caminho));
+    }
+
+    /**
+     * Invalida todos os resultados calculados antes da versão informada
+     *
+     * @param versao Versão atual do grafo
+     */
+    void invalidarTudo(long versao) {
+        this.versaoMinima.accumulateAndGet(versao, Math::max);
+    }
+
+    /**
+     * Registra a versão de uma alteração que invalidou resultados
+     *
+     * @param versao Versão do grafo após a alteração
+     */
+    private void alterada(long versao) {
+        this.versaoAlterada = Math.max(this.versaoAlterada, versao);
+    }
+
+    /**
+     * Remove os resultados que têm o vértice como extremo ou no caminho
+     *
+     * @param id     Id do vértice alterado
+     * @param versao Versão do grafo após a alteração
+     */
+    synchronized void invalidarVertice(int id, long versao) {
+        this.alterada(versao);
+        Iterator<Map.Entry<Chave, Entrada>> it = this.entradas.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Chave, Entrada> e = it.next();
+            boolean afetada = e.getKey().origem == id || e.getKey().destino == id;
+            for (int i = 0; !afetada && i < e.getValue().caminho.length; i++)
+                afetada = e.getValue().caminho[i] == id;
+            if (afetada) {
+                it.remove();
+                this.invalidadas++;
+            }
+        }
+    }
+
+    /**
+     * Remove os resultados cujo caminho usa a aresta, em qualquer sentido.
+     * Remover uma aresta não cria caminhos, então os demais continuam valendo.
+     *
+     * @param u      Id de um extremo da aresta removida
+     * @param v      Id do outro extremo
+     * @param versao Versão do grafo após a remoção
+     */
+    synchronized void invalidarAresta(int u, int v, long versao) {
+        this.alterada(versao);
+        Iterator<Entrada> it = this.entradas.values().iterator();
+        while (it.hasNext()) {
+            int[] caminho = it.next().caminho;
+            for (int i = 1; i < caminho.length; i++)
+                if ((caminho[i - 1] == u && caminho[i] == v) || (caminho[i - 1] == v && caminho[i] == u)) {
+                    it.remove();
+                    this.invalidadas++;
+                    break;
+                }
+        }
+    }
+
+    /**
+     * Retorna o número máximo de resultados guardados
+     *
+     * @return Capacidade do cache
+     */
+    public int capacidade() {
+        return this.capacidade;
+    }
+
+    /**
+     * Retorna o número de resultados guardados, incluindo os de versões
+     * invalidadas que ainda não foram descartados
+     *
+     * @return Número de resultados
+     */
+    public synchronized int tamanho() {
+        return this.entradas.size();
+    }
+
+    /**
+     * Retorna o número de consultas respondidas pelo cache
+     *
+     * @return Número de acertos
+     */
+    public synchronized long acertos() {
+        return this.acertos;
+    }
+
+    /**
+     * Retorna o número de consultas que precisaram ser calculadas
+     *
+     * @return Número de faltas
+     */
+    public synchronized long faltas() {
+        return this.faltas;
+    }
+
+    /**
+     * Retorna o número de resultados despejados por falta de espaço
+     *
+     * @return Número de despejos
+     */
+    public synchronized long despejos() {
+        return this.despejos;
+    }
+
+    /**
+     * Retorna o número de resultados descartados por alterações no grafo
+     *
+     * @return Número de resultados invalidados
+     */
+    public synchronized long invalidadas() {
+        return this.invalidadas;
+    }
+
+    /**
+     * Retorna a fração das consultas respondidas pelo cache
+     *
+     * @return Taxa de acerto entre 0 e 1
+     */
+    public synchronized double taxaAcerto() {
+        long total = this.acertos + this.faltas;
+        return total == 0 ? 0 : (double) this.acertos / total;
+    }
+
+    /**
+     * Zera as estatísticas, mantendo os resultados
+     */
+    public synchronized void zerarEstatisticas() {
+        this.acertos = this.faltas = this.despejos = this.invalidadas = 0;
+    }
+
+    /**
+     * Retorna um resumo das estatísticas do cache
+     *
+     * @return Tamanho, acertos, faltas, despejos e invalidações
+     */
+    @Override
+    public synchronized String toString() {
+        return String.format("Cache: %d de %d resultados, %d acertos, %d faltas (%.1f%% de acerto), "
+                + "%d despejos, %d invalidados", this.tamanho(), this.capacidade, this.acertos, this.faltas,
+                100 * this.taxaAcerto(), this.despejos, this.invalidadas);
+    }
+
+    /**
+     * Identifica uma consulta pelo tipo e pelos extremos
+     */
+    private static class Chave {
+
+        private final int tipo, origem, destino;
+
+        Chave(int tipo, int origem, int destino) {
+            this.tipo = tipo;
+            this.origem = origem;
+            this.destino = destino;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Chave))
+                return false;
+            Chave outra = (Chave) o;
+            return this.tipo == outra.tipo && this.origem == outra.origem && this.destino == outra.destino;
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * (31 * this.tipo + this.origem)) + this.destino;
+        }
+    }
+
+    /**
+     * Resultado de uma consulta
+     */
+    static class Entrada {
+
+        /**
+         * Versão do grafo em que o resultado foi calculado
+         */
+        final long versao;
+
+        /**
+         * Distância da origem ao destino, ou CaminhosMinimos.INFINITO
+         */
+        final long distancia;
+
+        /**
+         * Ids dos vértices do caminho encontrado, vazio se não houver
+         */
+        final int[] caminho;
+
+        Entrada(long versao, long distancia, int[] caminho) {
+            this.versao = versao;
+            this.distancia = distancia;
+            this.caminho = caminho;
+        }
+    }
+
+}
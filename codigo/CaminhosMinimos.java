@@ -0,0 +1,308 @@
+import java.util.Arrays;
+
+/**
+ * Caminhos mínimos a partir de um vértice de origem, calculados pelo algoritmo
+ * de Dijkstra sobre um grafo congelado. Arestas com peso -1 (sem peso) valem
+ * 1, como em criar() e toString(); outros pesos negativos não são aceitos.
+ * Os vértices são identificados pelos índices do grafo congelado, mas as
+ * consultas recebem e devolvem ids.
+ */
+public class CaminhosMinimos {
+
+    /**
+     * Distância de vértices não alcançados
+     */
+    public static final long INFINITO = Long.MAX_VALUE;
+
+    /**
+     * Grafo em que os caminhos foram calculados
+     */
+    private final GrafoCongelado grafo;
+
+    /**
+     * Id do vértice de origem
+     */
+    private final int origem;
+
+    /**
+     * Distância de cada vértice até a origem, por índice
+     */
+    private final long[] distancias;
+
+    /**
+     * Índice do predecessor de cada vértice no caminho mínimo, ou -1
+     */
+    private final int[] predecessores;
+
+    /**
+     * Cria o resultado a partir das distâncias e predecessores por índice
+     *
+     * @param grafo         Grafo dos caminhos
+     * @param origem        Id do vértice de origem
+     * @param distancias    Distância de cada vértice
+     * @param predecessores Predecessor de cada vértice
+     */
+    CaminhosMinimos(GrafoCongelado grafo, int origem, long[] distancias, int[] predecessores) {
+        this.grafo = grafo;
+        this.origem = origem;
+        this.distancias = distancias;
+        this.predecessores = predecessores;
+    }
+
+    /**
+     * Calcula os caminhos mínimos da origem para todos os vértices
+     *
+     * @param grafo  Grafo congelado
+     * @param origem Id do vértice de origem
+     * @return Os caminhos mínimos
+     * @throws IllegalArgumentException Se houver peso negativo diferente de -1
+     */
+    public static CaminhosMinimos dijkstra(GrafoCongelado grafo, int origem) {
+        return dijkstra(grafo, origem, -1);
+    }
+
+    /**
+     * Calcula o caminho mínimo entre dois vértices, parando assim que o
+     * destino é fechado. Só os vértices fechados até a parada ficam com
+     * distância; os demais são tratados como não alcançados.
+     *
+     * @param grafo   Grafo congelado
+     * @param origem  Id do vértice de origem
+     * @param destino Id do vértice de destino
+     * @return Os caminhos mínimos até o destino
+     * @throws IllegalArgumentException Se houver peso negativo diferente de -1
+     */
+    public static CaminhosMinimos dijkstra(GrafoCongelado grafo, int origem, int destino) {
+        int n = grafo.ordem();
+        long[] distancias = new long[n];
+        int[] predecessores = new int[n];
+        Arrays.fill(distancias, INFINITO);
+        Arrays.fill(predecessores, -1);
+        int s = grafo.indice(origem);
+        int t = destino == -1 ? -1 : grafo.indice(destino);
+        if (s < 0 || (destino != -1 && t < 0))
+            return new CaminhosMinimos(grafo, origem, distancias, predecessores);
+
+        HeapIndexado heap = new HeapIndexado(n);
+        distancias[s] = 0;
+        heap.inserirOuDiminuir(s, 0);
+        while (!heap.vazio()) {
+            int u = heap.removerMinimo();
+            if (u == t)
+                break;
+            relaxar(grafo, u, distancias, predecessores, heap);
+        }
+        // Distâncias ainda abertas não são definitivas
+        while (!heap.vazio()) {
+            int v = heap.removerMinimo();
+            distancias[v] = INFINITO;
+            predecessores[v] = -1;
+        }
+        return new CaminhosMinimos(grafo, origem, distancias, predecessores);
+    }
+
+    /**
+     * Calcula o caminho mínimo entre dois vértices com duas buscas simultâneas,
+     * uma a partir da origem e outra a partir do destino no grafo transposto,
+     * que param quando a soma dos menores valores abertos dos dois lados não
+     * pode mais melhorar o caminho encontrado. Só os vértices do caminho ficam
+     * com distância.
+     *
+     * @param grafo   Grafo congelado
+     * @param origem  Id do vértice de origem
+     * @param destino Id do vértice de destino
+     * @return O caminho mínimo até o destino
+     * @throws IllegalArgumentException Se houver peso negativo diferente de -1
+     */
+    public static CaminhosMinimos bidirecional(GrafoCongelado grafo, int origem, int destino) {
+        int n = grafo.ordem();
+        long[] distancias = new long[n];
+        int[] predecessores = new int[n];
+        Arrays.fill(distancias, INFINITO);
+        Arrays.fill(predecessores, -1);
+        int s = grafo.indice(origem), t = grafo.indice(destino);
+        if (s < 0 || t < 0)
+            return new CaminhosMinimos(grafo, origem, distancias, predecessores);
+
+        GrafoCongelado reverso = grafo.transposta();
+        long[] ida = new long[n], volta = new long[n];
+        int[] paiIda = new int[n], paiVolta = new int[n];
+        Arrays.fill(ida, INFINITO);
+        Arrays.fill(volta, INFINITO);
+        Arrays.fill(paiIda, -1);
+        Arrays.fill(paiVolta, -1);
+        HeapIndexado heapIda = new HeapIndexado(n), heapVolta = new HeapIndexado(n);
+        ida[s] = 0;
+        volta[t] = 0;
+        heapIda.inserirOuDiminuir(s, 0);
+        heapVolta.inserirOuDiminuir(t, 0);
+        long melhor = s == t ? 0 : INFINITO;
+        int encontro = s == t ? s : -1;
+
+        while (!heapIda.vazio() && !heapVolta.vazio()
+                && heapIda.chaveMinima() + heapVolta.chaveMinima() < melhor) {
+            // Avança o lado com menos vértices abertos
+            boolean avancarIda = heapIda.tamanho() <= heapVolta.tamanho();
+            GrafoCongelado g = avancarIda ? grafo : reverso;
+            long[] dist = avancarIda ? ida : volta, outra = avancarIda ? volta : ida;
+            int[] pai = avancarIda ? paiIda : paiVolta;
+            HeapIndexado heap = avancarIda ? heapIda : heapVolta;
+
+            int u = heap.removerMinimo();
+            for (int i = g.inicio(u); i < g.fim(u); i++) {
+                int w = g.destino(i);
+                long d = dist[u] + peso(g, u, i);
+                if (d < dist[w]) {
+                    dist[w] = d;
+                    pai[w] = u;
+                    heap.inserirOuDiminuir(w, d);
+                }
+                if (outra[w] != INFINITO && dist[w] + outra[w] < melhor) {
+                    melhor = dist[w] + outra[w];
+                    encontro = w;
+                }
+            }
+        }
+
+        if (encontro >= 0) {
+            for (int v = encontro; v != -1; v = paiIda[v]) {
+                distancias[v] = ida[v];
+                predecessores[v] = paiIda[v];
+            }
+            for (int v = encontro; paiVolta[v] != -1; v = paiVolta[v]) {
+                distancias[paiVolta[v]] = melhor - volta[paiVolta[v]];
+                predecessores[paiVolta[v]] = v;
+            }
+        }
+        return new CaminhosMinimos(grafo, origem, distancias, predecessores);
+    }
+
+    /**
+     * Relaxa as arestas de saída de um vértice fechado
+     *
+     * @param grafo         Grafo congelado
+     * @param u             Índice do vértice fechado
+     * @param distancias    Distâncias atuais
+     * @param predecessores Predecessores atuais
+     * @param heap          Vértices abertos
+     */
+    private static void relaxar(GrafoCongelado grafo, int u, long[] distancias, int[] predecessores,
+            HeapIndexado heap) {
+        long base = distancias[u];
+        for (int i = grafo.inicio(u); i < grafo.fim(u); i++) {
+            int w = grafo.destino(i);
+            long d = base + peso(grafo, u, i);
+            if (d < distancias[w]) {
+                distancias[w] = d;
+                predecessores[w] = u;
+                heap.inserirOuDiminuir(w, d);
+            }
+        }
+    }
+
+    /**
+     * Retorna o peso usado para a aresta na posição informada
+     *
+     * @param grafo   Grafo congelado
+     * @param u       Índice do vértice de origem da aresta
+     * @param posicao Posição da aresta
+     * @return O peso da aresta, ou 1 se ela não tiver peso
+     * @throws IllegalArgumentException Se o peso for negativo e diferente de -1
+     */
+    static long peso(GrafoCongelado grafo, int u, int posicao) {
+        int peso = grafo.peso(posicao);
+        if (peso == -1)
+            return 1;
+        if (peso < 0)
+            throw new IllegalArgumentException("Peso negativo na aresta entre " + grafo.id(u) + " e "
+                    + grafo.id(grafo.destino(posicao)) + ": " + peso);
+        return peso;
+    }
+
+    /**
+     * Retorna o id do vértice de origem
+     *
+     * @return Id da origem
+     */
+    public int origem() {
+        return this.origem;
+    }
+
+    /**
+     * Retorna a distância da origem até o vértice
+     *
+     * @param id Id do vértice
+     * @return A distância, ou INFINITO se ele não foi alcançado
+     */
+    public long distancia(int id) {
+        int indice = this.grafo.indice(id);
+        return indice < 0 ? INFINITO : this.distancias[indice];
+    }
+
+    /**
+     * Verifica se o vértice foi alcançado a partir da origem
+     *
+     * @param id Id do vértice
+     * @return TRUE se existe caminho até ele
+     */
+    public boolean alcancado(int id) {
+        return this.distancia(id) != INFINITO;
+    }
+
+    /**
+     * Retorna o predecessor do vértice no caminho mínimo
+     *
+     * @param id Id do vértice
+     * @return Id do predecessor, ou -1 para a origem e vértices não alcançados
+     */
+    public int predecessor(int id) {
+        int indice = this.grafo.indice(id);
+        if (indice < 0 || this.predecessores[indice] < 0)
+            return -1;
+        return this.grafo.id(this.predecessores[indice]);
+    }
+
+    /**
+     * Retorna o caminho mínimo da origem até o vértice
+     *
+     * @param id Id do vértice de destino
+     * @return Ids dos vértices do caminho, da origem ao destino, ou um vetor
+     *         vazio se ele não foi alcançado
+     */
+    public int[] caminho(int id) {
+        int v = this.grafo.indice(id);
+        if (v < 0 || this.distancias[v] == INFINITO)
+            return new int[0];
+        int tamanho = 0;
+        for (int u = v; u != -1; u = this.predecessores[u])
+            tamanho++;
+        int[] caminho = new int[tamanho];
+        for (int u = v; u != -1; u = this.predecessores[u])
+            caminho[--tamanho] = this.grafo.id(u);
+        return caminho;
+    }
+
+    /**
+     * Retorna a distância de cada vértice, na ordem dos índices do grafo
+     * congelado
+     *
+     * @return Cópia do vetor de distâncias
+     */
+    public long[] distancias() {
+        return Arrays.copyOf(this.distancias, this.distancias.length);
+    }
+
+    /**
+     * Retorna o id do predecessor de cada vértice (-1 se não houver), na ordem
+     * dos índices do grafo congelado
+     *
+     * @return Vetor de predecessores
+     */
+    public int[] predecessores() {
+        int[] predecessores = new int[this.predecessores.length];
+        for (int v = 0; v < predecessores.length; v++)
+            predecessores[v] = this.predecessores[v] < 0 ? -1 : this.grafo.id(this.predecessores[v]);
+        return predecessores;
+    }
+
+}
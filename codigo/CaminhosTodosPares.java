@@ -0,0 +1,520 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Distâncias entre todos os pares de vértices de um grafo congelado, por dois
+ * caminhos:
+ * <ul>
+ * <li>Floyd–Warshall em blocos, para grafos densos: a matriz é dividida em
+ * blocos de BLOCO x BLOCO e, para cada bloco da diagonal, atualiza-se o bloco
+ * da diagonal, depois os blocos da sua linha e coluna e por fim todos os
+ * outros, cada fase em paralelo;</li>
+ * <li>uma busca por origem, para grafos esparsos: em largura se todas as
+ * arestas valem 1, ou Dijkstra, com as origens divididas entre as threads.
+ * Neste modo as linhas podem ser gravadas direto em arquivo, sem montar a
+ * matriz.</li>
+ * </ul>
+ * Arestas com peso -1 valem 1, como em {@link CaminhosMinimos}.
+ *
+ * <pre>
+ * arquivo:  "GRFD" | versão | n
+ * vértices: n inteiros (ids em ordem crescente)
+ * linhas:   n linhas de n distâncias (ou INFINITO)
+ * </pre>
+ *
+ * O cabeçalho e os ids são inteiros de 32 bits, e as distâncias de 64 bits,
+ * para que nenhuma distância real, mesmo acima de Integer.MAX_VALUE, se
+ * confunda com INFINITO. Todos são little-endian.
+ */
+public class CaminhosTodosPares {
+
+    /**
+     * Identificador do arquivo de distâncias ("GRFD")
+     */
+    public static final int ASSINATURA = 0x44465247;
+
+    /**
+     * Versão atual do arquivo de distâncias
+     */
+    public static final int VERSAO = 2;
+
+    /**
+     * Tamanho do cabeçalho fixo, em bytes
+     */
+    private static final int CABECALHO = 12;
+
+    /**
+     * Lado dos blocos do Floyd–Warshall: três blocos de 64 x 64 distâncias
+     * (32 KB cada) cabem no cache L2
+     */
+    private static final int BLOCO = 64;
+
+    /**
+     * Distância entre vértices sem caminho
+     */
+    private static final long INFINITO = MatrizDistancias.INFINITO;
+
+    /**
+     * Verifica se a matriz de distâncias de n vértices cabe em um vetor e em
+     * metade da memória disponível para a JVM
+     *
+     * @param n Número de vértices
+     * @return TRUE se a matriz pode ser montada em memória
+     */
+    public static boolean cabeNaMemoria(int n) {
+        long celulas = (long) n * n;
+        return celulas <= Integer.MAX_VALUE - 8 && 8 * celulas <= Runtime.getRuntime().maxMemory() / 2;
+    }
+
+    /**
+     * Verifica se o grafo é denso o bastante para o Floyd–Warshall, que custa
+     * n³, valer mais que n buscas de Dijkstra, que custam m log n cada
+     *
+     * @param grafo Grafo congelado
+     * @return TRUE se m * log n >= n²
+     */
+    public static boolean denso(GrafoCongelado grafo) {
+        long n = grafo.ordem();
+        long m = n == 0 ? 0 : grafo.fim((int) n - 1);
+        return m * (64 - Long.numberOfLeadingZeros(n)) >= n * n;
+    }
+
+    /**
+     * Calcula as distâncias em memória, escolhendo o Floyd–Warshall para
+     * grafos densos e as buscas por origem para os esparsos
+     *
+     * @param grafo Grafo congelado
+     * @param pool  Pool usado no cálculo
+     * @return A matriz de distâncias
+     * @throws IllegalArgumentException Se a matriz não couber na memória
+     */
+    public static MatrizDistancias calcular(GrafoCongelado grafo, ForkJoinPool pool) {
+        return denso(grafo) ? floydWarshall(grafo, pool) : buscas(grafo, pool);
+    }
+
+    /**
+     * Calcula as distâncias e as grava no arquivo. Se a matriz não couber na
+     * memória, as linhas são calculadas por buscas e gravadas à medida que
+     * ficam prontas.
+     *
+     * @param grafo       Grafo congelado
+     * @param pool        Pool usado no cálculo
+     * @param nomeArquivo Nome do arquivo
+     * @throws IOException Se não for possível gravar o arquivo
+     */
+    public static void calcular(GrafoCongelado grafo, ForkJoinPool pool, String nomeArquivo) throws IOException {
+        if (cabeNaMemoria(grafo.ordem()) && denso(grafo))
+            gravar(floydWarshall(grafo, pool), nomeArquivo);
+        else
+            buscas(grafo, pool, nomeArquivo);
+    }
+
+    /**
+     * Calcula as distâncias pelo Floyd–Warshall em blocos
+     *
+     * @param grafo Grafo congelado
+     * @param pool  Pool usado nas fases paralelas
+     * @return A matriz de distâncias
+     * @throws IllegalArgumentException Se a matriz não couber na memória ou
+     *                                  houver peso negativo diferente de -1
+     */
+    public static MatrizDistancias floydWarshall(GrafoCongelado grafo, ForkJoinPool pool) {
+        int n = grafo.ordem();
+        long[] d = novaMatriz(n);
+        for (int u = 0; u < n; u++) {
+            d[u * n + u] = 0;
+            for (int i = grafo.inicio(u); i < grafo.fim(u); i++) {
+                int w = grafo.destino(i), posicao = u * n + w;
+                d[posicao] = Math.min(d[posicao], CaminhosMinimos.peso(grafo, u, i));
+            }
+        }
+        int blocos = (n + BLOCO - 1) / BLOCO;
+        for (int k = 0; k < blocos; k++) {
+            atualizarBloco(d, n, k, k, k);
+            if (blocos > 1) {
+                pool.invoke(new AtualizarBlocos(d, n, blocos, k, false, 0, 2 * (blocos - 1)));
+                pool.invoke(new AtualizarBlocos(d, n, blocos, k, true, 0, (blocos - 1) * (blocos - 1)));
+            }
+        }
+        return new MatrizDistancias(grafo, d);
+    }
+
+    /**
+     * Calcula as distâncias com uma busca a partir de cada vértice, montando a
+     * matriz em memória
+     *
+     * @param grafo Grafo congelado
+     * @param pool  Pool usado nas buscas
+     * @return A matriz de distâncias
+     * @throws IllegalArgumentException Se a matriz não couber na memória ou
+     *                                  houver peso negativo diferente de -1
+     */
+    public static MatrizDistancias buscas(GrafoCongelado grafo, ForkJoinPool pool) {
+        long[] d = novaMatriz(grafo.ordem());
+        pool.invoke(new CalcularLinhas(grafo, unitario(grafo), d, null, 0, grafo.ordem()));
+        return new MatrizDistancias(grafo, d);
+    }
+
+    /**
+     * Calcula as distâncias com uma busca a partir de cada vértice, gravando
+     * cada linha no arquivo assim que fica pronta. A memória usada é
+     * proporcional a n por thread.
+     *
+     * @param grafo       Grafo congelado
+     * @param pool        Pool usado nas buscas
+     * @param nomeArquivo Nome do arquivo
+     * @throws IOException Se não for possível gravar o arquivo
+     */
+    public static void buscas(GrafoCongelado grafo, ForkJoinPool pool, String nomeArquivo) throws IOException {
+        try (FileChannel canal = criarArquivo(grafo, nomeArquivo)) {
+            pool.invoke(new CalcularLinhas(grafo, unitario(grafo), null, canal, 0, grafo.ordem()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Grava uma matriz de distâncias já calculada no arquivo
+     *
+     * @param matriz      Matriz de distâncias
+     * @param nomeArquivo Nome do arquivo
+     * @throws IOException Se não for possível gravar o arquivo
+     */
+    public static void gravar(MatrizDistancias matriz, String nomeArquivo) throws IOException {
+        GrafoCongelado grafo = matriz.grafo();
+        int n = grafo.ordem();
+        long[] d = matriz.distancias();
+        try (FileChannel canal = criarArquivo(grafo, nomeArquivo)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(8 * Math.max(n, 1)).order(ByteOrder.LITTLE_ENDIAN);
+            for (int v = 0; v < n; v++) {
+                buffer.clear();
+                buffer.asLongBuffer().put(d, v * n, n);
+                gravarLinha(canal, buffer, n, v);
+            }
+        }
+    }
+
+    /**
+     * Lê do arquivo as distâncias de um vértice para todos os outros
+     *
+     * @param nomeArquivo Nome do arquivo
+     * @param origem      Id do vértice de origem
+     * @return A linha do vértice, na ordem dos ids, ou NULL se ele não existir
+     * @throws IOException Se o arquivo não existir ou não estiver neste formato
+     */
+    public static long[] lerLinha(String nomeArquivo, int origem) throws IOException {
+        try (FileChannel canal = FileChannel.open(Paths.get(nomeArquivo), StandardOpenOption.READ)) {
+            if (canal.size() < CABECALHO)
+                throw new IOException("Arquivo " + nomeArquivo + " não é um arquivo de distâncias");
+            IntBuffer cabecalho = ler(canal, 0, CABECALHO).asIntBuffer();
+            if (cabecalho.get(0) != ASSINATURA)
+                throw new IOException("Arquivo " + nomeArquivo + " não é um arquivo de distâncias");
+            if (cabecalho.get(1) != VERSAO)
+                throw new IOException("Versão " + cabecalho.get(1) + " do arquivo de distâncias não suportada");
+            int n = cabecalho.get(2);
+            if (n < 0 || canal.size() < posicaoLinha(n, n))
+                throw new IOException("Arquivo " + nomeArquivo + " está incompleto");
+            int[] ids = new int[n];
+            ler(canal, CABECALHO, 4L * n).asIntBuffer().get(ids);
+            int v = Arrays.binarySearch(ids, origem);
+            if (v < 0)
+                return null;
+            long[] linha = new long[n];
+            ler(canal, posicaoLinha(n, v), 8L * n).asLongBuffer().get(linha);
+            return linha;
+        }
+    }
+
+    /**
+     * Mapeia um trecho do arquivo, em little-endian
+     *
+     * @param canal   Canal do arquivo
+     * @param posicao Posição inicial, em bytes
+     * @param bytes   Tamanho do trecho, em bytes
+     * @return Os bytes do trecho
+     * @throws IOException Se não for possível mapear o arquivo
+     */
+    private static ByteBuffer ler(FileChannel canal, long posicao, long bytes) throws IOException {
+        return canal.map(FileChannel.MapMode.READ_ONLY, posicao, bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Cria o arquivo de distâncias e grava o cabeçalho e os ids
+     *
+     * @param grafo       Grafo das distâncias
+     * @param nomeArquivo Nome do arquivo
+     * @return O canal aberto para escrita
+     * @throws IOException Se não for possível criar o arquivo
+     */
+    private static FileChannel criarArquivo(GrafoCongelado grafo, String nomeArquivo) throws IOException {
+        int n = grafo.ordem();
+        FileChannel canal = FileChannel.open(Paths.get(nomeArquivo), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer buffer = ByteBuffer.allocate(CABECALHO + 4 * n).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(ASSINATURA).putInt(VERSAO).putInt(n);
+        for (int v = 0; v < n; v++)
+            buffer.putInt(grafo.id(v));
+        buffer.flip();
+        while (buffer.hasRemaining())
+            canal.write(buffer);
+        return canal;
+    }
+
+    /**
+     * Grava uma linha na sua posição do arquivo. Escritas posicionais não
+     * mexem na posição do canal, então várias threads podem gravar ao mesmo
+     * tempo.
+     *
+     * @param canal  Canal do arquivo
+     * @param buffer Buffer com as n distâncias da linha
+     * @param n      Número de vértices
+     * @param v      Índice da linha
+     * @throws IOException Se não for possível gravar
+     */
+    private static void gravarLinha(FileChannel canal, ByteBuffer buffer, int n, int v) throws IOException {
+        buffer.clear().limit(8 * n);
+        long posicao = posicaoLinha(n, v);
+        while (buffer.hasRemaining())
+            posicao += canal.write(buffer, posicao);
+    }
+
+    /**
+     * Retorna a posição da linha v no arquivo
+     *
+     * @param n Número de vértices
+     * @param v Índice da linha
+     * @return Posição em bytes
+     */
+    private static long posicaoLinha(int n, int v) {
+        return CABECALHO + 4L * n + 8L * n * v;
+    }
+
+    /**
+     * Cria a matriz n x n com todas as distâncias infinitas
+     *
+     * @param n Número de vértices
+     * @return A matriz, linha a linha
+     * @throws IllegalArgumentException Se a matriz não couber na memória
+     */
+    private static long[] novaMatriz(int n) {
+        if (!cabeNaMemoria(n))
+            throw new IllegalArgumentException(
+                    "A matriz de distâncias de " + n + " vértices não cabe na memória; grave-a em arquivo");
+        long[] d = new long[n * n];
+        Arrays.fill(d, INFINITO);
+        return d;
+    }
+
+    /**
+     * Verifica se todas as arestas valem 1, caso em que a busca em largura dá
+     * as distâncias
+     *
+     * @param grafo Grafo congelado
+     * @return TRUE se todos os pesos forem -1 ou 1
+     */
+    private static boolean unitario(GrafoCongelado grafo) {
+        int m = grafo.ordem() == 0 ? 0 : grafo.fim(grafo.ordem() - 1);
+        for (int i = 0; i < m; i++)
+            if (grafo.peso(i) != -1 && grafo.peso(i) != 1)
+                return false;
+        return true;
+    }
+
+    /**
+     * Relaxa o bloco (bi, bj) passando pelos vértices do bloco bk
+     *
+     * @param d  Matriz de distâncias
+     * @param n  Número de vértices
+     * @param bi Bloco das linhas
+     * @param bj Bloco das colunas
+     * @param bk Bloco dos vértices intermediários
+     */
+    private static void atualizarBloco(long[] d, int n, int bi, int bj, int bk) {
+        int i0 = bi * BLOCO, i1 = Math.min(i0 + BLOCO, n);
+        int j0 = bj * BLOCO, j1 = Math.min(j0 + BLOCO, n);
+        int k0 = bk * BLOCO, k1 = Math.min(k0 + BLOCO, n);
+        for (int k = k0; k < k1; k++) {
+            int linhaK = k * n;
+            for (int i = i0; i < i1; i++) {
+                int linhaI = i * n;
+                long dik = d[linhaI + k];
+                if (dik == INFINITO)
+                    continue;
+                for (int j = j0; j < j1; j++) {
+                    long dkj = d[linhaK + j];
+                    if (dkj != INFINITO) {
+                        long soma = dik + dkj;
+                        if (soma < d[linhaI + j])
+                            d[linhaI + j] = soma;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Atualiza em paralelo os blocos de uma fase do Floyd–Warshall. Na fase da
+     * linha e coluna, as tarefas são os blocos da linha k e depois os da coluna
+     * k; na fase final, são os demais blocos, linha a linha.
+     */
+    private static class AtualizarBlocos extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long[] d;
+        private final int n, blocos, k;
+        private final boolean restantes;
+        private final int inicio, fim;
+
+        AtualizarBlocos(long[] d, int n, int blocos, int k, boolean restantes, int inicio, int fim) {
+            this.d = d;
+            this.n = n;
+            this.blocos = blocos;
+            this.k = k;
+            this.restantes = restantes;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.fim - this.inicio > 1) {
+                int meio = (this.inicio + this.fim) >>> 1;
+                invokeAll(new AtualizarBlocos(this.d, this.n, this.blocos, this.k, this.restantes, this.inicio, meio),
+                        new AtualizarBlocos(this.d, this.n, this.blocos, this.k, this.restantes, meio, this.fim));
+                return;
+            }
+            int outros = this.blocos - 1;
+            if (this.restantes) {
+                int bi = this.pular(this.inicio / outros), bj = this.pular(this.inicio % outros);
+                atualizarBloco(this.d, this.n, bi, bj, this.k);
+            } else if (this.inicio < outros) {
+                atualizarBloco(this.d, this.n, this.k, this.pular(this.inicio), this.k);
+            } else {
+                atualizarBloco(this.d, this.n, this.pular(this.inicio - outros), this.k, this.k);
+            }
+        }
+
+        /**
+         * Converte a posição entre os blocos diferentes de k no número do bloco
+         *
+         * @param b Posição entre os outros blocos
+         * @return Número do bloco
+         */
+        private int pular(int b) {
+            return b < this.k ? b : b + 1;
+        }
+    }
+
+    /**
+     * Calcula as linhas de uma faixa de origens, cada tarefa com o seu próprio
+     * heap, fila e buffer, e as guarda na matriz ou as grava no arquivo
+     */
+    private static class CalcularLinhas extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Número de origens processadas por tarefa
+         */
+        private static final int GRAO = 16;
+
+        private final GrafoCongelado grafo;
+        private final boolean unitario;
+        private final long[] matriz;
+        private final FileChannel canal;
+        private final int inicio, fim;
+
+        CalcularLinhas(GrafoCongelado grafo, boolean unitario, long[] matriz, FileChannel canal, int inicio,
+                int fim) {
+            this.grafo = grafo;
+            this.unitario = unitario;
+            this.matriz = matriz;
+            this.canal = canal;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.fim - this.inicio > GRAO) {
+                int meio = (this.inicio + this.fim) >>> 1;
+                invokeAll(new CalcularLinhas(this.grafo, this.unitario, this.matriz, this.canal, this.inicio, meio),
+                        new CalcularLinhas(this.grafo, this.unitario, this.matriz, this.canal, meio, this.fim));
+                return;
+            }
+            int n = this.grafo.ordem();
+            long[] linha = new long[n];
+            int[] fila = this.unitario ? new int[n] : null;
+            HeapIndexado heap = this.unitario ? null : new HeapIndexado(n);
+            ByteBuffer buffer = this.canal == null ? null
+                    : ByteBuffer.allocateDirect(8 * n).order(ByteOrder.LITTLE_ENDIAN);
+            for (int s = this.inicio; s < this.fim; s++) {
+                Arrays.fill(linha, INFINITO);
+                if (this.unitario)
+                    this.largura(s, linha, fila);
+                else
+                    this.dijkstra(s, linha, heap);
+                if (this.matriz != null) {
+                    System.arraycopy(linha, 0, this.matriz, s * n, n);
+                } else {
+                    buffer.clear();
+                    buffer.asLongBuffer().put(linha);
+                    try {
+                        gravarLinha(this.canal, buffer, n, s);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Preenche a linha da origem com uma busca em largura
+         */
+        private void largura(int s, long[] linha, int[] fila) {
+            int cabeca = 0, cauda = 0;
+            linha[s] = 0;
+            fila[cauda++] = s;
+            while (cabeca < cauda) {
+                int u = fila[cabeca++];
+                for (int i = this.grafo.inicio(u); i < this.grafo.fim(u); i++) {
+                    int w = this.grafo.destino(i);
+                    if (linha[w] == INFINITO) {
+                        linha[w] = linha[u] + 1;
+                        fila[cauda++] = w;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Preenche a linha da origem com o algoritmo de Dijkstra
+         */
+        private void dijkstra(int s, long[] linha, HeapIndexado heap) {
+            linha[s] = 0;
+            heap.inserirOuDiminuir(s, 0);
+            while (!heap.vazio()) {
+                int u = heap.removerMinimo();
+                for (int i = this.grafo.inicio(u); i < this.grafo.fim(u); i++) {
+                    int w = this.grafo.destino(i);
+                    long d = linha[u] + CaminhosMinimos.peso(this.grafo, u, i);
+                    if (d < linha[w]) {
+                        linha[w] = d;
+                        heap.inserirOuDiminuir(w, d);
+                    }
+                }
+            }
+        }
+    }
+
+}
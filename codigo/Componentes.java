@@ -0,0 +1,287 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Resultado da rotulação de componentes: o componente de cada vértice e o
+ * tamanho de cada componente. Os vértices são identificados pelos índices do
+ * grafo congelado que os originou.
+ */
+public class Componentes {
+
+    /**
+     * Grafo cujos vértices foram rotulados
+     */
+    private final GrafoCongelado grafo;
+
+    /**
+     * Componente de cada vértice, por índice
+     */
+    private final int[] componente;
+
+    /**
+     * Número de vértices de cada componente
+     */
+    private final int[] tamanhos;
+
+    /**
+     * Cria o resultado a partir dos rótulos, que devem ir de 0 até o número de
+     * componentes - 1
+     * 
+     * @param grafo      Grafo rotulado
+     * @param componente Componente de cada vértice
+     * @param quantidade Número de componentes
+     */
+    Componentes(GrafoCongelado grafo, int[] componente, int quantidade) {
+        this.grafo = grafo;
+        this.componente = componente;
+        this.tamanhos = new int[quantidade];
+        for (int c : componente)
+            this.tamanhos[c]++;
+    }
+
+    /**
+     * Rotula os componentes conexos (fracamente conexos, se o grafo for
+     * direcionado) com buscas em largura iterativas. Os componentes são
+     * numerados na ordem do menor índice de cada um.
+     * 
+     * @param grafo Grafo a ser rotulado
+     * @return Os componentes do grafo
+     */
+    public static Componentes fracos(GrafoCongelado grafo) {
+        int n = grafo.ordem();
+        GrafoCongelado reverso = grafo.transposta();
+        int[] componente = new int[n];
+        Arrays.fill(componente, -1);
+        int[] fila = new int[n];
+        int quantidade = 0;
+        for (int s = 0; s < n; s++) {
+            if (componente[s] != -1)
+                continue;
+            int cabeca = 0, cauda = 0;
+            componente[s] = quantidade;
+            fila[cauda++] = s;
+            while (cabeca < cauda) {
+                int v = fila[cabeca++];
+                for (int i = grafo.inicio(v); i < grafo.fim(v); i++) {
+                    int w = grafo.destino(i);
+                    if (componente[w] == -1) {
+                        componente[w] = quantidade;
+                        fila[cauda++] = w;
+                    }
+                }
+                // Em grafos direcionados, segue também as arestas de entrada
+                if (reverso != grafo)
+                    for (int i = reverso.inicio(v); i < reverso.fim(v); i++) {
+                        int w = reverso.destino(i);
+                        if (componente[w] == -1) {
+                            componente[w] = quantidade;
+                            fila[cauda++] = w;
+                        }
+                    }
+            }
+            quantidade++;
+        }
+        return new Componentes(grafo, componente, quantidade);
+    }
+
+    /**
+     * Rotula os componentes conexos (fracamente conexos, se o grafo for
+     * direcionado) unindo os extremos de todas as arestas em paralelo, com uma
+     * estrutura de união e busca sem travas. A numeração é a mesma da versão
+     * sequencial.
+     * 
+     * @param grafo Grafo a ser rotulado
+     * @param pool  Pool usado na união das arestas
+     * @return Os componentes do grafo
+     */
+    public static Componentes fracosParalelo(GrafoCongelado grafo, ForkJoinPool pool) {
+        int n = grafo.ordem();
+        UniaoBusca conjuntos = new UniaoBusca(n);
+        pool.invoke(new UnirArestas(grafo, conjuntos, 0, n));
+        // A raiz de cada conjunto é o seu menor índice, já rotulado
+        int[] componente = new int[n];
+        int quantidade = 0;
+        for (int v = 0; v < n; v++) {
+            int raiz = conjuntos.encontrar(v);
+            componente[v] = raiz == v ? quantidade++ : componente[raiz];
+        }
+        return new Componentes(grafo, componente, quantidade);
+    }
+
+    /**
+     * Rotula os componentes fortemente conexos de um grafo direcionado pelo
+     * algoritmo de Tarjan, em uma única busca em profundidade com pilhas
+     * explícitas de inteiros, sem recursão e sem o grafo transposto. O
+     * algoritmo fecha os componentes do último para o primeiro na ordem
+     * topológica; a numeração é invertida no fim, então toda aresta entre
+     * componentes vai de um componente menor para um maior.
+     * 
+     * @param grafo Grafo a ser rotulado
+     * @return Os componentes fortemente conexos do grafo
+     */
+    public static Componentes fortes(GrafoCongelado grafo) {
+        int n = grafo.ordem();
+        int[] ordem = new int[n];
+        int[] baixo = new int[n];
+        int[] componente = new int[n];
+        Arrays.fill(ordem, -1);
+        Arrays.fill(componente, -1);
+        // Pilha da busca, com a próxima aresta de cada vértice, e pilha dos
+        // vértices ainda sem componente
+        int[] chamadas = new int[n];
+        int[] proximaAresta = new int[n];
+        int[] abertos = new int[n];
+        int visitados = 0, quantidade = 0, topoAbertos = 0;
+        for (int s = 0; s < n; s++) {
+            if (ordem[s] != -1)
+                continue;
+            int topo = 0;
+            ordem[s] = baixo[s] = visitados++;
+            abertos[topoAbertos++] = s;
+            proximaAresta[s] = grafo.inicio(s);
+            chamadas[topo++] = s;
+            while (topo > 0) {
+                int v = chamadas[topo - 1];
+                if (proximaAresta[v] < grafo.fim(v)) {
+                    int w = grafo.destino(proximaAresta[v]++);
+                    if (ordem[w] == -1) {
+                        ordem[w] = baixo[w] = visitados++;
+                        abertos[topoAbertos++] = w;
+                        proximaAresta[w] = grafo.inicio(w);
+                        chamadas[topo++] = w;
+                    } else if (componente[w] == -1 && ordem[w] < baixo[v]) {
+                        // w ainda está aberto, então está na pilha
+                        baixo[v] = ordem[w];
+                    }
+                    continue;
+                }
+                topo--;
+                if (topo > 0 && baixo[v] < baixo[chamadas[topo - 1]])
+                    baixo[chamadas[topo - 1]] = baixo[v];
+                if (baixo[v] == ordem[v]) {
+                    int w;
+                    do {
+                        w = abertos[--topoAbertos];
+                        componente[w] = quantidade;
+                    } while (w != v);
+                    quantidade++;
+                }
+            }
+        }
+        for (int v = 0; v < n; v++)
+            componente[v] = quantidade - 1 - componente[v];
+        return new Componentes(grafo, componente, quantidade);
+    }
+
+    /**
+     * Retorna o número de componentes
+     * 
+     * @return Número de componentes
+     */
+    public int quantidade() {
+        return this.tamanhos.length;
+    }
+
+    /**
+     * Retorna o componente do vértice
+     * 
+     * @param id Id do vértice
+     * @return O componente, ou -1 se o vértice não existir
+     */
+    public int componente(int id) {
+        int indice = this.grafo.indice(id);
+        return indice < 0 ? -1 : this.componente[indice];
+    }
+
+    /**
+     * Retorna o número de vértices do componente
+     * 
+     * @param c Componente
+     * @return Tamanho do componente
+     */
+    public int tamanho(int c) {
+        return this.tamanhos[c];
+    }
+
+    /**
+     * Retorna o componente de cada vértice, na ordem dos índices do grafo
+     * congelado
+     * 
+     * @return Cópia do vetor de componentes
+     */
+    public int[] componentes() {
+        return Arrays.copyOf(this.componente, this.componente.length);
+    }
+
+    /**
+     * Retorna o tamanho de cada componente
+     * 
+     * @return Cópia do vetor de tamanhos
+     */
+    public int[] tamanhos() {
+        return Arrays.copyOf(this.tamanhos, this.tamanhos.length);
+    }
+
+    /**
+     * Monta o grafo condensado: um vértice para cada componente, com id igual
+     * ao número do componente, e uma aresta sem peso entre dois componentes se
+     * houver alguma aresta entre vértices deles. Com os componentes fortemente
+     * conexos, o resultado é acíclico.
+     * 
+     * @return O grafo condensado
+     */
+    public GrafoDirecionado condensacao() {
+        GrafoDirecionado condensado = new GrafoDirecionado("Condensação de " + this.grafo.nome());
+        for (int c = 0; c < this.quantidade(); c++)
+            condensado.addVertice(c);
+        LoteArestas arestas = new LoteArestas();
+        for (int v = 0; v < this.grafo.ordem(); v++)
+            for (int i = this.grafo.inicio(v); i < this.grafo.fim(v); i++) {
+                int c = this.componente[v], d = this.componente[this.grafo.destino(i)];
+                if (c != d)
+                    arestas.add(c, d, -1);
+            }
+        condensado.addArestas(arestas);
+        return condensado;
+    }
+
+    /**
+     * Une os extremos das arestas de uma faixa de vértices, dividindo a faixa
+     * entre as threads do pool
+     */
+    private static class UnirArestas extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Número de vértices processados por tarefa
+         */
+        private static final int GRAO = 4096;
+
+        private final GrafoCongelado grafo;
+        private final UniaoBusca conjuntos;
+        private final int inicio, fim;
+
+        UnirArestas(GrafoCongelado grafo, UniaoBusca conjuntos, int inicio, int fim) {
+            this.grafo = grafo;
+            this.conjuntos = conjuntos;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.fim - this.inicio > GRAO) {
+                int meio = (this.inicio + this.fim) >>> 1;
+                invokeAll(new UnirArestas(this.grafo, this.conjuntos, this.inicio, meio),
+                        new UnirArestas(this.grafo, this.conjuntos, meio, this.fim));
+                return;
+            }
+            for (int v = this.inicio; v < this.fim; v++)
+                for (int i = this.grafo.inicio(v); i < this.grafo.fim(v); i++)
+                    this.conjuntos.unir(v, this.grafo.destino(i));
+        }
+    }
+
+}
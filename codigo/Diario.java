@@ -0,0 +1,733 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Diário de alterações de um grafo mutável, para persistência incremental.
+ * Cada inserção ou remoção de vértice ou aresta é acrescentada ao fim do
+ * arquivo do diário como um registro binário de 16 bytes, em vez de regravar
+ * o grafo inteiro. Ao abrir, o grafo é montado a partir do último checkpoint
+ * (uma cópia completa no {@link FormatoBinario}) e dos diários gravados
+ * depois dele. A compactação grava um checkpoint novo e apaga os diários que
+ * ele já contém.
+ *
+ * <pre>
+ * base.g.grfb:    checkpoint da geração g
+ * base.g.diario:  alterações feitas depois do checkpoint da geração g
+ * cabeçalho:      "GRFJ" | versão | geração | 0
+ * registro:       tipo | vértice | vértice | peso
+ * </pre>
+ *
+ * Todos os inteiros são de 32 bits, little-endian. Os registros são gravados
+ * por uma thread própria, em lotes: cada lote é uma única escrita seguida de
+ * um único force(). Com espera, quem altera o grafo só continua quando o seu
+ * registro está no disco, e as alterações feitas enquanto um lote é gravado
+ * vão juntas no próximo (group commit). Sem espera, os lotes são gravados a
+ * cada poucos milissegundos e uma queda perde no máximo o último intervalo.
+ *
+ * Registrar não trava nada: cada registro recebe o seu número de um contador
+ * atômico e é escrito na sua posição de um anel, e a thread de gravação grava
+ * os registros em ordem de número. Só quem espera o disco (ou espaço no anel)
+ * passa pelo monitor do diário.
+ */
+public class Diario implements AutoCloseable {
+
+    /**
+     * Identificador do formato ("GRFJ")
+     */
+    public static final int ASSINATURA = 0x4A465247;
+
+    /**
+     * Versão atual do formato
+     */
+    public static final int VERSAO = 1;
+
+    /**
+     * Tipos de registro
+     */
+    static final int ADD_VERTICE = 1, ADD_ARESTA = 2, REMOVE_ARESTA = 3, REMOVE_VERTICE = 4;
+
+    /**
+     * Tamanho do cabeçalho e de cada registro, em bytes
+     */
+    private static final int REGISTRO = 16;
+
+    /**
+     * Intervalo entre gravações quando ninguém espera pelo disco, em
+     * milissegundos
+     */
+    private static final int INTERVALO = 5;
+
+    /**
+     * Bytes pendentes a partir dos quais quem registra espera a gravação
+     */
+    private static final int LIMITE_PENDENTE = 1 << 20;
+
+    /**
+     * Número de registros que cabem no anel (potência de dois)
+     */
+    private static final int CAPACIDADE = LIMITE_PENDENTE / REGISTRO;
+
+    /**
+     * Grafo cujas alterações são registradas
+     */
+    private final GrafoMutável grafo;
+
+    /**
+     * Caminho dos arquivos, sem a geração e a extensão
+     */
+    private final String base;
+
+    /**
+     * TRUE para que cada alteração espere o seu registro chegar ao disco
+     */
+    private final boolean esperar;
+
+    /**
+     * Geração do diário aberto
+     */
+    private int geracao;
+
+    /**
+     * Canal do diário aberto
+     */
+    private FileChannel canal;
+
+    /**
+     * Registros ainda não gravados, quatro inteiros cada. O registro de número
+     * k fica na posição k módulo CAPACIDADE.
+     */
+    private final int[] anel = new int[4 * CAPACIDADE];
+
+    /**
+     * Número + 1 do registro escrito em cada posição do anel. A thread de
+     * gravação só lê um registro depois de encontrar a sua marca.
+     */
+    private final AtomicLongArray marcas = new AtomicLongArray(CAPACIDADE);
+
+    /**
+     * Número do próximo registro
+     */
+    private final AtomicLong registrados = new AtomicLong();
+
+    /**
+     * Número de registros já gravados no disco
+     */
+    private volatile long gravados = 0;
+
+    /**
+     * Buffer em que os registros de um lote são montados
+     */
+    private final ByteBuffer lote = ByteBuffer.allocate(LIMITE_PENDENTE).order(ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * Número de lotes gravados pela thread de gravação
+     */
+    private long lotes = 0;
+
+    /**
+     * TRUE enquanto a thread de gravação grava um lote fora do monitor
+     */
+    private boolean gravando = false;
+
+    /**
+     * TRUE enquanto a thread de gravação espera, sem prazo, por um registro
+     */
+    private volatile boolean ocioso = false;
+
+    /**
+     * TRUE depois que o diário foi fechado
+     */
+    private volatile boolean fechado = false;
+
+    /**
+     * Primeiro erro de gravação; depois dele, nenhum registro é aceito
+     */
+    private volatile IOException falha;
+
+    /**
+     * Thread que grava os lotes
+     */
+    private final Thread gravador;
+
+    /**
+     * Permite uma única compactação por vez
+     */
+    private final Semaphore compactacao = new Semaphore(1);
+
+    /**
+     * Abre o diário da geração informada e inicia a thread de gravação
+     *
+     * @param grafo   Grafo cujas alterações são registradas
+     * @param base    Caminho dos arquivos
+     * @param esperar TRUE para esperar cada registro chegar ao disco
+     * @param geracao Geração do diário
+     * @throws IOException Se não for possível abrir o diário
+     */
+    private Diario(GrafoMutável grafo, String base, boolean esperar, int geracao) throws IOException {
+        this.grafo = grafo;
+        this.base = base;
+        this.esperar = esperar;
+        this.geracao = geracao;
+        this.canal = abrirCanal(base, geracao);
+        this.gravador = new Thread(this::gravarLotes, "Diário " + base);
+        this.gravador.setDaemon(true);
+        this.gravador.start();
+    }
+
+    /**
+     * Abre o diário de um grafo vazio: carrega o último checkpoint completo,
+     * refaz as alterações dos diários gravados depois dele e passa a registrar
+     * as novas alterações do grafo. Registros incompletos no fim do último
+     * diário, de uma gravação interrompida, são descartados.
+     *
+     * @param grafo   Grafo vazio, do mesmo tipo (direcionado ou não) do que foi
+     *                gravado
+     * @param base    Caminho dos arquivos, sem extensão
+     * @param esperar TRUE para que cada alteração espere o seu registro chegar
+     *                ao disco, FALSE para gravar em intervalos
+     * @return O diário aberto
+     * @throws IOException              Se algum arquivo não puder ser lido ou
+     *                                  não estiver no formato esperado
+     * @throws IllegalArgumentException Se o grafo não estiver vazio ou já
+     *                                  tiver um diário
+     */
+    public static Diario abrir(GrafoMutável grafo, String base, boolean esperar) throws IOException {
+        if (!grafo.vazio() || grafo.diario() != null)
+            throw new IllegalArgumentException("O diário só pode ser aberto em um grafo vazio e sem diário");
+        TreeSet<Integer> checkpoints = new TreeSet<Integer>(), diarios = new TreeSet<Integer>();
+        listarGeracoes(base, checkpoints, diarios);
+
+        int inicio = checkpoints.isEmpty() ? 0 : checkpoints.last();
+        if (!checkpoints.isEmpty()) {
+            GrafoCongelado checkpoint = FormatoBinario.abrir(arquivo(base, inicio, ".grfb").toString());
+            if (checkpoint.direcionado() != grafo.direcionado())
+                throw new IOException("O checkpoint " + arquivo(base, inicio, ".grfb") + " não é de um grafo "
+                        + (grafo.direcionado() ? "direcionado" : "não direcionado"));
+            grafo.addCongelado(checkpoint);
+        }
+        int geracao = inicio;
+        for (int g : diarios.tailSet(inicio)) {
+            refazer(grafo, arquivo(base, g, ".diario"));
+            geracao = g;
+        }
+
+        Diario diario = new Diario(grafo, base, esperar, geracao);
+        diario.apagarAnteriores(inicio);
+        grafo.usarDiario(diario);
+        return diario;
+    }
+
+    /**
+     * Procura os checkpoints e diários existentes
+     *
+     * @param base        Caminho dos arquivos
+     * @param checkpoints Recebe as gerações com checkpoint completo
+     * @param diarios     Recebe as gerações com diário
+     * @throws IOException Se não for possível listar a pasta
+     */
+    private static void listarGeracoes(String base, TreeSet<Integer> checkpoints, TreeSet<Integer> diarios)
+            throws IOException {
+        Path caminho = Paths.get(base).toAbsolutePath();
+        String prefixo = caminho.getFileName() + ".";
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(caminho.getParent(), prefixo + "*")) {
+            for (Path arquivo : arquivos) {
+                String resto = arquivo.getFileName().toString().substring(prefixo.length());
+                int ponto = resto.indexOf('.');
+                if (ponto <= 0 || !resto.substring(0, ponto).chars().allMatch(Character::isDigit))
+                    continue;
+                int geracao = Integer.parseInt(resto.substring(0, ponto));
+                if (resto.endsWith(".grfb") && ponto == resto.length() - 5)
+                    checkpoints.add(geracao);
+                else if (resto.endsWith(".diario") && ponto == resto.length() - 7)
+                    diarios.add(geracao);
+            }
+        }
+    }
+
+    /**
+     * Retorna o arquivo de uma geração
+     *
+     * @param base     Caminho dos arquivos
+     * @param geracao  Geração
+     * @param extensao Extensão do arquivo, com o ponto
+     * @return O caminho do arquivo
+     */
+    private static Path arquivo(String base, int geracao, String extensao) {
+        return Paths.get(base + "." + geracao + extensao);
+    }
+
+    /**
+     * Aplica ao grafo as alterações registradas em um diário
+     *
+     * @param grafo   Grafo, ainda sem diário
+     * @param arquivo Arquivo do diário
+     * @throws IOException Se o arquivo não for um diário
+     */
+    private static void refazer(GrafoMutável grafo, Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+            if (canal.size() < REGISTRO)
+                return;
+            buffer.limit(REGISTRO);
+            while (buffer.hasRemaining() && canal.read(buffer) >= 0)
+                ;
+            buffer.flip();
+            if (buffer.getInt() != ASSINATURA)
+                throw new IOException("Arquivo " + arquivo + " não é um diário");
+            int versao = buffer.getInt();
+            if (versao != VERSAO)
+                throw new IOException("Versão " + versao + " do diário não suportada");
+            buffer.clear();
+            while (canal.read(buffer) > 0) {
+                buffer.flip();
+                while (buffer.remaining() >= REGISTRO)
+                    aplicar(grafo, buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt());
+                buffer.compact();
+            }
+        }
+    }
+
+    /**
+     * Aplica um registro ao grafo
+     *
+     * @param grafo Grafo
+     * @param tipo  Tipo do registro
+     * @param a     Vértice (origem, no caso de arestas)
+     * @param b     Destino da aresta
+     * @param peso  Peso da aresta
+     * @throws IOException Se o tipo for desconhecido
+     */
+    private static void aplicar(GrafoMutável grafo, int tipo, int a, int b, int peso) throws IOException {
+        switch (tipo) {
+            case ADD_VERTICE:
+                grafo.addVertice(a);
+                break;
+            case ADD_ARESTA:
+                grafo.addAresta(a, b, peso);
+                break;
+            case REMOVE_ARESTA:
+                grafo.removeAresta(a, b);
+                break;
+            case REMOVE_VERTICE:
+                grafo.removeVertice(a);
+                break;
+            default:
+                throw new IOException("Registro de tipo desconhecido no diário: " + tipo);
+        }
+    }
+
+    /**
+     * Abre o arquivo do diário de uma geração para acrescentar registros,
+     * gravando o cabeçalho se ele for novo e descartando um registro
+     * incompleto no fim
+     *
+     * @param base    Caminho dos arquivos
+     * @param geracao Geração
+     * @return O canal, posicionado no fim
+     * @throws IOException Se não for possível abrir o arquivo
+     */
+    private static FileChannel abrirCanal(String base, int geracao) throws IOException {
+        FileChannel canal = FileChannel.open(arquivo(base, geracao, ".diario"), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long tamanho = canal.size();
+        if (tamanho < REGISTRO) {
+            ByteBuffer cabecalho = ByteBuffer.allocate(REGISTRO).order(ByteOrder.LITTLE_ENDIAN);
+            cabecalho.putInt(ASSINATURA).putInt(VERSAO).putInt(geracao).putInt(0).flip();
+            canal.truncate(0);
+            while (cabecalho.hasRemaining())
+                canal.write(cabecalho, REGISTRO - cabecalho.remaining());
+            canal.force(true);
+            tamanho = REGISTRO;
+        } else if (tamanho % REGISTRO != 0) {
+            tamanho -= tamanho % REGISTRO;
+            canal.truncate(tamanho);
+        }
+        canal.position(tamanho);
+        return canal;
+    }
+
+    /**
+     * Acrescenta um registro ao anel, sem travas. Com espera, só retorna
+     * quando o registro estiver no disco.
+     *
+     * @param tipo Tipo do registro
+     * @param a    Vértice (origem, no caso de arestas)
+     * @param b    Destino da aresta
+     * @param peso Peso da aresta
+     * @throws UncheckedIOException Se uma gravação anterior falhou
+     */
+    void registrar(int tipo, int a, int b, int peso) {
+        this.verificar();
+        long numero = this.registrados.getAndIncrement();
+        if (numero - this.gravados >= CAPACIDADE)
+            this.aguardarGravados(numero - CAPACIDADE + 1);
+        this.verificar();
+        int posicao = (int) (numero & (CAPACIDADE - 1)), i = 4 * posicao;
+        this.anel[i] = tipo;
+        this.anel[i + 1] = a;
+        this.anel[i + 2] = b;
+        this.anel[i + 3] = peso;
+        this.marcas.set(posicao, numero + 1);
+        // A thread de gravação espera sem prazo enquanto não há registro, e
+        // depois o intervalo inteiro para juntar registros: só é acordada pelo
+        // primeiro registro, pelo anel pela metade ou por quem espera o disco
+        if (this.esperar || this.ocioso || numero + 1 - this.gravados >= CAPACIDADE / 2)
+            LockSupport.unpark(this.gravador);
+        if (this.esperar)
+            this.aguardarGravados(numero + 1);
+        this.verificar();
+    }
+
+    /**
+     * Espera os registros até o número informado (exclusive) chegarem ao
+     * disco, ou uma falha, ou o fechamento do diário
+     *
+     * @param numero Número de registros que devem estar gravados
+     */
+    private void aguardarGravados(long numero) {
+        if (this.gravados >= numero)
+            return;
+        LockSupport.unpark(this.gravador);
+        synchronized (this) {
+            while (this.gravados < numero && this.falha == null && !this.fechado)
+                this.aguardar();
+        }
+    }
+
+    /**
+     * Verifica se o registro de um número já foi escrito no anel
+     *
+     * @param numero Número do registro
+     * @return TRUE se a marca do registro estiver na sua posição
+     */
+    private boolean escrito(long numero) {
+        return this.marcas.get((int) (numero & (CAPACIDADE - 1))) == numero + 1;
+    }
+
+    /**
+     * Copia para o buffer do lote os registros já escritos a partir de um
+     * número, parando no primeiro que ainda não foi escrito
+     *
+     * @param inicio Número do primeiro registro
+     * @return Número do primeiro registro que ficou fora do lote
+     */
+    private long montarLote(long inicio) {
+        this.lote.clear();
+        long numero = inicio;
+        for (; numero - inicio < CAPACIDADE && this.escrito(numero); numero++) {
+            int i = 4 * (int) (numero & (CAPACIDADE - 1));
+            this.lote.putInt(this.anel[i]).putInt(this.anel[i + 1]).putInt(this.anel[i + 2])
+                    .putInt(this.anel[i + 3]);
+        }
+        return numero;
+    }
+
+    /**
+     * Lança a falha de gravação, se houver
+     */
+    private void verificar() {
+        if (this.falha != null)
+            throw new UncheckedIOException("Falha ao gravar o diário", this.falha);
+        if (this.fechado)
+            throw new IllegalStateException("O diário já foi fechado");
+    }
+
+    /**
+     * Espera no monitor do diário, mantendo o estado de interrupção
+     */
+    private void aguardar() {
+        try {
+            this.wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido esperando o diário", e);
+        }
+    }
+
+    /**
+     * Laço da thread de gravação: espera o primeiro registro, deixa o
+     * intervalo juntar os seguintes, grava o lote com uma única escrita e um
+     * único force() e acorda quem esperava por ele
+     */
+    private void gravarLotes() {
+        while (true) {
+            while (!this.escrito(this.gravados)) {
+                if (this.fechado || this.falha != null || Thread.currentThread().isInterrupted())
+                    return;
+                this.ocioso = true;
+                if (!this.escrito(this.gravados) && !this.fechado)
+                    LockSupport.park(this);
+                this.ocioso = false;
+            }
+            if (!this.esperar)
+                LockSupport.parkNanos(this, INTERVALO * 1000000L);
+            FileChannel canal;
+            long ate;
+            synchronized (this) {
+                if (this.falha != null)
+                    return;
+                // girar() pode ter gravado o lote enquanto esta thread esperava
+                if (!this.escrito(this.gravados))
+                    continue;
+                canal = this.canal;
+                this.gravando = true;
+                ate = this.montarLote(this.gravados);
+            }
+            IOException erro = null;
+            try {
+                gravarLote(canal, this.lote);
+            } catch (IOException e) {
+                erro = e;
+            }
+            synchronized (this) {
+                this.gravando = false;
+                if (erro != null)
+                    this.falha = erro;
+                else {
+                    this.gravados = ate;
+                    this.lotes++;
+                }
+                this.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Grava um lote no fim do canal e o força para o disco
+     *
+     * @param canal Canal do diário
+     * @param lote  Registros, do início até a posição atual
+     * @throws IOException Se não for possível gravar
+     */
+    private static void gravarLote(FileChannel canal, ByteBuffer lote) throws IOException {
+        lote.flip();
+        while (lote.hasRemaining())
+            canal.write(lote);
+        lote.clear();
+        canal.force(false);
+    }
+
+    /**
+     * Grava os registros pendentes no diário atual e passa a registrar em um
+     * diário da próxima geração. Chamado pelo grafo sem nenhuma alteração em
+     * andamento, então todos os registros reservados já estão no anel.
+     *
+     * @throws UncheckedIOException Se não for possível gravar ou criar o diário
+     */
+    private synchronized void girar() {
+        try {
+            while (this.gravando)
+                this.wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido esperando o diário", e);
+        }
+        this.verificar();
+        long ate = this.montarLote(this.gravados);
+        try {
+            gravarLote(this.canal, this.lote);
+            this.canal.close();
+            this.geracao++;
+            this.canal = abrirCanal(this.base, this.geracao);
+        } catch (IOException e) {
+            this.falha = e;
+            throw new UncheckedIOException("Falha ao trocar de diário", e);
+        }
+        this.gravados = ate;
+        this.notifyAll();
+    }
+
+    /**
+     * Grava um checkpoint com o estado atual do grafo e apaga os diários e
+     * checkpoints anteriores, que ele substitui. As alterações feitas durante a
+     * gravação vão para o diário da nova geração.
+     *
+     * @throws IOException Se não for possível gravar o checkpoint
+     */
+    public void compactar() throws IOException {
+        this.compactacao.acquireUninterruptibly();
+        try {
+            GrafoCongelado estado;
+            try (GrafoInstantâneo instantaneo = this.grafo.instantaneo(this::girar)) {
+                estado = instantaneo.congelar();
+            }
+            this.gravarCheckpoint(estado, this.geracaoAtual());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            this.compactacao.release();
+        }
+    }
+
+    /**
+     * Compacta o diário em outra thread. Só a troca de diário e o instantâneo
+     * são feitos na thread que chama. Em um {@link GrafoConcorrente} o
+     * instantâneo é lido na outra thread; nos demais grafos, que não aceitam
+     * leituras concorrentes com alterações, ele é congelado antes, e só a
+     * gravação fica para a outra thread.
+     *
+     * @return Completado quando o checkpoint estiver gravado
+     */
+    public CompletableFuture<Void> compactarEmSegundoPlano() {
+        CompletableFuture<Void> resultado = new CompletableFuture<Void>();
+        this.compactacao.acquireUninterruptibly();
+        GrafoInstantâneo instantaneo;
+        GrafoCongelado congelado = null;
+        int geracao;
+        try {
+            instantaneo = this.grafo.instantaneo(this::girar);
+            geracao = this.geracaoAtual();
+            if (!(this.grafo instanceof GrafoConcorrente)) {
+                try (GrafoInstantâneo i = instantaneo) {
+                    congelado = i.congelar();
+                }
+            }
+        } catch (RuntimeException e) {
+            this.compactacao.release();
+            resultado.completeExceptionally(e instanceof UncheckedIOException ? e.getCause() : e);
+            return resultado;
+        }
+        GrafoCongelado estado = congelado;
+        Thread thread = new Thread(() -> {
+            try {
+                GrafoCongelado gravar = estado;
+                if (gravar == null)
+                    try (GrafoInstantâneo i = instantaneo) {
+                        gravar = i.congelar();
+                    }
+                this.gravarCheckpoint(gravar, geracao);
+                resultado.complete(null);
+            } catch (IOException | RuntimeException e) {
+                resultado.completeExceptionally(e);
+            } finally {
+                this.compactacao.release();
+            }
+        }, "Compactação " + this.base);
+        thread.setDaemon(true);
+        thread.start();
+        return resultado;
+    }
+
+    /**
+     * Retorna a geração do diário aberto
+     *
+     * @return Geração atual
+     */
+    private synchronized int geracaoAtual() {
+        return this.geracao;
+    }
+
+    /**
+     * Grava o checkpoint de uma geração em um arquivo temporário, força-o para
+     * o disco e o renomeia de uma vez, para que um checkpoint incompleto nunca
+     * seja encontrado. Depois apaga as gerações anteriores.
+     *
+     * @param estado  Estado do grafo no início da geração
+     * @param geracao Geração do checkpoint
+     * @throws IOException Se não for possível gravar o checkpoint
+     */
+    private void gravarCheckpoint(GrafoCongelado estado, int geracao) throws IOException {
+        Path temporario = arquivo(this.base, geracao, ".grfb.tmp");
+        FormatoBinario.gravar(estado, temporario.toString());
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.WRITE)) {
+            canal.force(true);
+        }
+        Files.move(temporario, arquivo(this.base, geracao, ".grfb"), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        this.apagarAnteriores(geracao);
+    }
+
+    /**
+     * Apaga os checkpoints e diários de gerações anteriores à informada
+     *
+     * @param geracao Geração do checkpoint mais recente
+     * @throws IOException Se não for possível apagar algum arquivo
+     */
+    private void apagarAnteriores(int geracao) throws IOException {
+        TreeSet<Integer> checkpoints = new TreeSet<Integer>(), diarios = new TreeSet<Integer>();
+        listarGeracoes(this.base, checkpoints, diarios);
+        for (int g : checkpoints.headSet(geracao))
+            Files.deleteIfExists(arquivo(this.base, g, ".grfb"));
+        for (int g : diarios.headSet(geracao))
+            Files.deleteIfExists(arquivo(this.base, g, ".diario"));
+    }
+
+    /**
+     * Retorna a geração do diário aberto. O checkpoint mais recente é desta
+     * geração ou da anterior, se uma compactação estiver em andamento.
+     *
+     * @return Geração atual
+     */
+    public int geracao() {
+        return this.geracaoAtual();
+    }
+
+    /**
+     * Retorna o número de lotes gravados pela thread de gravação, cada um com
+     * uma escrita e um force()
+     *
+     * @return Número de lotes
+     */
+    synchronized long lotes() {
+        return this.lotes;
+    }
+
+    /**
+     * Espera os registros pendentes chegarem ao disco
+     *
+     * @throws IOException Se uma gravação falhou
+     */
+    public void sincronizar() throws IOException {
+        this.aguardarGravados(this.registrados.get());
+        if (this.falha != null)
+            throw this.falha;
+    }
+
+    /**
+     * Grava os registros pendentes, espera a compactação em andamento e fecha
+     * o diário. O grafo para de registrar alterações.
+     *
+     * @throws IOException Se não for possível gravar ou fechar o diário
+     */
+    @Override
+    public void close() throws IOException {
+        this.compactacao.acquireUninterruptibly();
+        try {
+            synchronized (this) {
+                if (this.fechado)
+                    return;
+            }
+            this.grafo.usarDiario(null);
+            this.sincronizar();
+            synchronized (this) {
+                this.fechado = true;
+                this.notifyAll();
+            }
+            LockSupport.unpark(this.gravador);
+            try {
+                this.gravador.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            this.canal.close();
+        } finally {
+            this.compactacao.release();
+        }
+    }
+
+}
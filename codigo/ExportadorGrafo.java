@@ -0,0 +1,362 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.util.Iterator;
+
+/**
+ * Exporta um grafo em texto, escrevendo aos poucos em qualquer Appendable
+ * (StringBuilder, Writer de arquivo ou de socket, System.out). O texto passa
+ * por um buffer de tamanho fixo e é entregue ao destino em blocos, então a
+ * memória usada não depende do tamanho do grafo e nenhuma String é montada por
+ * aresta.
+ *
+ * <pre>
+ * CHAVES:  Grafo "nome": {{0, 1}, {0, 2, 7}}      (direcionado: (0, 1), ...)
+ * ARESTAS: uma aresta por linha, "origem destino peso", o formato de salvar
+ * DOT:     graph "nome" { 0; 0 -- 1; 0 -- 2 [label=7]; }   (digraph e -&gt;)
+ * JSON:    {"nome":"nome","direcionado":false,"vertices":[{"id":0,"arestas":[{"destino":1,"peso":7}]}]}
+ * </pre>
+ *
+ * Arestas sem peso (-1) são escritas sem o peso, exceto em ARESTAS. Em grafos
+ * não direcionados, CHAVES e DOT escrevem cada aresta uma vez, e JSON traz as
+ * duas direções, como uma lista de adjacência.
+ *
+ * @see Grafo#exportar(int, Appendable)
+ * @see GrafoCongelado#toString()
+ */
+public final class ExportadorGrafo {
+
+    /**
+     * Formatos de saída
+     */
+    public static final int CHAVES = 0, ARESTAS = 1, DOT = 2, JSON = 3;
+
+    /**
+     * Número de caracteres guardados antes de entregar ao destino
+     */
+    private static final int TAMANHO_BUFFER = 8192;
+
+    private ExportadorGrafo() {
+    }
+
+    /**
+     * Escreve o grafo no destino, no formato escolhido. O destino não é
+     * esvaziado nem fechado.
+     *
+     * @param grafo   Grafo a ser exportado
+     * @param formato Um entre CHAVES, ARESTAS, DOT e JSON
+     * @param destino Onde o texto é escrito
+     * @throws IOException              Se o destino falhar
+     * @throws IllegalArgumentException Se o formato não existir
+     */
+    static void escrever(Grafo grafo, int formato, Appendable destino) throws IOException {
+        escrever(grafo.NOME, grafo.direcionado(), new CursorGrafo(grafo), formato, destino);
+    }
+
+    /**
+     * Escreve o grafo congelado no destino, com o mesmo texto do grafo que o
+     * originou
+     *
+     * @param grafo   Grafo congelado a ser exportado
+     * @param formato Um entre CHAVES, ARESTAS, DOT e JSON
+     * @param destino Onde o texto é escrito
+     * @throws IOException              Se o destino falhar
+     * @throws IllegalArgumentException Se o formato não existir
+     */
+    static void escrever(GrafoCongelado grafo, int formato, Appendable destino) throws IOException {
+        escrever(grafo.nome(), grafo.direcionado(), new CursorCongelado(grafo), formato, destino);
+    }
+
+    private static void escrever(String nome, boolean direcionado, Cursor grafo, int formato, Appendable destino)
+            throws IOException {
+        Saida saida = new Saida(destino);
+        switch (formato) {
+            case CHAVES:
+                chaves(nome, direcionado, grafo, saida);
+                break;
+            case ARESTAS:
+                arestas(direcionado, grafo, saida);
+                break;
+            case DOT:
+                dot(nome, direcionado, grafo, saida);
+                break;
+            case JSON:
+                json(nome, direcionado, grafo, saida);
+                break;
+            default:
+                throw new IllegalArgumentException("Formato de exportação desconhecido: " + formato);
+        }
+        saida.esvaziar();
+    }
+
+    private static void chaves(String nome, boolean direcionado, Cursor grafo, Saida saida) throws IOException {
+        boolean primeira = true;
+        char abre = direcionado ? '(' : '{', fecha = direcionado ? ')' : '}';
+        saida.texto("Grafo \"").texto(nome).texto("\": {");
+        while (grafo.proximoVertice())
+            while (grafo.proximaAresta())
+                if (direcionado || grafo.destino() >= grafo.vertice()) {
+                    if (!primeira)
+                        saida.texto(", ");
+                    primeira = false;
+                    saida.caractere(abre).inteiro(grafo.vertice()).texto(", ").inteiro(grafo.destino());
+                    if (grafo.peso() != -1)
+                        saida.texto(", ").inteiro(grafo.peso());
+                    saida.caractere(fecha);
+                }
+        saida.caractere('}');
+    }
+
+    private static void arestas(boolean direcionado, Cursor grafo, Saida saida) throws IOException {
+        String linha = System.lineSeparator();
+        while (grafo.proximoVertice())
+            while (grafo.proximaAresta())
+                if (direcionado || grafo.destino() <= grafo.vertice())
+                    saida.inteiro(grafo.vertice()).caractere(' ').inteiro(grafo.destino()).caractere(' ')
+                            .inteiro(grafo.peso()).texto(linha);
+    }
+
+    private static void dot(String nome, boolean direcionado, Cursor grafo, Saida saida) throws IOException {
+        String ligacao = direcionado ? " -> " : " -- ";
+        saida.texto(direcionado ? "digraph " : "graph ").escapado(nome).texto(" {\n");
+        while (grafo.proximoVertice()) {
+            saida.texto("  ").inteiro(grafo.vertice()).texto(";\n");
+            while (grafo.proximaAresta())
+                if (direcionado || grafo.destino() >= grafo.vertice()) {
+                    saida.texto("  ").inteiro(grafo.vertice()).texto(ligacao).inteiro(grafo.destino());
+                    if (grafo.peso() != -1)
+                        saida.texto(" [label=").inteiro(grafo.peso()).caractere(']');
+                    saida.texto(";\n");
+                }
+        }
+        saida.texto("}\n");
+    }
+
+    private static void json(String nome, boolean direcionado, Cursor grafo, Saida saida) throws IOException {
+        saida.texto("{\"nome\":").escapado(nome).texto(",\"direcionado\":")
+                .texto(direcionado ? "true" : "false").texto(",\"vertices\":[");
+        boolean primeiro = true;
+        while (grafo.proximoVertice()) {
+            saida.texto(primeiro ? "\n{\"id\":" : ",\n{\"id\":").inteiro(grafo.vertice()).texto(",\"arestas\":[");
+            primeiro = false;
+            boolean primeira = true;
+            while (grafo.proximaAresta()) {
+                saida.texto(primeira ? "{\"destino\":" : ",{\"destino\":").inteiro(grafo.destino());
+                primeira = false;
+                if (grafo.peso() != -1)
+                    saida.texto(",\"peso\":").inteiro(grafo.peso());
+                saida.caractere('}');
+            }
+            saida.texto("]}");
+        }
+        saida.texto("\n]}\n");
+    }
+
+    /**
+     * Percorre os vértices em ordem crescente de id e, em cada um, as arestas
+     * de saída em ordem crescente de destino
+     */
+    private interface Cursor {
+
+        /**
+         * Avança para o próximo vértice
+         *
+         * @return FALSE se não houver mais vértices
+         */
+        boolean proximoVertice();
+
+        /**
+         * Avança para a próxima aresta do vértice atual
+         *
+         * @return FALSE se não houver mais arestas
+         */
+        boolean proximaAresta();
+
+        int vertice();
+
+        int destino();
+
+        int peso();
+    }
+
+    /**
+     * Cursor sobre os vértices e as arestas de um Grafo
+     */
+    private static final class CursorGrafo implements Cursor {
+
+        private final Grafo grafo;
+        private final Iterator<Vértice> vertices;
+        private Vértice vértice;
+        private Iterator<Aresta> arestas;
+        private Aresta aresta;
+
+        CursorGrafo(Grafo grafo) {
+            this.grafo = grafo;
+            this.vertices = grafo.verticesOrdenados().iterator();
+        }
+
+        @Override
+        public boolean proximoVertice() {
+            if (!this.vertices.hasNext())
+                return false;
+            this.vértice = this.vertices.next();
+            this.arestas = this.grafo.arestasOrdenadas(this.vértice).iterator();
+            return true;
+        }
+
+        @Override
+        public boolean proximaAresta() {
+            if (!this.arestas.hasNext())
+                return false;
+            this.aresta = this.arestas.next();
+            return true;
+        }
+
+        @Override
+        public int vertice() {
+            return this.vértice.getId();
+        }
+
+        @Override
+        public int destino() {
+            return this.aresta.destino();
+        }
+
+        @Override
+        public int peso() {
+            return this.aresta.peso();
+        }
+    }
+
+    /**
+     * Cursor sobre os vetores de um GrafoCongelado, cujos índices já seguem a
+     * ordem dos ids
+     */
+    private static final class CursorCongelado implements Cursor {
+
+        private final GrafoCongelado grafo;
+        private int v = -1, posicao, fim;
+
+        CursorCongelado(GrafoCongelado grafo) {
+            this.grafo = grafo;
+        }
+
+        @Override
+        public boolean proximoVertice() {
+            if (++this.v >= this.grafo.ordem())
+                return false;
+            this.posicao = this.grafo.inicio(this.v) - 1;
+            this.fim = this.grafo.fim(this.v);
+            return true;
+        }
+
+        @Override
+        public boolean proximaAresta() {
+            return ++this.posicao < this.fim;
+        }
+
+        @Override
+        public int vertice() {
+            return this.grafo.id(this.v);
+        }
+
+        @Override
+        public int destino() {
+            return this.grafo.id(this.grafo.destino(this.posicao));
+        }
+
+        @Override
+        public int peso() {
+            return this.grafo.peso(this.posicao);
+        }
+    }
+
+    /**
+     * Buffer de caracteres na frente do destino. Writers e StringBuilders
+     * recebem o próprio vetor; outros Appendables recebem uma visão dele.
+     */
+    private static final class Saida {
+
+        private final Appendable destino;
+        private final char[] buffer = new char[TAMANHO_BUFFER];
+        private int posicao = 0;
+
+        Saida(Appendable destino) {
+            this.destino = destino;
+        }
+
+        Saida texto(String texto) throws IOException {
+            int tamanho = texto.length();
+            if (tamanho > TAMANHO_BUFFER - this.posicao) {
+                this.esvaziar();
+                if (tamanho > TAMANHO_BUFFER) {
+                    this.destino.append(texto);
+                    return this;
+                }
+            }
+            texto.getChars(0, tamanho, this.buffer, this.posicao);
+            this.posicao += tamanho;
+            return this;
+        }
+
+        Saida caractere(char c) throws IOException {
+            if (this.posicao == TAMANHO_BUFFER)
+                this.esvaziar();
+            this.buffer[this.posicao++] = c;
+            return this;
+        }
+
+        /**
+         * Escreve um inteiro em decimal direto no buffer
+         */
+        Saida inteiro(int valor) throws IOException {
+            if (TAMANHO_BUFFER - this.posicao < 11)
+                this.esvaziar();
+            long resto = valor;
+            if (resto < 0) {
+                this.buffer[this.posicao++] = '-';
+                resto = -resto;
+            }
+            int digitos = 1;
+            for (long limite = 10; limite <= resto; limite *= 10)
+                digitos++;
+            for (int i = this.posicao + digitos - 1; i >= this.posicao; i--, resto /= 10)
+                this.buffer[i] = (char) ('0' + resto % 10);
+            this.posicao += digitos;
+            return this;
+        }
+
+        /**
+         * Escreve um texto entre aspas, escapando aspas, barras e caracteres
+         * de controle (válido em DOT e em JSON)
+         */
+        Saida escapado(String texto) throws IOException {
+            this.caractere('"');
+            for (int i = 0; i < texto.length(); i++) {
+                char c = texto.charAt(i);
+                if (c == '"' || c == '\\')
+                    this.caractere('\\').caractere(c);
+                else if (c == '\n')
+                    this.texto("\\n");
+                else if (c < ' ')
+                    this.texto(String.format("\\u%04x", (int) c));
+                else
+                    this.caractere(c);
+            }
+            return this.caractere('"');
+        }
+
+        void esvaziar() throws IOException {
+            if (this.posicao == 0)
+                return;
+            if (this.destino instanceof Writer)
+                ((Writer) this.destino).write(this.buffer, 0, this.posicao);
+            else if (this.destino instanceof StringBuilder)
+                ((StringBuilder) this.destino).append(this.buffer, 0, this.posicao);
+            else
+                this.destino.append(CharBuffer.wrap(this.buffer, 0, this.posicao));
+            this.posicao = 0;
+        }
+    }
+
+}
@@ -0,0 +1,229 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Formato binário para gravar e abrir grafos congelados. O arquivo guarda o
+ * próprio layout CSR, então abrir é apenas mapear o arquivo em memória: o
+ * grafo congelado lê cada seção direto do mapeamento, sem copiar nem
+ * interpretar texto, e as páginas só são lidas do disco quando acessadas.
+ * 
+ * <pre>
+ * cabeçalho: "GRFB" | versão | flags (bit 0: direcionado) | n | m | bytes do nome
+ * nome:      UTF-8, completado com zeros até múltiplo de 4
+ * vértices:  n inteiros (ids em ordem crescente)
+ * início:    n + 1 inteiros
+ * destinos:  m inteiros (índices)
+ * pesos:     m inteiros
+ * </pre>
+ * 
+ * Todos os inteiros são de 32 bits, little-endian.
+ */
+public class FormatoBinario {
+
+    /**
+     * Identificador do formato ("GRFB")
+     */
+    public static final int ASSINATURA = 0x42465247;
+
+    /**
+     * Versão atual do formato
+     */
+    public static final int VERSAO = 1;
+
+    /**
+     * Tamanho do cabeçalho fixo, em bytes
+     */
+    private static final int CABECALHO = 24;
+
+    /**
+     * Maior janela mapeada de uma vez, em bytes. Seções maiores que um único
+     * mapeamento (Integer.MAX_VALUE bytes) são copiadas em janelas deste
+     * tamanho.
+     */
+    private static final int JANELA = 1 << 30;
+
+    /**
+     * Grava o grafo congelado no arquivo, substituindo o conteúdo anterior. O
+     * grafo é gravado em um arquivo temporário, que é renomeado por cima do
+     * anterior: grafos abertos do arquivo antigo continuam lendo o seu
+     * mapeamento, que o arquivo novo não altera.
+     * 
+     * @param grafo       Grafo a ser gravado
+     * @param nomeArquivo Nome do arquivo
+     * @throws IOException Se não for possível gravar o arquivo
+     */
+    public static void gravar(GrafoCongelado grafo, String nomeArquivo) throws IOException {
+        int n = grafo.ordem(), m = n == 0 ? 0 : grafo.fim(n - 1);
+        Path temporario = Paths.get(nomeArquivo + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+            escreverCabecalho(canal, buffer, grafo.nome(), grafo.direcionado(), n, m);
+            for (int v = 0; v < n; v++)
+                escrever(canal, buffer, grafo.id(v));
+            for (int v = 0; v <= n; v++)
+                escrever(canal, buffer, v < n ? grafo.inicio(v) : m);
+            for (int i = 0; i < m; i++)
+                escrever(canal, buffer, grafo.destino(i));
+            for (int i = 0; i < m; i++)
+                escrever(canal, buffer, grafo.peso(i));
+            esvaziar(canal, buffer);
+        }
+        Files.move(temporario, Paths.get(nomeArquivo), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Escreve o cabeçalho e o nome do grafo. Em seguida devem ser escritas as
+     * seções de vértices, início, destinos e pesos, nesta ordem.
+     * 
+     * @param canal       Canal do arquivo
+     * @param buffer      Buffer de escrita, little-endian
+     * @param nome        Nome do grafo
+     * @param direcionado TRUE se o grafo for direcionado
+     * @param n           Número de vértices
+     * @param m           Número de posições de arestas
+     * @throws IOException Se não for possível gravar
+     */
+    static void escreverCabecalho(FileChannel canal, ByteBuffer buffer, String nome, boolean direcionado, int n,
+            int m) throws IOException {
+        byte[] bytes = nome.getBytes(StandardCharsets.UTF_8);
+        int[] cabecalho = { ASSINATURA, VERSAO, direcionado ? 1 : 0, n, m, bytes.length };
+        for (int valor : cabecalho)
+            escrever(canal, buffer, valor);
+        for (int i = 0; i < bytes.length; i += 4) {
+            int valor = 0;
+            for (int b = 0; b < 4 && i + b < bytes.length; b++)
+                valor |= (bytes[i + b] & 0xFF) << (8 * b);
+            escrever(canal, buffer, valor);
+        }
+    }
+
+    /**
+     * Escreve um inteiro no buffer, gravando o buffer no canal quando ele enche
+     * 
+     * @param canal  Canal do arquivo
+     * @param buffer Buffer de escrita
+     * @param valor  Inteiro a ser escrito
+     * @throws IOException Se não for possível gravar
+     */
+    static void escrever(FileChannel canal, ByteBuffer buffer, int valor) throws IOException {
+        if (buffer.remaining() < 4)
+            esvaziar(canal, buffer);
+        buffer.putInt(valor);
+    }
+
+    /**
+     * Grava todo o conteúdo do buffer no canal e o deixa vazio
+     * 
+     * @param canal  Canal do arquivo
+     * @param buffer Buffer de escrita
+     * @throws IOException Se não for possível gravar
+     */
+    static void esvaziar(FileChannel canal, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            canal.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Abre um grafo gravado neste formato. O arquivo é mapeado em memória e o
+     * grafo congelado devolvido lê as seções direto do mapeamento, que continua
+     * válido depois que o arquivo é fechado. Abrir só lê o cabeçalho e o nome;
+     * as demais páginas são lidas do disco quando o grafo as acessa. O arquivo
+     * não deve ser alterado no lugar enquanto o grafo é usado; {@link #gravar}
+     * o substitui sem alterá-lo. Para alterar o grafo, monte uma cópia com
+     * {@link GrafoCongelado#materializar()}.
+     * 
+     * @param nomeArquivo Nome do arquivo
+     * @return O grafo congelado
+     * @throws IOException Se o arquivo não existir, não estiver neste formato ou
+     *                     for de uma versão desconhecida
+     */
+    public static GrafoCongelado abrir(String nomeArquivo) throws IOException {
+        Path caminho = Paths.get(nomeArquivo);
+        try (FileChannel canal = FileChannel.open(caminho, StandardOpenOption.READ)) {
+            if (canal.size() < CABECALHO)
+                throw new IOException("Arquivo " + nomeArquivo + " não é um grafo binário");
+            MappedByteBuffer cabecalho = canal.map(FileChannel.MapMode.READ_ONLY, 0, CABECALHO);
+            cabecalho.order(ByteOrder.LITTLE_ENDIAN);
+            if (cabecalho.getInt() != ASSINATURA)
+                throw new IOException("Arquivo " + nomeArquivo + " não é um grafo binário");
+            int versao = cabecalho.getInt();
+            if (versao != VERSAO)
+                throw new IOException("Versão " + versao + " do formato binário não suportada");
+            boolean direcionado = (cabecalho.getInt() & 1) != 0;
+            int n = cabecalho.getInt(), m = cabecalho.getInt(), bytesNome = cabecalho.getInt();
+
+            long posicao = CABECALHO;
+            long esperado = posicao + ((bytesNome + 3) & ~3) + 4L * (2L * n + 1 + 2L * m);
+            if (n < 0 || m < 0 || bytesNome < 0 || canal.size() < esperado)
+                throw new IOException("Arquivo " + nomeArquivo + " está incompleto");
+            byte[] nome = new byte[bytesNome];
+            canal.map(FileChannel.MapMode.READ_ONLY, posicao, bytesNome).get(nome);
+            posicao += (bytesNome + 3) & ~3;
+
+            IntBuffer ids = mapear(canal, posicao, n);
+            posicao += 4L * n;
+            IntBuffer inicio = mapear(canal, posicao, n + 1);
+            posicao += 4L * (n + 1);
+            IntBuffer destinos = mapear(canal, posicao, m);
+            posicao += 4L * m;
+            IntBuffer pesos = mapear(canal, posicao, m);
+            return new GrafoCongelado(new String(nome, StandardCharsets.UTF_8), direcionado, ids, inicio, destinos,
+                    pesos);
+        }
+    }
+
+    /**
+     * Mapeia uma seção do arquivo como inteiros, sem copiá-la. Uma seção
+     * maior que um único mapeamento é copiada para um vetor.
+     * 
+     * @param canal      Canal do arquivo
+     * @param posicao    Posição inicial da seção
+     * @param quantidade Número de inteiros da seção
+     * @return Os inteiros da seção
+     * @throws IOException Se não for possível mapear o arquivo
+     */
+    private static IntBuffer mapear(FileChannel canal, long posicao, int quantidade) throws IOException {
+        if (4L * quantidade > Integer.MAX_VALUE) {
+            int[] copia = new int[quantidade];
+            lerInts(canal, posicao, copia);
+            return IntBuffer.wrap(copia);
+        }
+        return canal.map(FileChannel.MapMode.READ_ONLY, posicao, 4L * quantidade).order(ByteOrder.LITTLE_ENDIAN)
+                .asIntBuffer();
+    }
+
+    /**
+     * Copia uma seção do arquivo para o vetor, mapeando janelas de até 1 GB
+     * 
+     * @param canal   Canal do arquivo
+     * @param posicao Posição inicial da seção
+     * @param destino Vetor a ser preenchido
+     * @throws IOException Se não for possível mapear o arquivo
+     */
+    private static void lerInts(FileChannel canal, long posicao, int[] destino) throws IOException {
+        int lidos = 0;
+        while (lidos < destino.length) {
+            int quantidade = Math.min(destino.length - lidos, JANELA / 4);
+            IntBuffer janela = canal.map(FileChannel.MapMode.READ_ONLY, posicao, quantidade * 4L)
+                    .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            janela.get(destino, lidos, quantidade);
+            lidos += quantidade;
+            posicao += quantidade * 4L;
+        }
+    }
+
+}
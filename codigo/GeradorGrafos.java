@@ -0,0 +1,903 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Gerador de grafos sintéticos reproduzíveis: Erdős–Rényi, Barabási–Albert,
+ * R-MAT, grade e aleatório regular. Os vértices têm ids de 0 até vertices - 1.
+ *
+ * O trabalho de cada gerador é dividido em blocos de tamanho fixo, e cada bloco
+ * sorteia com um SplittableRandom próprio, derivado da semente e do número do
+ * bloco. Assim os blocos podem ser gerados em paralelo, em qualquer ordem, e a
+ * mesma semente produz sempre as mesmas arestas, com qualquer número de
+ * threads. As arestas podem ser gravadas no formato texto de carregar ou no
+ * formato binário sem que o grafo fique em memória, ou inseridas em um
+ * GrafoMutável.
+ *
+ * Os geradores não produzem laços. R-MAT pode sortear a mesma aresta mais de
+ * uma vez; no formato texto as repetições são ignoradas ao carregar, e no
+ * binário e em {@link #construir(GrafoMutável)} são descartadas.
+ */
+public abstract class GeradorGrafos {
+
+    /**
+     * Recebe as arestas geradas
+     */
+    @FunctionalInterface
+    public interface Receptor {
+
+        /**
+         * Chamado para cada aresta gerada
+         *
+         * @param origem  Vértice de origem
+         * @param destino Vértice de destino
+         * @param peso    Peso da aresta, ou -1 se o gerador não sorteia pesos
+         */
+        void aresta(int origem, int destino, int peso);
+    }
+
+    /**
+     * Maior janela mapeada do arquivo temporário, em entradas de 8 bytes
+     */
+    private static final int JANELA = 1 << 27;
+
+    /**
+     * Número de vértices
+     */
+    protected final int vertices;
+
+    /**
+     * Semente dos sorteios
+     */
+    protected final long semente;
+
+    /**
+     * Maior peso sorteado, ou 0 para arestas sem peso
+     */
+    private int pesoMaximo = 0;
+
+    /**
+     * Construtor
+     *
+     * @param vertices Número de vértices
+     * @param semente  Semente dos sorteios
+     */
+    protected GeradorGrafos(int vertices, long semente) {
+        if (vertices < 0)
+            throw new IllegalArgumentException("O número de vértices não pode ser negativo");
+        this.vertices = vertices;
+        this.semente = semente;
+    }
+
+    /**
+     * Grafo aleatório G(n, p) de Erdős–Rényi: cada par de vértices é ligado com
+     * probabilidade grauMedio / (n - 1). Os pares não sorteados são pulados por
+     * uma distribuição geométrica, então o custo é proporcional ao número de
+     * arestas, não de pares.
+     *
+     * @param vertices  Número de vértices
+     * @param grauMedio Grau médio esperado
+     * @param semente   Semente dos sorteios
+     * @return O gerador
+     */
+    public static GeradorGrafos erdosRenyi(int vertices, double grauMedio, long semente) {
+        return new ErdosRenyi(vertices, grauMedio, semente);
+    }
+
+    /**
+     * Grafo de Barabási–Albert: cada vértice se liga a até k vértices
+     * anteriores, escolhidos com probabilidade proporcional ao grau. Segue a
+     * formulação de Batagelj e Brandes, em que a ponta de cada aresta é a
+     * ponta de uma aresta anterior sorteada, mas o sorteio de cada posição é
+     * uma função da semente e da posição; a ponta de uma aresta anterior é
+     * recalculada em vez de guardada, e o grafo pode ser gerado em paralelo
+     * sem memória proporcional às arestas.
+     *
+     * @param vertices          Número de vértices
+     * @param arestasPorVertice Arestas criadas por cada novo vértice (k)
+     * @param semente           Semente dos sorteios
+     * @return O gerador
+     */
+    public static GeradorGrafos barabasiAlbert(int vertices, int arestasPorVertice, long semente) {
+        return new BarabasiAlbert(vertices, arestasPorVertice, semente);
+    }
+
+    /**
+     * Grafo R-MAT (Kronecker) com as probabilidades do Graph500 (0,57, 0,19,
+     * 0,19 e 0,05)
+     *
+     * @param escala            Log2 do número de vértices
+     * @param arestasPorVertice Arestas sorteadas por vértice
+     * @param semente           Semente dos sorteios
+     * @return O gerador
+     */
+    public static GeradorGrafos rmat(int escala, int arestasPorVertice, long semente) {
+        return rmat(escala, arestasPorVertice, 0.57, 0.19, 0.19, semente);
+    }
+
+    /**
+     * Grafo R-MAT (Kronecker): cada aresta escolhe, bit a bit, um dos quatro
+     * quadrantes da matriz de adjacência, com probabilidades a, b, c e
+     * 1 - a - b - c
+     *
+     * @param escala            Log2 do número de vértices
+     * @param arestasPorVertice Arestas sorteadas por vértice
+     * @param a                 Probabilidade do quadrante superior esquerdo
+     * @param b                 Probabilidade do quadrante superior direito
+     * @param c                 Probabilidade do quadrante inferior esquerdo
+     * @param semente           Semente dos sorteios
+     * @return O gerador
+     */
+    public static GeradorGrafos rmat(int escala, int arestasPorVertice, double a, double b, double c,
+            long semente) {
+        return new Rmat(escala, arestasPorVertice, a, b, c, semente);
+    }
+
+    /**
+     * Grade bidimensional: o vértice da linha i e coluna j tem id
+     * i * colunas + j e é ligado aos vizinhos da direita e de baixo
+     *
+     * @param linhas  Número de linhas
+     * @param colunas Número de colunas
+     * @param semente Semente dos pesos
+     * @return O gerador
+     */
+    public static GeradorGrafos grade(int linhas, int colunas, long semente) {
+        return new Grade(linhas, colunas, semente);
+    }
+
+    /**
+     * Grafo aleatório regular, como união de grau / 2 ciclos hamiltonianos
+     * aleatórios (e um emparelhamento perfeito, se o grau for ímpar). Cada
+     * ciclo é uma permutação pseudoaleatória calculada por uma rede de
+     * Feistel, sem vetor de permutação. Dois ciclos podem sortear a mesma
+     * aresta, o que tira um de grau dos dois extremos; em média isso acontece
+     * grau² / 4 vezes no grafo inteiro, qualquer que seja o número de vértices.
+     *
+     * @param vertices Número de vértices, par se o grau for ímpar
+     * @param grau     Grau de cada vértice, menor que o número de vértices
+     * @param semente  Semente dos sorteios
+     * @return O gerador
+     */
+    public static GeradorGrafos regular(int vertices, int grau, long semente) {
+        return new Regular(vertices, grau, semente);
+    }
+
+    /**
+     * Faz o gerador sortear pesos entre 1 e o máximo informado, em vez de
+     * gerar arestas sem peso
+     *
+     * @param maximo Maior peso
+     * @return Este gerador
+     */
+    public GeradorGrafos comPesos(int maximo) {
+        if (maximo < 1)
+            throw new IllegalArgumentException("O peso máximo deve ser positivo");
+        this.pesoMaximo = maximo;
+        return this;
+    }
+
+    /**
+     * Retorna o número de vértices do grafo gerado
+     *
+     * @return Número de vértices
+     */
+    public int vertices() {
+        return this.vertices;
+    }
+
+    /**
+     * Número de unidades de trabalho do gerador (vértices, arestas sorteadas
+     * ou posições de ciclos, conforme o modelo)
+     *
+     * @return Número de unidades
+     */
+    protected abstract long unidades();
+
+    /**
+     * Número de unidades por bloco
+     *
+     * @return Tamanho do bloco
+     */
+    protected int bloco() {
+        return 4096;
+    }
+
+    /**
+     * Gera as arestas de um intervalo de unidades
+     *
+     * @param inicio    Primeira unidade
+     * @param fim       Unidade seguinte à última
+     * @param aleatorio Sorteador do bloco
+     * @param receptor  Recebe as arestas
+     */
+    protected abstract void gerar(long inicio, long fim, SplittableRandom aleatorio, Receptor receptor);
+
+    /**
+     * Entrega uma aresta ao receptor. O peso é calculado a partir da semente e
+     * dos dois extremos, então uma aresta sorteada mais de uma vez tem sempre
+     * o mesmo peso, qualquer que seja a repetição mantida.
+     *
+     * @param receptor Recebe a aresta
+     * @param origem   Vértice de origem
+     * @param destino  Vértice de destino
+     */
+    protected final void emitir(Receptor receptor, int origem, int destino) {
+        int peso = -1;
+        if (this.pesoMaximo > 0) {
+            long par = ((long) Math.min(origem, destino) << 32) | Math.max(origem, destino);
+            peso = 1 + (int) Long.remainderUnsigned(mistura(this.semente ^ mistura(par)), this.pesoMaximo);
+        }
+        receptor.aresta(origem, destino, peso);
+    }
+
+    /**
+     * Número de blocos
+     *
+     * @return Número de blocos
+     */
+    private long blocos() {
+        return (this.unidades() + this.bloco() - 1) / this.bloco();
+    }
+
+    /**
+     * Gera as arestas de um bloco, com o sorteador derivado da semente e do
+     * número do bloco
+     *
+     * @param bloco    Número do bloco
+     * @param receptor Recebe as arestas
+     */
+    private void gerarBloco(long bloco, Receptor receptor) {
+        long inicio = bloco * this.bloco();
+        long fim = Math.min(this.unidades(), inicio + this.bloco());
+        this.gerar(inicio, fim, new SplittableRandom(mistura(this.semente + bloco * 0x9E3779B97F4A7C15L)),
+                receptor);
+    }
+
+    /**
+     * Gera todas as arestas na thread atual, em ordem
+     *
+     * @param receptor Recebe as arestas
+     */
+    public void gerar(Receptor receptor) {
+        for (long b = 0; b < this.blocos(); b++)
+            this.gerarBloco(b, receptor);
+    }
+
+    /**
+     * Grava as arestas no formato texto de carregar, usando o pool comum
+     *
+     * @param nomeArquivo Nome do arquivo
+     * @throws IOException Se não for possível gravar o arquivo
+     */
+    public void gravarTexto(String nomeArquivo) throws IOException {
+        this.gravarTexto(nomeArquivo, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Grava as arestas no formato texto de carregar. Os blocos são convertidos
+     * em texto em paralelo e gravados na ordem, com no máximo dois blocos por
+     * thread em memória.
+     *
+     * @param nomeArquivo Nome do arquivo
+     * @param pool        Pool que gera os blocos
+     * @throws IOException Se não for possível gravar o arquivo
+     */
+    public void gravarTexto(String nomeArquivo, ForkJoinPool pool) throws IOException {
+        int janela = 2 * pool.getParallelism();
+        long blocos = this.blocos();
+        try (FileChannel canal = FileChannel.open(Paths.get(nomeArquivo), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ArrayDeque<Future<Texto>> pendentes = new ArrayDeque<Future<Texto>>();
+            long proximo = 0;
+            while (proximo < blocos || !pendentes.isEmpty()) {
+                while (proximo < blocos && pendentes.size() < janela) {
+                    long bloco = proximo++;
+                    pendentes.add(pool.submit(() -> {
+                        Texto texto = new Texto();
+                        this.gerarBloco(bloco, texto);
+                        return texto;
+                    }));
+                }
+                ByteBuffer bytes = esperar(pendentes.poll(), nomeArquivo).bytes();
+                while (bytes.hasRemaining())
+                    canal.write(bytes);
+            }
+        }
+    }
+
+    /**
+     * Grava o grafo no formato binário, usando o pool comum
+     *
+     * @param nomeArquivo Nome do arquivo
+     * @param nome        Nome do grafo
+     * @param direcionado TRUE para gravar um grafo direcionado
+     * @throws IOException Se não for possível gravar o arquivo
+     * @see FormatoBinario
+     */
+    public void gravarBinario(String nomeArquivo, String nome, boolean direcionado) throws IOException {
+        this.gravarBinario(nomeArquivo, nome, direcionado, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Grava o grafo no formato binário sem montá-lo em memória. As arestas são
+     * geradas duas vezes: a primeira só conta o grau de cada vértice, e a
+     * segunda espalha cada aresta na posição da lista do seu vértice em um
+     * arquivo temporário mapeado em memória. Depois cada lista é ordenada,
+     * as repetições são descartadas e as seções do formato são gravadas em
+     * sequência. Em memória ficam só os vetores de graus e de inícios.
+     *
+     * @param nomeArquivo Nome do arquivo
+     * @param nome        Nome do grafo
+     * @param direcionado TRUE para gravar um grafo direcionado
+     * @param pool        Pool que gera os blocos
+     * @throws IOException Se não for possível gravar o arquivo ou se as arestas
+     *                     não couberem no formato
+     * @see FormatoBinario
+     */
+    public void gravarBinario(String nomeArquivo, String nome, boolean direcionado, ForkJoinPool pool)
+            throws IOException {
+        int n = this.vertices;
+        AtomicIntegerArray graus = new AtomicIntegerArray(n);
+        this.emParalelo(pool, nomeArquivo, bloco -> this.gerarBloco(bloco, (u, v, peso) -> {
+            graus.incrementAndGet(u);
+            if (!direcionado)
+                graus.incrementAndGet(v);
+        }));
+        long[] inicio = new long[n + 1];
+        for (int v = 0; v < n; v++)
+            inicio[v + 1] = inicio[v] + graus.get(v);
+
+        Path temporario = Files.createTempFile(Paths.get(nomeArquivo).toAbsolutePath().getParent(), "grafo",
+                ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE)) {
+            Entradas entradas = new Entradas(canal, inicio[n]);
+
+            // Cada aresta ocupa a próxima posição livre, do fim para o início
+            this.emParalelo(pool, nomeArquivo, bloco -> this.gerarBloco(bloco, (u, v, peso) -> {
+                entradas.gravar(inicio[u] + graus.decrementAndGet(u), v, peso);
+                if (!direcionado)
+                    entradas.gravar(inicio[v] + graus.decrementAndGet(v), u, peso);
+            }));
+
+            // Ordena cada lista e guarda em graus o número de destinos distintos
+            int faixa = 1 << 14;
+            this.emParalelo(pool, nomeArquivo, (n + faixa - 1L) / faixa, f -> {
+                long[] lista = new long[16];
+                for (int u = (int) f * faixa; u < Math.min(n, (f + 1) * faixa); u++) {
+                    int tamanho = (int) (inicio[u + 1] - inicio[u]);
+                    if (lista.length < tamanho)
+                        lista = new long[Math.max(tamanho, lista.length * 2)];
+                    for (int i = 0; i < tamanho; i++)
+                        lista[i] = entradas.ler(inicio[u] + i);
+                    Arrays.sort(lista, 0, tamanho);
+                    int distintos = 0;
+                    for (int i = 0; i < tamanho; i++)
+                        if (distintos == 0 || (lista[i] >>> 32) != (lista[distintos - 1] >>> 32))
+                            lista[distintos++] = lista[i];
+                    for (int i = 0; i < distintos; i++)
+                        entradas.gravar(inicio[u] + i, lista[i]);
+                    graus.set(u, distintos);
+                }
+            });
+
+            long m = 0;
+            for (int v = 0; v < n; v++)
+                m += graus.get(v);
+            if (m > Integer.MAX_VALUE)
+                throw new IOException("O grafo tem " + m + " posições de arestas, mais do que cabe no formato binário");
+            try (FileChannel saida = FileChannel.open(Paths.get(nomeArquivo), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+                FormatoBinario.escreverCabecalho(saida, buffer, nome, direcionado, n, (int) m);
+                for (int v = 0; v < n; v++)
+                    FormatoBinario.escrever(saida, buffer, v);
+                int posicao = 0;
+                for (int v = 0; v < n; v++) {
+                    FormatoBinario.escrever(saida, buffer, posicao);
+                    posicao += graus.get(v);
+                }
+                FormatoBinario.escrever(saida, buffer, posicao);
+                for (int v = 0; v < n; v++)
+                    for (int i = 0; i < graus.get(v); i++)
+                        FormatoBinario.escrever(saida, buffer, (int) (entradas.ler(inicio[v] + i) >>> 32));
+                for (int v = 0; v < n; v++)
+                    for (int i = 0; i < graus.get(v); i++)
+                        FormatoBinario.escrever(saida, buffer, (int) entradas.ler(inicio[v] + i));
+                FormatoBinario.esvaziar(saida, buffer);
+            }
+        }
+    }
+
+    /**
+     * Insere o grafo gerado em um grafo mutável, usando o pool comum
+     *
+     * @param grafo Grafo que recebe os vértices e as arestas
+     * @return Número de arestas adicionadas
+     * @throws IOException Se a geração de algum bloco falhar
+     */
+    public int construir(GrafoMutável grafo) throws IOException {
+        return this.construir(grafo, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Insere o grafo gerado em um grafo mutável. Os blocos são gerados em
+     * paralelo, cada um em um lote de arestas, e os lotes são inseridos de uma
+     * vez pela inserção em lote, que descarta as repetições. Todos os vértices
+     * são criados, inclusive os isolados.
+     *
+     * @param grafo Grafo que recebe os vértices e as arestas
+     * @param pool  Pool que gera os blocos
+     * @return Número de arestas adicionadas
+     * @throws IOException Se a geração de algum bloco falhar
+     */
+    public int construir(GrafoMutável grafo, ForkJoinPool pool) throws IOException {
+        long blocos = this.blocos();
+        List<Callable<LoteArestas>> tarefas = new ArrayList<Callable<LoteArestas>>();
+        for (long b = 0; b < blocos; b++) {
+            long bloco = b;
+            tarefas.add(() -> {
+                LoteArestas lote = new LoteArestas(this.bloco());
+                this.gerarBloco(bloco, lote::add);
+                return lote;
+            });
+        }
+        LoteArestas arestas = new LoteArestas(1);
+        for (Future<LoteArestas> lote : pool.invokeAll(tarefas))
+            arestas.addTodas(esperar(lote, grafo.NOME));
+        for (int id = 0; id < this.vertices; id++)
+            grafo.addVertice(id);
+        return grafo.addArestas(arestas);
+    }
+
+    /**
+     * Executa uma ação para cada bloco do gerador, em paralelo
+     *
+     * @param pool        Pool que executa as ações
+     * @param nomeArquivo Nome do arquivo, para a mensagem de erro
+     * @param acao        Ação executada com o número de cada bloco
+     * @throws IOException Se alguma ação falhar
+     */
+    private void emParalelo(ForkJoinPool pool, String nomeArquivo, AcaoBloco acao) throws IOException {
+        this.emParalelo(pool, nomeArquivo, this.blocos(), acao);
+    }
+
+    /**
+     * Executa uma ação para cada número de 0 a quantidade - 1, em paralelo,
+     * com até quatro tarefas por thread
+     *
+     * @param pool        Pool que executa as ações
+     * @param nomeArquivo Nome do arquivo, para a mensagem de erro
+     * @param quantidade  Número de ações
+     * @param acao        Ação executada com cada número
+     * @throws IOException Se alguma ação falhar
+     */
+    private void emParalelo(ForkJoinPool pool, String nomeArquivo, long quantidade, AcaoBloco acao)
+            throws IOException {
+        long tarefas = Math.min(quantidade, 4L * pool.getParallelism());
+        List<Callable<Void>> lista = new ArrayList<Callable<Void>>();
+        for (long t = 0; t < tarefas; t++) {
+            long primeiro = quantidade * t / tarefas, ultimo = quantidade * (t + 1) / tarefas;
+            lista.add(() -> {
+                for (long b = primeiro; b < ultimo; b++)
+                    acao.executar(b);
+                return null;
+            });
+        }
+        for (Future<Void> tarefa : pool.invokeAll(lista))
+            esperar(tarefa, nomeArquivo);
+    }
+
+    /**
+     * Espera uma tarefa terminar
+     *
+     * @param tarefa      Tarefa
+     * @param nomeArquivo Nome do arquivo, para a mensagem de erro
+     * @return O resultado da tarefa
+     * @throws IOException Se a tarefa falhou ou se a espera foi interrompida
+     */
+    private static <T> T esperar(Future<T> tarefa, String nomeArquivo) throws IOException {
+        try {
+            return tarefa.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException)
+                throw (IOException) e.getCause();
+            throw new IOException("Erro ao gerar o grafo " + nomeArquivo, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Geração do grafo " + nomeArquivo + " interrompida", e);
+        }
+    }
+
+    /**
+     * Função de mistura do SplitMix64: espalha os bits de um long, de modo que
+     * valores próximos resultem em valores sem relação
+     *
+     * @param x Valor
+     * @return Valor misturado
+     */
+    static long mistura(long x) {
+        x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+        x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+        return x ^ (x >>> 31);
+    }
+
+    /**
+     * Ação executada sobre um bloco
+     */
+    @FunctionalInterface
+    private interface AcaoBloco {
+        void executar(long bloco) throws IOException;
+    }
+
+    /**
+     * Receptor que escreve as arestas de um bloco no formato texto, direto em
+     * bytes
+     */
+    private static class Texto implements Receptor {
+
+        private byte[] bytes = new byte[1 << 16];
+
+        private int tamanho = 0;
+
+        @Override
+        public void aresta(int origem, int destino, int peso) {
+            if (this.bytes.length - this.tamanho < 36)
+                this.bytes = Arrays.copyOf(this.bytes, this.bytes.length * 2);
+            this.escrever(origem);
+            this.bytes[this.tamanho++] = ' ';
+            this.escrever(destino);
+            this.bytes[this.tamanho++] = ' ';
+            this.escrever(peso);
+            this.bytes[this.tamanho++] = '\n';
+        }
+
+        /**
+         * Escreve um inteiro em decimal
+         *
+         * @param valor Inteiro, maior ou igual a -1
+         */
+        private void escrever(int valor) {
+            if (valor < 0) {
+                this.bytes[this.tamanho++] = '-';
+                valor = -valor;
+            }
+            int fim = this.tamanho + 1;
+            for (int resto = valor / 10; resto > 0; resto /= 10)
+                fim++;
+            for (int i = fim - 1; i >= this.tamanho; i--) {
+                this.bytes[i] = (byte) ('0' + valor % 10);
+                valor /= 10;
+            }
+            this.tamanho = fim;
+        }
+
+        ByteBuffer bytes() {
+            return ByteBuffer.wrap(this.bytes, 0, this.tamanho);
+        }
+    }
+
+    /**
+     * Vetor de entradas (destino e peso em um long, com o destino nos bits
+     * altos) em um arquivo temporário, mapeado em janelas de 1 GB. As threads
+     * só leem e gravam em posições absolutas, então as janelas podem ser
+     * compartilhadas.
+     */
+    private static class Entradas {
+
+        private final MappedByteBuffer[] janelas;
+
+        Entradas(FileChannel canal, long quantidade) throws IOException {
+            this.janelas = new MappedByteBuffer[(int) ((quantidade + JANELA - 1) / JANELA)];
+            for (int j = 0; j < this.janelas.length; j++) {
+                long inicio = (long) j * JANELA;
+                this.janelas[j] = canal.map(FileChannel.MapMode.READ_WRITE, inicio * 8,
+                        Math.min(quantidade - inicio, JANELA) * 8);
+            }
+        }
+
+        void gravar(long posicao, int destino, int peso) {
+            this.gravar(posicao, ((long) destino << 32) | (peso & 0xFFFFFFFFL));
+        }
+
+        void gravar(long posicao, long entrada) {
+            this.janelas[(int) (posicao / JANELA)].putLong((int) (posicao % JANELA) * 8, entrada);
+        }
+
+        long ler(long posicao) {
+            return this.janelas[(int) (posicao / JANELA)].getLong((int) (posicao % JANELA) * 8);
+        }
+    }
+
+    /**
+     * Erdős–Rényi G(n, p). A unidade é o vértice de origem, ligado aos
+     * vértices de id maior.
+     */
+    private static class ErdosRenyi extends GeradorGrafos {
+
+        /**
+         * Log de 1 - p, usado para sortear o salto até o próximo par ligado
+         */
+        private final double logNaoLigar;
+
+        ErdosRenyi(int vertices, double grauMedio, long semente) {
+            super(vertices, semente);
+            if (grauMedio < 0)
+                throw new IllegalArgumentException("O grau médio não pode ser negativo");
+            double p = vertices > 1 ? Math.min(1, grauMedio / (vertices - 1)) : 0;
+            this.logNaoLigar = Math.log(1 - p);
+        }
+
+        @Override
+        protected long unidades() {
+            return this.logNaoLigar == 0 ? 0 : this.vertices;
+        }
+
+        @Override
+        protected void gerar(long inicio, long fim, SplittableRandom aleatorio, Receptor receptor) {
+            for (int u = (int) inicio; u < fim; u++) {
+                long v = u;
+                while (true) {
+                    // Salto geométrico; com p = 1, logNaoLigar é -infinito e o salto é 0
+                    double salto = Math.log(1 - aleatorio.nextDouble()) / this.logNaoLigar;
+                    if (salto >= this.vertices - v - 1)
+                        break;
+                    v += 1 + (long) salto;
+                    this.emitir(receptor, u, (int) v);
+                }
+            }
+        }
+    }
+
+    /**
+     * Barabási–Albert. A unidade é o vértice que entra no grafo; as suas k
+     * arestas ocupam as posições 2j e 2j + 1 do vetor de pontas de Batagelj e
+     * Brandes, com j de k * vértice até k * vértice + k - 1.
+     */
+    private static class BarabasiAlbert extends GeradorGrafos {
+
+        private final int k;
+
+        BarabasiAlbert(int vertices, int k, long semente) {
+            super(vertices, semente);
+            if (k < 1)
+                throw new IllegalArgumentException("Cada vértice deve criar ao menos uma aresta");
+            this.k = k;
+        }
+
+        @Override
+        protected long unidades() {
+            return this.vertices;
+        }
+
+        /**
+         * Calcula o destino da aresta j: uma posição r entre 0 e 2j é sorteada
+         * em função de j; posições pares são a origem da aresta r / 2, e
+         * posições ímpares, o destino da aresta r / 2, calculado da mesma forma
+         *
+         * @param j Número da aresta
+         * @return Vértice de destino
+         */
+        private int destino(long j) {
+            long r = Long.remainderUnsigned(mistura(this.semente ^ mistura(j)), 2 * j + 1);
+            while ((r & 1) == 1) {
+                long anterior = r >>> 1;
+                r = Long.remainderUnsigned(mistura(this.semente ^ mistura(anterior)), 2 * anterior + 1);
+            }
+            return (int) ((r >>> 1) / this.k);
+        }
+
+        @Override
+        protected void gerar(long inicio, long fim, SplittableRandom aleatorio, Receptor receptor) {
+            int[] escolhidos = new int[this.k];
+            for (int u = (int) inicio; u < fim; u++) {
+                int quantidade = 0;
+                for (long j = (long) u * this.k; j < (long) (u + 1) * this.k; j++) {
+                    int v = this.destino(j);
+                    boolean repetido = v == u;
+                    for (int i = 0; i < quantidade && !repetido; i++)
+                        repetido = escolhidos[i] == v;
+                    if (!repetido) {
+                        escolhidos[quantidade++] = v;
+                        this.emitir(receptor, u, v);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * R-MAT. A unidade é a aresta sorteada.
+     */
+    private static class Rmat extends GeradorGrafos {
+
+        private final int escala;
+        private final long arestas;
+        private final double a, ab, abc;
+
+        Rmat(int escala, int arestasPorVertice, double a, double b, double c, long semente) {
+            super(verificarEscala(escala), semente);
+            if (arestasPorVertice < 0 || a < 0 || b < 0 || c < 0 || a + b + c > 1)
+                throw new IllegalArgumentException("Parâmetros do R-MAT inválidos");
+            this.escala = escala;
+            this.arestas = (long) arestasPorVertice << escala;
+            this.a = a;
+            this.ab = a + b;
+            this.abc = a + b + c;
+        }
+
+        private static int verificarEscala(int escala) {
+            if (escala < 0 || escala > 30)
+                throw new IllegalArgumentException("A escala do R-MAT deve estar entre 0 e 30");
+            return 1 << escala;
+        }
+
+        @Override
+        protected long unidades() {
+            return this.arestas;
+        }
+
+        @Override
+        protected int bloco() {
+            return 1 << 16;
+        }
+
+        @Override
+        protected void gerar(long inicio, long fim, SplittableRandom aleatorio, Receptor receptor) {
+            for (long e = inicio; e < fim; e++) {
+                int u = 0, v = 0;
+                for (int bit = 1 << (this.escala - 1); bit > 0; bit >>>= 1) {
+                    double r = aleatorio.nextDouble();
+                    if (r >= this.abc) {
+                        u |= bit;
+                        v |= bit;
+                    } else if (r >= this.ab) {
+                        u |= bit;
+                    } else if (r >= this.a) {
+                        v |= bit;
+                    }
+                }
+                if (u != v)
+                    this.emitir(receptor, u, v);
+            }
+        }
+    }
+
+    /**
+     * Grade bidimensional. A unidade é o vértice, ligado à direita e abaixo.
+     */
+    private static class Grade extends GeradorGrafos {
+
+        private final int colunas;
+
+        Grade(int linhas, int colunas, long semente) {
+            super(Math.toIntExact((long) verificarLado(linhas) * verificarLado(colunas)), semente);
+            this.colunas = colunas;
+        }
+
+        private static int verificarLado(int lado) {
+            if (lado < 0)
+                throw new IllegalArgumentException("A grade não pode ter lado negativo");
+            return lado;
+        }
+
+        @Override
+        protected long unidades() {
+            return this.vertices;
+        }
+
+        @Override
+        protected void gerar(long inicio, long fim, SplittableRandom aleatorio, Receptor receptor) {
+            for (int u = (int) inicio; u < fim; u++) {
+                if ((u + 1) % this.colunas != 0)
+                    this.emitir(receptor, u, u + 1);
+                if (u + this.colunas < this.vertices)
+                    this.emitir(receptor, u, u + this.colunas);
+            }
+        }
+    }
+
+    /**
+     * Aleatório regular. As unidades são as posições de cada ciclo, seguidas
+     * dos pares do emparelhamento, se houver.
+     */
+    private static class Regular extends GeradorGrafos {
+
+        /**
+         * Rodadas da rede de Feistel
+         */
+        private static final int RODADAS = 4;
+
+        private final int ciclos;
+        private final boolean emparelhamento;
+
+        /**
+         * Bits de cada metade do domínio da permutação
+         */
+        private final int metade;
+
+        Regular(int vertices, int grau, long semente) {
+            super(vertices, semente);
+            if (grau < 0 || (grau > 0 && grau >= vertices))
+                throw new IllegalArgumentException("O grau deve estar entre 0 e o número de vértices - 1");
+            if (grau % 2 == 1 && vertices % 2 == 1)
+                throw new IllegalArgumentException("Com grau ímpar, o número de vértices deve ser par");
+            if (grau >= 2 && vertices < 3)
+                throw new IllegalArgumentException("Ciclos precisam de ao menos três vértices");
+            this.ciclos = grau / 2;
+            this.emparelhamento = grau % 2 == 1;
+            int bits = 2;
+            while ((1L << bits) < vertices)
+                bits += 2;
+            this.metade = bits / 2;
+        }
+
+        @Override
+        protected long unidades() {
+            return (long) this.ciclos * this.vertices + (this.emparelhamento ? this.vertices / 2 : 0);
+        }
+
+        @Override
+        protected int bloco() {
+            return 1 << 16;
+        }
+
+        /**
+         * Posição do vértice i na permutação pseudoaleatória de número c. A
+         * rede de Feistel é uma bijeção sobre as potências de dois; valores
+         * fora do intervalo são cifrados de novo até caírem nele.
+         *
+         * @param c Número da permutação
+         * @param i Posição, entre 0 e vertices - 1
+         * @return Vértice na posição
+         */
+        private int permutar(int c, long i) {
+            long mascara = (1L << this.metade) - 1;
+            do {
+                long esquerda = i >>> this.metade, direita = i & mascara;
+                for (int r = 0; r < RODADAS; r++) {
+                    long chave = mistura(this.semente + c * 0x9E3779B97F4A7C15L + r);
+                    long nova = esquerda ^ (mistura(chave ^ direita) & mascara);
+                    esquerda = direita;
+                    direita = nova;
+                }
+                i = (esquerda << this.metade) | direita;
+            } while (i >= this.vertices);
+            return (int) i;
+        }
+
+        @Override
+        protected void gerar(long inicio, long fim, SplittableRandom aleatorio, Receptor receptor) {
+            long posicoes = (long) this.ciclos * this.vertices;
+            for (long x = inicio; x < fim; x++) {
+                if (x < posicoes) {
+                    int c = (int) (x / this.vertices);
+                    long i = x % this.vertices;
+                    this.emitir(receptor, this.permutar(c, i), this.permutar(c, (i + 1) % this.vertices));
+                } else {
+                    long par = x - posicoes;
+                    this.emitir(receptor, this.permutar(this.ciclos, 2 * par),
+                            this.permutar(this.ciclos, 2 * par + 1));
+                }
+            }
+        }
+    }
+
+}
@@ -1,9 +1,15 @@
-import java.util.TreeMap;
-import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Queue;
-import java.util.Stack;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.StreamSupport;
 
 /** 
  * MIT License
@@ -45,7 +51,50 @@ abstract public class Grafo {
     /**
      * Armazena os vértices do grafo
      */
-    protected TreeMap<Integer, Vértice> vértices;
+    protected MapaInt<Vértice> vértices;
+
+    /**
+     * Indica se os vértices e arestas usam a tabela hash primitiva em vez do
+     * TreeMap
+     */
+    protected final boolean primitivo;
+
+    /**
+     * Próximo índice denso a ser atribuído a um vértice. Os índices não são
+     * reaproveitados após remoções
+     */
+    protected int proximoIndice = 0;
+
+    /**
+     * Número de arestas do grafo, mantido a cada inserção e remoção
+     */
+    protected int arestas = 0;
+
+    /**
+     * Número de laços (arestas de um vértice para ele mesmo)
+     */
+    protected int laços = 0;
+
+    /**
+     * Soma dos graus de todos os vértices
+     */
+    protected long somaGraus = 0;
+
+    /**
+     * Quantidade de vértices com cada grau, usada para manter o grau mínimo e
+     * o máximo sem percorrer os vértices
+     */
+    private int[] contagemGraus = new int[8];
+
+    /**
+     * Menor e maior grau entre os vértices do grafo
+     */
+    private int grauMinimo = 0, grauMaximo = 0;
+
+    /**
+     * Métricas das operações, ou NULL se estiverem desativadas
+     */
+    protected Metricas metricas;
 
     /**
      * Construtor. Cria um grafo vazio com um NOME escolhido pelo usuário. Em caso
@@ -54,8 +103,43 @@ abstract public class Grafo {
      * @param NOME Nome do grafo
      */
     public Grafo(String NOME) {
+        this(NOME, false);
+    }
+
+    /**
+     * Construtor. Cria um grafo vazio, escolhendo o mapa usado para vértices e
+     * arestas. A tabela hash primitiva ocupa menos memória e tem busca em tempo
+     * constante; o TreeMap mantém as chaves sempre ordenadas.
+     * 
+     * @param NOME      Nome do grafo
+     * @param primitivo TRUE para usar a tabela hash primitiva, FALSE para o
+     *                  TreeMap
+     */
+    public Grafo(String NOME, boolean primitivo) {
         this.NOME = NOME;
-        this.vértices = new TreeMap<Integer, Vértice>();
+        this.primitivo = primitivo;
+        this.vértices = MapaInt.criar(primitivo);
+    }
+
+    /**
+     * Ativa ou desativa as métricas das operações. Ativar de novo descarta as
+     * métricas anteriores, e desativar as remove do JMX.
+     *
+     * @param ativar TRUE para medir as operações
+     */
+    public void usarMetricas(boolean ativar) {
+        if (this.metricas != null)
+            this.metricas.despublicar();
+        this.metricas = ativar ? new Metricas(this) : null;
+    }
+
+    /**
+     * Retorna as métricas das operações
+     *
+     * @return As métricas, ou NULL se estiverem desativadas
+     */
+    public Metricas metricas() {
+        return this.metricas;
     }
 
     /**
@@ -67,14 +151,60 @@ abstract public class Grafo {
      * @return TRUE se foi inserido, FALSE caso contrário
      */
     protected boolean addVertice(int id) {
+        Metricas metricas = this.metricas;
+        long medicao = metricas == null ? 0 : System.nanoTime();
         boolean result = false;
         if (!this.vértices.containsKey(id)) {
-            this.vértices.put(id, new Vértice(id));
+            this.vértices.put(id, this.novoVertice(id));
+            this.grauAlterado(-1, 0);
             result = true;
         }
+        if (metricas != null)
+            metricas.registrar(Metricas.ADD_VERTICE, medicao);
         return result;
     }
 
+    /**
+     * Cria o objeto de um vértice novo, com o próximo índice denso
+     * 
+     * @param id O identificador do vértice
+     * @return O vértice, ainda fora do grafo
+     */
+    protected Vértice novoVertice(int id) {
+        return new Vértice(id, this.novoIndice(), this.primitivo);
+    }
+
+    /**
+     * Atribui o próximo índice denso
+     * 
+     * @return O índice do vértice novo
+     */
+    protected int novoIndice() {
+        return this.proximoIndice++;
+    }
+
+    /**
+     * Retorna o número de índices densos já atribuídos, que limita os índices
+     * de todos os vértices do grafo
+     * 
+     * @return O próximo índice a ser atribuído
+     */
+    protected int indices() {
+        return this.proximoIndice;
+    }
+
+    /**
+     * Retorna o objeto do vértice que pode ser alterado. Subclasses que
+     * guardam versões antigas dos vértices trocam o objeto antes da primeira
+     * alteração; aqui é o próprio vértice.
+     * 
+     * @param v Vértice a ser alterado
+     * @return O vértice
+     */
+    protected Vértice paraEscrita(Vértice v) {
+        return v;
+    }
+
     /**
      * Retorna um vértice do grafo, caso ele exista. Caso o vértice não exista, o
      * comando é ignorado e retorna NULL.
@@ -83,7 +213,7 @@ abstract public class Grafo {
      * @return O vértice, ou NULL caso contrário
      */
     protected Vértice existeVertice(int idVertice) {
-        return this.vértices.containsKey(idVertice) ? this.vértices.get(idVertice) : null;
+        return this.vértices.get(idVertice);
     }
 
     /**
@@ -98,14 +228,147 @@ abstract public class Grafo {
      * @return TRUE se foi inserida, FALSE caso contrário
      */
     protected boolean addAresta(int origem, int destino, int peso) {
+        Metricas metricas = this.metricas;
+        long medicao = metricas == null ? 0 : System.nanoTime();
         boolean adicionou = false;
         Vértice saida = this.existeVertice(origem);
         Vértice chegada = this.existeVertice(destino);
         if (saida != null && chegada != null)
-            adicionou = (saida.addAresta(destino, peso) && chegada.addAresta(origem, peso));
+            adicionou = this.ligar(saida, chegada, peso);
+        if (metricas != null)
+            metricas.registrar(Metricas.ADD_ARESTA, medicao);
         return adicionou;
     }
 
+    /**
+     * Liga dois vértices do grafo, registrando a aresta nos dois extremos e
+     * atualizando os contadores. Em grafos direcionados, a aresta fica nas
+     * arestas de saída da origem e nas de entrada do destino; nos não
+     * direcionados, nas arestas dos dois extremos (uma única vez, se for um
+     * laço).
+     * 
+     * @param saida   Vértice de origem
+     * @param chegada Vértice de destino
+     * @param peso    Peso da aresta
+     * @return TRUE se foi inserida, FALSE se já existia
+     */
+    protected boolean ligar(Vértice saida, Vértice chegada, int peso) {
+        boolean laço = saida.getId() == chegada.getId();
+        saida = this.paraEscrita(saida);
+        chegada = laço ? saida : this.paraEscrita(chegada);
+        boolean adicionou;
+        if (this.direcionado())
+            adicionou = saida.addAresta(chegada.getId(), peso) && chegada.addEntrada(saida.getId(), peso);
+        else
+            adicionou = saida.addAresta(chegada.getId(), peso)
+                    && (saida == chegada || chegada.addAresta(saida.getId(), peso));
+        if (adicionou)
+            this.arestaAdicionada(saida, chegada);
+        return adicionou;
+    }
+
+    /**
+     * Desliga dois vértices do grafo, retirando a aresta dos dois extremos e
+     * atualizando os contadores
+     * 
+     * @param saida   Vértice de origem
+     * @param chegada Vértice de destino
+     * @return TRUE se foi removida, FALSE se não existia
+     */
+    protected boolean desligar(Vértice saida, Vértice chegada) {
+        boolean laço = saida.getId() == chegada.getId();
+        saida = this.paraEscrita(saida);
+        chegada = laço ? saida : this.paraEscrita(chegada);
+        if (saida.removeAresta(chegada.getId()) == null)
+            return false;
+        if (this.direcionado())
+            chegada.removeEntrada(saida.getId());
+        else if (saida != chegada)
+            chegada.removeAresta(saida.getId());
+        this.arestaRemovida(saida, chegada);
+        return true;
+    }
+
+    /**
+     * Atualiza os contadores após uma aresta ser registrada nos dois extremos
+     * 
+     * @param saida   Vértice de origem
+     * @param chegada Vértice de destino
+     */
+    protected void arestaAdicionada(Vértice saida, Vértice chegada) {
+        this.contarArestas(1, saida == chegada ? 1 : 0);
+        if (saida == chegada) {
+            // Em grafos direcionados, o laço conta na saída e na entrada
+            int grau = this.direcionado() ? 2 : 1;
+            this.grauAlterado(saida.grau() - grau, saida.grau());
+        } else {
+            this.grauAlterado(saida.grau() - 1, saida.grau());
+            this.grauAlterado(chegada.grau() - 1, chegada.grau());
+        }
+    }
+
+    /**
+     * Atualiza os contadores após uma aresta ser retirada dos dois extremos
+     * 
+     * @param saida   Vértice de origem
+     * @param chegada Vértice de destino
+     */
+    protected void arestaRemovida(Vértice saida, Vértice chegada) {
+        this.contarArestas(-1, saida == chegada ? -1 : 0);
+        if (saida == chegada) {
+            int grau = this.direcionado() ? 2 : 1;
+            this.grauAlterado(saida.grau() + grau, saida.grau());
+        } else {
+            this.grauAlterado(saida.grau() + 1, saida.grau());
+            this.grauAlterado(chegada.grau() + 1, chegada.grau());
+        }
+    }
+
+    /**
+     * Soma às contagens de arestas e de laços
+     * 
+     * @param arestas Variação do número de arestas
+     * @param laços   Variação do número de laços
+     */
+    protected void contarArestas(int arestas, int laços) {
+        this.arestas += arestas;
+        this.laços += laços;
+    }
+
+    /**
+     * Move um vértice de um grau para outro na contagem de graus. Um grau -1
+     * indica vértice inserido (antes) ou removido (depois).
+     * 
+     * @param antes  Grau anterior do vértice
+     * @param depois Novo grau do vértice
+     */
+    protected void grauAlterado(int antes, int depois) {
+        if (antes >= 0) {
+            this.contagemGraus[antes]--;
+            this.somaGraus -= antes;
+        }
+        if (depois >= 0) {
+            if (depois >= this.contagemGraus.length)
+                this.contagemGraus = Arrays.copyOf(this.contagemGraus,
+                        Math.max(depois + 1, this.contagemGraus.length * 2));
+            this.contagemGraus[depois]++;
+            this.somaGraus += depois;
+        }
+        if (this.vértices.isEmpty()) {
+            this.grauMinimo = this.grauMaximo = 0;
+            return;
+        }
+        // O grau de um vértice muda de 1 em 1, então os extremos andam pouco
+        if (depois >= 0 && depois < this.grauMinimo)
+            this.grauMinimo = depois;
+        while (this.contagemGraus[this.grauMinimo] == 0)
+            this.grauMinimo++;
+        if (depois > this.grauMaximo)
+            this.grauMaximo = depois;
+        while (this.contagemGraus[this.grauMaximo] == 0)
+            this.grauMaximo--;
+    }
+
     /**
      * Retorna uma aresta entre dois vértices do grafo, caso os dois vértices
      * existam no grafo.
@@ -132,11 +395,43 @@ abstract public class Grafo {
      * @return O tamanho do grafo
      */
     protected int tamanho() {
-        int tamanho = 0;
-        for (Vértice v : this.vértices.values()) {
-            tamanho += v.grau();
-        }
-        return tamanho / 2;
+        return this.arestas;
+    }
+
+    /**
+     * Retorna o número de laços do grafo
+     * 
+     * @return Número de laços
+     */
+    protected int laços() {
+        return this.laços;
+    }
+
+    /**
+     * Retorna a soma dos graus de todos os vértices
+     * 
+     * @return Soma dos graus
+     */
+    protected long somaGraus() {
+        return this.somaGraus;
+    }
+
+    /**
+     * Retorna o menor grau entre os vértices do grafo (0 se estiver vazio)
+     * 
+     * @return Grau mínimo
+     */
+    protected int grauMinimo() {
+        return this.grauMinimo;
+    }
+
+    /**
+     * Retorna o maior grau entre os vértices do grafo (0 se estiver vazio)
+     * 
+     * @return Grau máximo
+     */
+    protected int grauMaximo() {
+        return this.grauMaximo;
     }
 
     /**
@@ -149,13 +444,15 @@ abstract public class Grafo {
     }
 
     /**
-     * Retorna true se o grafo for completo e false caso contrário
+     * Retorna true se o grafo for completo e false caso contrário. Um grafo
+     * direcionado completo tem as arestas nos dois sentidos entre cada par.
      * 
      * @return TRUE se o grafo for completo, FALSE caso contrário
      */
     protected boolean completo() {
-        int n = this.ordem();
-        return this.tamanho() == (n * (n - 1)) / 2;
+        long n = this.ordem();
+        long pares = this.direcionado() ? n * (n - 1) : (n * (n - 1)) / 2;
+        return this.tamanho() - this.laços() == pares;
     }
 
     /**
@@ -167,6 +464,185 @@ abstract public class Grafo {
         return this.vértices.isEmpty();
     }
 
+    /**
+     * Indica se as arestas do grafo são direcionadas. Em grafos direcionados,
+     * as arestas de cada vértice são as de saída, e os percursos só seguem
+     * essas.
+     * 
+     * @return TRUE se o grafo for direcionado, FALSE caso contrário
+     */
+    protected boolean direcionado() {
+        return false;
+    }
+
+    /**
+     * Gera uma cópia imutável do grafo no formato CSR, mais compacta e rápida
+     * para algoritmos de leitura. Alterações posteriores no grafo não são
+     * refletidas na cópia.
+     * 
+     * @return O grafo congelado
+     */
+    public GrafoCongelado congelar() {
+        Metricas metricas = this.metricas;
+        long medicao = metricas == null ? 0 : System.nanoTime();
+        boolean direcionado = this.direcionado();
+        int n = this.ordem();
+        int[] ids = new int[n];
+        int[] inicio = new int[n + 1];
+        int i = 0;
+        Collection<Vértice> ordenados = this.vértices.valoresOrdenados();
+        for (Vértice v : ordenados) {
+            ids[i] = v.getId();
+            inicio[++i] = v.grauSaida();
+        }
+        for (i = 0; i < n; i++)
+            inicio[i + 1] += inicio[i];
+        int[] destinos = new int[inicio[n]];
+        int[] pesos = new int[inicio[n]];
+        i = 0;
+        for (Vértice v : ordenados)
+            for (Aresta a : v.getArestasOrdenadas()) {
+                destinos[i] = Arrays.binarySearch(ids, a.destino());
+                pesos[i++] = a.peso();
+            }
+        if (metricas != null)
+            metricas.registrar(Metricas.CONGELAR, medicao);
+        return new GrafoCongelado(this.NOME, direcionado, ids, inicio, destinos, pesos);
+    }
+
+    /**
+     * Cria o subgrafo induzido pelos vértices informados, como uma visão sobre
+     * este grafo, sem copiar vértices nem arestas. Ids que não existem no
+     * grafo são ignorados.
+     * 
+     * @param ids Ids dos vértices do subgrafo
+     * @return A visão
+     * @see SubGrafoInduzido
+     */
+    public SubGrafoInduzido subGrafoInduzido(Iterable<Integer> ids) {
+        return new SubGrafoInduzido(this,
+                StreamSupport.stream(ids.spliterator(), false).mapToInt(Integer::intValue).iterator());
+    }
+
+    /**
+     * Cria o subgrafo induzido pelos ids marcados no BitSet, que não é guardado
+     * pela visão. Ids que não existem no grafo são ignorados.
+     * 
+     * @param ids Ids dos vértices do subgrafo
+     * @return A visão
+     * @see SubGrafoInduzido
+     */
+    public SubGrafoInduzido subGrafoInduzido(BitSet ids) {
+        return new SubGrafoInduzido(this, ids.stream().iterator());
+    }
+
+    /**
+     * Rotula os componentes conexos do grafo (fracamente conexos, se ele for
+     * direcionado), sem recursão
+     * 
+     * @return O componente de cada vértice e o tamanho de cada componente
+     */
+    public Componentes componentes() {
+        return this.congelar().componentes();
+    }
+
+    /**
+     * Calcula os caminhos mínimos da origem para todos os vértices. Para
+     * várias consultas, é melhor congelar o grafo uma vez e consultar a cópia.
+     * 
+     * @param origem Vértice de origem
+     * @return Distância e predecessor de cada vértice
+     */
+    public CaminhosMinimos caminhosMinimos(int origem) {
+        return this.congelar().caminhosMinimos(origem);
+    }
+
+    /**
+     * Calcula o caminho mínimo entre dois vértices
+     * 
+     * @param origem  Vértice de origem
+     * @param destino Vértice de destino
+     * @return O caminho mínimo até o destino
+     */
+    public CaminhosMinimos caminhoMinimo(int origem, int destino) {
+        return this.congelar().caminhoMinimoBidirecional(origem, destino);
+    }
+
+    /**
+     * Calcula as distâncias entre todos os pares de vértices
+     * 
+     * @return A matriz de distâncias
+     * @throws IllegalArgumentException Se a matriz não couber na memória
+     */
+    public MatrizDistancias caminhosTodosPares() {
+        return this.congelar().caminhosTodosPares();
+    }
+
+    /**
+     * Calcula as distâncias entre todos os pares de vértices e as grava no
+     * arquivo, linha a linha, sem precisar que a matriz caiba na memória
+     * 
+     * @param nomeArquivo Nome do arquivo
+     * @see CaminhosTodosPares#lerLinha(String, int)
+     */
+    public void caminhosTodosPares(String nomeArquivo) {
+        try {
+            CaminhosTodosPares.calcular(this.congelar(), ForkJoinPool.commonPool(), nomeArquivo);
+        } catch (IOException e) {
+            System.out.println("\n Erro ao gravar as distâncias em arquivo.");
+        }
+    }
+
+    /**
+     * Retorna os vértices do grafo em ordem crescente de id, para os
+     * exportadores. Grafos que não guardam os vértices podem montá-los na hora.
+     *
+     * @return Os vértices ordenados
+     */
+    protected Iterable<Vértice> verticesOrdenados() {
+        return this.vértices.valoresOrdenados();
+    }
+
+    /**
+     * Retorna as arestas de um vértice em ordem crescente de destino, para os
+     * exportadores. Visões que escondem parte dos vértices filtram as arestas.
+     *
+     * @param vértice Vértice do grafo
+     * @return As arestas ordenadas
+     */
+    protected Iterable<Aresta> arestasOrdenadas(Vértice vértice) {
+        return vértice.getArestasOrdenadas();
+    }
+
+    /**
+     * Escreve o grafo em um Appendable (StringBuilder, Writer, System.out) aos
+     * poucos, sem montar o texto inteiro em memória. O destino não é fechado.
+     *
+     * @param formato Um entre {@link ExportadorGrafo#CHAVES},
+     *                {@link ExportadorGrafo#ARESTAS}, {@link ExportadorGrafo#DOT}
+     *                e {@link ExportadorGrafo#JSON}
+     * @param destino Onde o texto é escrito
+     * @throws IOException Se o destino falhar
+     * @see ExportadorGrafo
+     */
+    public void exportar(int formato, Appendable destino) throws IOException {
+        ExportadorGrafo.escrever(this, formato, destino);
+    }
+
+    /**
+     * Escreve o grafo em um OutputStream (arquivo, socket) em UTF-8. O stream
+     * é esvaziado, mas não fechado.
+     *
+     * @param formato Formato de saída, como em {@link #exportar(int, Appendable)}
+     * @param destino Onde o texto é escrito
+     * @throws IOException Se o destino falhar
+     */
+    public void exportarUtf8(int formato, OutputStream destino) throws IOException {
+        Writer saida = new OutputStreamWriter(destino, StandardCharsets.UTF_8);
+        this.exportar(formato, saida);
+        saida.flush();
+    }
+
     /**
      * Retorna uma representação em String do grafo
      * { {id1, id2, peso1}, {id3, id4, peso2}, ... }
@@ -175,123 +651,199 @@ abstract public class Grafo {
      */
     @Override
     public String toString() {
-        StringBuilder out = new StringBuilder("Grafo \"").append(this.NOME).append("\": {");
-        for (Vértice vértice : this.vértices.values())
-            for (Aresta aresta : vértice.getArestas())
-                if (aresta.destino() > vértice.getId())
-                    out.append("{").append(vértice.getId()).append(", ").append(aresta.destino())
-                            .append(aresta.peso() == -1 ? "" : ", " + aresta.peso()).append("}, ");
-        if (out.charAt(out.length() - 1) == ' ')
-            out.delete(out.length() - 2, out.length());
-        return out.append("}").toString();
+        StringBuilder out = new StringBuilder();
+        try {
+            this.exportar(ExportadorGrafo.CHAVES, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder não lança IOException
+        }
+        return out.toString();
     }
 
     /**
-     * verifica se todos os vértices do grafo foram visitados
+     * Retorna o próximo vértice do iterador que ainda não foi visitado
      * 
-     * @return TRUE se todos os vértices foram visitados, FALSE caso contrário
+     * @param proximos  Iterador sobre os vértices do grafo, ou NULL
+     * @param visitados Contexto do percurso
+     * @return O vértice, ou NULL se todos foram visitados
      */
-    private boolean todosVisitados() {
-        for (Vértice v : this.vértices.values()) {
-            if (!v.getVisitado())
-                return false;
+    private static Vértice proximoNaoVisitado(Iterator<Vértice> proximos, Visitados visitados) {
+        while (proximos != null && proximos.hasNext()) {
+            Vértice v = proximos.next();
+            if (!visitados.visitado(v.getIndice()))
+                return v;
         }
-        return true;
+        return null;
     }
 
     /**
-     * Busca em largura no grafo, usa os métodos getVisitado() e
-     * setVisitado(boolean)
+     * Percorre o grafo em largura, entregando cada vértice ao visitante no
+     * momento em que é visitado. O estado da busca fica em um contexto próprio,
+     * então várias buscas podem rodar ao mesmo tempo sobre o mesmo grafo.
      * 
-     * @param origem Vértice de origem
+     * @param origem    Vértice de origem
+     * @param todos     TRUE para continuar pelos vértices não alcançados a
+     *                  partir da origem, FALSE para percorrer só o componente
+     *                  da origem
+     * @param visitante Recebe os vértices visitados
+     * @return FALSE se o visitante interrompeu a busca, TRUE caso contrário
+     */
+    public boolean percorrerEmLargura(int origem, boolean todos, VisitanteBusca visitante) {
+        Metricas metricas = this.metricas;
+        if (metricas == null)
+            return this.emLargura(origem, todos, visitante);
+        long medicao = System.nanoTime();
+        try {
+            return this.emLargura(origem, todos, visitante);
+        } finally {
+            metricas.registrar(Metricas.PERCURSO_LARGURA, medicao);
+        }
+    }
+
+    /**
+     * Percurso em largura, sem as métricas
+     *
+     * @see #percorrerEmLargura(int, boolean, VisitanteBusca)
      */
-    protected void buscaEmLargura(int origem) {
+    private boolean emLargura(int origem, boolean todos, VisitanteBusca visitante) {
         Vértice v = this.existeVertice(origem);
         if (v == null)
-            return;
-        // Marca o vértice de origem como visitado e adiciona à fila
-        v.setVisitado(true);
-        Queue<Vértice> fila = new LinkedList<Vértice>();
-        fila.add(v);
-        while (!fila.isEmpty()) {
-            // Lista para armazenar os vértices visitados neste nível
-            List<Vértice> vertices = new ArrayList<Vértice>();
-
-            // Visita todos os vértices no nível atual
-            while (!fila.isEmpty()) {
-                v = fila.remove();
-                vertices.add(v);
-                for (Aresta a : v.getArestas()) {
-                    Vértice w = this.existeVertice(a.destino());
-                    if (!w.getVisitado()) {
-                        w.setVisitado(true);
-                        fila.add(w);
+            return true;
+        try (Visitados visitados = Visitados.iniciar(this.indices())) {
+            Iterator<Vértice> proximos = todos ? this.vértices.values().iterator() : null;
+            Vértice[] fila = new Vértice[16];
+            int[] pais = new int[16];
+            while (v != null) {
+                // Marca o vértice de origem como visitado e adiciona à fila
+                int cabeca = 0, cauda = 0;
+                visitados.visitar(v.getIndice());
+                fila[cauda] = v;
+                pais[cauda++] = -1;
+                for (int nivel = 0; cabeca < cauda; nivel++) {
+                    // Visita todos os vértices no nível atual
+                    for (int fimNivel = cauda; cabeca < fimNivel; cabeca++) {
+                        v = fila[cabeca];
+                        if (!visitante.visitar(v.getId(), pais[cabeca], nivel))
+                            return false;
+                        for (Aresta a : v.getArestas()) {
+                            Vértice w = this.existeVertice(a.destino());
+                            // Em um subgrafo induzido, a aresta pode sair do grafo
+                            if (w != null && visitados.visitar(w.getIndice())) {
+                                if (cauda == fila.length) {
+                                    fila = Arrays.copyOf(fila, cauda * 2);
+                                    pais = Arrays.copyOf(pais, cauda * 2);
+                                }
+                                fila[cauda] = w;
+                                pais[cauda++] = v.getId();
+                            }
+                        }
                     }
                 }
+                // Continua pelo próximo vértice ainda não visitado
+                v = proximoNaoVisitado(proximos, visitados);
             }
-
-            System.out.print(" ");
-            // Imprime os vértices visitados no nível atual
-            for (Vértice v_ : vertices) {
-                System.out.print(v_.getId() + " ");
-            }
-            System.out.println(" ");
         }
+        return true;
+    }
 
-        if (!this.todosVisitados()) {
-            for (Vértice v_ : this.vértices.values())
-                if (!v_.getVisitado()) {
-                    // Inicia a busca em largura a partir deste vértice
-                    this.buscaEmLargura(v_.getId());
-                    break;
-                }
-            for (Vértice v_ : this.vértices.values())
-                v_.setVisitado(false);
+    /**
+     * Percorre o grafo em profundidade, entregando cada vértice ao visitante no
+     * momento em que é desempilhado
+     * 
+     * @param origem    Vértice de origem
+     * @param todos     TRUE para continuar pelos vértices não alcançados a
+     *                  partir da origem, FALSE para percorrer só o componente
+     *                  da origem
+     * @param visitante Recebe os vértices visitados
+     * @return FALSE se o visitante interrompeu a busca, TRUE caso contrário
+     */
+    public boolean percorrerEmProfundidade(int origem, boolean todos, VisitanteBusca visitante) {
+        Metricas metricas = this.metricas;
+        if (metricas == null)
+            return this.emProfundidade(origem, todos, visitante);
+        long medicao = System.nanoTime();
+        try {
+            return this.emProfundidade(origem, todos, visitante);
+        } finally {
+            metricas.registrar(Metricas.PERCURSO_PROFUNDIDADE, medicao);
         }
     }
 
     /**
-     * Busca em profundidade no grafo
-     * 
-     * @param origem Vértice de origem
+     * Percurso em profundidade, sem as métricas
+     *
+     * @see #percorrerEmProfundidade(int, boolean, VisitanteBusca)
      */
-    protected void buscaEmProfundidade(int origem) {
+    private boolean emProfundidade(int origem, boolean todos, VisitanteBusca visitante) {
         Vértice v = this.existeVertice(origem);
         if (v == null)
-            return;
-        // Mantem a ordem dos vértices a serem visitados
-        Stack<Vértice> pilha = new Stack<Vértice>();
-        v.setVisitado(true);
-        pilha.push(v);
-        System.out.print(" ");
-
-        while (!pilha.isEmpty()) {
-            Vértice vértice = pilha.pop();
-            System.out.print(vértice.getId() + " ");
-
-            // Para cada aresta do vértice visitado
-            for (Aresta a : vértice.getArestas()) {
-                Vértice destino_ = this.existeVertice(a.destino());
-
-                if (!destino_.getVisitado()) {
-                    destino_.setVisitado(true);
-                    pilha.push(destino_);
+            return true;
+        try (Visitados visitados = Visitados.iniciar(this.indices())) {
+            Iterator<Vértice> proximos = todos ? this.vértices.values().iterator() : null;
+            // Mantem a ordem dos vértices a serem visitados, com o pai e o nível
+            Vértice[] pilha = new Vértice[16];
+            int[] pais = new int[16];
+            int[] niveis = new int[16];
+            while (v != null) {
+                int topo = 0;
+                visitados.visitar(v.getIndice());
+                pilha[topo] = v;
+                pais[topo] = -1;
+                niveis[topo++] = 0;
+
+                while (topo > 0) {
+                    Vértice vértice = pilha[--topo];
+                    int nivel = niveis[topo];
+                    if (!visitante.visitar(vértice.getId(), pais[topo], nivel))
+                        return false;
+
+                    // Para cada aresta do vértice visitado
+                    for (Aresta a : vértice.getArestas()) {
+                        Vértice destino_ = this.existeVertice(a.destino());
+                        if (destino_ != null && visitados.visitar(destino_.getIndice())) {
+                            if (topo == pilha.length) {
+                                pilha = Arrays.copyOf(pilha, topo * 2);
+                                pais = Arrays.copyOf(pais, topo * 2);
+                                niveis = Arrays.copyOf(niveis, topo * 2);
+                            }
+                            pilha[topo] = destino_;
+                            pais[topo] = vértice.getId();
+                            niveis[topo++] = nivel + 1;
+                        }
+                    }
                 }
+
+                // Continua pelo próximo vértice ainda não visitado
+                v = proximoNaoVisitado(proximos, visitados);
             }
         }
-        System.out.println();
-
-        if (!this.todosVisitados()) {
-            for (Vértice v_ : this.vértices.values())
-                // Se o vértice ainda não foi visitado
-                if (!v_.getVisitado()) {
-                    // Inicia a busca em profundidade a partir deste vértice
-                    this.buscaEmProfundidade(v_.getId());
-                    break;
-                }
-            for (Vértice v_ : this.vértices.values())
-                v_.setVisitado(false);
-        }
+        return true;
+    }
+
+    /**
+     * Busca em largura no grafo. Ao terminar o componente da origem, continua
+     * pelo próximo vértice não visitado.
+     * 
+     * @param origem Vértice de origem
+     * @return Ordem de visita, pai e nível de cada vértice
+     */
+    protected ResultadoBusca buscaEmLargura(int origem) {
+        ResultadoBusca resultado = new ResultadoBusca(this.ordem());
+        this.percorrerEmLargura(origem, true, resultado);
+        return resultado;
+    }
+
+    /**
+     * Busca em profundidade no grafo. Ao terminar o componente da origem,
+     * continua pelo próximo vértice não visitado.
+     * 
+     * @param origem Vértice de origem
+     * @return Ordem de visita, pai e nível de cada vértice
+     */
+    protected ResultadoBusca buscaEmProfundidade(int origem) {
+        ResultadoBusca resultado = new ResultadoBusca(this.ordem());
+        this.percorrerEmProfundidade(origem, true, resultado);
+        return resultado;
     }
 
 }
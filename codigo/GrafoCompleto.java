@@ -1,22 +1,389 @@
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.stream.IntStream;
+
 /**
- * Grafo completo
+ * Grafo completo. As arestas não são guardadas: como todo par de vértices
+ * distintos é ligado, a adjacência, o tamanho e os percursos são calculados a
+ * partir da ordem. Como todas as arestas para um mesmo destino são iguais, o
+ * grafo guarda só uma por destino, compartilhada por todos os vértices e
+ * criada na primeira leitura. Os vértices têm ids de 0 até ordem - 1 e todas
+ * as arestas têm peso 0.
  */
 public class GrafoCompleto extends Grafo {
 
+    /**
+     * Peso de todas as arestas do grafo completo
+     */
+    private static final int PESO = 0;
+
+    /**
+     * Número de vértices do grafo
+     */
+    private final int ordem;
+
+    /**
+     * Aresta compartilhada para cada destino, criada quando é lida pela
+     * primeira vez. O vetor só é alocado na primeira leitura de aresta.
+     */
+    private volatile Aresta[] arestas;
+
     /**
      * Construtor. Cria um grafo completo com um nome escolhido pelo usuário. Em
      * caso de nome não informado, o grafo é criado com o nome "Grafo Completo"
-     * 
+     *
      * @param nome  O nome do grafo
      * @param ordem A ordem do grafo
      */
     public GrafoCompleto(String nome, int ordem) {
         super(nome + " Completo");
-        for (int i = 0; i < ordem; i++)
-            this.addVertice(i);
-        for (int i = 0; i < ordem; i++)
-            for (int j = i + 1; j < ordem; j++)
-                this.addAresta(i, j, 0);
+        this.ordem = Math.max(ordem, 0);
+        // O índice de cada vértice é o próprio id
+        this.proximoIndice = this.ordem;
+    }
+
+    /**
+     * O grafo completo não aceita novos vértices
+     *
+     * @param id Identificador do vértice
+     * @return FALSE
+     */
+    @Override
+    protected boolean addVertice(int id) {
+        return false;
+    }
+
+    /**
+     * O grafo completo não aceita novas arestas
+     *
+     * @param origem  Vértice de origem
+     * @param destino Vértice de destino
+     * @param peso    Peso da aresta
+     * @return FALSE
+     */
+    @Override
+    protected boolean addAresta(int origem, int destino, int peso) {
+        return false;
+    }
+
+    /**
+     * Retorna o vértice com o id informado, em tempo constante. As arestas do
+     * vértice não são guardadas: são calculadas enquanto são lidas.
+     *
+     * @param idVertice Id do vértice
+     * @return O vértice, ou NULL se o id estiver fora do grafo
+     */
+    @Override
+    protected Vértice existeVertice(int idVertice) {
+        if (!this.contem(idVertice))
+            return null;
+        return new VérticeCompleto(idVertice, this);
+    }
+
+    /**
+     * Retorna a aresta entre dois vértices distintos do grafo
+     *
+     * @param verticeA Vértice de origem
+     * @param verticeB Vértice de destino
+     * @return A aresta, ou NULL se algum vértice não existir ou forem iguais
+     */
+    @Override
+    protected Aresta existeAresta(int verticeA, int verticeB) {
+        if (!this.contem(verticeA) || !this.contem(verticeB) || verticeA == verticeB)
+            return null;
+        return this.aresta(verticeB);
+    }
+
+    /**
+     * Retorna a aresta compartilhada para um destino, criando-a na primeira
+     * leitura. Threads que criam a mesma aresta ao mesmo tempo só desperdiçam
+     * um objeto, pois as arestas são imutáveis e iguais.
+     *
+     * @param destino Id do destino, entre 0 e ordem - 1
+     * @return A aresta para o destino
+     */
+    private Aresta aresta(int destino) {
+        Aresta[] arestas = this.arestas;
+        if (arestas == null)
+            this.arestas = arestas = new Aresta[this.ordem];
+        Aresta aresta = arestas[destino];
+        if (aresta == null)
+            arestas[destino] = aresta = new Aresta(PESO, destino);
+        return aresta;
+    }
+
+    /**
+     * Verifica se o id pertence ao grafo
+     *
+     * @param id Id do vértice
+     * @return TRUE se 0 <= id < ordem
+     */
+    private boolean contem(int id) {
+        return id >= 0 && id < this.ordem;
+    }
+
+    /**
+     * Retorna o tamanho do grafo, ordem * (ordem - 1) / 2
+     *
+     * @return O tamanho do grafo
+     * @throws ArithmeticException Se o tamanho não couber em um int
+     */
+    @Override
+    protected int tamanho() {
+        return Math.toIntExact(this.somaGraus() / 2);
+    }
+
+    /**
+     * Retorna a soma dos graus, ordem * (ordem - 1)
+     *
+     * @return Soma dos graus
+     */
+    @Override
+    protected long somaGraus() {
+        return (long) this.ordem * (this.ordem - 1);
+    }
+
+    /**
+     * Todos os vértices têm grau ordem - 1
+     *
+     * @return Grau mínimo
+     */
+    @Override
+    protected int grauMinimo() {
+        return Math.max(this.ordem - 1, 0);
+    }
+
+    /**
+     * Todos os vértices têm grau ordem - 1
+     *
+     * @return Grau máximo
+     */
+    @Override
+    protected int grauMaximo() {
+        return this.grauMinimo();
+    }
+
+    /**
+     * Retorna a ordem do grafo
+     *
+     * @return Número de vértices
+     */
+    @Override
+    protected int ordem() {
+        return this.ordem;
+    }
+
+    /**
+     * O grafo completo é sempre completo
+     *
+     * @return TRUE
+     */
+    @Override
+    protected boolean completo() {
+        return true;
+    }
+
+    /**
+     * Verifica se o grafo não tem vértices
+     *
+     * @return TRUE se a ordem for 0
+     */
+    @Override
+    protected boolean vazio() {
+        return this.ordem == 0;
+    }
+
+    /**
+     * Monta a cópia compacta do grafo. As listas de adjacência são calculadas,
+     * mas ocupam ordem * (ordem - 1) posições.
+     *
+     * @return O grafo congelado
+     * @throws ArithmeticException Se as arestas não couberem em um vetor
+     */
+    @Override
+    public GrafoCongelado congelar() {
+        int n = this.ordem;
+        int m = Math.toIntExact(this.somaGraus());
+        int[] ids = new int[n];
+        int[] inicio = new int[n + 1];
+        int[] destinos = new int[m];
+        int[] pesos = new int[m];
+        int posicao = 0;
+        for (int v = 0; v < n; v++) {
+            ids[v] = v;
+            for (int w = 0; w < n; w++)
+                if (w != v)
+                    destinos[posicao++] = w;
+            inicio[v + 1] = posicao;
+        }
+        return new GrafoCongelado(this.NOME, false, ids, inicio, destinos, pesos);
+    }
+
+    /**
+     * Todos os vértices do grafo completo formam um único componente
+     *
+     * @return Os componentes do grafo
+     */
+    @Override
+    public Componentes componentes() {
+        int n = this.ordem;
+        int[] ids = new int[n];
+        for (int v = 0; v < n; v++)
+            ids[v] = v;
+        GrafoCongelado vértices = new GrafoCongelado(this.NOME, false, ids, new int[n + 1], new int[0], new int[0]);
+        return new Componentes(vértices, new int[n], n == 0 ? 0 : 1);
+    }
+
+    /**
+     * Cria um grafo não direcionado com todas as arestas guardadas
+     *
+     * @return O grafo materializado
+     */
+    public GrafoNãoDirecionado materializar() {
+        GrafoNãoDirecionado grafo = new GrafoNãoDirecionado(this.NOME, this.primitivo);
+        LoteArestas lote = new LoteArestas();
+        for (int i = 0; i < this.ordem; i++) {
+            grafo.addVertice(i);
+            for (int j = i + 1; j < this.ordem; j++)
+                lote.add(i, j, PESO);
+        }
+        grafo.addArestas(lote);
+        return grafo;
+    }
+
+    /**
+     * Percorre o grafo em largura. A origem alcança todos os outros vértices
+     * no nível 1, em ordem crescente de id.
+     *
+     * @param origem    Vértice de origem
+     * @param todos     Ignorado, pois o grafo tem um único componente
+     * @param visitante Recebe os vértices visitados
+     * @return FALSE se o visitante interrompeu a busca, TRUE caso contrário
+     */
+    @Override
+    public boolean percorrerEmLargura(int origem, boolean todos, VisitanteBusca visitante) {
+        if (!this.contem(origem))
+            return true;
+        if (!visitante.visitar(origem, -1, 0))
+            return false;
+        for (int v = 0; v < this.ordem; v++)
+            if (v != origem && !visitante.visitar(v, origem, 1))
+                return false;
+        return true;
+    }
+
+    /**
+     * Percorre o grafo em profundidade. Como os vizinhos são marcados ao serem
+     * empilhados, a origem empilha todos os outros vértices, que saem da pilha
+     * em ordem decrescente de id, no nível 1.
+     *
+     * @param origem    Vértice de origem
+     * @param todos     Ignorado, pois o grafo tem um único componente
+     * @param visitante Recebe os vértices visitados
+     * @return FALSE se o visitante interrompeu a busca, TRUE caso contrário
+     */
+    @Override
+    public boolean percorrerEmProfundidade(int origem, boolean todos, VisitanteBusca visitante) {
+        if (!this.contem(origem))
+            return true;
+        if (!visitante.visitar(origem, -1, 0))
+            return false;
+        for (int v = this.ordem - 1; v >= 0; v--)
+            if (v != origem && !visitante.visitar(v, origem, 1))
+                return false;
+        return true;
+    }
+
+    /**
+     * Monta os vértices um de cada vez, enquanto são percorridos, para que os
+     * exportadores não guardem o grafo inteiro
+     *
+     * @return Os vértices de 0 até ordem - 1
+     */
+    @Override
+    protected Iterable<Vértice> verticesOrdenados() {
+        return () -> IntStream.range(0, this.ordem).mapToObj(this::existeVertice).iterator();
+    }
+
+    /**
+     * Vértice do grafo completo, ligado a todos os outros. O vértice não tem
+     * mapa de arestas: lê as arestas compartilhadas do grafo e não pode ser
+     * alterado.
+     */
+    private static final class VérticeCompleto extends Vértice {
+
+        /**
+         * Grafo do vértice, que guarda as arestas compartilhadas
+         */
+        private final GrafoCompleto grafo;
+
+        VérticeCompleto(int id, GrafoCompleto grafo) {
+            super(id, id);
+            this.grafo = grafo;
+        }
+
+        @Override
+        public Aresta getAresta(int destino) {
+            if (!this.grafo.contem(destino) || destino == this.getId())
+                return null;
+            return this.grafo.aresta(destino);
+        }
+
+        @Override
+        public int grauSaida() {
+            return this.grafo.ordem - 1;
+        }
+
+        /**
+         * Arestas para todos os outros vértices, em ordem crescente de destino
+         *
+         * @return Visão das arestas
+         */
+        @Override
+        public Collection<Aresta> getArestas() {
+            int id = this.getId();
+            return new AbstractList<Aresta>() {
+                @Override
+                public Aresta get(int i) {
+                    return VérticeCompleto.this.grafo.aresta(i < id ? i : i + 1);
+                }
+
+                @Override
+                public int size() {
+                    return VérticeCompleto.this.grafo.ordem - 1;
+                }
+            };
+        }
+
+        @Override
+        public Collection<Aresta> getArestasOrdenadas() {
+            return this.getArestas();
+        }
+
+        @Override
+        public boolean addAresta(int destino, int peso) {
+            throw new UnsupportedOperationException("O grafo completo não pode ser alterado");
+        }
+
+        @Override
+        public Aresta removeAresta(int destino) {
+            throw new UnsupportedOperationException("O grafo completo não pode ser alterado");
+        }
+
+        @Override
+        public boolean addEntrada(int origem, int peso) {
+            throw new UnsupportedOperationException("O grafo completo não pode ser alterado");
+        }
+
+        @Override
+        public void reservar(int quantidade) {
+            throw new UnsupportedOperationException("O grafo completo não pode ser alterado");
+        }
+
+        @Override
+        public Vértice copia(long epoca) {
+            throw new UnsupportedOperationException("O grafo completo não pode ser alterado");
+        }
     }
 
 }
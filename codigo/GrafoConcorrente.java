@@ -0,0 +1,488 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Grafo mutável que pode ser alterado e consultado por várias threads ao mesmo
+ * tempo. Os vértices ficam em um mapa concorrente, e as arestas de cada
+ * vértice são protegidas por uma entre várias travas de leitura e escrita
+ * (listras), escolhida pelo id do vértice. Uma inserção ou remoção de aresta
+ * trava só as listras dos dois extremos, sempre em ordem crescente de listra,
+ * então threads que mexem em vértices de listras diferentes não esperam umas
+ * pelas outras. Os contadores do grafo (arestas, laços, graus) são LongAdders,
+ * e o índice dos vértices e a versão são atômicos, então nenhuma alteração
+ * passa por uma trava comum a todas as threads.
+ *
+ * Operações que percorrem o grafo inteiro (congelar, percursos, toString)
+ * travam todas as listras para leitura e enxergam um estado consistente;
+ * remover um vértice e inserir em lote travam todas para escrita. As consultas
+ * de caminho só travam as listras para congelar o grafo, se ele mudou; a busca
+ * roda na cópia congelada, sem travas, e o resultado vai para o cache. Uma
+ * alteração só invalida o cache avançando a sua versão mínima, e o registro
+ * no diário, se houver, também não trava, então nem o cache nem o diário
+ * serializam as alterações. Os visitantes dos percursos não podem alterar o
+ * grafo. As visões de {@link #subGrafoInduzido(Iterable)} são criadas com as
+ * listras travadas, mas são lidas sem travas, e só podem ser usadas enquanto
+ * ninguém altera o grafo.
+ */
+public class GrafoConcorrente extends GrafoMutável {
+
+    /**
+     * Travas das arestas; a listra de um vértice é escolhida pelo seu id
+     */
+    private final ReentrantReadWriteLock[] listras;
+
+    /**
+     * Máscara para escolher a listra, já que o número de listras é potência de
+     * dois
+     */
+    private final int mascara;
+
+    /**
+     * Contadores de arestas, de laços e da soma dos graus
+     */
+    private final LongAdder arestasContadas = new LongAdder(), laçosContados = new LongAdder(),
+            grausSomados = new LongAdder();
+
+    /**
+     * Quantidade de vértices com cada grau. O vetor só cresce, e a cópia
+     * mantém os mesmos contadores, então nenhuma contagem se perde.
+     */
+    private volatile LongAdder[] graus = novosContadores(new LongAdder[0], 8);
+
+    /**
+     * Próximo índice denso e número de alterações do grafo
+     */
+    private final AtomicInteger indice = new AtomicInteger();
+    private final AtomicLong versoes = new AtomicLong();
+
+    /**
+     * Indica se as arestas são direcionadas
+     */
+    private final boolean direcionado;
+
+    /**
+     * Construtor do grafo concorrente não direcionado
+     *
+     * @param nome Nome do grafo
+     */
+    public GrafoConcorrente(String nome) {
+        this(nome, false);
+    }
+
+    /**
+     * Construtor do grafo concorrente, com quatro listras por processador
+     *
+     * @param nome        Nome do grafo
+     * @param direcionado TRUE se as arestas forem direcionadas
+     */
+    public GrafoConcorrente(String nome, boolean direcionado) {
+        this(nome, direcionado, 4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Construtor do grafo concorrente, escolhendo o número de listras
+     *
+     * @param nome        Nome do grafo
+     * @param direcionado TRUE se as arestas forem direcionadas
+     * @param listras     Número mínimo de listras, arredondado para a próxima
+     *                    potência de dois
+     */
+    public GrafoConcorrente(String nome, boolean direcionado, int listras) {
+        super(nome);
+        this.direcionado = direcionado;
+        this.vértices = new MapaIntConcorrente<Vértice>();
+        int quantidade = 1;
+        while (quantidade < listras)
+            quantidade <<= 1;
+        this.listras = new ReentrantReadWriteLock[quantidade];
+        for (int i = 0; i < quantidade; i++)
+            this.listras[i] = new ReentrantReadWriteLock();
+        this.mascara = quantidade - 1;
+    }
+
+    /**
+     * Indica se as arestas do grafo são direcionadas
+     *
+     * @return TRUE se o grafo for direcionado
+     */
+    @Override
+    protected boolean direcionado() {
+        return this.direcionado;
+    }
+
+    /**
+     * Retorna a listra que protege as arestas do vértice
+     *
+     * @param id Id do vértice
+     * @return Posição da listra
+     */
+    private int listra(int id) {
+        int h = id * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & this.mascara;
+    }
+
+    /**
+     * Trava para escrita as listras de dois vértices, em ordem crescente de
+     * listra para que duas threads nunca esperem uma pela outra
+     *
+     * @param a Id de um vértice
+     * @param b Id do outro vértice
+     */
+    private void travar(int a, int b) {
+        int primeira = Math.min(this.listra(a), this.listra(b));
+        int segunda = Math.max(this.listra(a), this.listra(b));
+        this.listras[primeira].writeLock().lock();
+        if (segunda != primeira)
+            this.listras[segunda].writeLock().lock();
+    }
+
+    /**
+     * Libera as listras travadas por {@link #travar(int, int)}
+     *
+     * @param a Id de um vértice
+     * @param b Id do outro vértice
+     */
+    private void destravar(int a, int b) {
+        int primeira = Math.min(this.listra(a), this.listra(b));
+        int segunda = Math.max(this.listra(a), this.listra(b));
+        if (segunda != primeira)
+            this.listras[segunda].writeLock().unlock();
+        this.listras[primeira].writeLock().unlock();
+    }
+
+    /**
+     * Executa uma operação com todas as listras travadas, em ordem
+     *
+     * @param escrita  TRUE para travar para escrita, FALSE para leitura
+     * @param operacao Operação a ser executada
+     * @return O resultado da operação
+     */
+    private <T> T comTodas(boolean escrita, Supplier<T> operacao) {
+        int travadas = 0;
+        try {
+            for (; travadas < this.listras.length; travadas++)
+                trava(this.listras[travadas], escrita).lock();
+            return operacao.get();
+        } finally {
+            while (travadas > 0)
+                trava(this.listras[--travadas], escrita).unlock();
+        }
+    }
+
+    /**
+     * Retorna a trava de leitura ou a de escrita de uma listra
+     *
+     * @param listra  Listra
+     * @param escrita TRUE para a trava de escrita
+     * @return A trava
+     */
+    private static Lock trava(ReentrantReadWriteLock listra, boolean escrita) {
+        return escrita ? listra.writeLock() : listra.readLock();
+    }
+
+    @Override
+    protected boolean addVertice(int id) {
+        Lock trava = this.listras[this.listra(id)].writeLock();
+        trava.lock();
+        try {
+            return super.addVertice(id);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    @Override
+    protected boolean addAresta(int origem, int destino, int peso) {
+        this.travar(origem, destino);
+        try {
+            return super.addAresta(origem, destino, peso);
+        } finally {
+            this.destravar(origem, destino);
+        }
+    }
+
+    @Override
+    protected void removeAresta(int origem, int destino) {
+        this.travar(origem, destino);
+        try {
+            super.removeAresta(origem, destino);
+        } finally {
+            this.destravar(origem, destino);
+        }
+    }
+
+    /**
+     * Retorna a aresta entre dois vértices, lendo as arestas da origem sob a
+     * trava de leitura da sua listra
+     *
+     * @param verticeA Vértice de origem
+     * @param verticeB Vértice de destino
+     * @return A aresta, ou NULL se ela não existir
+     */
+    @Override
+    protected Aresta existeAresta(int verticeA, int verticeB) {
+        Lock trava = this.listras[this.listra(verticeA)].readLock();
+        trava.lock();
+        try {
+            return super.existeAresta(verticeA, verticeB);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Remove um vértice e as suas arestas. Os vizinhos podem estar em qualquer
+     * listra, então todas são travadas.
+     *
+     * @param id O identificador do vértice a ser removido
+     * @return O vértice removido, ou NULL se não existia vértice com este id
+     */
+    @Override
+    protected Vértice removeVertice(int id) {
+        return this.comTodas(true, () -> super.removeVertice(id));
+    }
+
+    /**
+     * Adiciona várias arestas de uma vez, com todas as listras travadas
+     *
+     * @param lote Arestas a serem adicionadas
+     * @return Número de arestas adicionadas
+     */
+    @Override
+    protected int addArestas(LoteArestas lote) {
+        return this.comTodas(true, () -> super.addArestas(lote));
+    }
+
+    @Override
+    protected int novoIndice() {
+        return this.indice.getAndIncrement();
+    }
+
+    @Override
+    protected int indices() {
+        return this.indice.get();
+    }
+
+    @Override
+    public long versao() {
+        return this.versoes.get();
+    }
+
+    @Override
+    protected long novaVersao() {
+        return this.versoes.incrementAndGet();
+    }
+
+    @Override
+    protected void contarArestas(int arestas, int laços) {
+        this.arestasContadas.add(arestas);
+        if (laços != 0)
+            this.laçosContados.add(laços);
+    }
+
+    @Override
+    protected void grauAlterado(int antes, int depois) {
+        if (antes >= 0) {
+            this.contador(antes).decrement();
+            this.grausSomados.add(-antes);
+        }
+        if (depois >= 0) {
+            this.contador(depois).increment();
+            this.grausSomados.add(depois);
+        }
+    }
+
+    /**
+     * Retorna o contador de vértices de um grau
+     *
+     * @param grau Grau
+     * @return O contador
+     */
+    private LongAdder contador(int grau) {
+        LongAdder[] graus = this.graus;
+        return grau < graus.length ? graus[grau] : this.crescer(grau);
+    }
+
+    /**
+     * Aumenta o vetor de contadores até caber o grau. É a única parte
+     * sincronizada das contagens, e só roda quando o grau máximo dobra.
+     *
+     * @param grau Grau
+     * @return O contador do grau
+     */
+    private synchronized LongAdder crescer(int grau) {
+        if (grau >= this.graus.length)
+            this.graus = novosContadores(this.graus, Math.max(grau + 1, this.graus.length * 2));
+        return this.graus[grau];
+    }
+
+    /**
+     * Copia os contadores para um vetor maior, criando os que faltam
+     *
+     * @param graus   Contadores atuais
+     * @param tamanho Novo tamanho
+     * @return O vetor novo
+     */
+    private static LongAdder[] novosContadores(LongAdder[] graus, int tamanho) {
+        LongAdder[] novos = Arrays.copyOf(graus, tamanho);
+        for (int i = graus.length; i < tamanho; i++)
+            novos[i] = new LongAdder();
+        return novos;
+    }
+
+    @Override
+    protected int tamanho() {
+        return this.arestasContadas.intValue();
+    }
+
+    @Override
+    protected int laços() {
+        return this.laçosContados.intValue();
+    }
+
+    @Override
+    protected long somaGraus() {
+        return this.grausSomados.sum();
+    }
+
+    /**
+     * Retorna o menor grau entre os vértices, procurando o primeiro grau com
+     * vértices na contagem
+     *
+     * @return Grau mínimo, ou 0 se o grafo estiver vazio
+     */
+    @Override
+    protected int grauMinimo() {
+        LongAdder[] graus = this.graus;
+        for (int g = 0; g < graus.length; g++)
+            if (graus[g].sum() > 0)
+                return g;
+        return 0;
+    }
+
+    /**
+     * Retorna o maior grau entre os vértices, procurando o último grau com
+     * vértices na contagem
+     *
+     * @return Grau máximo, ou 0 se o grafo estiver vazio
+     */
+    @Override
+    protected int grauMaximo() {
+        LongAdder[] graus = this.graus;
+        for (int g = graus.length - 1; g >= 0; g--)
+            if (graus[g].sum() > 0)
+                return g;
+        return 0;
+    }
+
+    /**
+     * Retorna a cópia congelada das consultas, congelando com todas as listras
+     * travadas para leitura para que a versão corresponda à cópia
+     *
+     * @return A cópia e a versão em que foi feita
+     */
+    @Override
+    protected CopiaConsultas copiaConsultas() {
+        return this.comTodas(false, () -> super.copiaConsultas());
+    }
+
+    /**
+     * Cria um instantâneo do grafo. As listras são travadas para escrita só
+     * para trocar de época, sem copiar nada, e o instantâneo pode ser lido
+     * sem travas enquanto as outras threads continuam alterando o grafo.
+     *
+     * @param acao Ação executada ao trocar de época, ou NULL
+     * @return O instantâneo
+     */
+    @Override
+    protected GrafoInstantâneo instantaneo(Runnable acao) {
+        return this.comTodas(true, () -> super.instantaneo(acao));
+    }
+
+    /**
+     * Cria a visão induzida com todas as listras travadas para leitura. A
+     * visão em si lê a origem sem travas, então não deve ser lida enquanto
+     * outras threads alteram o grafo; para isso, congele a visão ou use
+     * {@link #subGrafo(LinkedList)}, que copia com as listras travadas.
+     *
+     * @param ids Ids dos vértices do subgrafo
+     * @return A visão
+     */
+    @Override
+    public SubGrafoInduzido subGrafoInduzido(Iterable<Integer> ids) {
+        return this.comTodas(false, () -> super.subGrafoInduzido(ids));
+    }
+
+    /**
+     * Cria a visão induzida pelo BitSet com todas as listras travadas para
+     * leitura, com as mesmas restrições de {@link #subGrafoInduzido(Iterable)}
+     *
+     * @param ids Ids dos vértices do subgrafo
+     * @return A visão
+     */
+    @Override
+    public SubGrafoInduzido subGrafoInduzido(BitSet ids) {
+        return this.comTodas(false, () -> super.subGrafoInduzido(ids));
+    }
+
+    /**
+     * Copia o subgrafo induzido com todas as listras travadas para leitura,
+     * então a cópia corresponde a um estado do grafo entre duas alterações
+     *
+     * @param lista_v Lista de vértices a serem incluídos no subgrafo
+     * @return O subgrafo gerado, uma cópia própria
+     */
+    @Override
+    protected GrafoMutável subGrafo(LinkedList<Integer> lista_v) {
+        return this.comTodas(false, () -> super.subGrafo(lista_v));
+    }
+
+    @Override
+    public GrafoCongelado congelar() {
+        return this.comTodas(false, () -> super.congelar());
+    }
+
+    @Override
+    public boolean percorrerEmLargura(int origem, boolean todos, VisitanteBusca visitante) {
+        return this.comTodas(false, () -> super.percorrerEmLargura(origem, todos, visitante));
+    }
+
+    @Override
+    public boolean percorrerEmProfundidade(int origem, boolean todos, VisitanteBusca visitante) {
+        return this.comTodas(false, () -> super.percorrerEmProfundidade(origem, todos, visitante));
+    }
+
+    /**
+     * Exporta o grafo com todas as listras travadas para leitura. O toString e
+     * o salvar passam por aqui.
+     *
+     * @param formato Formato de saída
+     * @param destino Onde o texto é escrito
+     * @throws IOException Se o destino falhar
+     */
+    @Override
+    public void exportar(int formato, Appendable destino) throws IOException {
+        try {
+            this.comTodas(false, () -> {
+                try {
+                    super.exportar(formato, destino);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return null;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+}
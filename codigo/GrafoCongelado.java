@@ -0,0 +1,609 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Representação imutável de um grafo no formato CSR (compressed sparse row).
+ * Os vértices são renumerados em índices densos 0..n-1, em ordem crescente de
+ * id, e as arestas de cada vértice ficam contíguas nos vetores de destinos e
+ * pesos, a partir da posição indicada pelo vetor de início. Por não usar
+ * objetos por vértice ou aresta, é a forma indicada para algoritmos de
+ * leitura sobre grafos grandes.
+ *
+ * Os vetores são IntBuffers: sobre vetores int[], quando o grafo é congelado
+ * em memória, ou sobre o mapeamento do arquivo, quando é aberto pelo
+ * {@link FormatoBinario}. Neste caso nada é copiado, e as páginas do arquivo só
+ * são lidas do disco quando acessadas.
+ */
+public class GrafoCongelado {
+
+    /**
+     * Armazena o nome do grafo
+     */
+    private final String NOME;
+
+    /**
+     * Indica se as arestas são direcionadas (apenas origem -> destino são
+     * armazenadas) ou não (cada aresta aparece nos dois vértices)
+     */
+    private final boolean direcionado;
+
+    /**
+     * Ids dos vértices, em ordem crescente. A posição é o índice do vértice
+     */
+    private final IntBuffer ids;
+
+    /**
+     * Posição da primeira aresta de cada vértice. Possui n+1 posições, sendo que
+     * as arestas do vértice v estão entre inicio[v] e inicio[v+1]
+     */
+    private final IntBuffer inicio;
+
+    /**
+     * Índice do vértice de destino de cada aresta
+     */
+    private final IntBuffer destinos;
+
+    /**
+     * Peso de cada aresta (-1 para arestas sem peso)
+     */
+    private final IntBuffer pesos;
+
+    /**
+     * Número de arestas do grafo (tamanho), ou -1 enquanto não foi contado.
+     * A contagem lê todos os destinos, então só é feita quando é pedida.
+     */
+    private volatile int tamanho = -1;
+
+    /**
+     * Número de laços do grafo, válido depois que o tamanho foi contado
+     */
+    private int laços;
+
+    /**
+     * Grafo com as arestas invertidas, montado na primeira vez em que é pedido
+     */
+    private volatile GrafoCongelado transposta;
+
+    /**
+     * Construtor. Recebe os vetores já montados, que não são copiados.
+     *
+     * @param NOME        Nome do grafo
+     * @param direcionado TRUE se o grafo for direcionado
+     * @param ids         Ids dos vértices em ordem crescente
+     * @param inicio      Posição inicial das arestas de cada vértice (n+1)
+     * @param destinos    Índice de destino de cada aresta
+     * @param pesos       Peso de cada aresta
+     */
+    GrafoCongelado(String NOME, boolean direcionado, int[] ids, int[] inicio, int[] destinos, int[] pesos) {
+        this(NOME, direcionado, IntBuffer.wrap(ids), IntBuffer.wrap(inicio), IntBuffer.wrap(destinos),
+                IntBuffer.wrap(pesos));
+    }
+
+    /**
+     * Construtor sobre buffers, que não são copiados nem lidos: podem ser
+     * visões de um arquivo mapeado em memória. Só as leituras absolutas dos
+     * buffers são usadas, então a posição deles não importa.
+     *
+     * @param NOME        Nome do grafo
+     * @param direcionado TRUE se o grafo for direcionado
+     * @param ids         Ids dos vértices em ordem crescente
+     * @param inicio      Posição inicial das arestas de cada vértice (n+1)
+     * @param destinos    Índice de destino de cada aresta
+     * @param pesos       Peso de cada aresta
+     */
+    GrafoCongelado(String NOME, boolean direcionado, IntBuffer ids, IntBuffer inicio, IntBuffer destinos,
+            IntBuffer pesos) {
+        this.NOME = NOME;
+        this.direcionado = direcionado;
+        this.ids = ids;
+        this.inicio = inicio;
+        this.destinos = destinos;
+        this.pesos = pesos;
+    }
+
+    /**
+     * Conta as arestas e os laços na primeira vez em que são pedidos. Threads
+     * que contam ao mesmo tempo chegam aos mesmos valores.
+     *
+     * @return Número de arestas do grafo
+     */
+    private int contar() {
+        int tamanho = this.tamanho;
+        if (tamanho >= 0)
+            return tamanho;
+        int laços = 0;
+        tamanho = 0;
+        for (int v = 0; v < this.ordem(); v++)
+            for (int i = this.inicio.get(v); i < this.inicio.get(v + 1); i++) {
+                // Sem direção, cada aresta aparece nos dois extremos, exceto os laços
+                int destino = this.destinos.get(i);
+                if (this.direcionado || destino >= v)
+                    tamanho++;
+                if (destino == v)
+                    laços++;
+            }
+        this.laços = laços;
+        this.tamanho = tamanho;
+        return tamanho;
+    }
+
+    /**
+     * Retorna o nome do grafo
+     *
+     * @return Nome do grafo
+     */
+    public String nome() {
+        return this.NOME;
+    }
+
+    /**
+     * Retorna se o grafo é direcionado
+     *
+     * @return TRUE se for direcionado, FALSE caso contrário
+     */
+    public boolean direcionado() {
+        return this.direcionado;
+    }
+
+    /**
+     * Retorna a ordem do grafo (número de vértices)
+     *
+     * @return A ordem do grafo
+     */
+    public int ordem() {
+        return this.ids.limit();
+    }
+
+    /**
+     * Retorna o tamanho do grafo (número de arestas)
+     *
+     * @return O tamanho do grafo
+     */
+    public int tamanho() {
+        return this.contar();
+    }
+
+    /**
+     * Retorna o índice denso do vértice com o id informado
+     *
+     * @param id Id do vértice
+     * @return O índice do vértice, ou -1 se ele não existir
+     */
+    public int indice(int id) {
+        return buscar(this.ids, 0, this.ordem(), id);
+    }
+
+    /**
+     * Busca binária em um trecho ordenado de um buffer
+     *
+     * @param vetor Buffer ordenado no trecho
+     * @param de    Início do trecho
+     * @param ate   Fim do trecho (exclusivo)
+     * @param chave Valor procurado
+     * @return A posição do valor, ou -1 se ele não estiver no trecho
+     */
+    private static int buscar(IntBuffer vetor, int de, int ate, int chave) {
+        int baixo = de, alto = ate - 1;
+        while (baixo <= alto) {
+            int meio = (baixo + alto) >>> 1;
+            int valor = vetor.get(meio);
+            if (valor < chave)
+                baixo = meio + 1;
+            else if (valor > chave)
+                alto = meio - 1;
+            else
+                return meio;
+        }
+        return -1;
+    }
+
+    /**
+     * Retorna o id do vértice com o índice informado
+     *
+     * @param indice Índice do vértice
+     * @return Id do vértice
+     */
+    public int id(int indice) {
+        return this.ids.get(indice);
+    }
+
+    /**
+     * Posição da primeira aresta do vértice
+     *
+     * @param indice Índice do vértice
+     * @return Posição da primeira aresta
+     */
+    public int inicio(int indice) {
+        return this.inicio.get(indice);
+    }
+
+    /**
+     * Posição seguinte à última aresta do vértice
+     *
+     * @param indice Índice do vértice
+     * @return Posição final (exclusiva) das arestas
+     */
+    public int fim(int indice) {
+        return this.inicio.get(indice + 1);
+    }
+
+    /**
+     * Índice do vértice de destino da aresta na posição informada
+     *
+     * @param posicao Posição da aresta
+     * @return Índice do destino
+     */
+    public int destino(int posicao) {
+        return this.destinos.get(posicao);
+    }
+
+    /**
+     * Peso da aresta na posição informada
+     *
+     * @param posicao Posição da aresta
+     * @return Peso da aresta (-1 se não possuir peso)
+     */
+    public int peso(int posicao) {
+        return this.pesos.get(posicao);
+    }
+
+    /**
+     * Retorna o grau (de saída, se direcionado) do vértice
+     *
+     * @param indice Índice do vértice
+     * @return Número de arestas do vértice
+     */
+    public int grau(int indice) {
+        return this.inicio.get(indice + 1) - this.inicio.get(indice);
+    }
+
+    /**
+     * Retorna a posição da aresta entre dois vértices, informados por id. As
+     * arestas de cada vértice estão ordenadas por destino, então a busca é
+     * binária.
+     *
+     * @param origem  Id do vértice de origem
+     * @param destino Id do vértice de destino
+     * @return Posição da aresta, ou -1 se ela não existir
+     */
+    public int posicaoAresta(int origem, int destino) {
+        int u = this.indice(origem), v = this.indice(destino);
+        if (u < 0 || v < 0)
+            return -1;
+        return buscar(this.destinos, this.inicio.get(u), this.inicio.get(u + 1), v);
+    }
+
+    /**
+     * Verifica se existe aresta entre dois vértices, informados por id
+     *
+     * @param origem  Id do vértice de origem
+     * @param destino Id do vértice de destino
+     * @return TRUE se a aresta existir, FALSE caso contrário
+     */
+    public boolean existeAresta(int origem, int destino) {
+        return this.posicaoAresta(origem, destino) >= 0;
+    }
+
+    /**
+     * Retorna o grafo com as arestas invertidas, em que as arestas de cada
+     * vértice são as suas arestas de entrada. Em grafos não direcionados é o
+     * próprio grafo. É montado uma única vez e reaproveitado.
+     *
+     * @return O grafo transposto
+     */
+    public GrafoCongelado transposta() {
+        if (!this.direcionado)
+            return this;
+        GrafoCongelado transposta = this.transposta;
+        if (transposta == null) {
+            int n = this.ordem(), m = this.inicio.get(n);
+            int[] inicio = new int[n + 1];
+            for (int i = 0; i < m; i++)
+                inicio[this.destinos.get(i) + 1]++;
+            for (int v = 0; v < n; v++)
+                inicio[v + 1] += inicio[v];
+            int[] destinos = new int[m];
+            int[] pesos = new int[m];
+            int[] proxima = Arrays.copyOf(inicio, n);
+            // Percorrer as origens em ordem mantém cada linha ordenada
+            for (int u = 0; u < n; u++)
+                for (int i = this.inicio.get(u); i < this.inicio.get(u + 1); i++) {
+                    int posicao = proxima[this.destinos.get(i)]++;
+                    destinos[posicao] = u;
+                    pesos[posicao] = this.pesos.get(i);
+                }
+            transposta = new GrafoCongelado(this.NOME, true, this.ids, IntBuffer.wrap(inicio),
+                    IntBuffer.wrap(destinos), IntBuffer.wrap(pesos));
+            this.transposta = transposta;
+        }
+        return transposta;
+    }
+
+    /**
+     * Monta um grafo mutável com os vértices e arestas deste grafo
+     * ({@link GrafoDirecionado} se ele for direcionado). Um grafo aberto pelo
+     * {@link FormatoBinario} é lido direto do arquivo, e os objetos dos
+     * vértices e das arestas só são criados aqui, quando o grafo precisa ser
+     * alterado.
+     *
+     * @return A cópia mutável
+     */
+    public GrafoMutável materializar() {
+        GrafoMutável copia = this.direcionado ? new GrafoDirecionado(this.NOME) : new GrafoMutável(this.NOME);
+        copia.addCongelado(this);
+        return copia;
+    }
+
+    /**
+     * Retorna true se o grafo for completo e false caso contrário. Um grafo
+     * direcionado completo tem as arestas nos dois sentidos entre cada par.
+     *
+     * @return TRUE se o grafo for completo, FALSE caso contrário
+     */
+    public boolean completo() {
+        long n = this.ordem();
+        long pares = this.direcionado ? n * (n - 1) : (n * (n - 1)) / 2;
+        return this.contar() - this.laços == pares;
+    }
+
+    /**
+     * Percorre o grafo em largura, entregando cada vértice ao visitante no
+     * momento em que é visitado
+     *
+     * @param origem    Id do vértice de origem
+     * @param todos     TRUE para continuar pelos vértices não alcançados a
+     *                  partir da origem, FALSE para percorrer só o componente
+     *                  da origem
+     * @param visitante Recebe os vértices visitados
+     * @return FALSE se o visitante interrompeu a busca, TRUE caso contrário
+     */
+    public boolean percorrerEmLargura(int origem, boolean todos, VisitanteBusca visitante) {
+        int s = this.indice(origem);
+        if (s < 0)
+            return true;
+        int n = this.ordem();
+        int[] fila = new int[n];
+        int[] pais = new int[n];
+        int proximo = 0;
+        try (Visitados visitados = Visitados.iniciar(n)) {
+            while (s < n) {
+                int cabeca = 0, cauda = 0;
+                visitados.visitar(s);
+                fila[cauda] = s;
+                pais[cauda++] = -1;
+                for (int nivel = 0; cabeca < cauda; nivel++) {
+                    // Processa um nível inteiro da fila de uma vez
+                    for (int fimNivel = cauda; cabeca < fimNivel; cabeca++) {
+                        int v = fila[cabeca];
+                        if (!visitante.visitar(this.ids.get(v), pais[cabeca], nivel))
+                            return false;
+                        for (int i = this.inicio.get(v); i < this.inicio.get(v + 1); i++) {
+                            int w = this.destinos.get(i);
+                            if (visitados.visitar(w)) {
+                                fila[cauda] = w;
+                                pais[cauda++] = this.ids.get(v);
+                            }
+                        }
+                    }
+                }
+                if (!todos)
+                    break;
+                while (proximo < n && visitados.visitado(proximo))
+                    proximo++;
+                s = proximo;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Percorre o grafo em profundidade, entregando cada vértice ao visitante no
+     * momento em que é desempilhado
+     *
+     * @param origem    Id do vértice de origem
+     * @param todos     TRUE para continuar pelos vértices não alcançados a
+     *                  partir da origem, FALSE para percorrer só o componente
+     *                  da origem
+     * @param visitante Recebe os vértices visitados
+     * @return FALSE se o visitante interrompeu a busca, TRUE caso contrário
+     */
+    public boolean percorrerEmProfundidade(int origem, boolean todos, VisitanteBusca visitante) {
+        int s = this.indice(origem);
+        if (s < 0)
+            return true;
+        int n = this.ordem();
+        int[] pilha = new int[n];
+        int[] pais = new int[n];
+        int[] niveis = new int[n];
+        int proximo = 0;
+        try (Visitados visitados = Visitados.iniciar(n)) {
+            while (s < n) {
+                int topo = 0;
+                visitados.visitar(s);
+                pilha[topo] = s;
+                pais[topo] = -1;
+                niveis[topo++] = 0;
+                while (topo > 0) {
+                    int v = pilha[--topo];
+                    int nivel = niveis[topo];
+                    if (!visitante.visitar(this.ids.get(v), pais[topo], nivel))
+                        return false;
+                    for (int i = this.inicio.get(v); i < this.inicio.get(v + 1); i++) {
+                        int w = this.destinos.get(i);
+                        if (visitados.visitar(w)) {
+                            pilha[topo] = w;
+                            pais[topo] = this.ids.get(v);
+                            niveis[topo++] = nivel + 1;
+                        }
+                    }
+                }
+                if (!todos)
+                    break;
+                while (proximo < n && visitados.visitado(proximo))
+                    proximo++;
+                s = proximo;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Busca em largura a partir do vértice de origem. Ao terminar o componente
+     * da origem, continua pelo próximo vértice não visitado.
+     *
+     * @param origem Id do vértice de origem
+     * @return Ordem de visita, pai e nível de cada vértice
+     */
+    public ResultadoBusca buscaEmLargura(int origem) {
+        ResultadoBusca resultado = new ResultadoBusca(this.ordem());
+        this.percorrerEmLargura(origem, true, resultado);
+        return resultado;
+    }
+
+    /**
+     * Busca em profundidade a partir do vértice de origem. Ao terminar o
+     * componente da origem, continua pelo próximo vértice não visitado.
+     *
+     * @param origem Id do vértice de origem
+     * @return Ordem de visita, pai e nível de cada vértice
+     */
+    public ResultadoBusca buscaEmProfundidade(int origem) {
+        ResultadoBusca resultado = new ResultadoBusca(this.ordem());
+        this.percorrerEmProfundidade(origem, true, resultado);
+        return resultado;
+    }
+
+    /**
+     * Busca em largura paralela a partir do vértice de origem, usando o pool
+     * comum do fork/join. Produz os mesmos níveis da busca sequencial.
+     *
+     * @param origem Id do vértice de origem
+     * @return Ordem de visita, pai e nível de cada vértice
+     * @see BuscaEmLarguraParalela
+     */
+    public ResultadoBusca buscaEmLarguraParalela(int origem) {
+        return BuscaEmLarguraParalela.executar(this, origem, true, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Rotula os componentes conexos do grafo (fracamente conexos, se ele for
+     * direcionado) de forma iterativa
+     *
+     * @return O componente de cada vértice e o tamanho de cada componente
+     */
+    public Componentes componentes() {
+        return Componentes.fracos(this);
+    }
+
+    /**
+     * Rotula os componentes conexos do grafo (fracamente conexos, se ele for
+     * direcionado) em paralelo, usando o pool comum do fork/join
+     *
+     * @return O componente de cada vértice e o tamanho de cada componente
+     */
+    public Componentes componentesParalelo() {
+        return Componentes.fracosParalelo(this, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Rotula os componentes fortemente conexos do grafo. Em grafos não
+     * direcionados, são os próprios componentes conexos.
+     *
+     * @return O componente de cada vértice e o tamanho de cada componente
+     */
+    public Componentes componentesFortes() {
+        return this.direcionado ? Componentes.fortes(this) : Componentes.fracos(this);
+    }
+
+    /**
+     * Calcula uma ordem topológica do grafo direcionado
+     *
+     * @return Ids dos vértices em ordem topológica, ou NULL se houver ciclo
+     * @throws IllegalArgumentException Se o grafo não for direcionado
+     * @see OrdemTopologica
+     */
+    public int[] ordemTopologica() {
+        int[] ordem = OrdemTopologica.calcular(this);
+        if (ordem != null)
+            for (int i = 0; i < ordem.length; i++)
+                ordem[i] = this.ids.get(ordem[i]);
+        return ordem;
+    }
+
+    /**
+     * Verifica se o grafo direcionado tem algum ciclo
+     *
+     * @return TRUE se houver ciclo
+     * @throws IllegalArgumentException Se o grafo não for direcionado
+     */
+    public boolean possuiCiclo() {
+        return OrdemTopologica.possuiCiclo(this);
+    }
+
+    /**
+     * Calcula os caminhos mínimos da origem para todos os vértices
+     *
+     * @param origem Id do vértice de origem
+     * @return Distância e predecessor de cada vértice
+     * @see CaminhosMinimos
+     */
+    public CaminhosMinimos caminhosMinimos(int origem) {
+        return CaminhosMinimos.dijkstra(this, origem);
+    }
+
+    /**
+     * Calcula o caminho mínimo entre dois vértices, parando ao fechar o destino
+     *
+     * @param origem  Id do vértice de origem
+     * @param destino Id do vértice de destino
+     * @return O caminho mínimo até o destino
+     */
+    public CaminhosMinimos caminhoMinimo(int origem, int destino) {
+        return CaminhosMinimos.dijkstra(this, origem, destino);
+    }
+
+    /**
+     * Calcula o caminho mínimo entre dois vértices com buscas a partir dos dois
+     * extremos
+     *
+     * @param origem  Id do vértice de origem
+     * @param destino Id do vértice de destino
+     * @return O caminho mínimo até o destino
+     */
+    public CaminhosMinimos caminhoMinimoBidirecional(int origem, int destino) {
+        return CaminhosMinimos.bidirecional(this, origem, destino);
+    }
+
+    /**
+     * Calcula as distâncias entre todos os pares de vértices, em paralelo no
+     * pool comum do fork/join
+     *
+     * @return A matriz de distâncias
+     * @throws IllegalArgumentException Se a matriz não couber na memória
+     * @see CaminhosTodosPares
+     */
+    public MatrizDistancias caminhosTodosPares() {
+        return CaminhosTodosPares.calcular(this, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Retorna uma representação em String do grafo, no mesmo formato do grafo
+     * que o originou
+     *
+     * @return A representação em String do grafo
+     */
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        try {
+            ExportadorGrafo.escrever(this, ExportadorGrafo.CHAVES, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder não lança IOException
+        }
+        return out.toString();
+    }
+
+}
@@ -1,9 +1,3 @@
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.IOException;
-
 /**
  * Grafo direcionado
  */
@@ -19,21 +13,104 @@ public class GrafoDirecionado extends GrafoMutável {
     }
 
     /**
-     * Adiciona uma aresta ao grafo
+     * Construtor do grafo direcionado, escolhendo o mapa usado para vértices e
+     * arestas
+     * 
+     * @param nome      Nome do grafo
+     * @param primitivo TRUE para usar a tabela hash primitiva, FALSE para o
+     *                  TreeMap
+     */
+    public GrafoDirecionado(String nome, boolean primitivo) {
+        super(nome, primitivo);
+    }
+
+    /**
+     * Grafos desta classe são direcionados
      * 
-     * @param origem  Vértice de origem
-     * @param destino Vértice de destino
-     * @param peso    Peso da aresta
-     * @return TRUE se a aresta for adicionada, FALSE caso contrário
+     * @return TRUE
      */
     @Override
-    public boolean addAresta(int origem, int destino, int peso) {
-        boolean adicionou = false;
-        Vértice saida = this.existeVertice(origem);
-        Vértice chegada = this.existeVertice(destino);
-        if (saida != null && chegada != null)
-            adicionou = (saida.addAresta(destino, peso, false) && chegada.addAresta(origem, peso, true));
-        return adicionou;
+    protected boolean direcionado() {
+        return true;
+    }
+
+    /**
+     * Rotula os componentes fortemente conexos do grafo
+     * 
+     * @return O componente de cada vértice e o tamanho de cada componente
+     */
+    public Componentes componentesFortes() {
+        return this.congelar().componentesFortes();
+    }
+
+    /**
+     * Monta o grafo condensado: um vértice para cada componente fortemente
+     * conexo e uma aresta entre componentes ligados por alguma aresta. Os
+     * componentes são numerados em ordem topológica.
+     * 
+     * @return O grafo condensado, que é acíclico
+     */
+    public GrafoDirecionado condensacao() {
+        return this.componentesFortes().condensacao();
+    }
+
+    /**
+     * Calcula uma ordem topológica do grafo
+     * 
+     * @return Ids dos vértices em ordem topológica, ou NULL se houver ciclo
+     */
+    public int[] ordemTopologica() {
+        return this.congelar().ordemTopologica();
+    }
+
+    /**
+     * Verifica se o grafo tem algum ciclo, incluindo laços
+     * 
+     * @return TRUE se houver ciclo
+     */
+    public boolean possuiCiclo() {
+        return this.congelar().possuiCiclo();
+    }
+
+    /**
+     * Retorna o número de arestas que saem do vértice
+     * 
+     * @param id Vértice
+     * @return Grau de saída, ou -1 se o vértice não existir
+     */
+    public int grauSaida(int id) {
+        Vértice v = this.existeVertice(id);
+        return v == null ? -1 : v.grauSaida();
+    }
+
+    /**
+     * Retorna o número de arestas que chegam ao vértice
+     * 
+     * @param id Vértice
+     * @return Grau de entrada, ou -1 se o vértice não existir
+     */
+    public int grauEntrada(int id) {
+        Vértice v = this.existeVertice(id);
+        return v == null ? -1 : v.grauEntrada();
+    }
+
+    /**
+     * Retorna os vértices que têm aresta para o vértice informado, lidos
+     * diretamente das arestas de entrada
+     * 
+     * @param id Vértice
+     * @return Ids dos antecessores em ordem crescente, ou um vetor vazio se o
+     *         vértice não existir
+     */
+    public int[] antecessores(int id) {
+        Vértice v = this.existeVertice(id);
+        if (v == null)
+            return new int[0];
+        int[] antecessores = new int[v.grauEntrada()];
+        int i = 0;
+        for (Aresta a : v.getEntradasOrdenadas())
+            antecessores[i++] = a.destino();
+        return antecessores;
     }
 
     /**
@@ -71,78 +148,4 @@ public class GrafoDirecionado extends GrafoMutável {
         }
     }
 
-    /**
-     * Carrega um grafo a partir de um arquivo de texto.
-     * Formato: 0 1 10
-     * Em que 0 e 1 são os vértices e 10 é o peso da aresta entre eles.
-     * 
-     * @param nomeArquivo Nome do arquivo a ser carregado
-     */
-    @Override
-    public void carregar(String nomeArquivo) {
-        try {
-            BufferedReader br = new BufferedReader(new FileReader(nomeArquivo));
-            String linha;
-            while ((linha = br.readLine()) != null) {
-                String[] valores = linha.split(" ");
-                int origem = Integer.parseInt(valores[0]),
-                        destino = Integer.parseInt(valores[1]),
-                        peso = Integer.parseInt(valores[2]);
-                if (this.existeVertice(origem) == null)
-                    System.out.println(this.addVertice(origem) ? " Vértice " + origem + " adicionado."
-                            : "");
-                if (this.existeVertice(destino) == null)
-                    System.out.println(this.addVertice(destino) ? " Vértice " + destino + " adicionado."
-                            : "");
-                System.out.println(this.addAresta(origem, destino, peso)
-                        ? " Aresta " + origem + " - " + destino + " adicionada." + (peso == -1 ? "" : " Peso: " + peso)
-                        : " Aresta " + origem + " - " + destino + " não adicionada, aresta já existente.");
-            }
-            br.close();
-        } catch (IOException e) {
-            System.out.println("\n Erro ao carregar o grafo de arquivo.");
-        }
-    }
-
-    /**
-     * Salva o grafo em um arquivo de texto.
-     * Formato: 0 1 10
-     * Em que 0 e 1 são os vértices e 10 é o peso da aresta entre eles.
-     * 
-     * @param nomeArquivo Nome do arquivo a ser salvo
-     */
-    public void salvar(String nomeArquivo) {
-        try {
-            BufferedWriter bw = new BufferedWriter(new FileWriter(nomeArquivo));
-            for (Vértice v : this.vértices.values().toArray(new Vértice[this.vértices.size()]))
-                for (Aresta a : v.getArestas())
-                    if (!a.filho()) {
-                        bw.write(v.getId() + " " + a.destino() + " " + a.peso());
-                        bw.newLine();
-                    }
-            bw.close();
-        } catch (IOException e) {
-            System.out.println("\n Erro ao salvar o grafo em arquivo.");
-        }
-    }
-
-    /**
-     * Retorna uma representação em String do grafo
-     * { {id1, id2, peso1}, {id3, id4, peso2}, ... }
-     * 
-     * @return A representação em String do grafo
-     */
-    @Override
-    public String toString() {
-        StringBuilder out = new StringBuilder().append("Grafo \"").append(this.NOME).append("\": {");
-        for (Vértice vértice : this.vértices.values())
-            for (Aresta aresta : vértice.getArestas())
-                if (!aresta.filho())
-                    out.append("(").append(vértice.getId()).append(", ").append(aresta.destino())
-                            .append(aresta.peso() == -1 ? "" : ", " + aresta.peso()).append("), ");
-        if (out.charAt(out.length() - 1) == ' ')
-            out.delete(out.length() - 2, out.length());
-        return out.append("}").toString();
-    }
-
 }
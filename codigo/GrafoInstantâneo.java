@@ -0,0 +1,170 @@
+import java.util.Collection;
+
+/**
+ * Instantâneo de um grafo mutável: uma visão somente de leitura do grafo como
+ * ele estava quando o instantâneo foi criado. A visão não tem cópia própria
+ * dos vértices; cada consulta procura, entre o vértice atual e as versões
+ * antigas guardadas pelo grafo, a que valia na época do instantâneo. Em um
+ * {@link GrafoConcorrente}, o instantâneo pode ser lido enquanto outras threads
+ * alteram o grafo.
+ *
+ * @see GrafoMutável#snapshot()
+ */
+public class GrafoInstantâneo extends Grafo implements AutoCloseable {
+
+    /**
+     * Grafo de onde o instantâneo foi tirado
+     */
+    private final GrafoMutável origem;
+
+    /**
+     * Época do grafo vista pelo instantâneo
+     */
+    private final long epoca;
+
+    /**
+     * Indica se as arestas são direcionadas
+     */
+    private final boolean direcionado;
+
+    /**
+     * Menor e maior grau na época do instantâneo
+     */
+    private final int grauMinimo, grauMaximo;
+
+    /**
+     * TRUE depois que o instantâneo foi fechado
+     */
+    private boolean fechado = false;
+
+    /**
+     * Cria o instantâneo, copiando só os contadores do grafo
+     *
+     * @param origem Grafo de onde o instantâneo é tirado
+     * @param epoca  Época do grafo vista pelo instantâneo
+     */
+    GrafoInstantâneo(GrafoMutável origem, long epoca) {
+        super(origem.NOME, origem.primitivo);
+        this.origem = origem;
+        this.epoca = epoca;
+        this.direcionado = origem.direcionado();
+        this.proximoIndice = origem.indices();
+        this.arestas = origem.tamanho();
+        this.laços = origem.laços();
+        this.somaGraus = origem.somaGraus();
+        this.grauMinimo = origem.grauMinimo();
+        this.grauMaximo = origem.grauMaximo();
+        this.vértices = new Vertices(origem.ordem());
+    }
+
+    /**
+     * Retorna a época do grafo vista pelo instantâneo
+     *
+     * @return Época do instantâneo
+     */
+    public long epoca() {
+        return this.epoca;
+    }
+
+    /**
+     * Fecha o instantâneo, permitindo que o grafo descarte as versões antigas
+     * que só ele lia. O instantâneo não deve ser usado depois de fechado.
+     */
+    @Override
+    public void close() {
+        if (!this.fechado) {
+            this.fechado = true;
+            this.origem.liberar(this.epoca);
+        }
+    }
+
+    /**
+     * O instantâneo não aceita novos vértices
+     *
+     * @param id Identificador do vértice
+     * @return FALSE
+     */
+    @Override
+    protected boolean addVertice(int id) {
+        return false;
+    }
+
+    /**
+     * O instantâneo não aceita novas arestas
+     *
+     * @param origem  Vértice de origem
+     * @param destino Vértice de destino
+     * @param peso    Peso da aresta
+     * @return FALSE
+     */
+    @Override
+    protected boolean addAresta(int origem, int destino, int peso) {
+        return false;
+    }
+
+    @Override
+    protected boolean direcionado() {
+        return this.direcionado;
+    }
+
+    @Override
+    protected int grauMinimo() {
+        return this.grauMinimo;
+    }
+
+    @Override
+    protected int grauMaximo() {
+        return this.grauMaximo;
+    }
+
+    /**
+     * Mapa somente de leitura dos vértices na época do instantâneo
+     */
+    private class Vertices implements MapaInt<Vértice> {
+
+        /**
+         * Número de vértices na época do instantâneo
+         */
+        private final int ordem;
+
+        Vertices(int ordem) {
+            this.ordem = ordem;
+        }
+
+        @Override
+        public Vértice get(int chave) {
+            return GrafoInstantâneo.this.origem.versaoEm(chave, GrafoInstantâneo.this.epoca);
+        }
+
+        @Override
+        public boolean containsKey(int chave) {
+            return this.get(chave) != null;
+        }
+
+        @Override
+        public Vértice put(int chave, Vértice valor) {
+            throw new UnsupportedOperationException("Instantâneos são somente de leitura");
+        }
+
+        @Override
+        public Vértice remove(int chave) {
+            throw new UnsupportedOperationException("Instantâneos são somente de leitura");
+        }
+
+        @Override
+        public int size() {
+            return this.ordem;
+        }
+
+        @Override
+        public Collection<Vértice> values() {
+            return GrafoInstantâneo.this.origem.verticesEm(GrafoInstantâneo.this.epoca);
+        }
+
+        @Override
+        public Collection<Vértice> valoresOrdenados() {
+            return this.values();
+        }
+    }
+
+}
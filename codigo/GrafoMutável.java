@@ -1,15 +1,68 @@
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.TreeMap;
 
 /**
  * Grafo mutável
  */
 public class GrafoMutável extends Grafo {
 
+    /**
+     * Número de alterações feitas no grafo. Cada resultado do cache guarda a
+     * versão em que foi calculado.
+     */
+    private long versao = 0;
+
+    /**
+     * Cache das consultas de caminho e alcance, ou NULL se estiver desativado
+     */
+    private CacheConsultas cache;
+
+    /**
+     * TRUE para que remoções invalidem só os resultados que passam pelo vértice
+     * ou aresta removidos
+     */
+    private boolean invalidacaoSeletiva;
+
+    /**
+     * Cópia congelada usada pelas consultas que não estão no cache. É refeita
+     * só quando o grafo muda.
+     */
+    private volatile CopiaConsultas copiaConsultas;
+
+    /**
+     * Época atual do grafo. Cada instantâneo enxerga os vértices das épocas
+     * até a sua, e criar um instantâneo inicia uma nova época.
+     */
+    private volatile long epoca = 0;
+
+    /**
+     * Maior e menor época entre os instantâneos abertos, ou -1 se não houver
+     * nenhum. Vértices de épocas até a maior são copiados antes de alterados.
+     */
+    private volatile long maiorInstantaneo = -1, menorInstantaneo = -1;
+
+    /**
+     * Quantidade de instantâneos abertos em cada época
+     */
+    private final TreeMap<Long, Integer> instantaneos = new TreeMap<Long, Integer>();
+
+    /**
+     * Versões antigas dos vértices alterados ou removidos desde que os
+     * instantâneos abertos foram criados, da mais nova para a mais antiga
+     */
+    private volatile MapaInt<Versao> historico = new MapaIntConcorrente<Versao>();
+
+    /**
+     * Diário em que as alterações são registradas, ou NULL
+     */
+    private Diario diario;
+
     /**
      * Construtor do grafo mutável
      * 
@@ -20,30 +73,587 @@ public class GrafoMutável extends Grafo {
     }
 
     /**
-     * Remove um vértice com o id especificado. Ignora a ação e retorna NULL se não
-     * existir um vértice com este id
+     * Construtor do grafo mutável, escolhendo o mapa usado para vértices e
+     * arestas
+     * 
+     * @param nome      Nome do grafo
+     * @param primitivo TRUE para usar a tabela hash primitiva, FALSE para o
+     *                  TreeMap
+     */
+    public GrafoMutável(String nome, boolean primitivo) {
+        super(nome, primitivo);
+    }
+
+    /**
+     * Ativa o cache de consultas de caminho e alcance, descartando o anterior.
+     * Inserções sempre invalidam todo o cache, pois podem encurtar qualquer
+     * caminho; remoções nunca criam caminhos, então podem invalidar só os
+     * resultados que passam pelo que foi removido.
+     * 
+     * @param capacidade Número máximo de resultados guardados, ou 0 para
+     *                   desativar o cache
+     * @param seletiva   TRUE para que remoções invalidem só os resultados
+     *                   afetados, FALSE para que invalidem todo o cache
+     */
+    public void usarCache(int capacidade, boolean seletiva) {
+        this.cache = capacidade > 0 ? new CacheConsultas(capacidade) : null;
+        this.invalidacaoSeletiva = seletiva;
+    }
+
+    /**
+     * Retorna o cache de consultas, com as suas estatísticas
+     * 
+     * @return O cache, ou NULL se estiver desativado
+     */
+    public CacheConsultas cache() {
+        return this.cache;
+    }
+
+    /**
+     * Retorna o número de alterações já feitas no grafo
+     * 
+     * @return Versão atual do grafo
+     */
+    public long versao() {
+        return this.versao;
+    }
+
+    /**
+     * Conta uma alteração no grafo
+     * 
+     * @return A nova versão do grafo
+     */
+    protected long novaVersao() {
+        return ++this.versao;
+    }
+
+    /**
+     * Cria um instantâneo do grafo: uma visão somente de leitura que continua
+     * mostrando o grafo como ele está agora, mesmo que ele seja alterado
+     * depois. A criação não copia nada; cada vértice só é copiado na primeira
+     * alteração feita depois do instantâneo, e a versão antiga fica guardada
+     * enquanto algum instantâneo aberto puder lê-la.
+     * 
+     * @return O instantâneo, que deve ser fechado quando não for mais usado
+     */
+    public GrafoInstantâneo snapshot() {
+        return this.instantaneo(null);
+    }
+
+    /**
+     * Cria um instantâneo, executando uma ação no mesmo ponto da história do
+     * grafo: nenhuma alteração fica entre a ação e o instantâneo
+     * 
+     * @param acao Ação executada ao trocar de época, ou NULL
+     * @return O instantâneo
+     */
+    protected GrafoInstantâneo instantaneo(Runnable acao) {
+        long epoca;
+        synchronized (this.instantaneos) {
+            epoca = this.epoca++;
+            this.instantaneos.merge(epoca, 1, Integer::sum);
+            this.maiorInstantaneo = epoca;
+            this.menorInstantaneo = this.instantaneos.firstKey();
+        }
+        GrafoInstantâneo instantaneo = new GrafoInstantâneo(this, epoca);
+        if (acao != null)
+            acao.run();
+        return instantaneo;
+    }
+
+    /**
+     * Passa a registrar as alterações do grafo no diário
+     * 
+     * @param diario Diário, ou NULL para parar de registrar
+     */
+    void usarDiario(Diario diario) {
+        this.diario = diario;
+    }
+
+    /**
+     * Retorna o diário em que as alterações são registradas
+     * 
+     * @return O diário, ou NULL se não houver
+     * @see Diario
+     */
+    public Diario diario() {
+        return this.diario;
+    }
+
+    /**
+     * Fecha um instantâneo. Sem instantâneos abertos, todas as versões antigas
+     * são descartadas de uma vez.
+     * 
+     * @param epoca Época do instantâneo
+     */
+    void liberar(long epoca) {
+        synchronized (this.instantaneos) {
+            if (this.instantaneos.merge(epoca, -1, Integer::sum) == 0)
+                this.instantaneos.remove(epoca);
+            if (this.instantaneos.isEmpty()) {
+                this.maiorInstantaneo = this.menorInstantaneo = -1;
+                this.historico = new MapaIntConcorrente<Versao>();
+            } else {
+                this.maiorInstantaneo = this.instantaneos.lastKey();
+                this.menorInstantaneo = this.instantaneos.firstKey();
+            }
+        }
+    }
+
+    /**
+     * Retorna o vértice como ele estava na época informada. O vértice atual é
+     * lido antes das versões antigas: se ele já tiver sido trocado, a versão
+     * antiga já está no histórico.
+     * 
+     * @param id    Id do vértice
+     * @param epoca Época do instantâneo
+     * @return O vértice, ou NULL se ele não existia na época
+     */
+    Vértice versaoEm(int id, long epoca) {
+        Vértice v = this.vértices.get(id);
+        Versao escolhida = null;
+        for (Versao x = this.historico.get(id); x != null && x.ate >= epoca; x = x.anterior)
+            escolhida = x;
+        if (escolhida != null)
+            v = escolhida.vértice;
+        return v != null && v.getEpoca() <= epoca ? v : null;
+    }
+
+    /**
+     * Retorna os vértices que existiam na época informada, em ordem crescente
+     * de id
+     * 
+     * @param epoca Época do instantâneo
+     * @return Os vértices da época
+     */
+    List<Vértice> verticesEm(long epoca) {
+        MapaInt<Versao> historico = this.historico;
+        int[] ids = new int[this.vértices.size() + historico.size() + 16];
+        int n = 0;
+        for (Vértice v : this.vértices.values()) {
+            if (n == ids.length)
+                ids = Arrays.copyOf(ids, n * 2);
+            ids[n++] = v.getId();
+        }
+        for (Versao x : historico.values()) {
+            if (n == ids.length)
+                ids = Arrays.copyOf(ids, n * 2);
+            ids[n++] = x.vértice.getId();
+        }
+        Arrays.sort(ids, 0, n);
+        List<Vértice> vertices = new ArrayList<Vértice>();
+        for (int i = 0; i < n; i++) {
+            Vértice v = i > 0 && ids[i] == ids[i - 1] ? null : this.versaoEm(ids[i], epoca);
+            if (v != null)
+                vertices.add(v);
+        }
+        return vertices;
+    }
+
+    /**
+     * Cria o vértice na época atual
+     * 
+     * @param id O identificador do vértice
+     * @return O vértice, ainda fora do grafo
+     */
+    @Override
+    protected Vértice novoVertice(int id) {
+        Vértice v = super.novoVertice(id);
+        v.setEpoca(this.epoca);
+        // Registrado antes de o vértice entrar no mapa, para que nenhuma
+        // aresta dele chegue ao diário antes dele
+        if (this.diario != null)
+            this.diario.registrar(Diario.ADD_VERTICE, id, 0, 0);
+        return v;
+    }
+
+    /**
+     * Retorna o objeto atual do vértice, trocando-o por uma cópia se algum
+     * instantâneo aberto puder enxergá-lo
+     * 
+     * @param v Vértice a ser alterado
+     * @return O objeto que pode ser alterado
+     */
+    @Override
+    protected Vértice paraEscrita(Vértice v) {
+        long epoca = this.epoca;
+        if (v.getEpoca() == epoca)
+            return v;
+        Vértice atual = this.vértices.get(v.getId());
+        if (atual.getEpoca() > this.maiorInstantaneo) {
+            // Nenhum instantâneo enxerga este objeto
+            atual.setEpoca(epoca);
+            return atual;
+        }
+        this.preservar(atual);
+        Vértice copia = atual.copia(epoca);
+        this.vértices.put(copia.getId(), copia);
+        return copia;
+    }
+
+    /**
+     * Guarda o objeto atual do vértice no histórico, se algum instantâneo
+     * aberto puder enxergá-lo, descartando as versões que nenhum deles lê mais
+     * 
+     * @param atual Objeto atual do vértice
+     */
+    private void preservar(Vértice atual) {
+        if (atual.getEpoca() > this.maiorInstantaneo)
+            return;
+        Versao anterior = this.historico.get(atual.getId());
+        long menor = this.menorInstantaneo;
+        for (Versao x = anterior; x != null; x = x.anterior)
+            if (x.anterior != null && x.anterior.ate < menor)
+                x.anterior = null;
+        this.historico.put(atual.getId(), new Versao(this.epoca - 1, atual,
+                anterior != null && anterior.ate >= menor ? anterior : null));
+    }
+
+    /**
+     * Verifica se existe caminho da origem até o destino
+     * 
+     * @param origem  Vértice de origem
+     * @param destino Vértice de destino
+     * @return TRUE se o destino for alcançável a partir da origem
+     */
+    public boolean alcancavel(int origem, int destino) {
+        return this.consultar(CacheConsultas.ALCANCE, origem, destino).caminho.length > 0;
+    }
+
+    /**
+     * Retorna a distância do caminho mínimo entre dois vértices, com arestas
+     * sem peso valendo 1
+     * 
+     * @param origem  Vértice de origem
+     * @param destino Vértice de destino
+     * @return A distância, ou CaminhosMinimos.INFINITO se não houver caminho
+     */
+    public long distancia(int origem, int destino) {
+        return this.consultar(CacheConsultas.CAMINHO, origem, destino).distancia;
+    }
+
+    /**
+     * Retorna o caminho mínimo entre dois vértices
+     * 
+     * @param origem  Vértice de origem
+     * @param destino Vértice de destino
+     * @return Ids dos vértices do caminho, ou um vetor vazio se não houver
+     */
+    public int[] caminho(int origem, int destino) {
+        return this.consultar(CacheConsultas.CAMINHO, origem, destino).caminho.clone();
+    }
+
+    /**
+     * Responde uma consulta pelo cache, calculando e guardando o resultado se
+     * ele não estiver lá. A consulta de um vértice para ele mesmo só depende
+     * de o vértice existir, então é respondida sem o cache.
+     * 
+     * @param tipo    CacheConsultas.ALCANCE ou CacheConsultas.CAMINHO
+     * @param origem  Vértice de origem
+     * @param destino Vértice de destino
+     * @return O resultado da consulta
+     */
+    private CacheConsultas.Entrada consultar(int tipo, int origem, int destino) {
+        if (origem == destino)
+            return this.existeVertice(origem) != null
+                    ? new CacheConsultas.Entrada(this.versao(), 0, new int[] { origem })
+                    : new CacheConsultas.Entrada(this.versao(), CaminhosMinimos.INFINITO, new int[0]);
+        CacheConsultas cache = this.cache;
+        CacheConsultas.Entrada entrada = cache == null ? null : cache.obter(tipo, origem, destino);
+        if (entrada != null)
+            return entrada;
+        CopiaConsultas copia = this.copiaConsultas();
+        GrafoCongelado grafo = copia.grafo;
+        int[] caminho;
+        long distancia;
+        if (tipo == CacheConsultas.CAMINHO) {
+            CaminhosMinimos caminhos = grafo.caminhoMinimoBidirecional(origem, destino);
+            caminho = caminhos.caminho(destino);
+            distancia = caminhos.distancia(destino);
+        } else {
+            caminho = caminhoEmLargura(grafo, origem, destino);
+            distancia = caminho.length == 0 ? CaminhosMinimos.INFINITO : caminho.length - 1;
+        }
+        entrada = new CacheConsultas.Entrada(copia.versao, distancia, caminho);
+        if (cache != null)
+            cache.guardar(tipo, origem, destino, copia.versao, distancia, caminho);
+        return entrada;
+    }
+
+    /**
+     * Retorna a cópia congelada usada pelas consultas, congelando o grafo de
+     * novo só se ele mudou desde a última. A versão e a cópia precisam ser
+     * lidas no mesmo estado do grafo.
+     * 
+     * @return A cópia e a versão em que foi feita
+     */
+    protected CopiaConsultas copiaConsultas() {
+        CopiaConsultas copia = this.copiaConsultas;
+        long versao = this.versao();
+        if (copia == null || copia.versao != versao) {
+            copia = new CopiaConsultas(this.congelar(), versao);
+            this.copiaConsultas = copia;
+        }
+        return copia;
+    }
+
+    /**
+     * Procura um caminho com o menor número de arestas por uma busca em
+     * largura que para ao encontrar o destino
+     * 
+     * @param grafo   Grafo congelado
+     * @param origem  Vértice de origem
+     * @param destino Vértice de destino
+     * @return Ids dos vértices do caminho, ou um vetor vazio se não houver
+     */
+    private static int[] caminhoEmLargura(GrafoCongelado grafo, int origem, int destino) {
+        if (grafo.indice(destino) < 0)
+            return new int[0];
+        int[] pais = new int[grafo.ordem()];
+        boolean interrompida = !grafo.percorrerEmLargura(origem, false, (id, pai, nivel) -> {
+            pais[grafo.indice(id)] = pai;
+            return id != destino;
+        });
+        if (!interrompida)
+            return new int[0];
+        int tamanho = 1;
+        for (int v = destino; v != origem; v = pais[grafo.indice(v)])
+            tamanho++;
+        int[] caminho = new int[tamanho];
+        caminho[tamanho - 1] = destino;
+        for (int i = tamanho - 1; i > 0; i--)
+            caminho[i - 1] = pais[grafo.indice(caminho[i])];
+        return caminho;
+    }
+
+    /**
+     * Registra uma alteração no grafo, invalidando todo o cache
+     */
+    private void alterado() {
+        long versao = this.novaVersao();
+        if (this.cache != null)
+            this.cache.invalidarTudo(versao);
+    }
+
+    /**
+     * Adiciona um vértice ao grafo. Um vértice novo não tem arestas, então só
+     * muda a consulta dele para ele mesmo, que não passa pelo cache: nenhum
+     * resultado guardado é invalidado.
+     * 
+     * @param id Identificador do vértice a ser adicionado
+     * @return TRUE se foi adicionado, FALSE se já existia
+     */
+    @Override
+    protected boolean addVertice(int id) {
+        boolean adicionou = super.addVertice(id);
+        if (adicionou)
+            this.novaVersao();
+        return adicionou;
+    }
+
+    /**
+     * Atualiza os contadores e invalida o cache após uma inserção
+     * 
+     * @param saida   Vértice de origem
+     * @param chegada Vértice de destino
+     */
+    @Override
+    protected void arestaAdicionada(Vértice saida, Vértice chegada) {
+        super.arestaAdicionada(saida, chegada);
+        if (this.diario != null)
+            this.diario.registrar(Diario.ADD_ARESTA, saida.getId(), chegada.getId(),
+                    saida.getAresta(chegada.getId()).peso());
+        this.alterado();
+    }
+
+    /**
+     * Atualiza os contadores e invalida o cache após uma remoção
+     * 
+     * @param saida   Vértice de origem
+     * @param chegada Vértice de destino
+     */
+    @Override
+    protected void arestaRemovida(Vértice saida, Vértice chegada) {
+        super.arestaRemovida(saida, chegada);
+        if (this.diario != null)
+            this.diario.registrar(Diario.REMOVE_ARESTA, saida.getId(), chegada.getId(), 0);
+        if (!this.invalidacaoSeletiva) {
+            this.alterado();
+        } else {
+            long versao = this.novaVersao();
+            if (this.cache != null)
+                this.cache.invalidarAresta(saida.getId(), chegada.getId(), versao);
+        }
+    }
+
+    /**
+     * Remove um vértice com o id especificado, junto com todas as arestas que
+     * chegam ou saem dele. Ignora a ação e retorna NULL se não existir um
+     * vértice com este id
      * 
      * @param id O identificador do vértice a ser removido
      * @return O vértice removido, ou NULL se não existia vértice com este id
      */
     protected Vértice removeVertice(int id) {
-        return vértices.remove(id);
+        Metricas metricas = this.metricas;
+        long medicao = metricas == null ? 0 : System.nanoTime();
+        Vértice removido = this.existeVertice(id);
+        if (removido != null) {
+            for (Aresta a : new ArrayList<>(removido.getArestas()))
+                this.desligar(removido, this.existeVertice(a.destino()));
+            for (Aresta a : new ArrayList<>(removido.getEntradas()))
+                this.desligar(this.existeVertice(a.destino()), removido);
+            this.preservar(this.existeVertice(id));
+            if (this.diario != null)
+                this.diario.registrar(Diario.REMOVE_VERTICE, id, 0, 0);
+            this.vértices.remove(id);
+            this.grauAlterado(0, -1);
+            if (this.invalidacaoSeletiva && this.cache != null)
+                this.cache.invalidarVertice(id, this.novaVersao());
+            else
+                this.alterado();
+        }
+        if (metricas != null)
+            metricas.registrar(Metricas.REMOVE_VERTICE, medicao);
+        return removido;
     }
 
     /**
-     * Adiciona uma aresta entre dois vértices do grafo, caso os dois vértices
+     * Remove a aresta entre dois vértices do grafo, caso os dois vértices
      * existam no grafo.
      * 
      * @param origem  Vértice de origem
      * @param destino Vértice de destino
      */
     protected void removeAresta(int origem, int destino) {
+        Metricas metricas = this.metricas;
+        long medicao = metricas == null ? 0 : System.nanoTime();
         Vértice saida = this.existeVertice(origem);
         Vértice chegada = this.existeVertice(destino);
-        if (saida != null && chegada != null) {
-            saida.removeAresta(destino);
-            chegada.removeAresta(origem);
+        if (saida != null && chegada != null)
+            this.desligar(saida, chegada);
+        if (metricas != null)
+            metricas.registrar(Metricas.REMOVE_ARESTA, medicao);
+    }
+
+    /**
+     * Adiciona várias arestas de uma vez, criando os vértices que ainda não
+     * existirem. Cada vértice citado no lote recebe uma posição local, e todo
+     * o trabalho é feito em vetores do tamanho do lote, sem percorrer os
+     * outros vértices do grafo. O espaço de cada vértice é reservado pela
+     * contagem de graus do lote, e arestas repetidas no lote são descartadas
+     * em uma única ordenação por origem, mantendo a primeira ocorrência, como
+     * acontece ao inseri-las uma a uma.
+     * 
+     * @param lote Arestas a serem adicionadas
+     * @return Número de arestas adicionadas
+     */
+    protected int addArestas(LoteArestas lote) {
+        Metricas metricas = this.metricas;
+        long medicao = metricas == null ? 0 : System.nanoTime();
+        boolean direcionado = this.direcionado();
+        int m = lote.tamanho();
+
+        // Cria os vértices e troca os ids pelas posições locais, na ordem em
+        // que cada vértice aparece no lote
+        MapaInt<Integer> posicoes = new MapaIntHash<Integer>(Math.min(2 * m, 16));
+        Vértice[] porPosicao = new Vértice[Math.min(2 * m, 16)];
+        int[] origens = new int[m], destinos = new int[m];
+        int n = 0;
+        for (int i = 0; i < m; i++)
+            for (int lado = 0; lado < 2; lado++) {
+                int id = lado == 0 ? lote.origem(i) : lote.destino(i);
+                Integer posicao = posicoes.get(id);
+                if (posicao == null) {
+                    if (n == porPosicao.length)
+                        porPosicao = Arrays.copyOf(porPosicao, 2 * n);
+                    porPosicao[n] = this.obterVertice(id);
+                    posicao = n++;
+                    posicoes.put(id, posicao);
+                }
+                (lado == 0 ? origens : destinos)[i] = posicao;
+            }
+
+        // Reserva espaço pelos graus e agrupa as arestas por origem (ordenação
+        // por contagem, estável). Em grafos não direcionados, u-v e v-u são a
+        // mesma aresta e ficam no grupo da menor posição.
+        int[] inicio = new int[n + 1];
+        int[] graus = new int[n];
+        int[] entradas = direcionado ? new int[n] : graus;
+        for (int i = 0; i < m; i++) {
+            if (!direcionado && origens[i] > destinos[i]) {
+                int troca = origens[i];
+                origens[i] = destinos[i];
+                destinos[i] = troca;
+            }
+            inicio[origens[i] + 1]++;
+            graus[origens[i]]++;
+            if (direcionado || origens[i] != destinos[i])
+                entradas[destinos[i]]++;
         }
+        for (int v = 0; v < n; v++) {
+            inicio[v + 1] += inicio[v];
+            if (graus[v] > 0 || (direcionado && entradas[v] > 0))
+                porPosicao[v] = this.paraEscrita(porPosicao[v]);
+            if (graus[v] > 0)
+                porPosicao[v].reservar(graus[v]);
+            if (direcionado && entradas[v] > 0)
+                porPosicao[v].reservarEntrada(entradas[v]);
+        }
+        int[] ordem = new int[m];
+        int[] proxima = graus;
+        System.arraycopy(inicio, 0, proxima, 0, n);
+        for (int i = 0; i < m; i++)
+            ordem[proxima[origens[i]]++] = i;
+
+        // Percorre cada grupo marcando a primeira ocorrência de cada destino
+        int[] marca = new int[n];
+        int mantidas = 0;
+        for (int u = 0; u < n; u++)
+            for (int k = inicio[u]; k < inicio[u + 1]; k++) {
+                int i = ordem[k];
+                if (marca[destinos[i]] != u + 1) {
+                    marca[destinos[i]] = u + 1;
+                    ordem[mantidas++] = i;
+                }
+            }
+        int adicionadas = 0;
+        for (int k = 0; k < mantidas; k++) {
+            int i = ordem[k];
+            if (this.ligar(porPosicao[origens[i]], porPosicao[destinos[i]], lote.peso(i)))
+                adicionadas++;
+        }
+        if (metricas != null)
+            metricas.registrar(Metricas.ADD_ARESTAS, medicao);
+        return adicionadas;
+    }
+
+    /**
+     * Adiciona várias arestas de uma vez, a partir de vetores primitivos
+     * 
+     * @param origens  Origem de cada aresta
+     * @param destinos Destino de cada aresta
+     * @param pesos    Peso de cada aresta
+     * @return Número de arestas adicionadas
+     * @see #addArestas(LoteArestas)
+     */
+    protected int addArestas(int[] origens, int[] destinos, int[] pesos) {
+        return this.addArestas(new LoteArestas(origens, destinos, pesos));
+    }
+
+    /**
+     * Retorna o vértice com o id informado, criando-o se ele não existir
+     * 
+     * @param id Id do vértice
+     * @return O vértice
+     */
+    private Vértice obterVertice(int id) {
+        Vértice v = this.existeVertice(id);
+        if (v == null) {
+            this.addVertice(id);
+            v = this.existeVertice(id);
+        }
+        return v;
     }
 
     /**
@@ -82,75 +692,172 @@ public class GrafoMutável extends Grafo {
 
     /**
      * Gera um subgrafo do grafo atual, contendo apenas os vértices e arestas
-     * que estão na lista de vértices passada como parâmetro
+     * que estão na lista de vértices passada como parâmetro. Vértices da lista
+     * que não existem no grafo são ignorados.
      * 
      * @param lista_v Lista de vértices a serem incluídos no subgrafo
-     * @return O subgrafo gerado
+     * @return O subgrafo gerado, uma cópia própria
+     * @see #subGrafoInduzido(Iterable)
      */
     protected GrafoMutável subGrafo(LinkedList<Integer> lista_v) {
-        GrafoMutável subgrafo = new GrafoMutável("Subgrafo de " + this.NOME);
-        for (int id : lista_v.toArray(new Integer[lista_v.size()]))
-            if (this.existeVertice(id) != null)
-                subgrafo.addVertice(id);
-        for (int id : lista_v.toArray(new Integer[lista_v.size()]))
-            for (Aresta a : this.existeVertice(id).getArestas())
-                if (subgrafo.existeVertice(a.destino()) != null)
-                    subgrafo.addAresta(subgrafo.existeVertice(id).getId(), a.destino(), a.peso());
-        return subgrafo;
+        return this.subGrafoInduzido(lista_v).materializar();
     }
 
     /**
      * Carrega um grafo a partir de um arquivo de texto.
      * Formato: 0 1 2
      * Em que 0 e 1 são os vértices e 2 é o peso da aresta entre eles.
+     * O arquivo é lido em paralelo e apenas as linhas mal formadas são
+     * informadas, com o seu número; as demais arestas são carregadas.
      * 
      * @param nomeArquivo Nome do arquivo a ser carregado
+     * @see LeitorArestas
      */
     protected void carregar(String nomeArquivo) {
+        Metricas metricas = this.metricas;
+        long medicao = metricas == null ? 0 : System.nanoTime();
+        List<String> erros = new ArrayList<String>();
+        LoteArestas arestas;
         try {
-            BufferedReader br = new BufferedReader(new FileReader(nomeArquivo));
-            String linha;
-            while ((linha = br.readLine()) != null) {
-                String[] valores = linha.split(" ");
-                int origem = Integer.parseInt(valores[0]),
-                        destino = Integer.parseInt(valores[1]),
-                        peso = Integer.parseInt(valores[2]);
-                if (this.existeVertice(origem) == null)
-                    System.out.println(this.addVertice(origem) ? " Vértice " + origem + " adicionado."
-                            : "");
-                if (this.existeVertice(destino) == null)
-                    System.out.println(this.addVertice(destino) ? " Vértice " + destino + " adicionado."
-                            : "");
-                System.out.println(this.addAresta(origem, destino, peso)
-                        ? " Aresta " + origem + " - " + destino + " adicionada." + (peso == -1 ? "" : " Peso: " + peso)
-                        : " Aresta " + origem + " - " + destino + " não adicionada, aresta já existente.");
-            }
-            br.close();
+            arestas = LeitorArestas.ler(nomeArquivo, erros);
         } catch (IOException e) {
             System.out.println("\n Erro ao carregar o grafo de arquivo.");
+            return;
         }
+        for (String erro : erros)
+            System.out.println(" " + erro);
+        this.addArestas(arestas);
+        if (metricas != null)
+            metricas.registrar(Metricas.CARREGAR, medicao);
     }
 
     /**
      * Salva o grafo em um arquivo de texto.
      * Formato: 0 1 2
-     * Em que 0 e 1 são os vértices e 2 é o peso da aresta entre eles.
+     * Em que 0 e 1 são os vértices e 2 é o peso da aresta entre eles. Grafos
+     * direcionados gravam todas as arestas de saída; os demais, cada aresta uma
+     * vez.
      * 
      * @param nomeArquivo Nome do arquivo a ser salvo
      */
     protected void salvar(String nomeArquivo) {
-        try {
-            BufferedWriter bw = new BufferedWriter(new FileWriter(nomeArquivo));
-            for (Vértice v : this.vértices.values().toArray(new Vértice[this.vértices.size()]))
-                for (Aresta a : v.getArestas())
-                    if (a.destino() < v.getId()) {
-                        bw.write(v.getId() + " " + a.destino() + " " + a.peso());
-                        bw.newLine();
-                    }
-            bw.close();
+        Metricas metricas = this.metricas;
+        long medicao = metricas == null ? 0 : System.nanoTime();
+        try (Writer saida = new FileWriter(nomeArquivo)) {
+            this.exportar(ExportadorGrafo.ARESTAS, saida);
+            if (metricas != null)
+                metricas.registrar(Metricas.SALVAR, medicao);
         } catch (IOException e) {
             System.out.println("\n Erro ao salvar o grafo em arquivo.");
         }
     }
 
+    /**
+     * Salva o grafo no formato binário, que guarda o layout CSR do grafo
+     * congelado e pode ser aberto sem interpretar texto
+     * 
+     * @param nomeArquivo Nome do arquivo a ser salvo
+     * @see FormatoBinario
+     */
+    protected void salvarBinario(String nomeArquivo) {
+        Metricas metricas = this.metricas;
+        long medicao = metricas == null ? 0 : System.nanoTime();
+        try {
+            FormatoBinario.gravar(this.congelar(), nomeArquivo);
+            if (metricas != null)
+                metricas.registrar(Metricas.SALVAR, medicao);
+        } catch (IOException e) {
+            System.out.println("\n Erro ao salvar o grafo em arquivo binário.");
+        }
+    }
+
+    /**
+     * Carrega um grafo salvo no formato binário, adicionando seus vértices e
+     * arestas a este grafo. O arquivo deve ter sido salvo por um grafo do mesmo
+     * tipo (direcionado ou não). Para só consultar o grafo,
+     * {@link FormatoBinario#abrir(String)} devolve o grafo congelado sobre o
+     * arquivo mapeado, sem criar vértices nem arestas.
+     * 
+     * @param nomeArquivo Nome do arquivo a ser carregado
+     * @see FormatoBinario
+     */
+    protected void carregarBinario(String nomeArquivo) {
+        Metricas metricas = this.metricas;
+        long medicao = metricas == null ? 0 : System.nanoTime();
+        GrafoCongelado grafo;
+        try {
+            grafo = FormatoBinario.abrir(nomeArquivo);
+        } catch (IOException e) {
+            System.out.println("\n Erro ao carregar o grafo de arquivo binário: " + e.getMessage());
+            return;
+        }
+        if (grafo.direcionado() != this.direcionado()) {
+            System.out.println("\n O arquivo " + nomeArquivo + " não é de um grafo "
+                    + (this.direcionado() ? "direcionado." : "não direcionado."));
+            return;
+        }
+        this.addCongelado(grafo);
+        if (metricas != null)
+            metricas.registrar(Metricas.CARREGAR, medicao);
+    }
+
+    /**
+     * Adiciona os vértices e arestas de um grafo congelado a este grafo
+     * 
+     * @param grafo Grafo congelado do mesmo tipo (direcionado ou não)
+     */
+    void addCongelado(GrafoCongelado grafo) {
+        LoteArestas arestas = new LoteArestas(grafo.ordem() == 0 ? 1 : grafo.fim(grafo.ordem() - 1));
+        for (int v = 0; v < grafo.ordem(); v++) {
+            this.addVertice(grafo.id(v));
+            for (int i = grafo.inicio(v); i < grafo.fim(v); i++)
+                // Em grafos não direcionados, cada aresta aparece nos dois extremos
+                if (grafo.direcionado() || grafo.destino(i) >= v)
+                    arestas.add(grafo.id(v), grafo.id(grafo.destino(i)), grafo.peso(i));
+        }
+        this.addArestas(arestas);
+    }
+
+    /**
+     * Versão antiga de um vértice, válida até uma época
+     */
+    private static class Versao {
+
+        /**
+         * Última época em que o vértice estava neste estado
+         */
+        final long ate;
+
+        /**
+         * Objeto do vértice nesta versão, que não é mais alterado
+         */
+        final Vértice vértice;
+
+        /**
+         * Versão anterior, ou NULL
+         */
+        Versao anterior;
+
+        Versao(long ate, Vértice vértice, Versao anterior) {
+            this.ate = ate;
+            this.vértice = vértice;
+            this.anterior = anterior;
+        }
+    }
+
+    /**
+     * Cópia congelada do grafo e a versão em que foi feita
+     */
+    static class CopiaConsultas {
+
+        final GrafoCongelado grafo;
+
+        final long versao;
+
+        CopiaConsultas(GrafoCongelado grafo, long versao) {
+            this.grafo = grafo;
+            this.versao = versao;
+        }
+    }
+
 }
@@ -1,3 +1,4 @@
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Grafo não direcionado
@@ -12,5 +13,52 @@ public class GrafoNãoDirecionado extends GrafoMutável {
     public GrafoNãoDirecionado(String nome) {
         super(nome);
     }
-    
+
+    /**
+     * Construtor do grafo não direcionado, escolhendo o mapa usado para vértices
+     * e arestas
+     * 
+     * @param nome      Nome do grafo
+     * @param primitivo TRUE para usar a tabela hash primitiva, FALSE para o
+     *                  TreeMap
+     */
+    public GrafoNãoDirecionado(String nome, boolean primitivo) {
+        super(nome, primitivo);
+    }
+
+    /**
+     * Retorna a floresta geradora mínima do grafo, calculada pelo algoritmo de
+     * Kruskal. Arestas sem peso valem 1.
+     * 
+     * @return Um novo grafo com todos os vértices e as arestas da floresta
+     */
+    public GrafoNãoDirecionado arvoreGeradoraMinima() {
+        return this.floresta(ArvoreGeradora.kruskal(this.congelar()));
+    }
+
+    /**
+     * Retorna a floresta geradora mínima do grafo, calculada em paralelo pelo
+     * algoritmo de Borůvka no pool comum do fork/join. O resultado é o mesmo
+     * de {@link #arvoreGeradoraMinima()}.
+     * 
+     * @return Um novo grafo com todos os vértices e as arestas da floresta
+     */
+    public GrafoNãoDirecionado arvoreGeradoraMinimaParalela() {
+        return this.floresta(ArvoreGeradora.boruvka(this.congelar(), ForkJoinPool.commonPool()));
+    }
+
+    /**
+     * Monta o grafo da floresta com os vértices deste grafo
+     * 
+     * @param arestas Arestas da floresta
+     * @return O grafo da floresta
+     */
+    private GrafoNãoDirecionado floresta(LoteArestas arestas) {
+        GrafoNãoDirecionado floresta = new GrafoNãoDirecionado("Árvore geradora de " + this.NOME, this.primitivo);
+        for (Vértice v : this.vértices.values())
+            floresta.addVertice(v.getId());
+        floresta.addArestas(arestas);
+        return floresta;
+    }
+
 }
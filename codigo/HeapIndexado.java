@@ -0,0 +1,182 @@
+import java.util.Arrays;
+
+/**
+ * Heap binário de mínimo indexado pelos índices densos dos vértices, com
+ * chaves long. Cada vértice aparece no máximo uma vez, e a sua chave pode ser
+ * diminuída no lugar. Todos os vetores são alocados na criação, então as
+ * operações não criam objetos.
+ */
+public class HeapIndexado {
+
+    /**
+     * Vértices do heap, na ordem do heap
+     */
+    private final int[] heap;
+
+    /**
+     * Posição de cada vértice no heap, ou -1 se ele não estiver no heap
+     */
+    private final int[] posicao;
+
+    /**
+     * Chave de cada vértice
+     */
+    private final long[] chave;
+
+    /**
+     * Número de vértices no heap
+     */
+    private int tamanho = 0;
+
+    /**
+     * Cria um heap vazio para vértices de índice 0 até capacidade - 1
+     *
+     * @param capacidade Número de vértices
+     */
+    public HeapIndexado(int capacidade) {
+        this.heap = new int[capacidade];
+        this.posicao = new int[capacidade];
+        this.chave = new long[capacidade];
+        Arrays.fill(this.posicao, -1);
+    }
+
+    /**
+     * Verifica se o heap está vazio
+     *
+     * @return TRUE se não houver vértices no heap
+     */
+    public boolean vazio() {
+        return this.tamanho == 0;
+    }
+
+    /**
+     * Retorna o número de vértices no heap
+     *
+     * @return Número de vértices
+     */
+    public int tamanho() {
+        return this.tamanho;
+    }
+
+    /**
+     * Verifica se o vértice está no heap
+     *
+     * @param v Índice do vértice
+     * @return TRUE se estiver no heap
+     */
+    public boolean contem(int v) {
+        return this.posicao[v] >= 0;
+    }
+
+    /**
+     * Retorna o vértice de menor chave, sem removê-lo
+     *
+     * @return Índice do vértice
+     */
+    public int minimo() {
+        return this.heap[0];
+    }
+
+    /**
+     * Retorna a menor chave do heap, sem remover o vértice
+     *
+     * @return A menor chave
+     */
+    public long chaveMinima() {
+        return this.chave[this.heap[0]];
+    }
+
+    /**
+     * Insere o vértice com a chave informada ou, se ele já estiver no heap com
+     * chave maior, diminui a sua chave
+     *
+     * @param v     Índice do vértice
+     * @param chave Nova chave
+     * @return TRUE se o vértice foi inserido ou a chave diminuiu
+     */
+    public boolean inserirOuDiminuir(int v, long chave) {
+        int i = this.posicao[v];
+        if (i < 0) {
+            i = this.tamanho++;
+            this.heap[i] = v;
+            this.posicao[v] = i;
+        } else if (chave >= this.chave[v]) {
+            return false;
+        }
+        this.chave[v] = chave;
+        this.subir(i);
+        return true;
+    }
+
+    /**
+     * Remove e retorna o vértice de menor chave
+     *
+     * @return Índice do vértice
+     */
+    public int removerMinimo() {
+        int minimo = this.heap[0];
+        int ultimo = this.heap[--this.tamanho];
+        this.posicao[minimo] = -1;
+        if (this.tamanho > 0) {
+            this.heap[0] = ultimo;
+            this.posicao[ultimo] = 0;
+            this.descer(0);
+        }
+        return minimo;
+    }
+
+    /**
+     * Esvazia o heap, desmarcando só os vértices que ainda estavam nele
+     */
+    public void limpar() {
+        for (int i = 0; i < this.tamanho; i++)
+            this.posicao[this.heap[i]] = -1;
+        this.tamanho = 0;
+    }
+
+    /**
+     * Sobe o vértice da posição i até restaurar a ordem do heap
+     *
+     * @param i Posição no heap
+     */
+    private void subir(int i) {
+        int v = this.heap[i];
+        long chave = this.chave[v];
+        while (i > 0) {
+            int pai = (i - 1) >>> 1;
+            int p = this.heap[pai];
+            if (this.chave[p] <= chave)
+                break;
+            this.heap[i] = p;
+            this.posicao[p] = i;
+            i = pai;
+        }
+        this.heap[i] = v;
+        this.posicao[v] = i;
+    }
+
+    /**
+     * Desce o vértice da posição i até restaurar a ordem do heap
+     *
+     * @param i Posição no heap
+     */
+    private void descer(int i) {
+        int v = this.heap[i];
+        long chave = this.chave[v];
+        int metade = this.tamanho >>> 1;
+        while (i < metade) {
+            int filho = 2 * i + 1;
+            int f = this.heap[filho];
+            if (filho + 1 < this.tamanho && this.chave[this.heap[filho + 1]] < this.chave[f])
+                f = this.heap[++filho];
+            if (chave <= this.chave[f])
+                break;
+            this.heap[i] = f;
+            this.posicao[f] = i;
+            i = filho;
+        }
+        this.heap[i] = v;
+        this.posicao[v] = i;
+    }
+
+}
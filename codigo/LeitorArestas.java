@@ -0,0 +1,264 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Leitor do formato texto de arestas ("origem destino peso", uma aresta por
+ * linha). O arquivo é mapeado em memória e dividido em blocos terminados em
+ * quebra de linha, que são interpretados em paralelo diretamente dos bytes,
+ * sem criar Strings. Linhas mal formadas não interrompem a leitura: são
+ * informadas com o número da linha.
+ */
+public class LeitorArestas {
+
+    /**
+     * Tamanho mínimo de um bloco, em bytes
+     */
+    private static final int BLOCO_MINIMO = 1 << 20;
+
+    /**
+     * Tamanho máximo de um bloco, em bytes (limite de um mapeamento)
+     */
+    private static final int BLOCO_MAXIMO = 1 << 30;
+
+    /**
+     * Lê todas as arestas do arquivo usando o pool comum do fork/join
+     * 
+     * @param nomeArquivo Nome do arquivo
+     * @param erros       Recebe uma mensagem para cada linha mal formada
+     * @return As arestas válidas, na ordem do arquivo
+     * @throws IOException Se não for possível ler o arquivo
+     */
+    public static LoteArestas ler(String nomeArquivo, List<String> erros) throws IOException {
+        return ler(nomeArquivo, erros, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Lê todas as arestas do arquivo
+     * 
+     * @param nomeArquivo Nome do arquivo
+     * @param erros       Recebe uma mensagem para cada linha mal formada
+     * @param pool        Pool que interpreta os blocos
+     * @return As arestas válidas, na ordem do arquivo
+     * @throws IOException Se não for possível ler o arquivo
+     */
+    public static LoteArestas ler(String nomeArquivo, List<String> erros, ForkJoinPool pool) throws IOException {
+        return ler(nomeArquivo, erros, pool, BLOCO_MINIMO);
+    }
+
+    /**
+     * Lê todas as arestas do arquivo, escolhendo o tamanho mínimo dos blocos.
+     * Blocos pequenos servem para testar a junção de arquivos com vários
+     * blocos.
+     * 
+     * @param nomeArquivo Nome do arquivo
+     * @param erros       Recebe uma mensagem para cada linha mal formada
+     * @param pool        Pool que interpreta os blocos
+     * @param blocoMinimo Tamanho mínimo de um bloco, em bytes
+     * @return As arestas válidas, na ordem do arquivo
+     * @throws IOException Se não for possível ler o arquivo
+     */
+    static LoteArestas ler(String nomeArquivo, List<String> erros, ForkJoinPool pool, int blocoMinimo)
+            throws IOException {
+        try (FileChannel canal = FileChannel.open(Paths.get(nomeArquivo), StandardOpenOption.READ)) {
+            long tamanho = canal.size();
+            long bloco = Math.min(BLOCO_MAXIMO - blocoMinimo,
+                    Math.max(blocoMinimo, tamanho / (4L * pool.getParallelism()) + 1));
+
+            // Divide o arquivo em blocos que terminam logo após uma quebra de linha
+            List<Bloco> blocos = new ArrayList<Bloco>();
+            long inicio = 0;
+            while (inicio < tamanho) {
+                long fim = Math.min(tamanho, inicio + bloco);
+                if (fim < tamanho) {
+                    MappedByteBuffer resto = canal.map(FileChannel.MapMode.READ_ONLY, fim,
+                            Math.min(tamanho - fim, BLOCO_MAXIMO - (fim - inicio)));
+                    int i = 0;
+                    while (i < resto.limit() && resto.get(i) != '\n')
+                        i++;
+                    fim = Math.min(tamanho, fim + i + 1);
+                }
+                blocos.add(new Bloco(canal.map(FileChannel.MapMode.READ_ONLY, inicio, fim - inicio)));
+                inicio = fim;
+            }
+
+            List<Future<Bloco>> lidos = pool.invokeAll(blocos);
+
+            // Junta os blocos na ordem do arquivo, numerando as linhas com erro
+            LoteArestas arestas = new LoteArestas(1);
+            int linhasAnteriores = 0;
+            for (Future<Bloco> lido : lidos) {
+                Bloco b;
+                try {
+                    b = lido.get();
+                } catch (Exception e) {
+                    throw new IOException("Erro ao ler o arquivo " + nomeArquivo, e);
+                }
+                arestas.addTodas(b.arestas);
+                for (int k = 0; k < b.quantidadeErros; k++)
+                    erros.add("Linha " + (linhasAnteriores + b.linhasComErro[k]) + ": "
+                            + b.motivos[k]);
+                linhasAnteriores += b.linhas;
+            }
+            return arestas;
+        }
+    }
+
+    /**
+     * Um bloco do arquivo, interpretado por uma thread
+     */
+    private static class Bloco implements Callable<Bloco> {
+
+        /**
+         * Bytes do bloco
+         */
+        private final MappedByteBuffer bytes;
+
+        /**
+         * Arestas válidas do bloco
+         */
+        private final LoteArestas arestas = new LoteArestas(1024);
+
+        /**
+         * Número de linhas do bloco
+         */
+        private int linhas = 0;
+
+        /**
+         * Linhas com erro, numeradas a partir de 1 dentro do bloco
+         */
+        private int[] linhasComErro = new int[4];
+
+        /**
+         * Motivo de cada erro
+         */
+        private String[] motivos = new String[4];
+
+        /**
+         * Número de linhas com erro
+         */
+        private int quantidadeErros = 0;
+
+        /**
+         * Posição atual da leitura
+         */
+        private int posicao = 0;
+
+        Bloco(MappedByteBuffer bytes) {
+            this.bytes = bytes;
+        }
+
+        /**
+         * Registra um erro na linha atual e pula o restante dela
+         * 
+         * @param motivo Descrição do erro
+         */
+        private void erro(String motivo) {
+            if (this.quantidadeErros == this.linhasComErro.length) {
+                this.linhasComErro = Arrays.copyOf(this.linhasComErro, this.quantidadeErros * 2);
+                this.motivos = Arrays.copyOf(this.motivos, this.quantidadeErros * 2);
+            }
+            this.linhasComErro[this.quantidadeErros] = this.linhas;
+            this.motivos[this.quantidadeErros++] = motivo;
+            while (this.posicao < this.bytes.limit() && this.bytes.get(this.posicao) != '\n')
+                this.posicao++;
+        }
+
+        /**
+         * Pula espaços e tabulações
+         */
+        private void pularEspacos() {
+            while (this.posicao < this.bytes.limit()) {
+                byte c = this.bytes.get(this.posicao);
+                if (c != ' ' && c != '\t')
+                    break;
+                this.posicao++;
+            }
+        }
+
+        /**
+         * Verifica se a posição atual é fim de linha (ou do bloco)
+         * 
+         * @return TRUE se a linha terminou
+         */
+        private boolean fimDaLinha() {
+            if (this.posicao >= this.bytes.limit())
+                return true;
+            byte c = this.bytes.get(this.posicao);
+            return c == '\n' || c == '\r';
+        }
+
+        /**
+         * Lê um inteiro com sinal a partir da posição atual
+         * 
+         * @return O inteiro lido, ou Long.MIN_VALUE se não houver um inteiro
+         *         válido de 32 bits na posição
+         */
+        private long lerInteiro() {
+            this.pularEspacos();
+            boolean negativo = false;
+            if (this.posicao < this.bytes.limit() && this.bytes.get(this.posicao) == '-') {
+                negativo = true;
+                this.posicao++;
+            }
+            long valor = 0;
+            int digitos = 0;
+            while (this.posicao < this.bytes.limit()) {
+                int c = this.bytes.get(this.posicao) - '0';
+                if (c < 0 || c > 9)
+                    break;
+                valor = valor * 10 + c;
+                if (valor > 1L + Integer.MAX_VALUE)
+                    return Long.MIN_VALUE;
+                digitos++;
+                this.posicao++;
+            }
+            if (digitos == 0)
+                return Long.MIN_VALUE;
+            valor = negativo ? -valor : valor;
+            return valor > Integer.MAX_VALUE ? Long.MIN_VALUE : valor;
+        }
+
+        @Override
+        public Bloco call() {
+            int limite = this.bytes.limit();
+            long[] valores = new long[3];
+            while (this.posicao < limite) {
+                this.linhas++;
+                this.pularEspacos();
+                if (!this.fimDaLinha()) {
+                    int k = 0;
+                    for (; k < 3; k++) {
+                        valores[k] = this.lerInteiro();
+                        if (valores[k] == Long.MIN_VALUE)
+                            break;
+                    }
+                    if (k < 3) {
+                        this.erro(k == 0 || !this.fimDaLinha() ? "número inválido"
+                                : "esperados 3 números (origem destino peso), encontrados " + k);
+                    } else {
+                        this.pularEspacos();
+                        if (!this.fimDaLinha())
+                            this.erro("conteúdo extra após o peso");
+                        else
+                            this.arestas.add((int) valores[0], (int) valores[1], (int) valores[2]);
+                    }
+                }
+                // Avança até o início da próxima linha
+                while (this.posicao < limite && this.bytes.get(this.posicao) != '\n')
+                    this.posicao++;
+                this.posicao++;
+            }
+            return this;
+        }
+    }
+
+}
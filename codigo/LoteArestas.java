@@ -0,0 +1,136 @@
+import java.util.Arrays;
+
+/**
+ * Lista de arestas em vetores primitivos (origem, destino e peso na mesma
+ * posição), usada para acumular arestas lidas ou geradas antes de inseri-las
+ * no grafo, sem criar um objeto por aresta.
+ */
+public class LoteArestas {
+
+    /**
+     * Origem, destino e peso de cada aresta
+     */
+    private int[] origens, destinos, pesos;
+
+    /**
+     * Número de arestas do lote
+     */
+    private int tamanho = 0;
+
+    /**
+     * Cria um lote vazio
+     */
+    public LoteArestas() {
+        this(16);
+    }
+
+    /**
+     * Cria um lote vazio com espaço para a quantidade de arestas informada
+     * 
+     * @param capacidade Número esperado de arestas
+     */
+    public LoteArestas(int capacidade) {
+        capacidade = Math.max(capacidade, 1);
+        this.origens = new int[capacidade];
+        this.destinos = new int[capacidade];
+        this.pesos = new int[capacidade];
+    }
+
+    /**
+     * Cria um lote com as arestas dos vetores informados, que passam a ser
+     * usados pelo lote sem cópia
+     * 
+     * @param origens  Origem de cada aresta
+     * @param destinos Destino de cada aresta
+     * @param pesos    Peso de cada aresta
+     */
+    public LoteArestas(int[] origens, int[] destinos, int[] pesos) {
+        if (origens.length != destinos.length || origens.length != pesos.length)
+            throw new IllegalArgumentException("Os vetores de origens, destinos e pesos devem ter o mesmo tamanho");
+        this.origens = origens;
+        this.destinos = destinos;
+        this.pesos = pesos;
+        this.tamanho = origens.length;
+    }
+
+    /**
+     * Garante espaço para mais arestas
+     * 
+     * @param minimo Capacidade mínima necessária
+     */
+    private void garantirEspaco(int minimo) {
+        if (minimo > this.origens.length) {
+            int nova = Math.max(minimo, this.origens.length + (this.origens.length >> 1));
+            this.origens = Arrays.copyOf(this.origens, nova);
+            this.destinos = Arrays.copyOf(this.destinos, nova);
+            this.pesos = Arrays.copyOf(this.pesos, nova);
+        }
+    }
+
+    /**
+     * Adiciona uma aresta ao lote
+     * 
+     * @param origem  Vértice de origem
+     * @param destino Vértice de destino
+     * @param peso    Peso da aresta
+     */
+    public void add(int origem, int destino, int peso) {
+        this.garantirEspaco(this.tamanho + 1);
+        this.origens[this.tamanho] = origem;
+        this.destinos[this.tamanho] = destino;
+        this.pesos[this.tamanho++] = peso;
+    }
+
+    /**
+     * Adiciona ao fim deste lote todas as arestas de outro lote
+     * 
+     * @param outro Lote a ser copiado
+     */
+    public void addTodas(LoteArestas outro) {
+        this.garantirEspaco(this.tamanho + outro.tamanho);
+        System.arraycopy(outro.origens, 0, this.origens, this.tamanho, outro.tamanho);
+        System.arraycopy(outro.destinos, 0, this.destinos, this.tamanho, outro.tamanho);
+        System.arraycopy(outro.pesos, 0, this.pesos, this.tamanho, outro.tamanho);
+        this.tamanho += outro.tamanho;
+    }
+
+    /**
+     * Retorna o número de arestas do lote
+     * 
+     * @return Número de arestas
+     */
+    public int tamanho() {
+        return this.tamanho;
+    }
+
+    /**
+     * Retorna a origem da i-ésima aresta
+     * 
+     * @param i Posição da aresta
+     * @return Vértice de origem
+     */
+    public int origem(int i) {
+        return this.origens[i];
+    }
+
+    /**
+     * Retorna o destino da i-ésima aresta
+     * 
+     * @param i Posição da aresta
+     * @return Vértice de destino
+     */
+    public int destino(int i) {
+        return this.destinos[i];
+    }
+
+    /**
+     * Retorna o peso da i-ésima aresta
+     * 
+     * @param i Posição da aresta
+     * @return Peso da aresta
+     */
+    public int peso(int i) {
+        return this.pesos[i];
+    }
+
+}
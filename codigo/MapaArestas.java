@@ -0,0 +1,147 @@
+import java.util.AbstractCollection;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Mapa de adjacência primitivo, usado pelos vértices de grafos com a tabela
+ * hash primitiva. A chave de cada aresta é o seu destino, e o peso fica em um
+ * vetor de ints na mesma posição da chave, então o mapa guarda só dois ints
+ * por aresta, sem objetos. As arestas são criadas apenas quando são lidas por
+ * get, values ou valoresOrdenados; put guarda só o peso da aresta recebida,
+ * cujo destino deve ser a própria chave.
+ */
+public class MapaArestas extends TabelaIntHash implements MapaInt<Aresta> {
+
+    /**
+     * Peso de cada aresta, na mesma posição do seu destino
+     */
+    private int[] pesos;
+
+    /**
+     * Cria um mapa vazio com capacidade padrão
+     */
+    public MapaArestas() {
+        this(4);
+    }
+
+    /**
+     * Cria um mapa vazio com espaço para a quantidade de arestas informada sem
+     * precisar crescer
+     *
+     * @param capacidade Número de arestas esperado
+     */
+    public MapaArestas(int capacidade) {
+        super(capacidade);
+        this.pesos = new int[this.capacidade()];
+    }
+
+    @Override
+    protected void crescerValores(int capacidade) {
+        this.pesos = Arrays.copyOf(this.pesos, capacidade);
+    }
+
+    @Override
+    protected void moverValor(int de, int para) {
+        this.pesos[para] = this.pesos[de];
+    }
+
+    @Override
+    protected void limparValor(int posicao) {
+        this.pesos[posicao] = 0;
+    }
+
+    /**
+     * Cria a aresta da posição densa informada
+     *
+     * @param posicao Posição da aresta
+     * @return A aresta
+     */
+    private Aresta aresta(int posicao) {
+        return new Aresta(this.pesos[posicao], this.chave(posicao));
+    }
+
+    @Override
+    public Aresta get(int chave) {
+        int posicao = this.posicao(chave);
+        return posicao < 0 ? null : this.aresta(posicao);
+    }
+
+    @Override
+    public Aresta put(int chave, Aresta aresta) {
+        int posicao = this.posicao(chave);
+        if (posicao >= 0) {
+            Aresta anterior = this.aresta(posicao);
+            this.pesos[posicao] = aresta.peso();
+            return anterior;
+        }
+        // inserir pode trocar o vetor de pesos, então ele só é lido depois
+        posicao = this.inserir(chave);
+        this.pesos[posicao] = aresta.peso();
+        return null;
+    }
+
+    @Override
+    public Aresta remove(int chave) {
+        int posicao = this.posicao(chave);
+        if (posicao < 0)
+            return null;
+        Aresta aresta = this.aresta(posicao);
+        this.removerChave(chave);
+        return aresta;
+    }
+
+    @Override
+    public Collection<Aresta> values() {
+        return new AbstractCollection<Aresta>() {
+            @Override
+            public Iterator<Aresta> iterator() {
+                return new Iterator<Aresta>() {
+                    private int i = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return this.i < MapaArestas.this.size();
+                    }
+
+                    @Override
+                    public Aresta next() {
+                        if (!this.hasNext())
+                            throw new NoSuchElementException();
+                        return MapaArestas.this.aresta(this.i++);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return MapaArestas.this.size();
+            }
+        };
+    }
+
+    /**
+     * Retorna as arestas em ordem crescente de destino. Só as posições são
+     * ordenadas; cada aresta é criada quando é lida.
+     *
+     * @return Lista das arestas ordenadas
+     */
+    @Override
+    public Collection<Aresta> valoresOrdenados() {
+        int[] posicoes = this.posicoesOrdenadas();
+        return new AbstractList<Aresta>() {
+            @Override
+            public Aresta get(int i) {
+                return MapaArestas.this.aresta(posicoes[i]);
+            }
+
+            @Override
+            public int size() {
+                return posicoes.length;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,96 @@
+import java.util.Collection;
+
+/**
+ * Mapa com chaves inteiras primitivas, usado para guardar os vértices do grafo
+ * e as arestas de cada vértice. Possui duas implementações: uma baseada em
+ * TreeMap, que mantém as chaves sempre ordenadas, e uma tabela hash de
+ * endereçamento aberto, sem boxing das chaves, para grafos grandes.
+ */
+public interface MapaInt<V> {
+
+    /**
+     * Cria um mapa vazio do tipo escolhido
+     * 
+     * @param primitivo TRUE para a tabela hash primitiva, FALSE para o TreeMap
+     * @return O mapa criado
+     */
+    static <V> MapaInt<V> criar(boolean primitivo) {
+        return primitivo ? new MapaIntHash<V>() : new MapaIntArvore<V>();
+    }
+
+    /**
+     * Retorna o valor associado à chave
+     * 
+     * @param chave Chave procurada
+     * @return O valor, ou NULL se a chave não existir
+     */
+    V get(int chave);
+
+    /**
+     * Verifica se a chave existe no mapa
+     * 
+     * @param chave Chave procurada
+     * @return TRUE se existir, FALSE caso contrário
+     */
+    boolean containsKey(int chave);
+
+    /**
+     * Associa o valor à chave, substituindo o valor anterior
+     * 
+     * @param chave Chave do valor
+     * @param valor Valor a ser guardado
+     * @return O valor anterior, ou NULL se a chave não existia
+     */
+    V put(int chave, V valor);
+
+    /**
+     * Remove a chave do mapa
+     * 
+     * @param chave Chave a ser removida
+     * @return O valor removido, ou NULL se a chave não existia
+     */
+    V remove(int chave);
+
+    /**
+     * Reserva espaço para mais chaves, evitando que o mapa cresça várias vezes
+     * durante inserções em lote. Implementações que não precisam de espaço
+     * reservado ignoram a chamada.
+     * 
+     * @param quantidade Número de chaves que ainda serão inseridas
+     */
+    default void reservar(int quantidade) {
+    }
+
+    /**
+     * Retorna o número de chaves do mapa
+     * 
+     * @return Número de chaves
+     */
+    int size();
+
+    /**
+     * Verifica se o mapa está vazio
+     * 
+     * @return TRUE se estiver vazio, FALSE caso contrário
+     */
+    default boolean isEmpty() {
+        return this.size() == 0;
+    }
+
+    /**
+     * Retorna os valores do mapa, na ordem mais barata para a implementação.
+     * Usado nos percursos, em que a ordem das chaves não importa.
+     * 
+     * @return Valores do mapa
+     */
+    Collection<V> values();
+
+    /**
+     * Retorna os valores do mapa em ordem crescente de chave. Usado onde a
+     * saída precisa ser estável, como toString e salvar.
+     * 
+     * @return Valores do mapa ordenados pela chave
+     */
+    Collection<V> valoresOrdenados();
+
+}
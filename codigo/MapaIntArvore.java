@@ -0,0 +1,50 @@
+import java.util.Collection;
+import java.util.TreeMap;
+
+/**
+ * Implementação de MapaInt sobre um TreeMap. As chaves são mantidas sempre
+ * ordenadas, ao custo de boxing e O(log n) por operação.
+ */
+public class MapaIntArvore<V> implements MapaInt<V> {
+
+    /**
+     * Armazena os valores do mapa
+     */
+    private TreeMap<Integer, V> mapa = new TreeMap<Integer, V>();
+
+    @Override
+    public V get(int chave) {
+        return this.mapa.get(chave);
+    }
+
+    @Override
+    public boolean containsKey(int chave) {
+        return this.mapa.containsKey(chave);
+    }
+
+    @Override
+    public V put(int chave, V valor) {
+        return this.mapa.put(chave, valor);
+    }
+
+    @Override
+    public V remove(int chave) {
+        return this.mapa.remove(chave);
+    }
+
+    @Override
+    public int size() {
+        return this.mapa.size();
+    }
+
+    @Override
+    public Collection<V> values() {
+        return this.mapa.values();
+    }
+
+    @Override
+    public Collection<V> valoresOrdenados() {
+        return this.mapa.values();
+    }
+
+}
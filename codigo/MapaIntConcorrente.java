@@ -0,0 +1,64 @@
+import java.util.Collection;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementação de MapaInt sobre um ConcurrentSkipListMap, que aceita leituras
+ * e escritas de várias threads sem trava externa. As chaves são mantidas
+ * ordenadas, e o número de chaves é contado à parte, pois o size() da lista
+ * percorre todos os nós.
+ */
+public class MapaIntConcorrente<V> implements MapaInt<V> {
+
+    /**
+     * Armazena os valores do mapa
+     */
+    private final ConcurrentSkipListMap<Integer, V> mapa = new ConcurrentSkipListMap<Integer, V>();
+
+    /**
+     * Número de chaves do mapa
+     */
+    private final AtomicInteger tamanho = new AtomicInteger();
+
+    @Override
+    public V get(int chave) {
+        return this.mapa.get(chave);
+    }
+
+    @Override
+    public boolean containsKey(int chave) {
+        return this.mapa.containsKey(chave);
+    }
+
+    @Override
+    public V put(int chave, V valor) {
+        V anterior = this.mapa.put(chave, valor);
+        if (anterior == null)
+            this.tamanho.incrementAndGet();
+        return anterior;
+    }
+
+    @Override
+    public V remove(int chave) {
+        V removido = this.mapa.remove(chave);
+        if (removido != null)
+            this.tamanho.decrementAndGet();
+        return removido;
+    }
+
+    @Override
+    public int size() {
+        return this.tamanho.get();
+    }
+
+    @Override
+    public Collection<V> values() {
+        return this.mapa.values();
+    }
+
+    @Override
+    public Collection<V> valoresOrdenados() {
+        return this.mapa.values();
+    }
+
+}
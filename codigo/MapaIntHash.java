@@ -0,0 +1,126 @@
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Implementação de MapaInt com endereçamento aberto e sondagem linear. As
+ * chaves e os valores ficam em vetores densos, na ordem de inserção, e a
+ * tabela guarda apenas a posição de cada chave nesses vetores. Não há boxing
+ * nem objetos por entrada.
+ */
+public class MapaIntHash<V> extends TabelaIntHash implements MapaInt<V> {
+
+    /**
+     * Valores, na mesma posição das chaves
+     */
+    private Object[] valores;
+
+    /**
+     * Cria um mapa vazio com capacidade padrão
+     */
+    public MapaIntHash() {
+        this(4);
+    }
+
+    /**
+     * Cria um mapa vazio com espaço para a quantidade de chaves informada sem
+     * precisar crescer
+     * 
+     * @param capacidade Número de chaves esperado
+     */
+    public MapaIntHash(int capacidade) {
+        super(capacidade);
+        this.valores = new Object[this.capacidade()];
+    }
+
+    @Override
+    protected void crescerValores(int capacidade) {
+        this.valores = Arrays.copyOf(this.valores, capacidade);
+    }
+
+    @Override
+    protected void moverValor(int de, int para) {
+        this.valores[para] = this.valores[de];
+    }
+
+    @Override
+    protected void limparValor(int posicao) {
+        this.valores[posicao] = null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(int chave) {
+        int posicao = this.posicao(chave);
+        return posicao < 0 ? null : (V) this.valores[posicao];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(int chave, V valor) {
+        int posicao = this.posicao(chave);
+        if (posicao >= 0) {
+            V anterior = (V) this.valores[posicao];
+            this.valores[posicao] = valor;
+            return anterior;
+        }
+        // inserir pode trocar o vetor de valores, então ele só é lido depois
+        posicao = this.inserir(chave);
+        this.valores[posicao] = valor;
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(int chave) {
+        int posicao = this.posicao(chave);
+        if (posicao < 0)
+            return null;
+        V valor = (V) this.valores[posicao];
+        this.removerChave(chave);
+        return valor;
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<V>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new Iterator<V>() {
+                    private int i = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return this.i < MapaIntHash.this.size();
+                    }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public V next() {
+                        if (!this.hasNext())
+                            throw new NoSuchElementException();
+                        return (V) MapaIntHash.this.valores[this.i++];
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return MapaIntHash.this.size();
+            }
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Collection<V> valoresOrdenados() {
+        int[] posicoes = this.posicoesOrdenadas();
+        Object[] ordenados = new Object[posicoes.length];
+        for (int i = 0; i < posicoes.length; i++)
+            ordenados[i] = this.valores[posicoes[i]];
+        return (Collection<V>) Arrays.asList(ordenados);
+    }
+
+}
@@ -0,0 +1,95 @@
+import java.util.Arrays;
+
+/**
+ * Distâncias entre todos os pares de vértices de um grafo congelado, guardadas
+ * em uma única matriz de longs linha a linha, como em {@link CaminhosMinimos}:
+ * somas de pesos int acima de Integer.MAX_VALUE continuam sendo distâncias, e
+ * não se confundem com INFINITO. A linha e a coluna de cada vértice são o seu
+ * índice no grafo congelado.
+ */
+public class MatrizDistancias {
+
+    /**
+     * Distância entre vértices sem caminho
+     */
+    public static final long INFINITO = CaminhosMinimos.INFINITO;
+
+    /**
+     * Grafo cujas distâncias foram calculadas
+     */
+    private final GrafoCongelado grafo;
+
+    /**
+     * Distância de i até j na posição i * n + j
+     */
+    private final long[] distancias;
+
+    /**
+     * Cria a matriz a partir do vetor de distâncias
+     *
+     * @param grafo      Grafo das distâncias
+     * @param distancias Matriz n x n, linha a linha
+     */
+    MatrizDistancias(GrafoCongelado grafo, long[] distancias) {
+        this.grafo = grafo;
+        this.distancias = distancias;
+    }
+
+    /**
+     * Retorna o número de vértices (linhas e colunas) da matriz
+     *
+     * @return Ordem do grafo
+     */
+    public int ordem() {
+        return this.grafo.ordem();
+    }
+
+    /**
+     * Retorna a distância entre dois vértices
+     *
+     * @param origem  Id do vértice de origem
+     * @param destino Id do vértice de destino
+     * @return A distância, ou INFINITO se não houver caminho ou algum vértice
+     *         não existir
+     */
+    public long distancia(int origem, int destino) {
+        int i = this.grafo.indice(origem), j = this.grafo.indice(destino);
+        if (i < 0 || j < 0)
+            return INFINITO;
+        return this.distancias[i * this.ordem() + j];
+    }
+
+    /**
+     * Retorna as distâncias de um vértice para todos os outros, na ordem dos
+     * índices do grafo congelado
+     *
+     * @param origem Id do vértice de origem
+     * @return Cópia da linha, ou NULL se o vértice não existir
+     */
+    public long[] linha(int origem) {
+        int i = this.grafo.indice(origem);
+        if (i < 0)
+            return null;
+        int n = this.ordem();
+        return Arrays.copyOfRange(this.distancias, i * n, i * n + n);
+    }
+
+    /**
+     * Retorna o grafo cujas distâncias foram calculadas
+     *
+     * @return O grafo congelado
+     */
+    GrafoCongelado grafo() {
+        return this.grafo;
+    }
+
+    /**
+     * Retorna a matriz inteira, linha a linha. O vetor não é copiado.
+     *
+     * @return Vetor de n * n distâncias
+     */
+    long[] distancias() {
+        return this.distancias;
+    }
+
+}
@@ -0,0 +1,314 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Métricas das operações de um grafo: quantas vezes cada operação foi
+ * executada, o tempo total e um histograma de latências, além do número de
+ * vértices e arestas e de uma estimativa da memória ocupada. Os contadores são
+ * LongAdder e os histogramas têm faixas logarítmicas com oito subdivisões por
+ * potência de dois (erro de até 12,5% nos percentis), então várias threads
+ * podem registrar ao mesmo tempo.
+ *
+ * As métricas são ativadas por {@link Grafo#usarMetricas(boolean)}. Desativadas,
+ * o grafo não guarda este objeto e cada operação custa só um teste de NULL.
+ * Podem ser lidas pelo {@link #toString()} ou publicadas por JMX com
+ * {@link #publicar()}.
+ */
+public class Metricas implements MetricasMBean {
+
+    /**
+     * Operações medidas
+     */
+    public static final int ADD_VERTICE = 0, ADD_ARESTA = 1, ADD_ARESTAS = 2, REMOVE_VERTICE = 3,
+            REMOVE_ARESTA = 4, PERCURSO_LARGURA = 5, PERCURSO_PROFUNDIDADE = 6, CONGELAR = 7, CARREGAR = 8,
+            SALVAR = 9;
+
+    /**
+     * Nome de cada operação, na ordem das constantes
+     */
+    private static final String[] OPERACOES = { "addVertice", "addAresta", "addArestas", "removeVertice",
+            "removeAresta", "percorrerEmLargura", "percorrerEmProfundidade", "congelar", "carregar", "salvar" };
+
+    /**
+     * Bits de subdivisão de cada potência de dois do histograma
+     */
+    private static final int SUBDIVISAO = 3;
+
+    /**
+     * Número de faixas do histograma, suficiente para qualquer long positivo
+     */
+    private static final int FAIXAS = (64 - SUBDIVISAO) << SUBDIVISAO;
+
+    /**
+     * Bytes estimados de cada objeto e de cada entrada dos mapas, com
+     * referências comprimidas
+     */
+    private static final int VERTICE = 40, ARESTA = 24, MAPA_HASH = 48, MAPA_ARVORE = 64,
+            ENTRADA_HASH = 20, ENTRADA_ARVORE = 56, ENTRADA_ARESTAS = 16;
+
+    /**
+     * Grafo medido
+     */
+    private final Grafo grafo;
+
+    private final LongAdder[] contagens = new LongAdder[OPERACOES.length];
+    private final LongAdder[] tempos = new LongAdder[OPERACOES.length];
+
+    /**
+     * Histograma de cada operação, em nanossegundos
+     */
+    private final AtomicLongArray[] histogramas = new AtomicLongArray[OPERACOES.length];
+
+    /**
+     * Nome com que as métricas foram publicadas por JMX, ou NULL
+     */
+    private ObjectName publicado;
+
+    /**
+     * Cria as métricas de um grafo
+     *
+     * @param grafo Grafo medido
+     */
+    Metricas(Grafo grafo) {
+        this.grafo = grafo;
+        for (int i = 0; i < OPERACOES.length; i++) {
+            this.contagens[i] = new LongAdder();
+            this.tempos[i] = new LongAdder();
+            this.histogramas[i] = new AtomicLongArray(FAIXAS);
+        }
+    }
+
+    /**
+     * Registra uma execução da operação
+     *
+     * @param operacao Operação executada
+     * @param medicao  Valor de System.nanoTime() no início da operação
+     */
+    void registrar(int operacao, long medicao) {
+        long duracao = Math.max(0, System.nanoTime() - medicao);
+        this.contagens[operacao].increment();
+        this.tempos[operacao].add(duracao);
+        this.histogramas[operacao].incrementAndGet(faixa(duracao));
+    }
+
+    /**
+     * Faixa do histograma de uma duração: valores menores que 8 têm faixa
+     * própria; os demais são agrupados pelos quatro bits mais altos
+     *
+     * @param nanos Duração, em nanossegundos
+     * @return A faixa
+     */
+    static int faixa(long nanos) {
+        if (nanos < (1 << SUBDIVISAO))
+            return (int) nanos;
+        int expoente = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (expoente - SUBDIVISAO)) & ((1 << SUBDIVISAO) - 1);
+        return ((expoente - SUBDIVISAO + 1) << SUBDIVISAO) + sub;
+    }
+
+    /**
+     * Maior duração que cai na faixa
+     *
+     * @param faixa Faixa do histograma
+     * @return Limite superior da faixa, em nanossegundos
+     */
+    static long limite(int faixa) {
+        if (faixa < (1 << SUBDIVISAO))
+            return faixa;
+        int expoente = (faixa >>> SUBDIVISAO) + SUBDIVISAO - 1;
+        long sub = faixa & ((1 << SUBDIVISAO) - 1);
+        long inicio = ((1L << SUBDIVISAO) + sub) << (expoente - SUBDIVISAO);
+        return inicio + (1L << (expoente - SUBDIVISAO)) - 1;
+    }
+
+    /**
+     * Retorna o nome de uma operação
+     *
+     * @param operacao Operação
+     * @return O nome
+     */
+    public static String nome(int operacao) {
+        return OPERACOES[operacao];
+    }
+
+    /**
+     * Número de execuções da operação
+     *
+     * @param operacao Operação
+     * @return Número de execuções
+     */
+    public long contagem(int operacao) {
+        return this.contagens[operacao].sum();
+    }
+
+    /**
+     * Tempo total gasto na operação
+     *
+     * @param operacao Operação
+     * @return Tempo total, em nanossegundos
+     */
+    public long tempoTotal(int operacao) {
+        return this.tempos[operacao].sum();
+    }
+
+    /**
+     * Duração abaixo da qual está a fração informada das execuções
+     *
+     * @param operacao Operação
+     * @param fracao   Fração entre 0 e 1 (0,99 para o percentil 99)
+     * @return Limite superior da faixa do percentil, em nanossegundos, ou 0 se
+     *         a operação não foi executada
+     */
+    public long percentil(int operacao, double fracao) {
+        AtomicLongArray histograma = this.histogramas[operacao];
+        long total = 0;
+        for (int f = 0; f < FAIXAS; f++)
+            total += histograma.get(f);
+        if (total == 0)
+            return 0;
+        long alvo = Math.max(1, (long) Math.ceil(fracao * total)), acumulado = 0;
+        for (int f = 0; f < FAIXAS; f++) {
+            acumulado += histograma.get(f);
+            if (acumulado >= alvo)
+                return limite(f);
+        }
+        return limite(FAIXAS - 1);
+    }
+
+    /**
+     * Zera as contagens, os tempos e os histogramas
+     */
+    @Override
+    public void zerar() {
+        for (int i = 0; i < OPERACOES.length; i++) {
+            this.contagens[i].reset();
+            this.tempos[i].reset();
+            for (int f = 0; f < FAIXAS; f++)
+                this.histogramas[i].set(f, 0);
+        }
+    }
+
+    @Override
+    public int getVertices() {
+        return this.grafo.ordem();
+    }
+
+    @Override
+    public int getArestas() {
+        return this.grafo.tamanho();
+    }
+
+    /**
+     * Estima a memória ocupada pelo grafo: os objetos dos vértices e das
+     * arestas e as entradas dos mapas em que estão. Cada aresta aparece em dois
+     * mapas (nos dois extremos ou, com direção, nas saídas da origem e nas
+     * entradas do destino). Os mapas primitivos de arestas guardam só o
+     * destino e o peso, sem objeto Aresta.
+     *
+     * @return Estimativa, em bytes
+     */
+    @Override
+    public long getMemoriaEstimada() {
+        long n = this.grafo.ordem(), m = this.grafo.tamanho();
+        boolean primitivo = this.grafo.primitivo;
+        int mapa = primitivo ? MAPA_HASH : MAPA_ARVORE;
+        int entrada = primitivo ? ENTRADA_HASH : ENTRADA_ARVORE;
+        int mapasPorVertice = this.grafo.direcionado() ? 2 : 1;
+        int aresta = primitivo ? ENTRADA_ARESTAS : ARESTA + ENTRADA_ARVORE;
+        return n * (VERTICE + entrada + mapasPorVertice * mapa) + 2 * m * aresta;
+    }
+
+    @Override
+    public String[] getOperacoes() {
+        return OPERACOES.clone();
+    }
+
+    @Override
+    public long[] getContagens() {
+        long[] valores = new long[OPERACOES.length];
+        for (int i = 0; i < valores.length; i++)
+            valores[i] = this.contagem(i);
+        return valores;
+    }
+
+    @Override
+    public double[] getMediasMicros() {
+        double[] valores = new double[OPERACOES.length];
+        for (int i = 0; i < valores.length; i++) {
+            long contagem = this.contagem(i);
+            valores[i] = contagem == 0 ? 0 : this.tempoTotal(i) / 1e3 / contagem;
+        }
+        return valores;
+    }
+
+    @Override
+    public double[] getP99Micros() {
+        double[] valores = new double[OPERACOES.length];
+        for (int i = 0; i < valores.length; i++)
+            valores[i] = this.percentil(i, 0.99) / 1e3;
+        return valores;
+    }
+
+    @Override
+    public String getRelatorio() {
+        return this.toString();
+    }
+
+    /**
+     * Publica as métricas no servidor de MBeans da plataforma, com o nome
+     * grafos:type=Grafo,name="nome do grafo"
+     *
+     * @return O nome do MBean
+     * @throws JMException Se já houver um MBean com o mesmo nome
+     */
+    public synchronized ObjectName publicar() throws JMException {
+        if (this.publicado == null) {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nome = new ObjectName("grafos:type=Grafo,name=" + ObjectName.quote(this.grafo.NOME));
+            servidor.registerMBean(this, nome);
+            this.publicado = nome;
+        }
+        return this.publicado;
+    }
+
+    /**
+     * Remove as métricas do servidor de MBeans, se tiverem sido publicadas
+     */
+    public synchronized void despublicar() {
+        if (this.publicado != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(this.publicado);
+            } catch (JMException e) {
+                // já foi removido por fora
+            }
+            this.publicado = null;
+        }
+    }
+
+    /**
+     * Retorna um relatório em texto, com uma linha por operação executada
+     *
+     * @return Tamanho do grafo, memória estimada e, por operação, contagem,
+     *         tempo médio e percentis 50, 99 e 99,9, em microssegundos
+     */
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder(String.format("Métricas de \"%s\": %d vértices, %d arestas, ~%d KB",
+                this.grafo.NOME, this.getVertices(), this.getArestas(), this.getMemoriaEstimada() / 1024));
+        for (int i = 0; i < OPERACOES.length; i++) {
+            long contagem = this.contagem(i);
+            if (contagem > 0)
+                out.append(String.format("%n %-24s %10d  média %10.1f  p50 %10.1f  p99 %10.1f  p99,9 %10.1f µs",
+                        OPERACOES[i], contagem, this.tempoTotal(i) / 1e3 / contagem,
+                        this.percentil(i, 0.5) / 1e3, this.percentil(i, 0.99) / 1e3,
+                        this.percentil(i, 0.999) / 1e3));
+        }
+        return out.toString();
+    }
+
+}
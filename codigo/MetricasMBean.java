@@ -0,0 +1,54 @@
+/**
+ * Interface de gerenciamento (JMX) das métricas de um grafo. Os vetores de
+ * contagens, médias e percentis seguem a ordem de {@link #getOperacoes()}.
+ *
+ * @see Metricas
+ */
+public interface MetricasMBean {
+
+    /**
+     * @return Número de vértices do grafo
+     */
+    int getVertices();
+
+    /**
+     * @return Número de arestas do grafo
+     */
+    int getArestas();
+
+    /**
+     * @return Estimativa da memória ocupada pelo grafo, em bytes
+     */
+    long getMemoriaEstimada();
+
+    /**
+     * @return Nome de cada operação medida
+     */
+    String[] getOperacoes();
+
+    /**
+     * @return Número de execuções de cada operação
+     */
+    long[] getContagens();
+
+    /**
+     * @return Tempo médio de cada operação, em microssegundos
+     */
+    double[] getMediasMicros();
+
+    /**
+     * @return Percentil 99 do tempo de cada operação, em microssegundos
+     */
+    double[] getP99Micros();
+
+    /**
+     * @return Relatório em texto, como o de {@link Metricas#toString()}
+     */
+    String getRelatorio();
+
+    /**
+     * Zera as contagens, os tempos e os histogramas
+     */
+    void zerar();
+
+}
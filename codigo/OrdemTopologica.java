@@ -0,0 +1,72 @@
+/**
+ * Ordenação topológica e detecção de ciclos em grafos direcionados
+ * congelados, por uma busca em profundidade iterativa com pilhas de inteiros.
+ * A busca para na primeira aresta de volta encontrada, sem terminar de
+ * percorrer o grafo.
+ */
+public class OrdemTopologica {
+
+    /**
+     * Estado dos vértices durante a busca
+     */
+    private static final byte BRANCO = 0, CINZA = 1, PRETO = 2;
+
+    /**
+     * Calcula uma ordem topológica do grafo: toda aresta vai de um vértice
+     * para outro que aparece depois dele na ordem
+     *
+     * @param grafo Grafo direcionado
+     * @return Índices dos vértices em ordem topológica, ou NULL se o grafo
+     *         tiver ciclo
+     * @throws IllegalArgumentException Se o grafo não for direcionado
+     */
+    public static int[] calcular(GrafoCongelado grafo) {
+        if (!grafo.direcionado())
+            throw new IllegalArgumentException("A ordem topológica só é definida para grafos direcionados");
+        int n = grafo.ordem();
+        byte[] cor = new byte[n];
+        int[] pilha = new int[n];
+        int[] proximaAresta = new int[n];
+        // Os vértices terminados entram do fim para o começo: pós-ordem reversa
+        int[] ordem = new int[n];
+        int posicao = n;
+        for (int s = 0; s < n; s++) {
+            if (cor[s] != BRANCO)
+                continue;
+            int topo = 0;
+            cor[s] = CINZA;
+            proximaAresta[s] = grafo.inicio(s);
+            pilha[topo++] = s;
+            while (topo > 0) {
+                int v = pilha[topo - 1];
+                if (proximaAresta[v] < grafo.fim(v)) {
+                    int w = grafo.destino(proximaAresta[v]++);
+                    if (cor[w] == CINZA)
+                        return null;
+                    if (cor[w] == BRANCO) {
+                        cor[w] = CINZA;
+                        proximaAresta[w] = grafo.inicio(w);
+                        pilha[topo++] = w;
+                    }
+                    continue;
+                }
+                topo--;
+                cor[v] = PRETO;
+                ordem[--posicao] = v;
+            }
+        }
+        return ordem;
+    }
+
+    /**
+     * Verifica se o grafo tem algum ciclo, incluindo laços
+     *
+     * @param grafo Grafo direcionado
+     * @return TRUE se houver ciclo
+     * @throws IllegalArgumentException Se o grafo não for direcionado
+     */
+    public static boolean possuiCiclo(GrafoCongelado grafo) {
+        return calcular(grafo) == null;
+    }
+
+}
@@ -0,0 +1,124 @@
+import java.util.Arrays;
+
+/**
+ * Resultado de um percurso: os vértices na ordem em que foram visitados e, na
+ * mesma posição, o pai e o nível de cada um na árvore de busca.
+ */
+public class ResultadoBusca implements VisitanteBusca {
+
+    /**
+     * Ids dos vértices na ordem de visita
+     */
+    private int[] ordem;
+
+    /**
+     * Pai de cada vértice visitado (-1 para raízes)
+     */
+    private int[] pais;
+
+    /**
+     * Nível de cada vértice visitado
+     */
+    private int[] niveis;
+
+    /**
+     * Número de vértices visitados
+     */
+    private int quantidade = 0;
+
+    /**
+     * Cria um resultado vazio
+     * 
+     * @param capacidade Número esperado de vértices visitados
+     */
+    public ResultadoBusca(int capacidade) {
+        capacidade = Math.max(capacidade, 1);
+        this.ordem = new int[capacidade];
+        this.pais = new int[capacidade];
+        this.niveis = new int[capacidade];
+    }
+
+    /**
+     * Registra um vértice visitado
+     */
+    @Override
+    public boolean visitar(int id, int pai, int nivel) {
+        if (this.quantidade == this.ordem.length) {
+            int novo = this.quantidade * 2;
+            this.ordem = Arrays.copyOf(this.ordem, novo);
+            this.pais = Arrays.copyOf(this.pais, novo);
+            this.niveis = Arrays.copyOf(this.niveis, novo);
+        }
+        this.ordem[this.quantidade] = id;
+        this.pais[this.quantidade] = pai;
+        this.niveis[this.quantidade++] = nivel;
+        return true;
+    }
+
+    /**
+     * Retorna o número de vértices visitados
+     * 
+     * @return Número de vértices visitados
+     */
+    public int quantidade() {
+        return this.quantidade;
+    }
+
+    /**
+     * Retorna o i-ésimo vértice visitado
+     * 
+     * @param i Posição na ordem de visita
+     * @return Id do vértice
+     */
+    public int vertice(int i) {
+        return this.ordem[i];
+    }
+
+    /**
+     * Retorna o pai do i-ésimo vértice visitado
+     * 
+     * @param i Posição na ordem de visita
+     * @return Id do pai, ou -1 se o vértice for raiz
+     */
+    public int pai(int i) {
+        return this.pais[i];
+    }
+
+    /**
+     * Retorna o nível do i-ésimo vértice visitado
+     * 
+     * @param i Posição na ordem de visita
+     * @return Nível do vértice
+     */
+    public int nivel(int i) {
+        return this.niveis[i];
+    }
+
+    /**
+     * Retorna os ids dos vértices na ordem de visita
+     * 
+     * @return Cópia do vetor de ordem
+     */
+    public int[] ordem() {
+        return Arrays.copyOf(this.ordem, this.quantidade);
+    }
+
+    /**
+     * Retorna os pais dos vértices, na ordem de visita
+     * 
+     * @return Cópia do vetor de pais
+     */
+    public int[] pais() {
+        return Arrays.copyOf(this.pais, this.quantidade);
+    }
+
+    /**
+     * Retorna os níveis dos vértices, na ordem de visita
+     * 
+     * @return Cópia do vetor de níveis
+     */
+    public int[] niveis() {
+        return Arrays.copyOf(this.niveis, this.quantidade);
+    }
+
+}
@@ -0,0 +1,471 @@
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Subgrafo induzido por um conjunto de vértices, como uma visão somente de
+ * leitura do grafo de origem. Os vértices escolhidos ficam em um BitSet
+ * indexado pelo índice denso, e os vértices e arestas continuam sendo os da
+ * origem: cada consulta só descarta as arestas que saem do conjunto. Criar a
+ * visão custa um bit por vértice da origem e um int por vértice escolhido,
+ * qualquer que seja o valor dos ids (inclusive negativos), e ela acompanha as
+ * alterações feitas nas arestas da origem. Um vértice que não existia na
+ * criação, ou que foi removido e inserido de novo, fica fora da visão.
+ *
+ * Percursos, existeAresta, tamanho, congelar e a exportação funcionam direto
+ * sobre a visão. O tamanho, os laços e os graus são contados em uma passada
+ * pelas arestas dos vértices escolhidos, refeita só quando a origem é um
+ * {@link GrafoMutável} que mudou de versão. A origem não deve ser alterada
+ * enquanto a visão é lida. Para uma cópia própria, use
+ * {@link #materializar(ForkJoinPool)}.
+ *
+ * @see Grafo#subGrafoInduzido(Iterable)
+ */
+public class SubGrafoInduzido extends Grafo {
+
+    /**
+     * Grafo de onde os vértices e as arestas são lidos
+     */
+    private final Grafo origem;
+
+    /**
+     * Índices densos dos vértices escolhidos
+     */
+    private final BitSet incluidos;
+
+    /**
+     * Ids dos vértices escolhidos, em ordem crescente
+     */
+    private final int[] ids;
+
+    /**
+     * Contagem das arestas e dos graus, ou NULL se ainda não foi feita
+     */
+    private Contagem contagem;
+
+    /**
+     * Versão da origem em que a contagem foi feita
+     */
+    private long versaoContada;
+
+    /**
+     * Cria a visão sobre os vértices escolhidos
+     *
+     * @param origem Grafo de origem
+     * @param ids    Ids dos vértices escolhidos; os que não existem na origem
+     *               e os repetidos são ignorados
+     */
+    SubGrafoInduzido(Grafo origem, PrimitiveIterator.OfInt ids) {
+        super("Subgrafo de " + origem.NOME, origem.primitivo);
+        this.origem = origem;
+        BitSet incluidos = new BitSet(origem.indices());
+        int[] escolhidos = new int[16];
+        int n = 0;
+        while (ids.hasNext()) {
+            Vértice v = origem.existeVertice(ids.nextInt());
+            if (v != null && !incluidos.get(v.getIndice())) {
+                incluidos.set(v.getIndice());
+                if (n == escolhidos.length)
+                    escolhidos = Arrays.copyOf(escolhidos, n * 2);
+                escolhidos[n++] = v.getId();
+            }
+        }
+        Arrays.sort(escolhidos, 0, n);
+        this.incluidos = incluidos;
+        this.ids = Arrays.copyOf(escolhidos, n);
+        this.vértices = new Vertices();
+    }
+
+    /**
+     * Retorna o grafo de origem da visão
+     *
+     * @return O grafo de origem
+     */
+    public Grafo origem() {
+        return this.origem;
+    }
+
+    /**
+     * Verifica se o vértice faz parte da visão
+     *
+     * @param id Id do vértice
+     * @return TRUE se foi escolhido e existe na origem
+     */
+    public boolean contem(int id) {
+        return this.existeVertice(id) != null;
+    }
+
+    /**
+     * A visão não aceita novos vértices
+     *
+     * @param id Identificador do vértice
+     * @return FALSE
+     */
+    @Override
+    protected boolean addVertice(int id) {
+        return false;
+    }
+
+    /**
+     * A visão não aceita novas arestas
+     *
+     * @param origem  Vértice de origem
+     * @param destino Vértice de destino
+     * @param peso    Peso da aresta
+     * @return FALSE
+     */
+    @Override
+    protected boolean addAresta(int origem, int destino, int peso) {
+        return false;
+    }
+
+    /**
+     * Retorna o vértice da origem, se ele tiver sido escolhido. As arestas do
+     * objeto retornado incluem as que saem da visão.
+     *
+     * @param idVertice Id do vértice
+     * @return O vértice, ou NULL se não foi escolhido ou não existe na origem
+     */
+    @Override
+    protected Vértice existeVertice(int idVertice) {
+        Vértice v = this.origem.existeVertice(idVertice);
+        return v != null && this.incluidos.get(v.getIndice()) ? v : null;
+    }
+
+    /**
+     * Os índices são os da origem
+     *
+     * @return O número de índices atribuídos pela origem
+     */
+    @Override
+    protected int indices() {
+        return this.origem.indices();
+    }
+
+    @Override
+    protected boolean direcionado() {
+        return this.origem.direcionado();
+    }
+
+    @Override
+    protected int tamanho() {
+        return this.contar().arestas;
+    }
+
+    @Override
+    protected int laços() {
+        return this.contar().laços;
+    }
+
+    @Override
+    protected long somaGraus() {
+        return this.contar().somaGraus;
+    }
+
+    @Override
+    protected int grauMinimo() {
+        return this.contar().grauMinimo;
+    }
+
+    @Override
+    protected int grauMaximo() {
+        return this.contar().grauMaximo;
+    }
+
+    /**
+     * Retorna a contagem das arestas e dos graus da visão, refazendo-a se a
+     * origem puder ter mudado
+     *
+     * @return A contagem atual
+     */
+    private Contagem contar() {
+        long versao = versao(this.origem);
+        Contagem contagem = this.contagem;
+        if (contagem == null || versao != this.versaoContada) {
+            contagem = new Contagem(this);
+            this.contagem = contagem;
+            this.versaoContada = versao;
+        }
+        return contagem;
+    }
+
+    /**
+     * Retorna a versão de um grafo de origem. Só o {@link GrafoMutável} muda;
+     * os demais (grafo completo, instantâneo, visões sobre eles) ficam sempre
+     * na versão 0, e a contagem é feita uma vez só.
+     *
+     * @param grafo Grafo de origem
+     * @return A versão do grafo
+     */
+    private static long versao(Grafo grafo) {
+        if (grafo instanceof GrafoMutável)
+            return ((GrafoMutável) grafo).versao();
+        if (grafo instanceof SubGrafoInduzido)
+            return versao(((SubGrafoInduzido) grafo).origem);
+        return 0;
+    }
+
+    /**
+     * Arestas de um vértice que ficam dentro da visão
+     *
+     * @param vértice Vértice da visão
+     * @return As arestas ordenadas pelo destino, filtradas enquanto são
+     *         percorridas
+     */
+    @Override
+    protected Iterable<Aresta> arestasOrdenadas(Vértice vértice) {
+        return () -> vértice.getArestasOrdenadas().stream().filter(a -> this.existeVertice(a.destino()) != null)
+                .iterator();
+    }
+
+    /**
+     * Gera a cópia CSR só dos vértices e das arestas da visão
+     *
+     * @return O grafo congelado
+     */
+    @Override
+    public GrafoCongelado congelar() {
+        Metricas metricas = this.metricas;
+        long medicao = metricas == null ? 0 : System.nanoTime();
+        Collection<Vértice> ordenados = this.vértices.valoresOrdenados();
+        int n = ordenados.size();
+        int[] ids = new int[n];
+        int[] inicio = new int[n + 1];
+        int i = 0;
+        for (Vértice v : ordenados) {
+            ids[i] = v.getId();
+            for (Aresta a : v.getArestas())
+                if (this.existeVertice(a.destino()) != null)
+                    inicio[i + 1]++;
+            i++;
+        }
+        for (i = 0; i < n; i++)
+            inicio[i + 1] += inicio[i];
+        int[] destinos = new int[inicio[n]];
+        int[] pesos = new int[inicio[n]];
+        i = 0;
+        for (Vértice v : ordenados)
+            for (Aresta a : this.arestasOrdenadas(v)) {
+                destinos[i] = Arrays.binarySearch(ids, a.destino());
+                pesos[i++] = a.peso();
+            }
+        if (metricas != null)
+            metricas.registrar(Metricas.CONGELAR, medicao);
+        return new GrafoCongelado(this.NOME, this.direcionado(), ids, inicio, destinos, pesos);
+    }
+
+    /**
+     * Copia a visão para um grafo mutável próprio, no pool comum do fork/join
+     *
+     * @return A cópia
+     * @see #materializar(ForkJoinPool)
+     */
+    public GrafoMutável materializar() {
+        return this.materializar(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Copia a visão para um grafo mutável próprio ({@link GrafoDirecionado}
+     * se a origem for direcionada). As arestas dos vértices escolhidos são
+     * filtradas em paralelo, cada faixa de vértices em um lote, e os lotes são
+     * inseridos de uma vez pela inserção em lote. Os vértices isolados também
+     * são copiados.
+     *
+     * @param pool Pool que filtra as arestas
+     * @return A cópia
+     */
+    public GrafoMutável materializar(ForkJoinPool pool) {
+        int[] ids = new int[this.ordem()];
+        int n = 0;
+        for (Vértice v : this.vértices.valoresOrdenados())
+            ids[n++] = v.getId();
+        GrafoMutável copia = this.direcionado() ? new GrafoDirecionado(this.NOME, this.primitivo)
+                : new GrafoMutável(this.NOME, this.primitivo);
+        LoteArestas arestas = pool.invoke(new ColetarArestas(this, ids, 0, n));
+        for (int i = 0; i < n; i++)
+            copia.addVertice(ids[i]);
+        copia.addArestas(arestas);
+        return copia;
+    }
+
+    /**
+     * Arestas e graus da visão, contados em uma passada
+     */
+    private static final class Contagem {
+
+        final int vertices;
+        final int arestas;
+        final int laços;
+        final long somaGraus;
+        final int grauMinimo;
+        final int grauMaximo;
+
+        Contagem(SubGrafoInduzido visao) {
+            boolean direcionado = visao.direcionado();
+            int vertices = 0, laços = 0, minimo = Integer.MAX_VALUE, maximo = 0;
+            long saidas = 0, soma = 0;
+            for (int id : visao.ids) {
+                Vértice v = visao.existeVertice(id);
+                if (v == null)
+                    continue;
+                vertices++;
+                int grau = 0;
+                for (Aresta a : v.getArestas())
+                    if (visao.existeVertice(a.destino()) != null) {
+                        grau++;
+                        if (a.destino() == id)
+                            laços++;
+                    }
+                saidas += grau;
+                // Em grafos direcionados, o grau soma as entradas (o laço conta duas vezes)
+                if (direcionado)
+                    for (Aresta a : v.getEntradas())
+                        if (visao.existeVertice(a.destino()) != null)
+                            grau++;
+                soma += grau;
+                minimo = Math.min(minimo, grau);
+                maximo = Math.max(maximo, grau);
+            }
+            this.vertices = vertices;
+            this.laços = laços;
+            // Sem direção, cada aresta aparece nos dois extremos e o laço uma vez só
+            this.arestas = (int) (direcionado ? saidas : (saidas + laços) / 2);
+            this.somaGraus = soma;
+            this.grauMinimo = vertices == 0 ? 0 : minimo;
+            this.grauMaximo = maximo;
+        }
+    }
+
+    /**
+     * Mapa somente de leitura dos vértices escolhidos que existem na origem
+     */
+    private class Vertices implements MapaInt<Vértice> {
+
+        @Override
+        public Vértice get(int chave) {
+            return SubGrafoInduzido.this.existeVertice(chave);
+        }
+
+        @Override
+        public boolean containsKey(int chave) {
+            return this.get(chave) != null;
+        }
+
+        @Override
+        public Vértice put(int chave, Vértice valor) {
+            throw new UnsupportedOperationException("Subgrafos induzidos são somente de leitura");
+        }
+
+        @Override
+        public Vértice remove(int chave) {
+            throw new UnsupportedOperationException("Subgrafos induzidos são somente de leitura");
+        }
+
+        @Override
+        public int size() {
+            return SubGrafoInduzido.this.contar().vertices;
+        }
+
+        @Override
+        public Collection<Vértice> values() {
+            return new AbstractCollection<Vértice>() {
+                @Override
+                public Iterator<Vértice> iterator() {
+                    return new Iterator<Vértice>() {
+
+                        private int posicao = 0;
+                        private Vértice proximo = this.buscar();
+
+                        private Vértice buscar() {
+                            int[] ids = SubGrafoInduzido.this.ids;
+                            while (this.posicao < ids.length) {
+                                Vértice v = SubGrafoInduzido.this.existeVertice(ids[this.posicao++]);
+                                if (v != null)
+                                    return v;
+                            }
+                            return null;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return this.proximo != null;
+                        }
+
+                        @Override
+                        public Vértice next() {
+                            if (this.proximo == null)
+                                throw new NoSuchElementException();
+                            Vértice atual = this.proximo;
+                            this.proximo = this.buscar();
+                            return atual;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return Vertices.this.size();
+                }
+            };
+        }
+
+        @Override
+        public Collection<Vértice> valoresOrdenados() {
+            return this.values();
+        }
+    }
+
+    /**
+     * Filtra as arestas de uma faixa dos vértices escolhidos, dividindo a
+     * faixa entre as threads do pool. Sem direção, cada aresta é coletada uma
+     * vez, no extremo de menor id.
+     */
+    private static class ColetarArestas extends RecursiveTask<LoteArestas> {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Número de vértices processados por tarefa
+         */
+        private static final int GRAO = 4096;
+
+        private final SubGrafoInduzido visao;
+        private final int[] ids;
+        private final int inicio, fim;
+
+        ColetarArestas(SubGrafoInduzido visao, int[] ids, int inicio, int fim) {
+            this.visao = visao;
+            this.ids = ids;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected LoteArestas compute() {
+            if (this.fim - this.inicio > GRAO) {
+                int meio = (this.inicio + this.fim) >>> 1;
+                ColetarArestas direita = new ColetarArestas(this.visao, this.ids, meio, this.fim);
+                direita.fork();
+                LoteArestas lote = new ColetarArestas(this.visao, this.ids, this.inicio, meio).compute();
+                lote.addTodas(direita.join());
+                return lote;
+            }
+            boolean direcionado = this.visao.direcionado();
+            LoteArestas lote = new LoteArestas();
+            for (int i = this.inicio; i < this.fim; i++) {
+                int id = this.ids[i];
+                for (Aresta a : this.visao.origem.existeVertice(id).getArestas())
+                    if ((direcionado || a.destino() >= id) && this.visao.existeVertice(a.destino()) != null)
+                        lote.add(id, a.destino(), a.peso());
+            }
+            return lote;
+        }
+    }
+
+}
@@ -0,0 +1,267 @@
+import java.util.Arrays;
+
+/**
+ * Base das tabelas hash de chaves inteiras, com endereçamento aberto e
+ * sondagem linear. As chaves ficam em um vetor denso, na ordem de inserção, e
+ * a tabela guarda apenas a posição de cada chave nesse vetor. Cada subclasse
+ * guarda os valores em vetores próprios, na mesma posição das chaves, e é
+ * avisada quando eles precisam crescer ou quando uma chave muda de posição.
+ */
+public abstract class TabelaIntHash {
+
+    /**
+     * Fator de carga máximo da tabela, em quartos
+     */
+    private static final int CARGA_MAXIMA = 3;
+
+    /**
+     * Tabela de dispersão. Cada posição guarda o índice denso + 1 da chave, ou
+     * 0 se estiver vazia
+     */
+    private int[] tabela;
+
+    /**
+     * Máscara para o tamanho da tabela (potência de 2)
+     */
+    private int mascara;
+
+    /**
+     * Chaves, na ordem de inserção
+     */
+    private int[] chaves;
+
+    /**
+     * Número de chaves da tabela
+     */
+    private int tamanho;
+
+    /**
+     * Cria uma tabela vazia com espaço para a quantidade de chaves informada
+     * sem precisar crescer. A subclasse cria os seus vetores de valores com o
+     * mesmo tamanho, dado por {@link #capacidade()}.
+     *
+     * @param capacidade Número de chaves esperado
+     */
+    protected TabelaIntHash(int capacidade) {
+        int tamanhoTabela = 4;
+        while (tamanhoTabela * CARGA_MAXIMA < capacidade * 4)
+            tamanhoTabela <<= 1;
+        this.tabela = new int[tamanhoTabela];
+        this.mascara = tamanhoTabela - 1;
+        this.chaves = new int[Math.max(capacidade, 2)];
+    }
+
+    /**
+     * Aumenta os vetores de valores para a nova capacidade, mantendo os valores
+     * já guardados
+     *
+     * @param capacidade Novo tamanho dos vetores
+     */
+    protected abstract void crescerValores(int capacidade);
+
+    /**
+     * Move o valor de uma posição densa para outra, quando a última chave
+     * ocupa o lugar de uma chave removida
+     *
+     * @param de   Posição atual do valor
+     * @param para Nova posição do valor
+     */
+    protected abstract void moverValor(int de, int para);
+
+    /**
+     * Descarta o valor de uma posição que deixou de ser usada
+     *
+     * @param posicao Posição densa liberada
+     */
+    protected abstract void limparValor(int posicao);
+
+    /**
+     * Posição ideal da chave na tabela
+     *
+     * @param chave Chave
+     * @return Posição na tabela
+     */
+    private int posicaoIdeal(int chave) {
+        int h = chave * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & this.mascara;
+    }
+
+    /**
+     * Procura a posição da tabela ocupada pela chave ou, se ela não existir, a
+     * posição vazia onde ela seria inserida
+     *
+     * @param chave Chave procurada
+     * @return Posição na tabela
+     */
+    private int procurar(int chave) {
+        int i = this.posicaoIdeal(chave);
+        while (this.tabela[i] != 0 && this.chaves[this.tabela[i] - 1] != chave)
+            i = (i + 1) & this.mascara;
+        return i;
+    }
+
+    /**
+     * Refaz a tabela de dispersão com o tamanho informado
+     *
+     * @param tamanhoTabela Novo tamanho (potência de 2)
+     */
+    private void redistribuir(int tamanhoTabela) {
+        this.tabela = new int[tamanhoTabela];
+        this.mascara = tamanhoTabela - 1;
+        for (int i = 0; i < this.tamanho; i++)
+            this.tabela[this.procurar(this.chaves[i])] = i + 1;
+    }
+
+    /**
+     * Garante espaço para mais uma chave, aumentando a tabela e os vetores
+     * densos quando necessário
+     */
+    private void garantirEspaco() {
+        if (this.tamanho == this.chaves.length) {
+            int novo = this.chaves.length + (this.chaves.length >> 1) + 1;
+            this.chaves = Arrays.copyOf(this.chaves, novo);
+            this.crescerValores(novo);
+        }
+        if ((this.tamanho + 1) * 4 > this.tabela.length * CARGA_MAXIMA)
+            this.redistribuir(this.tabela.length * 2);
+    }
+
+    /**
+     * Reserva espaço para mais chaves, evitando que a tabela cresça várias
+     * vezes durante inserções em lote
+     *
+     * @param quantidade Número de chaves que ainda serão inseridas
+     */
+    public void reservar(int quantidade) {
+        int minimo = this.tamanho + quantidade;
+        if (minimo > this.chaves.length) {
+            this.chaves = Arrays.copyOf(this.chaves, minimo);
+            this.crescerValores(minimo);
+        }
+        if (minimo * 4 > this.tabela.length * CARGA_MAXIMA) {
+            int tamanhoTabela = this.tabela.length;
+            while (minimo * 4 > tamanhoTabela * CARGA_MAXIMA)
+                tamanhoTabela <<= 1;
+            this.redistribuir(tamanhoTabela);
+        }
+    }
+
+    /**
+     * Retorna a posição densa da chave
+     *
+     * @param chave Chave procurada
+     * @return A posição, ou -1 se a chave não existir
+     */
+    protected final int posicao(int chave) {
+        return this.tabela[this.procurar(chave)] - 1;
+    }
+
+    /**
+     * Insere uma chave que ainda não existe na tabela
+     *
+     * @param chave Chave nova
+     * @return A posição densa da chave, onde a subclasse guarda o valor
+     */
+    protected final int inserir(int chave) {
+        this.garantirEspaco();
+        this.chaves[this.tamanho] = chave;
+        this.tabela[this.procurar(chave)] = ++this.tamanho;
+        return this.tamanho - 1;
+    }
+
+    /**
+     * Remove a chave da tabela. A última chave densa passa para a posição
+     * liberada, junto com o seu valor. A subclasse deve ler o valor removido
+     * antes.
+     *
+     * @param chave Chave a ser removida
+     * @return TRUE se a chave existia
+     */
+    protected final boolean removerChave(int chave) {
+        int i = this.procurar(chave);
+        if (this.tabela[i] == 0)
+            return false;
+        int removido = this.tabela[i] - 1;
+
+        // Remoção com deslocamento para trás, para não deixar marcas na tabela
+        int j = i;
+        while (true) {
+            j = (j + 1) & this.mascara;
+            if (this.tabela[j] == 0)
+                break;
+            int k = this.posicaoIdeal(this.chaves[this.tabela[j] - 1]);
+            boolean fora = i <= j ? (k <= i || k > j) : (k <= i && k > j);
+            if (fora) {
+                this.tabela[i] = this.tabela[j];
+                i = j;
+            }
+        }
+        this.tabela[i] = 0;
+
+        // Move a última chave densa para a posição liberada
+        int ultimo = --this.tamanho;
+        if (removido != ultimo) {
+            this.chaves[removido] = this.chaves[ultimo];
+            this.moverValor(ultimo, removido);
+            this.tabela[this.procurar(this.chaves[removido])] = removido + 1;
+        }
+        this.limparValor(ultimo);
+        return true;
+    }
+
+    /**
+     * Retorna a chave de uma posição densa
+     *
+     * @param posicao Posição, entre 0 e size() - 1
+     * @return A chave
+     */
+    protected final int chave(int posicao) {
+        return this.chaves[posicao];
+    }
+
+    /**
+     * Retorna o tamanho atual dos vetores densos
+     *
+     * @return Capacidade
+     */
+    protected final int capacidade() {
+        return this.chaves.length;
+    }
+
+    /**
+     * Retorna as posições densas em ordem crescente de chave
+     *
+     * @return As posições ordenadas
+     */
+    protected final int[] posicoesOrdenadas() {
+        // Ordena pares (chave, posição) compactados em um long
+        long[] pares = new long[this.tamanho];
+        for (int i = 0; i < this.tamanho; i++)
+            pares[i] = ((long) this.chaves[i] << 32) | i;
+        Arrays.sort(pares);
+        int[] posicoes = new int[this.tamanho];
+        for (int i = 0; i < this.tamanho; i++)
+            posicoes[i] = (int) pares[i];
+        return posicoes;
+    }
+
+    /**
+     * Verifica se a chave existe na tabela
+     *
+     * @param chave Chave procurada
+     * @return TRUE se existir, FALSE caso contrário
+     */
+    public boolean containsKey(int chave) {
+        return this.tabela[this.procurar(chave)] != 0;
+    }
+
+    /**
+     * Retorna o número de chaves da tabela
+     *
+     * @return Número de chaves
+     */
+    public int size() {
+        return this.tamanho;
+    }
+
+}
@@ -1,4 +1,24 @@
 import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
 import org.junit.jupiter.api.*;
 
 /**
@@ -115,12 +135,33 @@ class Testes {
     }
 
     /**
-     * Teste se é uma aresta é ou não direcionada
+     * Testa se o mapa primitivo de arestas, que guarda só destinos e pesos,
+     * devolve as mesmas arestas que foram inseridas
      */
     @Test
-    void testDirecionada() {
-        Aresta aresta = new Aresta(10, 1, true);
-        assertTrue(aresta.filho());
+    void testMapaArestas() {
+        Aresta aresta = new Aresta(10, 1);
+        assertEquals(10, aresta.peso());
+        assertEquals(1, aresta.destino());
+
+        MapaArestas mapa = new MapaArestas();
+        for (int destino = 20; destino >= -5; destino--)
+            assertNull(mapa.put(destino, new Aresta(destino * 2, destino)));
+        assertEquals(26, mapa.size());
+        assertEquals(14, mapa.get(7).peso());
+        assertEquals(7, mapa.get(7).destino());
+        assertEquals(14, mapa.put(7, new Aresta(3, 7)).peso());
+        assertEquals(3, mapa.remove(7).peso());
+        assertNull(mapa.get(7));
+        assertEquals(40, mapa.remove(20).peso());
+        assertEquals(-10, mapa.get(-5).peso());
+        List<Integer> destinos = mapa.valoresOrdenados().stream().map(Aresta::destino)
+                .collect(Collectors.toList());
+        assertEquals(24, destinos.size());
+        assertEquals(-5, (int) destinos.get(0));
+        assertEquals(19, (int) destinos.get(23));
+        for (Aresta a : mapa.values())
+            assertEquals(2 * a.destino(), a.peso());
     }
 
     /**
@@ -143,4 +184,957 @@ class Testes {
         assertNull(grafo.existeAresta(0, 2));
     }
 
+    /**
+     * Testa se o grafo congelado mantém vértices, arestas e o formato do grafo
+     */
+    @Test
+    void testCongelar() {
+        GrafoCongelado congelado = grafo.congelar();
+        assertEquals(3, congelado.ordem());
+        assertEquals(3, congelado.tamanho());
+        assertTrue(congelado.existeAresta(2, 0));
+        assertEquals(grafo.toString(), congelado.toString());
+    }
+
+    /**
+     * Testa se o grafo direcionado congelado mantém apenas as arestas de saída
+     */
+    @Test
+    void testCongelarDirecionado() {
+        GrafoDirecionado grafo = new GrafoDirecionado("GrafoTeste");
+        grafo.addVertice(1);
+        grafo.addVertice(2);
+        grafo.addAresta(1, 2, 7);
+        GrafoCongelado congelado = grafo.congelar();
+        assertTrue(congelado.existeAresta(1, 2));
+        assertFalse(congelado.existeAresta(2, 1));
+        assertEquals(1, congelado.tamanho());
+        assertEquals(grafo.toString(), congelado.toString());
+    }
+
+    /**
+     * Testa o grafo com mapas primitivos, que deve se comportar como o padrão
+     */
+    @Test
+    void testGrafoPrimitivo() {
+        GrafoMutável primitivo = new GrafoMutável("GrafoTeste", true);
+        for (int i = 2; i >= 0; i--)
+            primitivo.addVertice(i);
+        primitivo.addAresta(1, 2, -1);
+        primitivo.addAresta(0, 2, -1);
+        primitivo.addAresta(0, 1, -1);
+        assertEquals(grafo.toString(), primitivo.toString());
+        assertNotNull(primitivo.existeAresta(2, 1));
+        primitivo.removeAresta(1, 2);
+        assertNull(primitivo.existeAresta(2, 1));
+        assertNotNull(primitivo.existeAresta(0, 2));
+    }
+
+    /**
+     * Testa se cada percurso começa sem vértices visitados, inclusive quando
+     * um percurso é iniciado dentro de outro na mesma thread
+     */
+    @Test
+    void testVisitados() {
+        try (Visitados externo = Visitados.iniciar(4)) {
+            assertTrue(externo.visitar(2));
+            assertFalse(externo.visitar(2));
+            try (Visitados interno = Visitados.iniciar(4)) {
+                assertFalse(interno.visitado(2));
+            }
+            assertTrue(externo.visitado(2));
+        }
+        try (Visitados novo = Visitados.iniciar(4)) {
+            assertFalse(novo.visitado(2));
+        }
+    }
+
+    /**
+     * Testa a ordem, os pais e os níveis retornados pela busca em largura
+     */
+    @Test
+    void testBuscaEmLargura() {
+        grafo.addVertice(3);
+        grafo.addAresta(2, 3, -1);
+        ResultadoBusca busca = grafo.buscaEmLargura(0);
+        assertArrayEquals(new int[] { 0, 1, 2, 3 }, busca.ordem());
+        assertArrayEquals(new int[] { -1, 0, 0, 2 }, busca.pais());
+        assertArrayEquals(new int[] { 0, 1, 1, 2 }, busca.niveis());
+    }
+
+    /**
+     * Testa se o visitante consegue interromper a busca em profundidade
+     */
+    @Test
+    void testBuscaEmProfundidadeInterrompida() {
+        int[] visitados = { 0 };
+        assertFalse(grafo.percorrerEmProfundidade(0, true, (id, pai, nivel) -> ++visitados[0] < 2));
+        assertEquals(2, visitados[0]);
+    }
+
+    /**
+     * Testa se a busca em largura paralela produz os mesmos níveis da busca
+     * sequencial
+     */
+    @Test
+    void testBuscaEmLarguraParalela() {
+        GrafoNãoDirecionado grande = new GrafoNãoDirecionado("Grande", true);
+        for (int i = 0; i < 5000; i++)
+            grande.addVertice(i);
+        for (int i = 1; i < 5000; i++)
+            grande.addAresta(i, i / 3, -1);
+        GrafoCongelado congelado = grande.congelar();
+        ResultadoBusca sequencial = congelado.buscaEmLargura(0);
+        ResultadoBusca paralela = congelado.buscaEmLarguraParalela(0);
+        assertEquals(sequencial.quantidade(), paralela.quantidade());
+        int[] niveis = new int[5000];
+        for (int i = 0; i < sequencial.quantidade(); i++)
+            niveis[sequencial.vertice(i)] = sequencial.nivel(i);
+        for (int i = 0; i < paralela.quantidade(); i++)
+            assertEquals(niveis[paralela.vertice(i)], paralela.nivel(i));
+    }
+
+    /**
+     * Testa a rotulação de componentes sequencial e paralela
+     */
+    @Test
+    void testComponentes() {
+        grafo.addVertice(5);
+        grafo.addVertice(6);
+        grafo.addVertice(7);
+        grafo.addAresta(6, 7, -1);
+        Componentes componentes = grafo.componentes();
+        assertEquals(3, componentes.quantidade());
+        assertArrayEquals(new int[] { 3, 1, 2 }, componentes.tamanhos());
+        assertEquals(componentes.componente(6), componentes.componente(7));
+        assertArrayEquals(componentes.componentes(), grafo.congelar().componentesParalelo().componentes());
+    }
+
+    /**
+     * Testa os componentes fortemente conexos de um grafo direcionado
+     */
+    @Test
+    void testComponentesFortes() {
+        GrafoDirecionado grafo = new GrafoDirecionado("GrafoTeste");
+        for (int i = 0; i < 4; i++)
+            grafo.addVertice(i);
+        grafo.addAresta(0, 1, -1);
+        grafo.addAresta(1, 2, -1);
+        grafo.addAresta(2, 0, -1);
+        grafo.addAresta(2, 3, -1);
+        Componentes fortes = grafo.componentesFortes();
+        assertEquals(2, fortes.quantidade());
+        assertEquals(fortes.componente(0), fortes.componente(2));
+        assertNotEquals(fortes.componente(0), fortes.componente(3));
+        assertEquals(1, grafo.componentes().quantidade());
+    }
+
+    /**
+     * Salva e carrega grafos direcionados e não direcionados no formato binário
+     */
+    @Test
+    void testSalvarECarregarBinario() throws IOException {
+        grafo.salvarBinario("GrafoTeste.bin");
+        GrafoMutável carregado = new GrafoMutável("GrafoTeste");
+        carregado.carregarBinario("GrafoTeste.bin");
+        assertEquals(grafo.toString(), carregado.toString());
+
+        GrafoDirecionado direcionado = new GrafoDirecionado("GrafoTeste");
+        direcionado.addVertice(1);
+        direcionado.addVertice(2);
+        direcionado.addAresta(2, 1, 5);
+        direcionado.salvarBinario("GrafoTeste.bin");
+        GrafoDirecionado carregadoDirecionado = new GrafoDirecionado("GrafoTeste");
+        carregadoDirecionado.carregarBinario("GrafoTeste.bin");
+        assertEquals(direcionado.toString(), carregadoDirecionado.toString());
+        assertFalse(carregadoDirecionado.congelar().existeAresta(1, 2));
+
+        // Aberto sem cópia, direto do arquivo mapeado, e materializado só quando
+        // precisa ser alterado. Gravar de novo no mesmo nome não muda o aberto.
+        GrafoCongelado aberto = FormatoBinario.abrir("GrafoTeste.bin");
+        assertEquals(direcionado.toString(), aberto.toString());
+        assertTrue(aberto.existeAresta(2, 1));
+        assertEquals(1, aberto.tamanho());
+        grafo.salvarBinario("GrafoTeste.bin");
+        assertEquals(direcionado.toString(), aberto.toString());
+        GrafoMutável materializado = aberto.materializar();
+        assertTrue(materializado instanceof GrafoDirecionado);
+        materializado.addAresta(1, 2, -1);
+        assertEquals(2, materializado.tamanho());
+        assertEquals(grafo.toString(), FormatoBinario.abrir("GrafoTeste.bin").toString());
+    }
+
+    /**
+     * Testa a leitura paralela do formato texto: linhas mal formadas são
+     * informadas com o número certo, e o resultado não depende da divisão do
+     * arquivo em blocos
+     */
+    @Test
+    void testLeitorArestas() throws IOException {
+        StringBuilder texto = new StringBuilder();
+        for (int linha = 1; linha <= 40; linha++) {
+            if (linha == 3)
+                texto.append("1 x 2");
+            else if (linha == 10)
+                texto.append("4 5");
+            else if (linha == 17)
+                texto.append("1 2 3 4");
+            else if (linha == 25)
+                texto.append("1 2 99999999999");
+            else if (linha == 33)
+                texto.append("\t-2147483648 5 -1\r");
+            else if (linha != 31)
+                texto.append(linha).append(' ').append(linha + 1).append(' ').append(linha * 2);
+            if (linha < 40)
+                texto.append('\n');
+        }
+        Path arquivo = Files.createTempFile("arestas", ".txt");
+        Files.writeString(arquivo, texto);
+        List<String> esperados = List.of("Linha 3: número inválido",
+                "Linha 10: esperados 3 números (origem destino peso), encontrados 2",
+                "Linha 17: conteúdo extra após o peso", "Linha 25: número inválido");
+
+        List<String> erros = new ArrayList<String>();
+        LoteArestas inteiro = LeitorArestas.ler(arquivo.toString(), erros);
+        assertEquals(esperados, erros);
+        assertEquals(35, inteiro.tamanho());
+        assertEquals(Integer.MIN_VALUE, inteiro.origem(27));
+        assertEquals(-1, inteiro.peso(27));
+        assertEquals(40, inteiro.origem(34));
+
+        // Blocos de poucos bytes: as linhas ficam espalhadas por vários blocos
+        erros.clear();
+        LoteArestas blocos = LeitorArestas.ler(arquivo.toString(), erros, ForkJoinPool.commonPool(), 8);
+        assertEquals(esperados, erros);
+        assertEquals(inteiro.tamanho(), blocos.tamanho());
+        for (int i = 0; i < inteiro.tamanho(); i++)
+            assertTrue(inteiro.origem(i) == blocos.origem(i) && inteiro.destino(i) == blocos.destino(i)
+                    && inteiro.peso(i) == blocos.peso(i));
+        Files.delete(arquivo);
+    }
+
+    /**
+     * Testa a inserção de arestas em lote, com vértices novos e arestas
+     * repetidas
+     */
+    @Test
+    void testAddArestasEmLote() {
+        int[] origens = { 0, 3, 4, 3, 1 };
+        int[] destinos = { 1, 4, 3, 4, 0 };
+        int[] pesos = { -1, 7, 8, 9, -1 };
+        assertEquals(1, grafo.addArestas(origens, destinos, pesos));
+        assertEquals(5, grafo.ordem());
+        assertEquals(7, grafo.existeAresta(4, 3).peso());
+        assertEquals("Grafo \"GrafoTeste\": {{0, 1}, {0, 2}, {1, 2}, {3, 4, 7}}", grafo.toString());
+    }
+
+    /**
+     * Testa os contadores de tamanho e graus durante inserções e remoções
+     */
+    @Test
+    void testContadores() {
+        assertEquals(3, grafo.tamanho());
+        assertTrue(grafo.completo());
+        assertEquals(2, grafo.grauMinimo());
+        assertEquals(2, grafo.grauMaximo());
+
+        grafo.addVertice(3);
+        assertFalse(grafo.completo());
+        assertEquals(0, grafo.grauMinimo());
+        grafo.addAresta(3, 3, -1);
+        assertEquals(4, grafo.tamanho());
+        assertEquals(1, grafo.laços());
+        grafo.addAresta(3, 0, -1);
+        assertEquals(3, grafo.grauMaximo());
+        assertEquals(9, grafo.somaGraus());
+
+        grafo.removeAresta(3, 3);
+        grafo.removeVertice(0);
+        assertEquals(1, grafo.tamanho());
+        assertEquals(0, grafo.laços());
+        assertEquals(0, grafo.grauMinimo());
+        assertEquals(1, grafo.grauMaximo());
+        assertNull(grafo.existeAresta(1, 0));
+        assertNull(grafo.existeAresta(3, 0));
+    }
+
+    /**
+     * Testa o grafo completo implícito e a sua materialização
+     */
+    @Test
+    void testGrafoCompleto() {
+        GrafoCompleto completo = new GrafoCompleto("K", 4);
+        assertEquals(6, completo.tamanho());
+        assertTrue(completo.completo());
+        assertNotNull(completo.existeAresta(3, 0));
+        assertNull(completo.existeAresta(2, 2));
+        assertNull(completo.existeVertice(4));
+        assertEquals(3, completo.existeVertice(1).grau());
+        assertEquals(List.of(0, 2, 3), completo.existeVertice(1).getArestas().stream()
+                .map(Aresta::destino).collect(Collectors.toList()));
+        assertNull(completo.existeVertice(1).getAresta(1));
+        assertFalse(completo.addAresta(0, 1, 5));
+        // Todos os vértices leem a mesma aresta para cada destino
+        assertSame(completo.existeAresta(3, 0), completo.existeVertice(1).getAresta(0));
+        assertSame(completo.existeAresta(0, 2), completo.existeVertice(3).getArestas().stream()
+                .filter(a -> a.destino() == 2).findFirst().get());
+
+        GrafoNãoDirecionado materializado = completo.materializar();
+        assertEquals(completo.toString(), materializado.toString());
+        assertEquals(materializado.congelar().toString(), completo.congelar().toString());
+        assertArrayEquals(materializado.buscaEmLargura(2).ordem(), completo.buscaEmLargura(2).ordem());
+        assertArrayEquals(materializado.buscaEmProfundidade(2).ordem(), completo.buscaEmProfundidade(2).ordem());
+        assertEquals(1, completo.componentes().quantidade());
+
+        GrafoCompleto grande = new GrafoCompleto("K", 20000);
+        assertEquals(199990000, grande.tamanho());
+        assertEquals(19999, grande.grauMaximo());
+        // Vértices e arestas são respondidos sem montar as listas de adjacência
+        assertEquals(19999, grande.existeVertice(123).grau());
+        assertNotNull(grande.existeVertice(19999).getAresta(0));
+    }
+
+    /**
+     * Testa os caminhos mínimos, com arestas sem peso valendo 1
+     */
+    @Test
+    void testCaminhosMinimos() {
+        grafo.addVertice(3);
+        grafo.removeAresta(0, 2);
+        grafo.addAresta(0, 2, 5);
+        grafo.addAresta(2, 3, 2);
+        CaminhosMinimos caminhos = grafo.caminhosMinimos(0);
+        assertEquals(2, caminhos.distancia(2));
+        assertEquals(4, caminhos.distancia(3));
+        assertArrayEquals(new int[] { 0, 1, 2, 3 }, caminhos.caminho(3));
+
+        CaminhosMinimos caminho = grafo.caminhoMinimo(3, 0);
+        assertEquals(4, caminho.distancia(0));
+        assertArrayEquals(new int[] { 3, 2, 1, 0 }, caminho.caminho(0));
+        assertEquals(4, grafo.congelar().caminhoMinimo(0, 3).distancia(3));
+
+        grafo.addVertice(4);
+        assertFalse(grafo.caminhosMinimos(0).alcancado(4));
+        assertEquals(0, grafo.caminhoMinimo(0, 4).caminho(4).length);
+    }
+
+    /**
+     * Compara as distâncias entre todos os pares pelos dois modos e pelo
+     * arquivo gravado
+     */
+    @Test
+    void testCaminhosTodosPares() throws IOException {
+        grafo.addVertice(3);
+        grafo.addVertice(4);
+        grafo.addAresta(2, 3, 4);
+        GrafoCongelado congelado = grafo.congelar();
+        MatrizDistancias floyd = CaminhosTodosPares.floydWarshall(congelado, ForkJoinPool.commonPool());
+        MatrizDistancias buscas = CaminhosTodosPares.buscas(congelado, ForkJoinPool.commonPool());
+        assertEquals(5, floyd.distancia(0, 3));
+        assertEquals(MatrizDistancias.INFINITO, floyd.distancia(4, 0));
+        for (int v = 0; v < 5; v++)
+            assertArrayEquals(floyd.linha(v), buscas.linha(v));
+
+        grafo.caminhosTodosPares("GrafoTeste.dist");
+        assertArrayEquals(floyd.linha(3), CaminhosTodosPares.lerLinha("GrafoTeste.dist", 3));
+        assertNull(CaminhosTodosPares.lerLinha("GrafoTeste.dist", 7));
+
+        // Grafo denso: a matriz do Floyd–Warshall é gravada linha por linha
+        GrafoDirecionado denso = new GrafoDirecionado("Denso");
+        for (int v = 0; v < 4; v++)
+            denso.addVertice(v);
+        for (int v = 0; v < 4; v++)
+            for (int w = 0; w < 4; w++)
+                if (v != w)
+                    denso.addAresta(v, w, 1 + (v * 3 + w * 5) % 7);
+        GrafoCongelado densoCongelado = denso.congelar();
+        assertTrue(CaminhosTodosPares.denso(densoCongelado));
+        MatrizDistancias densoFloyd = CaminhosTodosPares.floydWarshall(densoCongelado, ForkJoinPool.commonPool());
+        denso.caminhosTodosPares("GrafoTeste.dist");
+        for (int v = 0; v < 4; v++)
+            assertArrayEquals(densoFloyd.linha(v), CaminhosTodosPares.lerLinha("GrafoTeste.dist", v));
+
+        // Distâncias a partir de Integer.MAX_VALUE são distâncias, não INFINITO
+        GrafoDirecionado longo = new GrafoDirecionado("Longo");
+        for (int v = 0; v < 3; v++)
+            longo.addVertice(v);
+        longo.addAresta(0, 1, Integer.MAX_VALUE);
+        longo.addAresta(1, 2, 5);
+        GrafoCongelado longoCongelado = longo.congelar();
+        MatrizDistancias longoFloyd = CaminhosTodosPares.floydWarshall(longoCongelado, ForkJoinPool.commonPool());
+        assertEquals(Integer.MAX_VALUE, longoFloyd.distancia(0, 1));
+        assertEquals(Integer.MAX_VALUE + 5L, longoFloyd.distancia(0, 2));
+        assertEquals(MatrizDistancias.INFINITO, longoFloyd.distancia(2, 0));
+        longo.caminhosTodosPares("GrafoTeste.dist");
+        for (int v = 0; v < 3; v++) {
+            assertArrayEquals(longoFloyd.linha(v),
+                    CaminhosTodosPares.buscas(longoCongelado, ForkJoinPool.commonPool()).linha(v));
+            assertArrayEquals(longoFloyd.linha(v), CaminhosTodosPares.lerLinha("GrafoTeste.dist", v));
+        }
+    }
+
+    /**
+     * Testa o cache de consultas e a sua invalidação por alterações no grafo
+     */
+    @Test
+    void testCacheConsultas() {
+        grafo.addVertice(3);
+        grafo.addAresta(2, 3, -1);
+        grafo.usarCache(10, true);
+        assertEquals(2, grafo.distancia(0, 3));
+        assertEquals(2, grafo.distancia(0, 3));
+        assertTrue(grafo.alcancavel(1, 3));
+        assertEquals(1, grafo.cache().acertos());
+        assertEquals(2, grafo.cache().faltas());
+
+        // O caminho 0-2-3 não passa pela aresta 0-1
+        grafo.removeAresta(0, 1);
+        assertEquals(2, grafo.distancia(0, 3));
+        assertEquals(2, grafo.cache().acertos());
+        assertEquals(2, grafo.cache().tamanho());
+
+        grafo.removeAresta(2, 3);
+        assertFalse(grafo.alcancavel(1, 3));
+        assertEquals(CaminhosMinimos.INFINITO, grafo.distancia(0, 3));
+        assertEquals(2, grafo.cache().invalidadas());
+
+        grafo.addAresta(1, 3, -1);
+        assertArrayEquals(new int[] { 0, 2, 1, 3 }, grafo.caminho(0, 3));
+        assertEquals(2, grafo.cache().acertos());
+
+        // As consultas reaproveitam a cópia congelada enquanto o grafo não muda,
+        // um vértice novo não invalida nada, e a consulta de um vértice para ele
+        // mesmo não passa pelo cache
+        grafo.usarMetricas(true);
+        assertFalse(grafo.alcancavel(5, 5));
+        assertEquals(CaminhosMinimos.INFINITO, grafo.distancia(5, 0));
+        assertEquals(0, grafo.metricas().contagem(Metricas.CONGELAR));
+        grafo.addVertice(5);
+        assertArrayEquals(new int[] { 0, 2, 1, 3 }, grafo.caminho(0, 3));
+        assertEquals(CaminhosMinimos.INFINITO, grafo.distancia(5, 0));
+        assertTrue(grafo.alcancavel(5, 5));
+        assertArrayEquals(new int[] { 5 }, grafo.caminho(5, 5));
+        assertEquals(4, grafo.cache().acertos());
+        assertEquals(0, grafo.metricas().contagem(Metricas.CONGELAR));
+        assertFalse(grafo.alcancavel(1, 5));
+        assertEquals(1, grafo.metricas().contagem(Metricas.CONGELAR));
+        grafo.usarMetricas(false);
+    }
+
+    /**
+     * Testa a floresta geradora mínima pelos dois algoritmos
+     */
+    @Test
+    void testArvoreGeradoraMinima() {
+        GrafoNãoDirecionado naoDirecionado = new GrafoNãoDirecionado("GrafoTeste");
+        for (int i = 0; i < 6; i++)
+            naoDirecionado.addVertice(i);
+        naoDirecionado.addAresta(0, 1, 4);
+        naoDirecionado.addAresta(0, 2, 1);
+        naoDirecionado.addAresta(1, 2, 2);
+        naoDirecionado.addAresta(1, 3, 5);
+        naoDirecionado.addAresta(2, 3, 8);
+        naoDirecionado.addAresta(4, 5, -1);
+
+        GrafoNãoDirecionado arvore = naoDirecionado.arvoreGeradoraMinima();
+        assertEquals("Grafo \"Árvore geradora de GrafoTeste\": {{0, 2, 1}, {1, 2, 2}, {1, 3, 5}, {4, 5}}",
+                arvore.toString());
+        assertEquals(arvore.toString(), naoDirecionado.arvoreGeradoraMinimaParalela().toString());
+        assertEquals(6, arvore.ordem());
+    }
+
+    /**
+     * Testa as arestas de saída e de entrada separadas do grafo direcionado
+     */
+    @Test
+    void testEntradaESaidaDirecionado() {
+        GrafoDirecionado direcionado = new GrafoDirecionado("GrafoTeste");
+        for (int i = 0; i < 3; i++)
+            direcionado.addVertice(i);
+        assertTrue(direcionado.addAresta(0, 1, 3));
+        assertTrue(direcionado.addAresta(1, 0, 4));
+        assertTrue(direcionado.addAresta(2, 1, -1));
+        assertEquals(3, direcionado.tamanho());
+        assertEquals(1, direcionado.grauSaida(1));
+        assertEquals(2, direcionado.grauEntrada(1));
+        assertArrayEquals(new int[] { 0, 2 }, direcionado.antecessores(1));
+        assertEquals("Grafo \"GrafoTeste\": {(0, 1, 3), (1, 0, 4), (2, 1)}", direcionado.toString());
+
+        direcionado.removeVertice(2);
+        assertEquals(1, direcionado.grauEntrada(1));
+        direcionado.removeAresta(0, 1);
+        assertEquals(0, direcionado.grauSaida(0));
+        assertEquals(1, direcionado.grauEntrada(0));
+        assertEquals(1, direcionado.tamanho());
+    }
+
+    /**
+     * Testa a ordem topológica, os componentes fortemente conexos e o grafo
+     * condensado
+     */
+    @Test
+    void testOrdemTopologicaECondensacao() {
+        GrafoDirecionado direcionado = new GrafoDirecionado("GrafoTeste");
+        for (int i = 0; i < 6; i++)
+            direcionado.addVertice(i);
+        direcionado.addAresta(5, 2, -1);
+        direcionado.addAresta(2, 0, -1);
+        direcionado.addAresta(4, 0, -1);
+        direcionado.addAresta(4, 1, -1);
+        direcionado.addAresta(1, 3, -1);
+        assertFalse(direcionado.possuiCiclo());
+        int[] ordem = direcionado.ordemTopologica();
+        int[] posicao = new int[6];
+        for (int i = 0; i < ordem.length; i++)
+            posicao[ordem[i]] = i;
+        assertTrue(posicao[5] < posicao[2] && posicao[2] < posicao[0]);
+        assertTrue(posicao[4] < posicao[0] && posicao[4] < posicao[1] && posicao[1] < posicao[3]);
+
+        direcionado.addAresta(3, 4, -1);
+        assertTrue(direcionado.possuiCiclo());
+        assertNull(direcionado.ordemTopologica());
+
+        Componentes fortes = direcionado.componentesFortes();
+        assertEquals(4, fortes.quantidade());
+        assertEquals(fortes.componente(1), fortes.componente(4));
+        GrafoDirecionado condensado = direcionado.condensacao();
+        assertEquals(4, condensado.ordem());
+        assertEquals(3, condensado.tamanho());
+        assertFalse(condensado.possuiCiclo());
+        assertNotNull(condensado.existeAresta(fortes.componente(4), fortes.componente(0)));
+        assertTrue(fortes.componente(5) < fortes.componente(2) && fortes.componente(2) < fortes.componente(0));
+    }
+
+    /**
+     * Testa inserções, remoções e consultas feitas por várias threads ao mesmo
+     * tempo no grafo concorrente
+     */
+    @Test
+    void testGrafoConcorrente() throws InterruptedException {
+        GrafoConcorrente concorrente = new GrafoConcorrente("GrafoTeste", false, 4);
+        int n = 200, threads = 4;
+        for (int i = 0; i < n; i++)
+            concorrente.addVertice(i);
+        Thread[] escritoras = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int inicio = t;
+            escritoras[t] = new Thread(() -> {
+                // Cada thread liga o anel e tenta as arestas das outras
+                for (int v = 0; v < n; v++) {
+                    concorrente.addAresta(v, (v + 1) % n, -1);
+                    if (v % threads == inicio)
+                        concorrente.addAresta(v, (v + 2) % n, v);
+                }
+            });
+            escritoras[t].start();
+        }
+        for (Thread t : escritoras)
+            t.join();
+        assertEquals(2 * n, concorrente.tamanho());
+        assertEquals(4 * n, concorrente.somaGraus());
+        assertEquals(4, concorrente.grauMinimo());
+        assertEquals(4, concorrente.grauMaximo());
+        assertEquals(n - 1, concorrente.existeAresta(0, n - 1).destino());
+
+        for (int t = 0; t < threads; t++) {
+            int inicio = t;
+            escritoras[t] = new Thread(() -> {
+                for (int v = inicio; v < n; v += threads)
+                    concorrente.removeAresta(v, (v + 2) % n);
+            });
+            escritoras[t].start();
+        }
+        for (Thread t : escritoras)
+            t.join();
+        assertEquals(n, concorrente.tamanho());
+        assertNull(concorrente.existeAresta(0, 2));
+        assertEquals(1, concorrente.componentes().quantidade());
+        assertEquals(n / 2, concorrente.distancia(0, n / 2));
+
+        // Vértices criados por várias threads recebem índices distintos, e as
+        // consultas com cache rodam junto com as inserções
+        concorrente.usarCache(64, true);
+        for (int t = 0; t < threads; t++) {
+            int inicio = t;
+            escritoras[t] = new Thread(() -> {
+                for (int v = n + inicio; v < 2 * n; v += threads) {
+                    concorrente.addVertice(v);
+                    concorrente.addAresta(v, v - n, -1);
+                    concorrente.distancia(0, v);
+                }
+            });
+            escritoras[t].start();
+        }
+        for (Thread t : escritoras)
+            t.join();
+        BitSet indices = new BitSet();
+        for (int v = 0; v < 2 * n; v++)
+            indices.set(concorrente.existeVertice(v).getIndice());
+        assertEquals(2 * n, indices.cardinality());
+        assertEquals(2 * n, concorrente.indices());
+        assertEquals(2 * n, concorrente.tamanho());
+        assertEquals(1, concorrente.grauMinimo());
+        assertEquals(3, concorrente.grauMaximo());
+        assertEquals(n / 2 + 1, concorrente.distancia(0, n + n / 2));
+    }
+
+    /**
+     * Testa se o instantâneo continua mostrando o grafo de quando foi criado
+     */
+    @Test
+    void testSnapshot() {
+        String antes = grafo.toString();
+        GrafoInstantâneo instantaneo = grafo.snapshot();
+        grafo.addVertice(3);
+        grafo.addAresta(2, 3, 7);
+        grafo.removeAresta(0, 1);
+        grafo.removeVertice(0);
+        assertEquals(antes, instantaneo.toString());
+        assertEquals(3, instantaneo.ordem());
+        assertEquals(3, instantaneo.tamanho());
+        assertNotNull(instantaneo.existeAresta(0, 1));
+        assertNull(instantaneo.existeVertice(3));
+        assertEquals(1, instantaneo.componentes().quantidade());
+        assertFalse(instantaneo.addAresta(0, 3, -1));
+
+        // Um segundo instantâneo vê o grafo alterado, e o primeiro continua igual
+        GrafoInstantâneo segundo = grafo.snapshot();
+        grafo.addAresta(1, 3, -1);
+        assertEquals("Grafo \"GrafoTeste\": {{1, 2}, {2, 3, 7}}", segundo.toString());
+        assertEquals(antes, instantaneo.toString());
+        instantaneo.close();
+        segundo.close();
+        assertEquals("Grafo \"GrafoTeste\": {{1, 2}, {1, 3}, {2, 3, 7}}", grafo.toString());
+    }
+
+    /**
+     * Testa se o instantâneo de um grafo concorrente, lido por uma thread
+     * enquanto outras inserem e removem arestas e vértices, mostra sempre
+     * exatamente as arestas e os contadores de quando foi criado
+     */
+    @Test
+    void testSnapshotConcorrente() throws InterruptedException {
+        GrafoConcorrente concorrente = new GrafoConcorrente("GrafoTeste", false, 4);
+        int n = 100, threads = 3;
+        for (int i = 0; i < n; i++)
+            concorrente.addVertice(i);
+        for (int v = 0; v < n; v++) {
+            concorrente.addAresta(v, (v + 1) % n, v);
+            concorrente.addAresta(v, (v + 7) % n, -1);
+        }
+        List<String> esperadas = arestas(concorrente);
+        int tamanho = concorrente.tamanho(), ordem = concorrente.ordem();
+        long somaGraus = concorrente.somaGraus();
+        GrafoInstantâneo instantaneo = concorrente.snapshot();
+
+        Thread[] escritoras = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int inicio = t;
+            escritoras[t] = new Thread(() -> {
+                for (int k = 0; k < 2000; k++) {
+                    int v = (inicio + k * threads) % n;
+                    concorrente.removeAresta(v, (v + 1) % n);
+                    concorrente.addAresta(v, (v + 3 + k) % n, k);
+                    if (k % 500 == 0 && inicio == 0) {
+                        concorrente.removeVertice(v);
+                        concorrente.addVertice(n + k);
+                    }
+                }
+            });
+            escritoras[t].start();
+        }
+        List<String> lidas = new ArrayList<String>();
+        int leituras = 0;
+        boolean escrevendo = true;
+        while (escrevendo || leituras < 2) {
+            escrevendo = false;
+            for (Thread t : escritoras)
+                escrevendo |= t.isAlive();
+            lidas = arestas(instantaneo);
+            assertEquals(esperadas, lidas);
+            assertEquals(tamanho, instantaneo.tamanho());
+            assertEquals(ordem, instantaneo.ordem());
+            assertEquals(somaGraus, instantaneo.somaGraus());
+            leituras++;
+        }
+        for (Thread t : escritoras)
+            t.join();
+        assertNotEquals(esperadas, arestas(concorrente));
+        assertEquals(esperadas, arestas(instantaneo));
+        instantaneo.close();
+    }
+
+    /**
+     * Lista as arestas de um grafo, na ordem dos exportadores, como
+     * "origem-destino:peso"
+     *
+     * @param grafo Grafo lido
+     * @return As arestas, cada uma em um texto
+     */
+    private static List<String> arestas(Grafo grafo) {
+        List<String> arestas = new ArrayList<String>();
+        for (Vértice v : grafo.verticesOrdenados())
+            for (Aresta a : grafo.arestasOrdenadas(v))
+                arestas.add(v.getId() + "-" + a.destino() + ":" + a.peso());
+        return arestas;
+    }
+
+    /**
+     * Testa a recuperação do grafo pelo diário, antes e depois da compactação
+     */
+    @Test
+    void testDiario() throws IOException, InterruptedException {
+        Path pasta = Files.createTempDirectory("diario");
+        String base = pasta.resolve("grafo").toString();
+        GrafoMutável original = new GrafoMutável("GrafoTeste");
+        Diario diario = Diario.abrir(original, base, true);
+        for (int i = 0; i < 5; i++)
+            original.addVertice(i);
+        original.addAresta(0, 1, 3);
+        original.addAresta(1, 2, -1);
+        original.addAresta(3, 4, 8);
+        diario.compactar();
+        original.removeAresta(0, 1);
+        original.removeVertice(4);
+        original.addAresta(2, 3, 5);
+        diario.close();
+
+        GrafoMutável recuperado = new GrafoMutável("GrafoTeste");
+        try (Diario reaberto = Diario.abrir(recuperado, base, false)) {
+            assertEquals(original.toString(), recuperado.toString());
+            assertEquals(original.tamanho(), recuperado.tamanho());
+            assertEquals(1, reaberto.geracao());
+            recuperado.addVertice(9);
+            reaberto.compactarEmSegundoPlano().join();
+            recuperado.addAresta(9, 0, 1);
+        }
+        GrafoMutável terceiro = new GrafoMutável("GrafoTeste");
+        try (Diario d = Diario.abrir(terceiro, base, true)) {
+            assertEquals(recuperado.toString(), terceiro.toString());
+        }
+        assertEquals(2, pasta.toFile().list().length);
+
+        // Sem espera, cada lote junta os registros de um intervalo inteiro (5 ms),
+        // mesmo que eles cheguem aos poucos
+        GrafoMutável agrupado = new GrafoMutável("GrafoTeste");
+        try (Diario d = Diario.abrir(agrupado, pasta.resolve("agrupado").toString(), false)) {
+            long inicio = System.nanoTime();
+            for (int i = 0; i < 400; i++) {
+                agrupado.addVertice(i);
+                if (i % 4 == 0)
+                    Thread.sleep(1);
+            }
+            d.sincronizar();
+            long ms = (System.nanoTime() - inicio) / 1000000;
+            assertTrue(d.lotes() <= ms / 5 + 2);
+        }
+
+        // Várias threads registram sem trava comum, mais registros do que cabem
+        // no anel, e a recuperação refaz o mesmo grafo
+        String concorrentes = pasta.resolve("concorrente").toString();
+        GrafoConcorrente concorrente = new GrafoConcorrente("GrafoTeste", false, 4);
+        int n = 100, threads = 4;
+        try (Diario d = Diario.abrir(concorrente, concorrentes, false)) {
+            for (int i = 0; i < n; i++)
+                concorrente.addVertice(i);
+            Thread[] escritoras = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                int inicio = t;
+                escritoras[t] = new Thread(() -> {
+                    for (int k = 0; k < 20000; k++) {
+                        int v = (inicio + k * threads) % n;
+                        if (!concorrente.addAresta(v, (v + k) % n, k))
+                            concorrente.removeAresta(v, (v + k) % n);
+                    }
+                });
+                escritoras[t].start();
+            }
+            for (Thread t : escritoras)
+                t.join();
+        }
+        GrafoConcorrente refeito = new GrafoConcorrente("GrafoTeste", false, 4);
+        try (Diario d = Diario.abrir(refeito, concorrentes, false)) {
+            assertEquals(concorrente.toString(), refeito.toString());
+            assertEquals(concorrente.tamanho(), refeito.tamanho());
+        }
+    }
+
+    /**
+     * Testa os geradores de grafos e se a mesma semente gera o mesmo grafo
+     */
+    @Test
+    void testGeradorGrafos() throws IOException {
+        Path pasta = Files.createTempDirectory("gerador");
+        String texto = pasta.resolve("grafo.txt").toString(), binario = pasta.resolve("grafo.grfb").toString();
+
+        // Grade 3 x 4: 3 * 3 arestas horizontais e 2 * 4 verticais
+        GrafoMutável grade = new GrafoNãoDirecionado("Grade");
+        assertEquals(17, GeradorGrafos.grade(3, 4, 1).construir(grade));
+        assertNotNull(grade.existeAresta(5, 6));
+        assertNotNull(grade.existeAresta(5, 9));
+        assertNull(grade.existeAresta(3, 4));
+
+        // A mesma semente gera o mesmo grafo em paralelo, em texto e em binário
+        GeradorGrafos rmat = GeradorGrafos.rmat(8, 4, 42).comPesos(10);
+        GrafoMutável construido = new GrafoNãoDirecionado("R-MAT");
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            rmat.construir(construido, pool);
+        } finally {
+            pool.shutdown();
+        }
+        GrafoMutável doTexto = new GrafoNãoDirecionado("R-MAT");
+        rmat.gravarTexto(texto);
+        doTexto.carregar(texto);
+        GrafoMutável doBinario = new GrafoNãoDirecionado("R-MAT");
+        rmat.gravarBinario(binario, "R-MAT", false);
+        doBinario.carregarBinario(binario);
+        assertEquals(construido.toString(), doTexto.toString());
+        assertEquals(construido.toString(), doBinario.toString());
+        assertEquals(0, construido.laços());
+
+        // Regular: no máximo grau * n / 2 arestas, só perdendo as raras repetições
+        GrafoMutável regular = new GrafoNãoDirecionado("Regular");
+        GeradorGrafos.regular(500, 4, 7).construir(regular);
+        assertTrue(regular.grauMaximo() == 4 && regular.tamanho() > 990);
+    }
+
+    /**
+     * Testa a contagem das operações e a publicação das métricas no JMX
+     */
+    @Test
+    void testMetricas() throws Exception {
+        assertNull(grafo.metricas());
+        grafo.usarMetricas(true);
+        Metricas metricas = grafo.metricas();
+        grafo.addVertice(3);
+        grafo.addAresta(2, 3, 4);
+        grafo.addAresta(2, 3, 4);
+        grafo.removeAresta(0, 1);
+        grafo.percorrerEmLargura(0, true, (id, pai, nivel) -> true);
+        assertEquals(1, metricas.contagem(Metricas.ADD_VERTICE));
+        assertEquals(2, metricas.contagem(Metricas.ADD_ARESTA));
+        assertEquals(1, metricas.contagem(Metricas.REMOVE_ARESTA));
+        assertEquals(1, metricas.contagem(Metricas.PERCURSO_LARGURA));
+        assertTrue(metricas.percentil(Metricas.ADD_ARESTA, 0.5) > 0);
+        assertTrue(metricas.toString().contains("addAresta"));
+
+        // Os limites das faixas do histograma cobrem as durações sem buracos
+        for (long nanos : new long[] { 0, 7, 8, 15, 16, 1000, 123456789, Long.MAX_VALUE })
+            assertTrue(Metricas.limite(Metricas.faixa(nanos)) >= nanos
+                    && (Metricas.faixa(nanos) == 0 || Metricas.limite(Metricas.faixa(nanos) - 1) < nanos));
+
+        ObjectName nome = metricas.publicar();
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        assertEquals(4, servidor.getAttribute(nome, "Vertices"));
+        assertEquals(3, servidor.getAttribute(nome, "Arestas"));
+        grafo.usarMetricas(false);
+        assertFalse(servidor.isRegistered(nome));
+        assertNull(grafo.metricas());
+    }
+
+    /**
+     * Testa a exportação do grafo nos formatos DOT, JSON, de arestas e de
+     * chaves
+     */
+    @Test
+    void testExportador() throws IOException {
+        grafo.addAresta(1, 2, 7);
+        grafo.addAresta(2, 2, 5);
+        StringBuilder dot = new StringBuilder();
+        grafo.exportar(ExportadorGrafo.DOT, dot);
+        assertEquals("graph \"GrafoTeste\" {\n  0;\n  0 -- 1;\n  0 -- 2;\n  1;\n  1 -- 2;\n  2;\n  2 -- 2 [label=5];\n}\n",
+                dot.toString());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        GrafoDirecionado direcionado = new GrafoDirecionado("Dir\"eção");
+        direcionado.addVertice(0);
+        direcionado.addVertice(1);
+        direcionado.addAresta(1, 0, -7);
+        direcionado.exportarUtf8(ExportadorGrafo.JSON, bytes);
+        assertEquals("{\"nome\":\"Dir\\\"eção\",\"direcionado\":true,\"vertices\":[\n{\"id\":0,\"arestas\":[]},"
+                + "\n{\"id\":1,\"arestas\":[{\"destino\":0,\"peso\":-7}]}\n]}\n",
+                bytes.toString(StandardCharsets.UTF_8));
+
+        // Grafos maiores que o buffer chegam inteiros a um Appendable qualquer
+        GrafoCompleto completo = new GrafoCompleto("K", 300);
+        StringWriter texto = new StringWriter();
+        completo.exportar(ExportadorGrafo.ARESTAS, texto);
+        assertEquals(completo.tamanho(), texto.toString().split(System.lineSeparator()).length);
+        StringBuilder chaves = new StringBuilder();
+        completo.exportar(ExportadorGrafo.CHAVES, new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+                chaves.append((char) b);
+            }
+        }, true));
+        assertEquals(completo.toString(), chaves.toString());
+        assertTrue(chaves.toString().endsWith("{298, 299, 0}}"));
+    }
+
+    /**
+     * Testa a visão do subgrafo induzido e a sua cópia materializada
+     */
+    @Test
+    void testSubGrafoInduzido() {
+        for (int i = 3; i < 6; i++)
+            grafo.addVertice(i);
+        grafo.addAresta(2, 3, 4);
+        grafo.addAresta(3, 4, -1);
+        grafo.addAresta(3, 3, 1);
+        grafo.addAresta(4, 5, -1);
+        SubGrafoInduzido visao = grafo.subGrafoInduzido(List.of(1, 2, 3, 5, 9));
+        assertEquals(4, visao.ordem());
+        assertEquals(3, visao.tamanho());
+        assertEquals(1, visao.laços());
+        assertNotNull(visao.existeAresta(2, 3));
+        assertNull(visao.existeAresta(3, 4));
+        assertFalse(visao.contem(9));
+        assertEquals(0, visao.grauMinimo());
+        assertEquals("Grafo \"Subgrafo de GrafoTeste\": {{1, 2}, {2, 3, 4}, {3, 3, 1}}", visao.toString());
+
+        // Os percursos não saem da visão
+        ResultadoBusca largura = visao.buscaEmLargura(1);
+        assertEquals(4, largura.quantidade());
+        assertEquals(3, largura.vertice(2));
+        assertEquals(2, largura.nivel(2));
+        assertEquals(4, visao.buscaEmProfundidade(5).quantidade());
+
+        // A visão acompanha a origem; a cópia materializada não
+        GrafoMutável copia = visao.materializar(ForkJoinPool.commonPool());
+        grafo.addAresta(1, 3, -1);
+        assertEquals(4, visao.tamanho());
+        assertEquals(3, copia.tamanho());
+        assertEquals("Grafo \"Subgrafo de GrafoTeste\": {{1, 2}, {2, 3, 4}, {3, 3, 1}}", copia.toString());
+        assertEquals(visao.congelar().toString(),
+                grafo.subGrafo(new LinkedList<>(List.of(1, 2, 3, 5))).congelar().toString());
+
+        // Ids negativos ou muito grandes também podem ser escolhidos
+        grafo.addVertice(-3);
+        grafo.addVertice(1 << 30);
+        grafo.addAresta(-3, 5, 2);
+        grafo.addAresta(1 << 30, 5, -1);
+        assertEquals("Grafo \"Subgrafo de GrafoTeste\": {{-3, 5, 2}}",
+                grafo.subGrafo(new LinkedList<>(List.of(-3, 5))).toString());
+        assertTrue(grafo.subGrafoInduzido(List.of(1 << 30, -3)).contem(1 << 30));
+
+        // Direcionado: o grau soma entradas e saídas dentro da visão
+        GrafoDirecionado direcionado = new GrafoDirecionado("D");
+        for (int i = 0; i < 3; i++)
+            direcionado.addVertice(i);
+        direcionado.addAresta(0, 1, -1);
+        direcionado.addAresta(1, 2, -1);
+        direcionado.addAresta(2, 0, -1);
+        SubGrafoInduzido caminho = direcionado.subGrafoInduzido(List.of(0, 1));
+        assertEquals(1, caminho.tamanho());
+        assertEquals(2, caminho.somaGraus());
+        assertTrue(caminho.materializar().direcionado());
+
+        // Sobre uma origem que não muda, a contagem é feita uma vez e reaproveitada
+        SubGrafoInduzido triangulo = new GrafoCompleto("K", 5).subGrafoInduzido(List.of(0, 2, 4));
+        assertEquals(3, triangulo.tamanho());
+        assertEquals(3, triangulo.ordem());
+        assertEquals(2, triangulo.grauMaximo());
+    }
+
 }
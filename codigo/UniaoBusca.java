@@ -0,0 +1,89 @@
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Estrutura de união e busca (conjuntos disjuntos) sem travas, que pode ser
+ * usada por várias threads ao mesmo tempo. A raiz de cada conjunto é sempre o
+ * seu menor elemento: ao unir, a raiz maior passa a apontar para a menor com
+ * compare-and-set, e as buscas encurtam o caminho pela metade.
+ */
+public class UniaoBusca {
+
+    /**
+     * Pai de cada elemento. Raízes apontam para si mesmas
+     */
+    private final AtomicIntegerArray pai;
+
+    /**
+     * Cria n conjuntos unitários
+     * 
+     * @param n Número de elementos
+     */
+    public UniaoBusca(int n) {
+        this.pai = new AtomicIntegerArray(n);
+        for (int i = 0; i < n; i++)
+            this.pai.set(i, i);
+    }
+
+    /**
+     * Retorna a raiz do conjunto do elemento
+     * 
+     * @param x Elemento
+     * @return Raiz (menor elemento) do conjunto
+     */
+    public int encontrar(int x) {
+        int p = this.pai.get(x);
+        while (p != x) {
+            int avo = this.pai.get(p);
+            // Encurtamento pela metade: falhar aqui só deixa de encurtar
+            if (avo != p)
+                this.pai.compareAndSet(x, p, avo);
+            x = avo;
+            p = this.pai.get(x);
+        }
+        return x;
+    }
+
+    /**
+     * Une os conjuntos dos dois elementos
+     * 
+     * @param a Primeiro elemento
+     * @param b Segundo elemento
+     * @return TRUE se os conjuntos eram diferentes e foram unidos
+     */
+    public boolean unir(int a, int b) {
+        while (true) {
+            a = this.encontrar(a);
+            b = this.encontrar(b);
+            if (a == b)
+                return false;
+            if (a < b) {
+                int troca = a;
+                a = b;
+                b = troca;
+            }
+            // a é a raiz maior: só liga se ela ainda for raiz
+            if (this.pai.compareAndSet(a, a, b))
+                return true;
+        }
+    }
+
+    /**
+     * Verifica se os dois elementos estão no mesmo conjunto
+     * 
+     * @param a Primeiro elemento
+     * @param b Segundo elemento
+     * @return TRUE se estiverem no mesmo conjunto
+     */
+    public boolean mesmoConjunto(int a, int b) {
+        while (true) {
+            a = this.encontrar(a);
+            b = this.encontrar(b);
+            if (a == b)
+                return true;
+            // Se a ainda é raiz, não houve união concorrente entre as buscas
+            if (this.pai.get(a) == a)
+                return false;
+        }
+    }
+
+}
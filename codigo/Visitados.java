@@ -0,0 +1,86 @@
+import java.util.Arrays;
+
+/**
+ * Marcação de vértices visitados durante um percurso, mantida fora dos
+ * vértices para que vários percursos possam rodar ao mesmo tempo sobre o mesmo
+ * grafo. Cada vértice é marcado com a época do percurso atual, então iniciar um
+ * novo percurso só incrementa a época, sem limpar o vetor. Cada thread reutiliza
+ * a sua própria instância.
+ */
+public class Visitados implements AutoCloseable {
+
+    /**
+     * Instância reutilizada por cada thread
+     */
+    private static final ThreadLocal<Visitados> LOCAL = ThreadLocal.withInitial(Visitados::new);
+
+    /**
+     * Época em que cada índice foi visitado pela última vez
+     */
+    private int[] marcas = new int[0];
+
+    /**
+     * Época do percurso atual
+     */
+    private int epoca = 0;
+
+    /**
+     * Indica se a instância está sendo usada por um percurso
+     */
+    private boolean emUso = false;
+
+    /**
+     * Inicia um percurso com espaço para a quantidade de índices informada.
+     * Reutiliza a instância da thread atual, a menos que ela já esteja em uso
+     * por um percurso aninhado.
+     * 
+     * @param capacidade Maior índice de vértice + 1
+     * @return O contexto do percurso, sem nenhum vértice visitado
+     */
+    public static Visitados iniciar(int capacidade) {
+        Visitados visitados = LOCAL.get();
+        if (visitados.emUso)
+            visitados = new Visitados();
+        visitados.emUso = true;
+        if (visitados.marcas.length < capacidade)
+            visitados.marcas = new int[Math.max(capacidade, visitados.marcas.length + (visitados.marcas.length >> 1))];
+        if (++visitados.epoca == 0) {
+            // A época deu a volta: só neste caso o vetor precisa ser limpo
+            Arrays.fill(visitados.marcas, 0);
+            visitados.epoca = 1;
+        }
+        return visitados;
+    }
+
+    /**
+     * Verifica se o índice já foi visitado neste percurso
+     * 
+     * @param indice Índice do vértice
+     * @return TRUE se já foi visitado, FALSE caso contrário
+     */
+    public boolean visitado(int indice) {
+        return this.marcas[indice] == this.epoca;
+    }
+
+    /**
+     * Marca o índice como visitado
+     * 
+     * @param indice Índice do vértice
+     * @return TRUE se ele ainda não tinha sido visitado, FALSE caso contrário
+     */
+    public boolean visitar(int indice) {
+        if (this.marcas[indice] == this.epoca)
+            return false;
+        this.marcas[indice] = this.epoca;
+        return true;
+    }
+
+    /**
+     * Libera a instância para o próximo percurso da thread
+     */
+    @Override
+    public void close() {
+        this.emUso = false;
+    }
+
+}
@@ -0,0 +1,20 @@
+/**
+ * Recebe os vértices na ordem em que são visitados por um percurso. Permite
+ * consumir o resultado de uma busca sem montá-lo em memória e interromper a
+ * busca quando o que se procurava for encontrado.
+ */
+@FunctionalInterface
+public interface VisitanteBusca {
+
+    /**
+     * Chamado quando um vértice é visitado
+     * 
+     * @param id    Id do vértice visitado
+     * @param pai   Id do vértice pelo qual ele foi alcançado, ou -1 se ele for
+     *              a raiz de um componente
+     * @param nivel Distância (em arestas) até a raiz na árvore de busca
+     * @return TRUE para continuar a busca, FALSE para interrompê-la
+     */
+    boolean visitar(int id, int pai, int nivel);
+
+}
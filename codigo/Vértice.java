@@ -1,5 +1,5 @@
 import java.util.Collection;
-import java.util.TreeMap;
+import java.util.Collections;
 
 /** 
  * MIT License
@@ -31,9 +31,21 @@ import java.util.TreeMap;
 public class Vértice {
 
     /**
-     * Armazena as arestas do vértice
+     * Armazena as arestas do vértice (as de saída, em grafos direcionados)
      */
-    private TreeMap<Integer, Aresta> arestas;
+    private MapaInt<Aresta> arestas;
+
+    /**
+     * Armazena as arestas que chegam ao vértice em grafos direcionados, com o
+     * destino apontando para a origem. Só é criado na primeira aresta de
+     * entrada, então vértices de grafos não direcionados não o têm.
+     */
+    private MapaInt<Aresta> entrada;
+
+    /**
+     * TRUE se o vértice usa a tabela hash primitiva
+     */
+    private final boolean primitivo;
 
     /**
      * Armazena o ID do vértice
@@ -41,9 +53,17 @@ public class Vértice {
     private final int ID;
 
     /**
-     * Armazena o valor do vértice
+     * Índice denso do vértice dentro do grafo, usado para guardar o estado dos
+     * percursos fora do vértice
      */
-    private boolean visitado = false;
+    private final int indice;
+
+    /**
+     * Época do grafo em que este objeto passou a representar o vértice. Grafos
+     * com instantâneos não alteram objetos de épocas já fotografadas: trocam o
+     * vértice por uma cópia.
+     */
+    private volatile long epoca;
 
     /**
      * Cria um vértice com o ID indicado e sem arestas
@@ -51,22 +71,95 @@ public class Vértice {
      * @param ID Número/ID do vértice a ser criado (atributo final).
      */
     public Vértice(int ID) {
+        this(ID, 0, false);
+    }
+
+    /**
+     * Cria um vértice com o ID indicado e sem arestas, escolhendo o mapa usado
+     * para as arestas
+     * 
+     * @param ID        Número/ID do vértice a ser criado (atributo final).
+     * @param indice    Índice denso do vértice no grafo
+     * @param primitivo TRUE para usar a tabela hash primitiva, FALSE para o
+     *                  TreeMap
+     */
+    public Vértice(int ID, int indice, boolean primitivo) {
         this.ID = ID;
-        this.arestas = new TreeMap<Integer, Aresta>();
+        this.indice = indice;
+        this.primitivo = primitivo;
+        this.arestas = this.novoMapa();
+    }
+
+    /**
+     * Cria um vértice sem mapa de arestas, para subclasses que calculam as
+     * arestas em vez de guardá-las e sobrescrevem os métodos que as leem
+     * 
+     * @param ID     Número/ID do vértice a ser criado (atributo final).
+     * @param indice Índice denso do vértice no grafo
+     */
+    protected Vértice(int ID, int indice) {
+        this.ID = ID;
+        this.indice = indice;
+        this.primitivo = false;
+    }
+
+    /**
+     * Cria um mapa de arestas vazio: o mapa primitivo, que guarda só o destino
+     * e o peso de cada aresta, ou o TreeMap
+     * 
+     * @return O mapa criado
+     */
+    private MapaInt<Aresta> novoMapa() {
+        return this.primitivo ? new MapaArestas() : new MapaIntArvore<Aresta>();
+    }
+
+    /**
+     * Retorna o índice denso do vértice no grafo
+     * 
+     * @return Índice do vértice
+     */
+    public int getIndice() {
+        return this.indice;
+    }
+
+    /**
+     * Retorna a época do grafo em que este objeto passou a representar o
+     * vértice
+     * 
+     * @return Época do vértice
+     */
+    public long getEpoca() {
+        return this.epoca;
     }
 
     /**
-     * Define se o vértice foi visitado ou não
+     * Muda a época do vértice
+     * 
+     * @param epoca Nova época
      */
-    public void setVisitado(boolean visitado) {
-        this.visitado = visitado;
+    public void setEpoca(long epoca) {
+        this.epoca = epoca;
     }
 
     /**
-     * Retorna se o vértice foi visitado ou não
+     * Cria uma cópia do vértice para outra época. As arestas são imutáveis,
+     * então só os mapas são copiados.
+     * 
+     * @param epoca Época da cópia
+     * @return A cópia, com o mesmo id e índice
      */
-    public boolean getVisitado() {
-        return this.visitado;
+    public Vértice copia(long epoca) {
+        Vértice copia = new Vértice(this.ID, this.indice, this.primitivo);
+        copia.epoca = epoca;
+        copia.arestas.reservar(this.arestas.size());
+        for (Aresta a : this.arestas.values())
+            copia.arestas.put(a.destino(), a);
+        if (this.entrada != null) {
+            copia.reservarEntrada(this.entrada.size());
+            for (Aresta a : this.entrada.values())
+                copia.entrada.put(a.destino(), a);
+        }
+        return copia;
     }
 
     /**
@@ -88,29 +181,51 @@ public class Vértice {
     public boolean addAresta(int destino, int peso) {
         boolean result = false;
         if (!this.arestas.containsKey(destino)) {
-            this.arestas.put(destino, new Aresta(peso, destino, true));
+            this.arestas.put(destino, new Aresta(peso, destino));
             result = true;
         }
         return result;
     }
 
     /**
-     * Adiciona uma aresta neste vértice para um próximo vértice
+     * Registra uma aresta que chega a este vértice, em grafos direcionados
      * 
-     * @param peso    Peso da aresta
-     * @param destino Vértice de destino
-     * @param filho   TRUE se a aresta é para um filho, FALSE se é para um pai
+     * @param origem Vértice de origem da aresta
+     * @param peso   Peso da aresta
      * @return TRUE se foi inserida, FALSE caso já existisse e não foi inserida.
      */
-    public boolean addAresta(int destino, int peso, boolean filho) {
+    public boolean addEntrada(int origem, int peso) {
+        if (this.entrada == null)
+            this.entrada = this.novoMapa();
         boolean result = false;
-        if (!this.arestas.containsKey(destino)) {
-            this.arestas.put(destino, new Aresta(peso, destino, filho));
+        if (!this.entrada.containsKey(origem)) {
+            this.entrada.put(origem, new Aresta(peso, origem));
             result = true;
         }
         return result;
     }
 
+    /**
+     * Reserva espaço para mais arestas, usado antes de inserções em lote
+     * 
+     * @param quantidade Número de arestas que ainda serão inseridas
+     */
+    public void reservar(int quantidade) {
+        this.arestas.reservar(quantidade);
+    }
+
+    /**
+     * Reserva espaço para mais arestas de entrada, usado antes de inserções em
+     * lote
+     * 
+     * @param quantidade Número de arestas de entrada que ainda serão inseridas
+     */
+    public void reservarEntrada(int quantidade) {
+        if (this.entrada == null)
+            this.entrada = this.novoMapa();
+        this.entrada.reservar(quantidade);
+    }
+
     /**
      * Retorna a aresta para o destino indicado. Retorna null caso não exista a
      * aresta.
@@ -119,7 +234,7 @@ public class Vértice {
      * @return A aresta, ou null se não existir.
      */
     public Aresta getAresta(int destino) {
-        return this.arestas.containsKey(destino) ? this.arestas.get(destino) : null;
+        return this.arestas.get(destino);
     }
 
     /**
@@ -134,14 +249,53 @@ public class Vértice {
     }
 
     /**
-     * Retorna o grau do vértice (número de arestas)
+     * Retorna a aresta que chega deste vértice a partir da origem indicada
+     * 
+     * @param origem Origem da aresta
+     * @return A aresta de entrada, ou null se não existir.
+     */
+    public Aresta getEntrada(int origem) {
+        return this.entrada == null ? null : this.entrada.get(origem);
+    }
+
+    /**
+     * Remove a aresta que chega a este vértice a partir da origem indicada
+     * 
+     * @param origem Origem da aresta a ser removida.
+     * @return A aresta removida, ou null se não existir.
+     */
+    public Aresta removeEntrada(int origem) {
+        return this.entrada == null ? null : this.entrada.remove(origem);
+    }
+
+    /**
+     * Retorna o grau do vértice: o número de arestas ou, em grafos
+     * direcionados, a soma dos graus de saída e de entrada
      * 
      * @return Número de arestas do vértice
      */
     public int grau() {
+        return this.grauSaida() + this.grauEntrada();
+    }
+
+    /**
+     * Retorna o número de arestas que saem do vértice
+     * 
+     * @return Grau de saída
+     */
+    public int grauSaida() {
         return this.arestas.size();
     }
 
+    /**
+     * Retorna o número de arestas que chegam ao vértice em grafos direcionados
+     * 
+     * @return Grau de entrada
+     */
+    public int grauEntrada() {
+        return this.entrada == null ? 0 : this.entrada.size();
+    }
+
     /**
      * Retorna arestas do vértice em array
      * 
@@ -151,4 +305,32 @@ public class Vértice {
         return this.arestas.values();
     }
 
+    /**
+     * Retorna arestas do vértice em ordem crescente de destino
+     * 
+     * @return Arestas do vértice ordenadas
+     */
+    public Collection<Aresta> getArestasOrdenadas() {
+        return this.arestas.valoresOrdenados();
+    }
+
+    /**
+     * Retorna as arestas que chegam ao vértice, com o destino de cada uma
+     * apontando para a sua origem
+     * 
+     * @return Arestas de entrada do vértice
+     */
+    public Collection<Aresta> getEntradas() {
+        return this.entrada == null ? Collections.emptyList() : this.entrada.values();
+    }
+
+    /**
+     * Retorna as arestas que chegam ao vértice em ordem crescente de origem
+     * 
+     * @return Arestas de entrada do vértice ordenadas
+     */
+    public Collection<Aresta> getEntradasOrdenadas() {
+        return this.entrada == null ? Collections.emptyList() : this.entrada.valoresOrdenados();
+    }
+
 }